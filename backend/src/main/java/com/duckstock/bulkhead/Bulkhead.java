@@ -0,0 +1,254 @@
+package com.duckstock.bulkhead;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+import com.duckstock.deadline.Deadline;
+import com.duckstock.dto.admin.BulkheadStatsResponse;
+import com.duckstock.exception.ServiceUnavailableException;
+
+import io.opentelemetry.api.common.AttributeKey;
+import io.opentelemetry.api.common.Attributes;
+import io.opentelemetry.api.trace.Span;
+import io.opentelemetry.context.Context;
+import io.opentelemetry.context.Scope;
+import io.quarkus.arc.Arc;
+import io.quarkus.arc.ArcContainer;
+import io.quarkus.arc.InjectableContext;
+import io.quarkus.arc.ManagedContext;
+import io.smallrye.mutiny.Uni;
+
+/**
+ * A fixed pool of threads with a bounded queue, dedicated to one kind of work.
+ *
+ * Work that cannot be queued is rejected immediately with a 503 and Retry-After, so one
+ * saturated workload fails fast on its own instead of taking threads, and with them database
+ * connections, away from the others. A task holds at most one connection at a time, so the thread
+ * count is also the bulkhead's connection budget.
+ *
+ * With {@code virtualThreads} there is no pool: every task gets a virtual thread of its own, which
+ * waits on a fair semaphore of {@code threads} permits before running. Queued work is then parked
+ * virtual threads rather than queue entries, but no more than {@code threads} run at once, so they
+ * never need more connections than the budget, and at most that many can be pinned to a carrier.
+ * Admission is capped at {@code threads + queueSize} tasks, as in platform mode.
+ */
+public class Bulkhead {
+
+    private static final AttributeKey<String> BULKHEAD = AttributeKey.stringKey("duckstock.bulkhead");
+    private static final AttributeKey<Long> QUEUED_MICROS = AttributeKey.longKey("duckstock.bulkhead.queued_us");
+
+    private final String name;
+    private final int threads;
+    private final int queueSize;
+    private final long retryAfterSeconds;
+    private final String rejectionMessage;
+    private final boolean virtualThreads;
+    private final ThreadPoolExecutor executor;
+    private final ThreadFactory virtualThreadFactory;
+    private final Semaphore admitted;
+    private final Semaphore running;
+    private final LongAdder completed = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder pinned = new LongAdder();
+    private final LongAdder pinnedNanos = new LongAdder();
+    private volatile boolean shutdown;
+
+    public Bulkhead(String name, int threads, int queueSize, long retryAfterSeconds, String rejectionMessage) {
+        this(name, threads, queueSize, retryAfterSeconds, rejectionMessage, false);
+    }
+
+    /**
+     * @throws IllegalStateException if {@code virtualThreads} is set and the runtime has none
+     */
+    public Bulkhead(String name, int threads, int queueSize, long retryAfterSeconds, String rejectionMessage,
+                    boolean virtualThreads) {
+        this.name = name;
+        this.threads = Math.max(threads, 1);
+        this.queueSize = Math.max(queueSize, 1);
+        this.retryAfterSeconds = retryAfterSeconds;
+        this.rejectionMessage = rejectionMessage;
+        this.virtualThreads = virtualThreads;
+        if (virtualThreads) {
+            this.virtualThreadFactory = virtualThreadFactory(name);
+            if (virtualThreadFactory == null) {
+                throw new IllegalStateException("Virtual threads need Java 21 or later, running on "
+                        + Runtime.version().feature());
+            }
+            this.admitted = new Semaphore(this.threads + this.queueSize);
+            this.running = new Semaphore(this.threads, true);
+            this.executor = null;
+        } else {
+            this.executor = new ThreadPoolExecutor(this.threads, this.threads, 0L, TimeUnit.MILLISECONDS,
+                    new ArrayBlockingQueue<>(this.queueSize), new NamedThreadFactory(name),
+                    new ThreadPoolExecutor.AbortPolicy());
+            this.virtualThreadFactory = null;
+            this.admitted = null;
+            this.running = null;
+        }
+    }
+
+    /**
+     * A factory of virtual threads named {@code <name>-<n>}, or {@code null} before Java 21. Looked up
+     * reflectively because the application is compiled for Java 17.
+     */
+    static ThreadFactory virtualThreadFactory(String name) {
+        try {
+            Object builder = Thread.class.getMethod("ofVirtual").invoke(null);
+            Class<?> builderType = Class.forName("java.lang.Thread$Builder");
+            builder = builderType.getMethod("name", String.class, long.class).invoke(builder, name + "-", 1L);
+            return (ThreadFactory) builderType.getMethod("factory").invoke(builder);
+        } catch (ReflectiveOperationException e) {
+            return null;
+        }
+    }
+
+    public static boolean virtualThreadsSupported() {
+        return virtualThreadFactory("probe") != null;
+    }
+
+    /**
+     * Runs {@code task} on this bulkhead. The caller's request context and {@link Deadline} are
+     * carried over so the task can use request-scoped beans and stop once the client has given up;
+     * a task whose deadline passes while it is queued is not run at all. The trace context is carried
+     * over too, and the time spent queued is recorded as an event on the caller's span.
+     */
+    public <T> Uni<T> submit(Supplier<T> task) {
+        return Uni.createFrom().emitter(emitter -> {
+            Deadline deadline = Deadline.current();
+            Context trace = Context.current();
+            long queuedAt = System.nanoTime();
+            ArcContainer container = Arc.container();
+            ManagedContext requestContext = container != null ? container.requestContext() : null;
+            InjectableContext.ContextState state = requestContext != null && requestContext.isActive()
+                    ? requestContext.getState()
+                    : null;
+
+            try {
+                execute(() -> {
+                    if (state != null) {
+                        requestContext.activate(state);
+                    }
+                    Span span = Span.fromContext(trace);
+                    if (span.isRecording()) {
+                        span.addEvent("dequeued", Attributes.of(BULKHEAD, name,
+                                QUEUED_MICROS, (System.nanoTime() - queuedAt) / 1_000));
+                    }
+                    try (Scope scope = trace.makeCurrent()) {
+                        deadline.check(Deadline.Stage.QUEUE);
+                        emitter.complete(deadline.within(task));
+                    } catch (Throwable failure) {
+                        emitter.fail(deadline.translate(failure));
+                    } finally {
+                        if (state != null) {
+                            requestContext.deactivate();
+                        }
+                    }
+                });
+            } catch (RejectedExecutionException e) {
+                rejected.increment();
+                emitter.fail(new ServiceUnavailableException(rejectionMessage, retryAfterSeconds));
+            }
+        });
+    }
+
+    private void execute(Runnable work) {
+        if (!virtualThreads) {
+            executor.execute(work);
+            return;
+        }
+        if (shutdown || !admitted.tryAcquire()) {
+            throw new RejectedExecutionException(name + " is full");
+        }
+        try {
+            virtualThreadFactory.newThread(() -> {
+                try {
+                    running.acquireUninterruptibly();
+                    try {
+                        work.run();
+                    } finally {
+                        running.release();
+                        completed.increment();
+                    }
+                } finally {
+                    admitted.release();
+                }
+            }).start();
+        } catch (RuntimeException | Error e) {
+            admitted.release();
+            throw e;
+        }
+    }
+
+    /**
+     * Records that one of this bulkhead's virtual threads held its carrier while blocked.
+     */
+    void pinned(long nanos) {
+        pinned.increment();
+        pinnedNanos.add(nanos);
+    }
+
+    public String name() {
+        return name;
+    }
+
+    public int threads() {
+        return threads;
+    }
+
+    public boolean virtualThreads() {
+        return virtualThreads;
+    }
+
+    public int activeThreads() {
+        return virtualThreads ? threads - running.availablePermits() : executor.getActiveCount();
+    }
+
+    public int queueDepth() {
+        return virtualThreads ? running.getQueueLength() : executor.getQueue().size();
+    }
+
+    public long rejectedCount() {
+        return rejected.sum();
+    }
+
+    public long pinnedCount() {
+        return pinned.sum();
+    }
+
+    public BulkheadStatsResponse stats() {
+        long completedTasks = virtualThreads ? completed.sum() : executor.getCompletedTaskCount();
+        return new BulkheadStatsResponse(name, virtualThreads ? "virtual" : "platform", threads,
+                activeThreads(), queueDepth(), queueSize, completedTasks, rejected.sum(),
+                pinned.sum(), pinnedNanos.sum() / 1_000_000);
+    }
+
+    public void shutdown() {
+        shutdown = true;
+        if (executor != null) {
+            executor.shutdown();
+        }
+    }
+
+    private static final class NamedThreadFactory implements ThreadFactory {
+        private final String prefix;
+        private final AtomicInteger counter = new AtomicInteger();
+
+        NamedThreadFactory(String prefix) {
+            this.prefix = prefix;
+        }
+
+        @Override
+        public Thread newThread(Runnable runnable) {
+            Thread thread = new Thread(runnable, prefix + "-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+}
@@ -0,0 +1,167 @@
+package com.duckstock.bulkhead;
+
+import java.time.Duration;
+import java.util.List;
+
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.jboss.logging.Logger;
+
+import com.duckstock.dto.admin.BulkheadStatsResponse;
+import com.duckstock.security.PasswordHashingExecutor;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+
+/**
+ * The bulkheads for catalog reads, catalog writes and production planning. Authentication runs on
+ * the {@link PasswordHashingExecutor} pool, which is the fourth bulkhead.
+ *
+ * Heavy planning requests can then only ever hold {@code planning.threads} threads and database
+ * connections, and a queue of their own, while product and raw material reads keep theirs.
+ *
+ * {@code duckstock.bulkhead.thread-mode=virtual} runs these bulkheads on virtual threads (Java 21+),
+ * and measures how often they get pinned to their carrier. Password hashing stays on platform
+ * threads because hashing is CPU-bound; login also looks the user up on that pool, so its threads
+ * count towards the connection budget like the others.
+ *
+ * Virtual threads are cheap, so nothing else stops their permits from outgrowing the connection
+ * pool, and the surplus would only wait for connections inside Agroal instead of in the bulkhead.
+ * In virtual mode the permits are therefore cut down to what the pool can serve once the hashing
+ * threads are counted, planning and writes first, and startup fails if not even one each fits.
+ */
+@ApplicationScoped
+public class Bulkheads {
+
+    private static final Logger LOG = Logger.getLogger(Bulkheads.class);
+
+    @ConfigProperty(name = "duckstock.bulkhead.reads.threads", defaultValue = "8")
+    int readThreads;
+
+    @ConfigProperty(name = "duckstock.bulkhead.reads.queue-size", defaultValue = "256")
+    int readQueueSize;
+
+    @ConfigProperty(name = "duckstock.bulkhead.writes.threads", defaultValue = "4")
+    int writeThreads;
+
+    @ConfigProperty(name = "duckstock.bulkhead.writes.queue-size", defaultValue = "64")
+    int writeQueueSize;
+
+    @ConfigProperty(name = "duckstock.bulkhead.planning.threads", defaultValue = "2")
+    int planningThreads;
+
+    @ConfigProperty(name = "duckstock.bulkhead.planning.queue-size", defaultValue = "16")
+    int planningQueueSize;
+
+    @ConfigProperty(name = "duckstock.bulkhead.thread-mode", defaultValue = "platform")
+    String threadMode;
+
+    @ConfigProperty(name = "duckstock.bulkhead.pinned-threshold-millis", defaultValue = "20")
+    long pinnedThresholdMillis;
+
+    @ConfigProperty(name = "duckstock.bulkhead.retry-after-seconds", defaultValue = "1")
+    long retryAfterSeconds;
+
+    @ConfigProperty(name = "quarkus.datasource.jdbc.max-size", defaultValue = "20")
+    int connectionPoolSize;
+
+    @Inject
+    PasswordHashingExecutor hashingExecutor;
+
+    private Bulkhead reads;
+    private Bulkhead writes;
+    private Bulkhead planning;
+    private PinnedThreadMonitor pinnedThreads;
+
+    // Threads or, in virtual mode, permits per bulkhead.
+    record Permits(int reads, int writes, int planning) {}
+
+    @PostConstruct
+    void start() {
+        boolean virtual = useVirtualThreads();
+        int hashingThreads = hashingExecutor.bulkhead().threads();
+        Permits permits = virtual
+                ? fitToPool(connectionPoolSize - hashingThreads, readThreads, writeThreads, planningThreads)
+                : new Permits(readThreads, writeThreads, planningThreads);
+        reads = new Bulkhead("bulkhead-reads", permits.reads(), readQueueSize, retryAfterSeconds,
+                "Too many reads in progress, please retry", virtual);
+        writes = new Bulkhead("bulkhead-writes", permits.writes(), writeQueueSize, retryAfterSeconds,
+                "Too many updates in progress, please retry", virtual);
+        planning = new Bulkhead("bulkhead-planning", permits.planning(), planningQueueSize, retryAfterSeconds,
+                "Too many production plans in progress, please retry", virtual);
+
+        int budget = reads.threads() + writes.threads() + planning.threads() + hashingThreads;
+        if (budget > connectionPoolSize) {
+            // Bulkheads would then wait on each other for connections, which is what they are meant to prevent.
+            LOG.warnf("Bulkheads may use %d connections but the pool only has %d (quarkus.datasource.jdbc.max-size)",
+                    budget, connectionPoolSize);
+        }
+        if (virtual) {
+            if (reads.threads() < readThreads || writes.threads() < writeThreads || planning.threads() < planningThreads) {
+                LOG.warnf("Virtual bulkheads cut to %d reads, %d writes and %d planning permits to fit %d connections "
+                        + "(quarkus.datasource.jdbc.max-size) next to %d hashing threads",
+                        reads.threads(), writes.threads(), planning.threads(), connectionPoolSize, hashingThreads);
+            }
+            pinnedThreads = new PinnedThreadMonitor(List.of(reads, writes, planning));
+            pinnedThreads.start(Duration.ofMillis(pinnedThresholdMillis));
+        }
+    }
+
+    /**
+     * Permits that fit in {@code connections}, taken by planning, then writes, then reads.
+     *
+     * @throws IllegalStateException if the connections cannot give each bulkhead one permit
+     */
+    static Permits fitToPool(int connections, int reads, int writes, int planning) {
+        if (connections < 3) {
+            throw new IllegalStateException("Virtual bulkheads need at least 3 connections besides password hashing, "
+                    + "but quarkus.datasource.jdbc.max-size leaves " + connections);
+        }
+        int planningPermits = Math.min(Math.max(planning, 1), connections - 2);
+        int writePermits = Math.min(Math.max(writes, 1), connections - planningPermits - 1);
+        int readPermits = Math.min(Math.max(reads, 1), connections - planningPermits - writePermits);
+        return new Permits(readPermits, writePermits, planningPermits);
+    }
+
+    private boolean useVirtualThreads() {
+        if (!"virtual".equalsIgnoreCase(threadMode.trim())) {
+            return false;
+        }
+        if (!Bulkhead.virtualThreadsSupported()) {
+            LOG.warn("duckstock.bulkhead.thread-mode=virtual needs Java 21 or later; using platform threads");
+            return false;
+        }
+        return true;
+    }
+
+    @PreDestroy
+    void stop() {
+        if (pinnedThreads != null) {
+            pinnedThreads.close();
+        }
+        reads.shutdown();
+        writes.shutdown();
+        planning.shutdown();
+    }
+
+    public Bulkhead reads() {
+        return reads;
+    }
+
+    public Bulkhead writes() {
+        return writes;
+    }
+
+    public Bulkhead planning() {
+        return planning;
+    }
+
+    public List<Bulkhead> all() {
+        return List.of(hashingExecutor.bulkhead(), reads, writes, planning);
+    }
+
+    public List<BulkheadStatsResponse> stats() {
+        return all().stream().map(Bulkhead::stats).toList();
+    }
+}
@@ -0,0 +1,95 @@
+package com.duckstock.bulkhead;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.jboss.logging.Logger;
+
+import jdk.jfr.FlightRecorder;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordedStackTrace;
+import jdk.jfr.consumer.RecordedThread;
+import jdk.jfr.consumer.RecordingStream;
+
+/**
+ * Counts how often, and for how long, a bulkhead's virtual thread blocked while pinned to its
+ * carrier, from the JDK's {@code jdk.VirtualThreadPinned} Flight Recorder event. Each place where
+ * pinning happens is logged once, with the first frame outside the JDK: usually a
+ * {@code synchronized} block in the JDBC driver or Hibernate.
+ */
+final class PinnedThreadMonitor implements AutoCloseable {
+
+    private static final Logger LOG = Logger.getLogger(PinnedThreadMonitor.class);
+
+    static final String EVENT = "jdk.VirtualThreadPinned";
+    private static final int MAX_REPORTED_LOCATIONS = 100;
+
+    private final List<Bulkhead> bulkheads;
+    private final Set<String> reported = ConcurrentHashMap.newKeySet();
+    private RecordingStream stream;
+
+    PinnedThreadMonitor(List<Bulkhead> bulkheads) {
+        this.bulkheads = bulkheads;
+    }
+
+    void start(Duration threshold) {
+        if (!FlightRecorder.isAvailable()) {
+            LOG.warn("Flight Recorder is not available; virtual thread pinning will not be measured");
+            return;
+        }
+        try {
+            stream = new RecordingStream();
+            stream.enable(EVENT).withThreshold(threshold).withStackTrace();
+            stream.onEvent(EVENT, this::onPinned);
+            stream.startAsync();
+        } catch (RuntimeException e) {
+            LOG.warnf(e, "Could not start measuring virtual thread pinning");
+            stream = null;
+        }
+    }
+
+    private void onPinned(RecordedEvent event) {
+        RecordedThread thread = event.getThread("eventThread");
+        pinned(thread != null ? thread.getJavaName() : null, event.getDuration().toNanos(),
+                location(event.getStackTrace()));
+    }
+
+    void pinned(String threadName, long nanos, String location) {
+        if (threadName == null) {
+            return;
+        }
+        for (Bulkhead bulkhead : bulkheads) {
+            if (threadName.startsWith(bulkhead.name() + "-")) {
+                bulkhead.pinned(nanos);
+                if (location != null && reported.size() < MAX_REPORTED_LOCATIONS && reported.add(location)) {
+                    LOG.warnf("A %s virtual thread was pinned to its carrier for %d ms at %s", bulkhead.name(),
+                            nanos / 1_000_000, location);
+                }
+                return;
+            }
+        }
+    }
+
+    private static String location(RecordedStackTrace stackTrace) {
+        if (stackTrace == null) {
+            return null;
+        }
+        for (RecordedFrame frame : stackTrace.getFrames()) {
+            String type = frame.getMethod().getType().getName();
+            if (!type.startsWith("java.") && !type.startsWith("jdk.") && !type.startsWith("sun.")) {
+                return type + "." + frame.getMethod().getName() + ":" + frame.getLineNumber();
+            }
+        }
+        return null;
+    }
+
+    @Override
+    public void close() {
+        if (stream != null) {
+            stream.close();
+        }
+    }
+}
@@ -0,0 +1,81 @@
+package com.duckstock.cache;
+
+import java.util.List;
+
+import io.quarkus.vertx.http.runtime.security.QuarkusHttpUser;
+import io.vertx.core.http.HttpHeaders;
+import io.vertx.core.http.HttpServerResponse;
+import io.vertx.ext.web.Router;
+import io.vertx.ext.web.RoutingContext;
+import jakarta.annotation.PostConstruct;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+
+/**
+ * Serves {@link ResponseCache} hits straight from the Vert.x router, before the request is
+ * dispatched to a resource. Misses fall through and are filled by the resource.
+ */
+@ApplicationScoped
+public class CachedResponseHandler {
+
+    // The GET endpoints that fill the response cache; nothing else can hit it.
+    static final List<String> CACHED_PATHS = List.of(
+            "/products", "/raw-materials", "/raw-materials/all", "/production/suggestions");
+
+    @Inject
+    Router router;
+
+    @Inject
+    ResponseCache responseCache;
+
+    @PostConstruct
+    void register() {
+        // After rate limiting (order 10) and authentication.
+        for (String path : CACHED_PATHS) {
+            router.get(path).order(20).handler(this::handle);
+        }
+    }
+
+    void handle(RoutingContext routingContext) {
+        if (!(routingContext.user() instanceof QuarkusHttpUser user)) {
+            routingContext.next();
+            return;
+        }
+
+        String key = ResponseCache.key(routingContext.request().path(), routingContext.request().query(),
+                user.getSecurityIdentity());
+        ResponseCache.CachedResponse cached = responseCache.lookup(key);
+        if (cached == null) {
+            routingContext.next();
+            return;
+        }
+
+        String etag = cached.etag().toString();
+        HttpServerResponse response = routingContext.response()
+                .putHeader(HttpHeaders.ETAG, etag)
+                .putHeader(HttpHeaders.CACHE_CONTROL, "private, no-cache");
+        if (matches(routingContext.request().getHeader(HttpHeaders.IF_NONE_MATCH), etag)) {
+            response.setStatusCode(304).end();
+            return;
+        }
+        response.putHeader(HttpHeaders.CONTENT_TYPE, "application/json;charset=UTF-8")
+                .end(cached.body());
+    }
+
+    // If-None-Match uses weak comparison and may list several tags.
+    static boolean matches(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null) {
+            return false;
+        }
+        for (String candidate : ifNoneMatch.split(",")) {
+            String tag = candidate.trim();
+            if (tag.startsWith("W/")) {
+                tag = tag.substring(2);
+            }
+            if (tag.equals("*") || tag.equals(etag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,35 @@
+package com.duckstock.cache;
+
+import org.hibernate.SessionFactory;
+import org.jboss.logging.Logger;
+
+import com.duckstock.event.CatalogChange;
+import com.duckstock.event.ChangeType;
+
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.enterprise.event.TransactionPhase;
+import jakarta.inject.Inject;
+
+/**
+ * Clears the Hibernate second-level and query caches after a catalog reset.
+ *
+ * Bulk HQL deletes already invalidate the regions they touch, but a reseed replaces the whole
+ * catalog, so everything is dropped once the transaction has committed rather than trusting
+ * region-by-region invalidation.
+ */
+@ApplicationScoped
+public class EntityCacheInvalidator {
+
+    private static final Logger LOG = Logger.getLogger(EntityCacheInvalidator.class);
+
+    @Inject
+    SessionFactory sessionFactory;
+
+    void onCatalogChange(@Observes(during = TransactionPhase.AFTER_SUCCESS) CatalogChange change) {
+        if (change.type() == ChangeType.RESET) {
+            sessionFactory.getCache().evictAllRegions();
+            LOG.debug("Evicted second-level and query caches after catalog reset");
+        }
+    }
+}
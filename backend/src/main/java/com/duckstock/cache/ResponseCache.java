@@ -0,0 +1,196 @@
+package com.duckstock.cache;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+import com.duckstock.dto.admin.CacheStatsResponse;
+import com.duckstock.event.CatalogChange;
+import com.duckstock.event.ChangeType;
+import com.duckstock.event.EntityKind;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+import com.github.benmanes.caffeine.cache.Ticker;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+
+import io.quarkus.security.identity.SecurityIdentity;
+import io.quarkus.vertx.http.runtime.CurrentVertxRequest;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.http.HttpServerRequest;
+import jakarta.annotation.PostConstruct;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.enterprise.event.TransactionPhase;
+import jakarta.inject.Inject;
+import jakarta.ws.rs.core.EntityTag;
+
+/**
+ * Serialized JSON responses for hot read endpoints, keyed by path, query and role.
+ *
+ * Entries remember the table versions they were built from. Writes evict dependent entries
+ * eagerly, and a lookup that finds an entry older than its tables drops it, so a response
+ * rendered concurrently with a write is never served after the write commits. Keys are indexed
+ * by table, so a write only touches the entries that depend on it. Size is bounded in bytes;
+ * Caffeine's W-TinyLFU policy decides what to evict.
+ *
+ * Table versions only see writes made on this instance, so entries also expire
+ * {@code expire-after-write-seconds} after they were filled. That bounds how long a write on
+ * another replica can go unseen here.
+ */
+@ApplicationScoped
+public class ResponseCache {
+
+    @ConfigProperty(name = "duckstock.response-cache.enabled", defaultValue = "true")
+    boolean enabled;
+
+    @ConfigProperty(name = "duckstock.response-cache.max-bytes", defaultValue = "33554432")
+    long maxBytes;
+
+    @ConfigProperty(name = "duckstock.response-cache.expire-after-write-seconds", defaultValue = "5")
+    long expireAfterWriteSeconds;
+
+    Ticker ticker = Ticker.systemTicker();
+
+    @Inject
+    TableVersions tableVersions;
+
+    @Inject
+    ObjectMapper objectMapper;
+
+    @Inject
+    CurrentVertxRequest currentRequest;
+
+    @Inject
+    SecurityIdentity identity;
+
+    // The body is copied into a Vert.x buffer once; every hit writes a slice of it.
+    public record CachedResponse(Buffer body, EntityTag etag, EntityKind[] tables) {}
+
+    private Cache<String, CachedResponse> cache;
+    private final Map<EntityKind, Set<String>> keysByTable = new EnumMap<>(EntityKind.class);
+
+    @PostConstruct
+    void init() {
+        for (EntityKind kind : EntityKind.values()) {
+            keysByTable.put(kind, ConcurrentHashMap.newKeySet());
+        }
+        Caffeine<String, CachedResponse> builder = Caffeine.newBuilder()
+                .maximumWeight(Math.max(maxBytes, 1))
+                .weigher((String key, CachedResponse value) -> key.length() + value.body().length())
+                .executor(Runnable::run)
+                .ticker(ticker)
+                .removalListener(this::unindex)
+                .recordStats();
+        if (expireAfterWriteSeconds > 0) {
+            builder.expireAfterWrite(Duration.ofSeconds(expireAfterWriteSeconds));
+        }
+        cache = builder.build();
+    }
+
+    // A stale index entry only costs a no-op invalidation, so a key put again concurrently is kept.
+    private void unindex(String key, CachedResponse value, RemovalCause cause) {
+        if (cause == RemovalCause.REPLACED || key == null || value == null || cache.asMap().containsKey(key)) {
+            return;
+        }
+        for (EntityKind table : value.tables()) {
+            keysByTable.get(table).remove(key);
+        }
+    }
+
+    /**
+     * Cache key for an authenticated request, or {@code null} when the caller has no catalog role.
+     */
+    public static String key(String path, String query, SecurityIdentity identity) {
+        if (identity == null || identity.isAnonymous()) {
+            return null;
+        }
+        String role;
+        if (identity.hasRole("ADMIN")) {
+            role = "ADMIN";
+        } else if (identity.hasRole("USER")) {
+            role = "USER";
+        } else {
+            return null;
+        }
+        return role + ' ' + path + (query == null || query.isEmpty() ? "" : "?" + query);
+    }
+
+    public String currentKey() {
+        HttpServerRequest request = currentRequest.getCurrent().request();
+        return key(request.path(), request.query(), identity);
+    }
+
+    public EntityTag tag(EntityKind... tables) {
+        return tableVersions.tag(tables);
+    }
+
+    public CachedResponse lookup(String key) {
+        if (!enabled || key == null) {
+            return null;
+        }
+        CachedResponse cached = cache.getIfPresent(key);
+        if (cached != null && !cached.etag().equals(tableVersions.tag(cached.tables()))) {
+            cache.invalidate(key);
+            return null;
+        }
+        return cached;
+    }
+
+    /**
+     * Serializes {@code body} and caches it under {@code key} if none of {@code tables} changed
+     * since {@code tag} was taken.
+     */
+    public byte[] fill(String key, EntityTag tag, EntityKind[] tables, Object body) {
+        byte[] json;
+        try {
+            json = objectMapper.writeValueAsBytes(body);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Failed to serialize response", e);
+        }
+
+        if (enabled && key != null && tag.equals(tableVersions.tag(tables))) {
+            for (EntityKind table : tables) {
+                keysByTable.get(table).add(key);
+            }
+            cache.put(key, new CachedResponse(Buffer.buffer(json), tag, tables.clone()));
+        }
+        return json;
+    }
+
+    void onWrite(@Observes CatalogChange change) {
+        evict(change);
+    }
+
+    void afterWrite(@Observes(during = TransactionPhase.AFTER_COMPLETION) CatalogChange change) {
+        // Drops entries filled while the writing transaction was still open.
+        evict(change);
+    }
+
+    void evict(CatalogChange change) {
+        if (change.type() == ChangeType.RESET) {
+            cache.invalidateAll();
+            return;
+        }
+        Set<String> keys = keysByTable.get(change.kind());
+        if (!keys.isEmpty()) {
+            cache.invalidateAll(List.copyOf(keys));
+        }
+    }
+
+    public CacheStatsResponse stats() {
+        CacheStats stats = cache.stats();
+        Long weightedSize = cache.policy().eviction()
+                .map(eviction -> eviction.weightedSize().orElse(0L))
+                .orElse(null);
+        return new CacheStatsResponse("responses", cache.estimatedSize(), stats.hitCount(), stats.missCount(),
+                stats.hitRate(), stats.evictionCount(), weightedSize, maxBytes);
+    }
+}
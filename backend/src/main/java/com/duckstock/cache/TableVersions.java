@@ -0,0 +1,76 @@
+package com.duckstock.cache;
+
+import java.security.SecureRandom;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.LongSupplier;
+
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+import com.duckstock.event.CatalogChange;
+import com.duckstock.event.ChangeType;
+import com.duckstock.event.EntityKind;
+
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.enterprise.event.TransactionPhase;
+import jakarta.ws.rs.core.EntityTag;
+
+/**
+ * In-memory version counter per catalog table, bumped on every write.
+ *
+ * Counters are bumped once inside the writing transaction and again after it completes, so a
+ * response read while the write was in flight can never carry the version that follows it.
+ * Tags include a per-process epoch: counters restart at zero, and a tag issued by another
+ * replica or a previous run must not match by accident.
+ *
+ * Counters only see writes made on this instance. Tags therefore also carry the current
+ * {@code expire-after-write-seconds} window of the response cache, so a tag, and every cached
+ * response built under it, goes stale within that window after a write on another replica.
+ */
+@ApplicationScoped
+public class TableVersions {
+
+    private final String epoch = Long.toString(new SecureRandom().nextLong() & Long.MAX_VALUE, 36);
+    private final AtomicLongArray versions = new AtomicLongArray(EntityKind.values().length);
+
+    @ConfigProperty(name = "duckstock.response-cache.expire-after-write-seconds", defaultValue = "5")
+    long windowSeconds;
+
+    LongSupplier clock = System::currentTimeMillis;
+
+    void onWrite(@Observes CatalogChange change) {
+        bump(change);
+    }
+
+    void afterWrite(@Observes(during = TransactionPhase.AFTER_COMPLETION) CatalogChange change) {
+        bump(change);
+    }
+
+    public long version(EntityKind kind) {
+        return versions.get(kind.ordinal());
+    }
+
+    /**
+     * Strong entity tag for a response built from the given tables.
+     */
+    public EntityTag tag(EntityKind... tables) {
+        StringBuilder value = new StringBuilder(epoch);
+        if (windowSeconds > 0) {
+            value.append('.').append(Long.toString(clock.getAsLong() / (windowSeconds * 1000), 36));
+        }
+        for (EntityKind table : tables) {
+            value.append('-').append(versions.get(table.ordinal()));
+        }
+        return new EntityTag(value.toString());
+    }
+
+    void bump(CatalogChange change) {
+        if (change.type() == ChangeType.RESET) {
+            for (int i = 0; i < versions.length(); i++) {
+                versions.incrementAndGet(i);
+            }
+            return;
+        }
+        versions.incrementAndGet(change.kind().ordinal());
+    }
+}
@@ -0,0 +1,115 @@
+package com.duckstock.cache;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+import com.duckstock.dto.admin.CacheStatsResponse;
+import com.duckstock.entity.User;
+import com.duckstock.event.UserChange;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.enterprise.event.TransactionPhase;
+
+/**
+ * Short-lived snapshots of users by email for authenticated lookups ({@code /auth/me},
+ * {@code /auth/refresh}).
+ *
+ * Every entry is stamped with the version of its email, taken when its database read started, and
+ * a change to a user bumps that version both inside the writing transaction and after it completes.
+ * An entry whose read may have overlapped a change is therefore never served, however the load and
+ * the change interleave. Versions are kept in a fixed number of stripes rather than per email, so a
+ * change only invalidates the users that share its stripe, and memory stays bounded.
+ */
+@ApplicationScoped
+public class UserCache {
+
+    @ConfigProperty(name = "duckstock.auth.user-cache.ttl-seconds", defaultValue = "60")
+    long ttlSeconds;
+
+    @ConfigProperty(name = "duckstock.auth.user-cache.max-size", defaultValue = "10000")
+    long maxSize;
+
+    public record CachedUser(Long id, String name, String email, String role) {
+
+        static CachedUser of(User user) {
+            return new CachedUser(user.id, user.name, user.email, user.role);
+        }
+    }
+
+    private record Entry(CachedUser user, long version) {}
+
+    private static final int STRIPES = 1024;
+
+    private final AtomicLongArray versions = new AtomicLongArray(STRIPES);
+    private Cache<String, Entry> cache;
+
+    @PostConstruct
+    void init() {
+        cache = Caffeine.newBuilder()
+                .maximumSize(Math.max(maxSize, 1))
+                .expireAfterWrite(Duration.ofSeconds(Math.max(ttlSeconds, 1)))
+                .recordStats()
+                .build();
+    }
+
+    /**
+     * The user with {@code email}, or {@code null} if there is none. Missing users are not cached.
+     */
+    public CachedUser findByEmail(String email) {
+        if (email == null) {
+            return null;
+        }
+        int stripe = stripe(email);
+        long current = versions.get(stripe);
+        Entry entry = cache.getIfPresent(email);
+        if (entry != null && entry.version() == current) {
+            return entry.user();
+        }
+
+        User user = User.findByEmail(email);
+        if (user == null) {
+            return null;
+        }
+        CachedUser snapshot = CachedUser.of(user);
+        cache.put(email, new Entry(snapshot, current));
+        return snapshot;
+    }
+
+    void onChange(@Observes UserChange change) {
+        invalidate(change);
+    }
+
+    void afterChange(@Observes(during = TransactionPhase.AFTER_COMPLETION) UserChange change) {
+        invalidate(change);
+    }
+
+    void invalidate(UserChange change) {
+        if (change.email() == null) {
+            for (int i = 0; i < STRIPES; i++) {
+                versions.incrementAndGet(i);
+            }
+            cache.invalidateAll();
+        } else {
+            versions.incrementAndGet(stripe(change.email()));
+            cache.invalidate(change.email());
+        }
+    }
+
+    private static int stripe(String email) {
+        int hash = email.hashCode();
+        return (hash ^ (hash >>> 16)) & (STRIPES - 1);
+    }
+
+    public CacheStatsResponse stats() {
+        CacheStats stats = cache.stats();
+        return new CacheStatsResponse("users", cache.estimatedSize(), stats.hitCount(), stats.missCount(),
+                stats.hitRate(), stats.evictionCount(), null, maxSize);
+    }
+}
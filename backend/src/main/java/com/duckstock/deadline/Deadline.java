@@ -0,0 +1,143 @@
+package com.duckstock.deadline;
+
+import java.sql.SQLException;
+import java.util.function.Supplier;
+
+import com.duckstock.exception.DeadlineExceededException;
+
+import io.smallrye.common.vertx.ContextLocals;
+import io.smallrye.common.vertx.VertxContext;
+
+/**
+ * The point in time after which the client no longer waits for a response.
+ *
+ * {@link DeadlineFilter} attaches one to each request. Work checks it at its cancellation points
+ * (before leaving a bulkhead queue, before and during queries, and inside long computations) and
+ * stops with a {@link DeadlineExceededException} once it has passed, instead of producing a
+ * response nobody will read.
+ */
+public final class Deadline {
+
+    /** Where work was when the deadline was found to have passed. */
+    public enum Stage {
+        QUEUE,
+        QUERY,
+        COMPUTATION
+    }
+
+    /** A deadline that never expires, for requests without one. */
+    public static final Deadline NONE = new Deadline(0, null);
+
+    static final String KEY = Deadline.class.getName();
+
+    // Set while a bulkhead runs a task, which is off the request's Vert.x context.
+    private static final ThreadLocal<Deadline> ON_THREAD = new ThreadLocal<>();
+
+    // PostgreSQL's query_canceled, raised when a statement timeout cancels a query.
+    private static final String QUERY_CANCELED = "57014";
+
+    private final long expiresAtNanos;
+    private final DeadlineStats stats;
+
+    private Deadline(long expiresAtNanos, DeadlineStats stats) {
+        this.expiresAtNanos = expiresAtNanos;
+        this.stats = stats;
+    }
+
+    public static Deadline after(long timeoutMillis, DeadlineStats stats) {
+        return new Deadline(System.nanoTime() + timeoutMillis * 1_000_000, stats);
+    }
+
+    /**
+     * The deadline of the request being handled, or {@link #NONE}. Available on the request's
+     * event loop and inside {@link #within} on bulkhead threads.
+     */
+    public static Deadline current() {
+        Deadline deadline = ON_THREAD.get();
+        if (deadline == null && VertxContext.isOnDuplicatedContext()) {
+            deadline = ContextLocals.<Deadline>get(KEY).orElse(null);
+        }
+        return deadline != null ? deadline : NONE;
+    }
+
+    public boolean isSet() {
+        return stats != null;
+    }
+
+    public boolean isExpired() {
+        return isSet() && expiresAtNanos - System.nanoTime() <= 0;
+    }
+
+    public long remainingMillis() {
+        return isSet() ? Math.max((expiresAtNanos - System.nanoTime()) / 1_000_000, 0) : Long.MAX_VALUE;
+    }
+
+    /**
+     * The remaining time as a JDBC query timeout, which has whole-second granularity: rounded up,
+     * and at least one second. Sub-second precision is left to {@link #check}.
+     */
+    public int queryTimeoutSeconds() {
+        return (int) Math.min(Math.max((remainingMillis() + 999) / 1000, 1), Integer.MAX_VALUE);
+    }
+
+    public void check(Stage stage) {
+        check(stage, 0);
+    }
+
+    /**
+     * A cancellation point.
+     *
+     * @param skippedWork units of work that will not be done if the deadline has passed, for
+     *                    reporting how much cancelling saved
+     * @throws DeadlineExceededException if the deadline has passed
+     */
+    public void check(Stage stage, long skippedWork) {
+        if (isExpired()) {
+            throw exceeded(stage, skippedWork);
+        }
+    }
+
+    public DeadlineExceededException exceeded(Stage stage, long skippedWork) {
+        if (stats != null) {
+            stats.expired(stage, skippedWork);
+        }
+        return new DeadlineExceededException(stage);
+    }
+
+    /**
+     * Reports a query cancelled by the timeout this deadline set as the deadline being exceeded;
+     * other failures are returned unchanged.
+     */
+    public Throwable translate(Throwable failure) {
+        if (isSet() && !(failure instanceof DeadlineExceededException) && isQueryCancellation(failure)) {
+            return exceeded(Stage.QUERY, 0);
+        }
+        return failure;
+    }
+
+    /**
+     * Runs {@code task} with this deadline as the thread's {@link #current} one.
+     */
+    public <T> T within(Supplier<T> task) {
+        Deadline previous = ON_THREAD.get();
+        ON_THREAD.set(this);
+        try {
+            return task.get();
+        } finally {
+            if (previous != null) {
+                ON_THREAD.set(previous);
+            } else {
+                ON_THREAD.remove();
+            }
+        }
+    }
+
+    static boolean isQueryCancellation(Throwable failure) {
+        for (Throwable cause = failure; cause != null; cause = cause.getCause() == cause ? null : cause.getCause()) {
+            if (cause instanceof SQLException sql && QUERY_CANCELED.equals(sql.getSQLState())) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,89 @@
+package com.duckstock.deadline;
+
+import java.util.List;
+
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+import com.duckstock.dto.admin.DeadlineStatsResponse;
+import com.duckstock.ratelimit.RouteCosts;
+
+import io.smallrye.common.vertx.ContextLocals;
+import io.smallrye.common.vertx.VertxContext;
+import io.vertx.core.http.HttpServerRequest;
+import io.vertx.ext.web.Router;
+import io.vertx.ext.web.RoutingContext;
+import jakarta.annotation.PostConstruct;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+
+/**
+ * Gives each request a {@link Deadline}: the timeout the client sends in the configured header
+ * (milliseconds, capped at {@code max-millis}), or else its route's default from
+ * {@code duckstock.deadline.route-timeouts}. A timeout of 0 means no deadline.
+ *
+ * The deadline starts when the request arrives, so time spent queued in a bulkhead counts against
+ * it, and is kept in the request's Vert.x context for {@link Deadline#current()}.
+ */
+@ApplicationScoped
+public class DeadlineFilter {
+
+    @ConfigProperty(name = "duckstock.deadline.enabled", defaultValue = "true")
+    boolean enabled;
+
+    @ConfigProperty(name = "duckstock.deadline.header", defaultValue = "X-Request-Timeout")
+    String header;
+
+    @ConfigProperty(name = "duckstock.deadline.max-millis", defaultValue = "60000")
+    long maxMillis;
+
+    @ConfigProperty(name = "duckstock.deadline.route-timeouts",
+            defaultValue = "* /=30000,GET /production/suggestions=10000,GET /reactive/production/suggestions=10000,GET /changes/stream=0")
+    List<String> routeTimeoutEntries;
+
+    @Inject
+    Router router;
+
+    private final DeadlineStats stats = new DeadlineStats();
+    private RouteCosts routeTimeouts;
+
+    @PostConstruct
+    void register() {
+        routeTimeouts = RouteCosts.parse(routeTimeoutEntries, "route timeout", 0);
+
+        // Before everything else (rate limiting is order 10), so the deadline covers all of the request.
+        router.route().order(5).handler(this::handle);
+    }
+
+    void handle(RoutingContext routingContext) {
+        HttpServerRequest request = routingContext.request();
+        long timeoutMillis = enabled ? timeoutOf(request) : 0;
+        if (timeoutMillis > 0 && VertxContext.isOnDuplicatedContext()) {
+            stats.started();
+            ContextLocals.put(Deadline.KEY, Deadline.after(timeoutMillis, stats));
+        }
+        routingContext.next();
+    }
+
+    private long timeoutOf(HttpServerRequest request) {
+        String requested = request.getHeader(header);
+        if (requested != null) {
+            try {
+                long millis = Long.parseLong(requested.trim());
+                if (millis > 0) {
+                    return Math.min(millis, maxMillis);
+                }
+            } catch (NumberFormatException e) {
+                // Ignored: the route default applies.
+            }
+        }
+        return routeTimeouts.costOf(request.method().name(), request.path());
+    }
+
+    public DeadlineStats counters() {
+        return stats;
+    }
+
+    public DeadlineStatsResponse stats() {
+        return new DeadlineStatsResponse(enabled, stats.startedCount(), stats.expiredCounts(), stats.skippedWorkCounts());
+    }
+}
@@ -0,0 +1,61 @@
+package com.duckstock.deadline;
+
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counts requests given a deadline, and the work abandoned because it passed.
+ */
+public final class DeadlineStats {
+
+    private final Deadline.Stage[] stages = Deadline.Stage.values();
+    private final LongAdder started = new LongAdder();
+    private final LongAdder[] expired = new LongAdder[stages.length];
+    private final LongAdder[] skippedWork = new LongAdder[stages.length];
+
+    public DeadlineStats() {
+        for (int i = 0; i < stages.length; i++) {
+            expired[i] = new LongAdder();
+            skippedWork[i] = new LongAdder();
+        }
+    }
+
+    void started() {
+        started.increment();
+    }
+
+    void expired(Deadline.Stage stage, long skipped) {
+        expired[stage.ordinal()].increment();
+        skippedWork[stage.ordinal()].add(skipped);
+    }
+
+    public long startedCount() {
+        return started.sum();
+    }
+
+    public long expiredCount(Deadline.Stage stage) {
+        return expired[stage.ordinal()].sum();
+    }
+
+    public long skippedWork(Deadline.Stage stage) {
+        return skippedWork[stage.ordinal()].sum();
+    }
+
+    public Map<String, Long> expiredCounts() {
+        return byStage(expired);
+    }
+
+    public Map<String, Long> skippedWorkCounts() {
+        return byStage(skippedWork);
+    }
+
+    private Map<String, Long> byStage(LongAdder[] adders) {
+        Map<String, Long> counts = new LinkedHashMap<>();
+        for (Deadline.Stage stage : stages) {
+            counts.put(stage.name().toLowerCase(Locale.ROOT), adders[stage.ordinal()].sum());
+        }
+        return counts;
+    }
+}
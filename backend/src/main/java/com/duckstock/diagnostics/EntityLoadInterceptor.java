@@ -0,0 +1,25 @@
+package com.duckstock.diagnostics;
+
+import org.hibernate.Interceptor;
+import org.hibernate.type.Type;
+
+import io.quarkus.hibernate.orm.PersistenceUnitExtension;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+
+/**
+ * Counts the entities the current request loads, whether from a result set or the second-level cache.
+ */
+@PersistenceUnitExtension
+@ApplicationScoped
+public class EntityLoadInterceptor implements Interceptor {
+
+    @Inject
+    SqlDiagnostics diagnostics;
+
+    @Override
+    public boolean onLoad(Object entity, Object id, Object[] state, String[] propertyNames, Type[] types) {
+        diagnostics.entityLoaded();
+        return false;
+    }
+}
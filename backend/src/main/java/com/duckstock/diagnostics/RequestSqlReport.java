@@ -0,0 +1,13 @@
+package com.duckstock.diagnostics;
+
+import java.util.List;
+
+/**
+ * What one request did against the database. Statements are identified by their shape: the SQL
+ * text with bind parameters as {@code ?}, so the same query with other values is the same shape.
+ */
+record RequestSqlReport(String route, int statements, int distinctStatements, int entityLoads,
+                        String mostRepeated, int mostRepeatedCount, List<SlowQuery> slowQueries) {
+
+    record SlowQuery(String sql, long nanos) {}
+}
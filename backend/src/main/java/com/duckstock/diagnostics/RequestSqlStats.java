@@ -0,0 +1,131 @@
+package com.duckstock.diagnostics;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+import io.quarkus.vertx.http.runtime.CurrentVertxRequest;
+import io.vertx.ext.web.RoutingContext;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.enterprise.context.RequestScoped;
+import jakarta.inject.Inject;
+
+/**
+ * The SQL run by the current request, fed by the Hibernate hooks through {@link SqlDiagnostics}
+ * and reported to it when the request ends. Only requests that run SQL create one.
+ *
+ * The bulkheads carry the request context over to their threads, so statements run there, and in
+ * nested transactions, count for the request that asked for them.
+ */
+@RequestScoped
+public class RequestSqlStats {
+
+    // Distinct shapes and slow statements kept per request; beyond that they are only counted.
+    static final int MAX_SHAPES = 256;
+    static final int MAX_SLOW_QUERIES = 16;
+
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+    private static final Pattern PARAMETER_LIST = Pattern.compile("\\?(\\s*,\\s*\\?)+");
+
+    @Inject
+    SqlDiagnostics diagnostics;
+
+    @Inject
+    CurrentVertxRequest currentRequest;
+
+    private final Map<String, int[]> shapes = new HashMap<>();
+    private final List<RequestSqlReport.SlowQuery> slowQueries = new ArrayList<>();
+    private String route = "-";
+    private String lastShape;
+    private int statements;
+    private int entityLoads;
+
+    @PostConstruct
+    void start() {
+        RoutingContext request = currentRequest.getCurrent();
+        if (request != null) {
+            route = routeOf(request.request().method().name(), request.normalizedPath());
+        }
+        diagnostics.started();
+    }
+
+    @PreDestroy
+    void finish() {
+        diagnostics.finished(report());
+    }
+
+    synchronized void prepared(String sql) {
+        statements++;
+        String shape = shapeOf(sql);
+        int[] count = shapes.get(shape);
+        if (count == null && shapes.size() < MAX_SHAPES) {
+            count = new int[1];
+            shapes.put(shape, count);
+        }
+        if (count != null) {
+            count[0]++;
+        }
+        lastShape = shape;
+    }
+
+    synchronized void executed(long nanos, long slowNanos) {
+        if (slowNanos > 0 && nanos >= slowNanos && lastShape != null && slowQueries.size() < MAX_SLOW_QUERIES) {
+            slowQueries.add(new RequestSqlReport.SlowQuery(lastShape, nanos));
+        }
+    }
+
+    synchronized void entityLoaded() {
+        entityLoads++;
+    }
+
+    synchronized RequestSqlReport report() {
+        String mostRepeated = null;
+        int mostRepeatedCount = 0;
+        for (Map.Entry<String, int[]> shape : shapes.entrySet()) {
+            if (shape.getValue()[0] > mostRepeatedCount) {
+                mostRepeated = shape.getKey();
+                mostRepeatedCount = shape.getValue()[0];
+            }
+        }
+        return new RequestSqlReport(route, statements, shapes.size(), entityLoads, mostRepeated, mostRepeatedCount,
+                List.copyOf(slowQueries));
+    }
+
+    /**
+     * The SQL with whitespace collapsed and parameter lists such as {@code in (?,?,?)} reduced to
+     * {@code (?...)}, so batches of different sizes share a shape.
+     */
+    static String shapeOf(String sql) {
+        String collapsed = WHITESPACE.matcher(sql.trim()).replaceAll(" ");
+        return PARAMETER_LIST.matcher(collapsed).replaceAll("?...");
+    }
+
+    /**
+     * {@code METHOD /path} with ids replaced by {@code {id}}, so a route is one entry whatever it is called with.
+     */
+    static String routeOf(String method, String path) {
+        StringBuilder route = new StringBuilder(method).append(' ');
+        for (String segment : path.split("/")) {
+            if (segment.isEmpty()) {
+                continue;
+            }
+            route.append('/').append(isId(segment) ? "{id}" : segment);
+        }
+        return route.length() == method.length() + 1 ? route.append('/').toString() : route.toString();
+    }
+
+    private static boolean isId(String segment) {
+        if (segment.length() == 36 && segment.charAt(8) == '-' && segment.charAt(13) == '-') {
+            return true;
+        }
+        for (int i = 0; i < segment.length(); i++) {
+            if (!Character.isDigit(segment.charAt(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,223 @@
+package com.duckstock.diagnostics;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.jboss.logging.Logger;
+
+import com.duckstock.dto.admin.SqlDiagnosticsResponse;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import io.quarkus.arc.Arc;
+import io.quarkus.arc.ManagedContext;
+import jakarta.annotation.PostConstruct;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+
+/**
+ * Per-request SQL diagnostics: statement counts, entity loads and slow statements, collected from
+ * Hibernate by {@link SqlStatementInspector}, {@link EntityLoadInterceptor} and
+ * {@link StatementTimingListener}.
+ *
+ * A request that runs more than {@code max-statements} statements, the same statement more than
+ * {@code max-repeats} times (the signature of an N+1 lazy-loading loop), loads more than
+ * {@code max-entity-loads} entities or runs a statement slower than {@code slow-query-millis} is
+ * logged with the offending SQL. Totals per route and per slow statement are kept for
+ * {@code GET /admin/sql}. A threshold of 0 turns that check off.
+ */
+@ApplicationScoped
+public class SqlDiagnostics {
+
+    private static final Logger LOG = Logger.getLogger(SqlDiagnostics.class);
+
+    @ConfigProperty(name = "duckstock.sql-diagnostics.enabled", defaultValue = "true")
+    boolean enabled;
+
+    @ConfigProperty(name = "duckstock.sql-diagnostics.max-statements", defaultValue = "50")
+    int maxStatements;
+
+    @ConfigProperty(name = "duckstock.sql-diagnostics.max-repeats", defaultValue = "10")
+    int maxRepeats;
+
+    @ConfigProperty(name = "duckstock.sql-diagnostics.max-entity-loads", defaultValue = "1000")
+    int maxEntityLoads;
+
+    @ConfigProperty(name = "duckstock.sql-diagnostics.slow-query-millis", defaultValue = "250")
+    long slowQueryMillis;
+
+    // Routes and slow statements kept for the admin endpoint; past that, the least used are dropped.
+    @ConfigProperty(name = "duckstock.sql-diagnostics.max-tracked", defaultValue = "100")
+    int maxTracked;
+
+    @Inject
+    RequestSqlStats requestStats;
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private volatile List<RequestSqlReport> captured;
+    private ManagedContext requestContext;
+    private long slowQueryNanos;
+    private Cache<String, RouteTotals> routes;
+    private Cache<String, SlowQueryTotals> slowQueries;
+
+    @PostConstruct
+    void init() {
+        requestContext = Arc.container().requestContext();
+        slowQueryNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(slowQueryMillis, 0));
+        routes = Caffeine.newBuilder().maximumSize(Math.max(maxTracked, 1)).build();
+        slowQueries = Caffeine.newBuilder().maximumSize(Math.max(maxTracked, 1)).build();
+    }
+
+    void statementPrepared(String sql) {
+        if (recording()) {
+            requestStats.prepared(sql);
+        }
+    }
+
+    void statementExecuted(long nanos) {
+        if (recording()) {
+            requestStats.executed(nanos, slowQueryNanos);
+        }
+    }
+
+    void entityLoaded() {
+        if (recording()) {
+            requestStats.entityLoaded();
+        }
+    }
+
+    // Startup tasks and timers run without a request context; their SQL is not attributed.
+    private boolean recording() {
+        return enabled && requestContext.isActive();
+    }
+
+    void started() {
+        inFlight.incrementAndGet();
+    }
+
+    void finished(RequestSqlReport report) {
+        try {
+            List<String> problems = problemsOf(report);
+            if (!problems.isEmpty()) {
+                LOG.warnf("%s: %s", report.route(), String.join("; ", problems));
+            }
+            routes.get(report.route(), route -> new RouteTotals()).add(report, !problems.isEmpty());
+            for (RequestSqlReport.SlowQuery slow : report.slowQueries()) {
+                slowQueries.get(slow.sql(), sql -> new SlowQueryTotals()).add(slow.nanos());
+            }
+            List<RequestSqlReport> capture = captured;
+            if (capture != null) {
+                capture.add(report);
+            }
+        } finally {
+            inFlight.decrementAndGet();
+        }
+    }
+
+    List<String> problemsOf(RequestSqlReport report) {
+        List<String> problems = new ArrayList<>();
+        if (maxStatements > 0 && report.statements() > maxStatements) {
+            problems.add(String.format("%d SQL statements (limit %d, %d distinct)",
+                    report.statements(), maxStatements, report.distinctStatements()));
+        }
+        if (maxRepeats > 0 && report.mostRepeatedCount() > maxRepeats) {
+            problems.add(String.format("same statement run %d times, likely N+1 (limit %d): %s",
+                    report.mostRepeatedCount(), maxRepeats, report.mostRepeated()));
+        }
+        if (maxEntityLoads > 0 && report.entityLoads() > maxEntityLoads) {
+            problems.add(String.format("%d entities loaded (limit %d)", report.entityLoads(), maxEntityLoads));
+        }
+        for (RequestSqlReport.SlowQuery slow : report.slowQueries()) {
+            problems.add(String.format("slow statement (%.1f ms): %s", slow.nanos() / 1e6, slow.sql()));
+        }
+        return problems;
+    }
+
+    /**
+     * Starts keeping the report of every request that ends, for tests that check SQL budgets.
+     */
+    void startCapture() {
+        captured = Collections.synchronizedList(new ArrayList<>());
+    }
+
+    /**
+     * The reports captured since {@link #startCapture()}, once requests still running have ended
+     * (a client can see the response before the server has closed the request).
+     */
+    List<RequestSqlReport> stopCapture(long timeoutMillis) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutMillis);
+        while (inFlight.get() > 0 && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        List<RequestSqlReport> reports = captured;
+        captured = null;
+        return reports == null ? List.of() : new ArrayList<>(reports);
+    }
+
+    public SqlDiagnosticsResponse stats() {
+        List<SqlDiagnosticsResponse.RouteOffender> routeStats = new ArrayList<>();
+        routes.asMap().forEach((route, totals) -> routeStats.add(totals.snapshot(route)));
+        routeStats.sort(Comparator.comparingLong((SqlDiagnosticsResponse.RouteOffender r) -> r.flagged)
+                .thenComparingInt(r -> r.maxStatements)
+                .reversed());
+
+        List<SqlDiagnosticsResponse.SlowQuery> slowStats = new ArrayList<>();
+        slowQueries.asMap().forEach((sql, totals) -> slowStats.add(totals.snapshot(sql)));
+        slowStats.sort(Comparator.comparingDouble((SqlDiagnosticsResponse.SlowQuery s) -> s.maxMillis).reversed());
+
+        return new SqlDiagnosticsResponse(enabled, maxStatements, maxRepeats, maxEntityLoads, slowQueryMillis,
+                routeStats, slowStats);
+    }
+
+    private static final class RouteTotals {
+
+        private long requests;
+        private long flagged;
+        private long statements;
+        private int maxStatements;
+        private int maxEntityLoads;
+        private int maxRepeats;
+        private String mostRepeated;
+
+        synchronized void add(RequestSqlReport report, boolean problem) {
+            requests++;
+            flagged += problem ? 1 : 0;
+            statements += report.statements();
+            maxStatements = Math.max(maxStatements, report.statements());
+            maxEntityLoads = Math.max(maxEntityLoads, report.entityLoads());
+            if (report.mostRepeatedCount() > maxRepeats) {
+                maxRepeats = report.mostRepeatedCount();
+                mostRepeated = report.mostRepeated();
+            }
+        }
+
+        synchronized SqlDiagnosticsResponse.RouteOffender snapshot(String route) {
+            return new SqlDiagnosticsResponse.RouteOffender(route, requests, flagged,
+                    requests == 0 ? 0 : (double) statements / requests, maxStatements, maxEntityLoads, maxRepeats,
+                    mostRepeated);
+        }
+    }
+
+    private static final class SlowQueryTotals {
+
+        private long count;
+        private long totalNanos;
+        private long maxNanos;
+
+        synchronized void add(long nanos) {
+            count++;
+            totalNanos += nanos;
+            maxNanos = Math.max(maxNanos, nanos);
+        }
+
+        synchronized SqlDiagnosticsResponse.SlowQuery snapshot(String sql) {
+            return new SqlDiagnosticsResponse.SlowQuery(sql, count, maxNanos / 1e6,
+                    count == 0 ? 0 : totalNanos / 1e6 / count);
+        }
+    }
+}
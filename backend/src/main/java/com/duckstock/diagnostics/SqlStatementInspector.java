@@ -0,0 +1,25 @@
+package com.duckstock.diagnostics;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+import io.quarkus.hibernate.orm.PersistenceUnitExtension;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+
+/**
+ * Counts every statement Hibernate prepares (queries, lazy loads, flushes and native SQL) for
+ * the current request. The SQL is passed through unchanged.
+ */
+@PersistenceUnitExtension
+@ApplicationScoped
+public class SqlStatementInspector implements StatementInspector {
+
+    @Inject
+    SqlDiagnostics diagnostics;
+
+    @Override
+    public String inspect(String sql) {
+        diagnostics.statementPrepared(sql);
+        return sql;
+    }
+}
@@ -0,0 +1,35 @@
+package com.duckstock.diagnostics;
+
+import org.hibernate.SessionEventListener;
+
+import io.quarkus.arc.Arc;
+import io.quarkus.arc.ArcContainer;
+
+/**
+ * Times statement executions for the slow statement check. Hibernate creates one per session
+ * when it is named in {@code hibernate.session.events.auto}; a session is used by one thread at a
+ * time, so the start time needs no synchronization. Each execution is attributed to the statement
+ * the request prepared last.
+ */
+public class StatementTimingListener implements SessionEventListener {
+
+    private final SqlDiagnostics diagnostics;
+    private long executionStart;
+
+    public StatementTimingListener() {
+        ArcContainer container = Arc.container();
+        diagnostics = container != null ? container.instance(SqlDiagnostics.class).get() : null;
+    }
+
+    @Override
+    public void jdbcExecuteStatementStart() {
+        executionStart = System.nanoTime();
+    }
+
+    @Override
+    public void jdbcExecuteStatementEnd() {
+        if (diagnostics != null) {
+            diagnostics.statementExecuted(System.nanoTime() - executionStart);
+        }
+    }
+}
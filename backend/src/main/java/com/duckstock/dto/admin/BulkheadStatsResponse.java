@@ -0,0 +1,31 @@
+package com.duckstock.dto.admin;
+
+public class BulkheadStatsResponse {
+
+    public String name;
+    public String threadMode;
+    public int threads;
+    public int active;
+    public int queued;
+    public int queueCapacity;
+    public long completed;
+    public long rejected;
+    public long pinned;
+    public long pinnedMillis;
+
+    public BulkheadStatsResponse() {}
+
+    public BulkheadStatsResponse(String name, String threadMode, int threads, int active, int queued,
+                                 int queueCapacity, long completed, long rejected, long pinned, long pinnedMillis) {
+        this.name = name;
+        this.threadMode = threadMode;
+        this.threads = threads;
+        this.active = active;
+        this.queued = queued;
+        this.queueCapacity = queueCapacity;
+        this.completed = completed;
+        this.rejected = rejected;
+        this.pinned = pinned;
+        this.pinnedMillis = pinnedMillis;
+    }
+}
@@ -0,0 +1,27 @@
+package com.duckstock.dto.admin;
+
+public class CacheStatsResponse {
+
+    public String name;
+    public long entries;
+    public long hitCount;
+    public long missCount;
+    public double hitRate;
+    public long evictionCount;
+    public Long weightedSize;
+    public Long maximumSize;
+
+    public CacheStatsResponse() {}
+
+    public CacheStatsResponse(String name, long entries, long hitCount, long missCount, double hitRate,
+                              long evictionCount, Long weightedSize, Long maximumSize) {
+        this.name = name;
+        this.entries = entries;
+        this.hitCount = hitCount;
+        this.missCount = missCount;
+        this.hitRate = hitRate;
+        this.evictionCount = evictionCount;
+        this.weightedSize = weightedSize;
+        this.maximumSize = maximumSize;
+    }
+}
@@ -0,0 +1,30 @@
+package com.duckstock.dto.admin;
+
+import java.util.Map;
+
+public class ConcurrencyStatsResponse {
+
+    public boolean enabled;
+    public int limit;
+    public int inFlight;
+    public double latencyMillis;
+    public double baselineLatencyMillis;
+    public int poolWaiters;
+    public Map<String, Long> admitted;
+    public Map<String, Long> rejected;
+
+    public ConcurrencyStatsResponse() {}
+
+    public ConcurrencyStatsResponse(boolean enabled, int limit, int inFlight, double latencyMillis,
+                                    double baselineLatencyMillis, int poolWaiters, Map<String, Long> admitted,
+                                    Map<String, Long> rejected) {
+        this.enabled = enabled;
+        this.limit = limit;
+        this.inFlight = inFlight;
+        this.latencyMillis = latencyMillis;
+        this.baselineLatencyMillis = baselineLatencyMillis;
+        this.poolWaiters = poolWaiters;
+        this.admitted = admitted;
+        this.rejected = rejected;
+    }
+}
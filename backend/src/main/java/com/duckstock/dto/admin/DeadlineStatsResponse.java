@@ -0,0 +1,21 @@
+package com.duckstock.dto.admin;
+
+import java.util.Map;
+
+public class DeadlineStatsResponse {
+
+    public boolean enabled;
+    public long requestsWithDeadline;
+    public Map<String, Long> expired;
+    public Map<String, Long> skippedWork;
+
+    public DeadlineStatsResponse() {}
+
+    public DeadlineStatsResponse(boolean enabled, long requestsWithDeadline, Map<String, Long> expired,
+                                 Map<String, Long> skippedWork) {
+        this.enabled = enabled;
+        this.requestsWithDeadline = requestsWithDeadline;
+        this.expired = expired;
+        this.skippedWork = skippedWork;
+    }
+}
@@ -0,0 +1,37 @@
+package com.duckstock.dto.admin;
+
+import java.util.List;
+
+public class HashCalibrationResponse {
+
+    public long targetMillis;
+    public String configuredAlgorithm;
+    public int recommendedBcryptCost;
+    public int recommendedPbkdf2Iterations;
+    public List<Sample> samples;
+
+    public HashCalibrationResponse() {}
+
+    public HashCalibrationResponse(long targetMillis, String configuredAlgorithm, int recommendedBcryptCost,
+                                   int recommendedPbkdf2Iterations, List<Sample> samples) {
+        this.targetMillis = targetMillis;
+        this.configuredAlgorithm = configuredAlgorithm;
+        this.recommendedBcryptCost = recommendedBcryptCost;
+        this.recommendedPbkdf2Iterations = recommendedPbkdf2Iterations;
+        this.samples = samples;
+    }
+
+    public static class Sample {
+        public String algorithm;
+        public int parameter;
+        public double millis;
+
+        public Sample() {}
+
+        public Sample(String algorithm, int parameter, double millis) {
+            this.algorithm = algorithm;
+            this.parameter = parameter;
+            this.millis = millis;
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package com.duckstock.dto.admin;
+
+import java.util.List;
+
+public class SqlDiagnosticsResponse {
+
+    public boolean enabled;
+    public int maxStatements;
+    public int maxRepeats;
+    public int maxEntityLoads;
+    public long slowQueryMillis;
+    public List<RouteOffender> routes;
+    public List<SlowQuery> slowQueries;
+
+    public SqlDiagnosticsResponse() {}
+
+    public SqlDiagnosticsResponse(boolean enabled, int maxStatements, int maxRepeats, int maxEntityLoads,
+                                  long slowQueryMillis, List<RouteOffender> routes, List<SlowQuery> slowQueries) {
+        this.enabled = enabled;
+        this.maxStatements = maxStatements;
+        this.maxRepeats = maxRepeats;
+        this.maxEntityLoads = maxEntityLoads;
+        this.slowQueryMillis = slowQueryMillis;
+        this.routes = routes;
+        this.slowQueries = slowQueries;
+    }
+
+    public static class RouteOffender {
+        public String route;
+        public long requests;
+        public long flagged;
+        public double averageStatements;
+        public int maxStatements;
+        public int maxEntityLoads;
+        public int maxRepeats;
+        public String mostRepeated;
+
+        public RouteOffender() {}
+
+        public RouteOffender(String route, long requests, long flagged, double averageStatements, int maxStatements,
+                             int maxEntityLoads, int maxRepeats, String mostRepeated) {
+            this.route = route;
+            this.requests = requests;
+            this.flagged = flagged;
+            this.averageStatements = averageStatements;
+            this.maxStatements = maxStatements;
+            this.maxEntityLoads = maxEntityLoads;
+            this.maxRepeats = maxRepeats;
+            this.mostRepeated = mostRepeated;
+        }
+    }
+
+    public static class SlowQuery {
+        public String sql;
+        public long count;
+        public double maxMillis;
+        public double averageMillis;
+
+        public SlowQuery() {}
+
+        public SlowQuery(String sql, long count, double maxMillis, double averageMillis) {
+            this.sql = sql;
+            this.count = count;
+            this.maxMillis = maxMillis;
+            this.averageMillis = averageMillis;
+        }
+    }
+}
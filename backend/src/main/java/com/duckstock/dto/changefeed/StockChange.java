@@ -0,0 +1,29 @@
+package com.duckstock.dto.changefeed;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class StockChange {
+
+    public long sequence;
+    public String entity;
+    public UUID id;
+    public String change;
+    public Integer stockQuantity;
+    public BigDecimal price;
+
+    public StockChange() {}
+
+    public StockChange(long sequence, String entity, UUID id, String change,
+                       Integer stockQuantity, BigDecimal price) {
+        this.sequence = sequence;
+        this.entity = entity;
+        this.id = id;
+        this.change = change;
+        this.stockQuantity = stockQuantity;
+        this.price = price;
+    }
+}
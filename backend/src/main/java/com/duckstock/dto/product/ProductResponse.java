@@ -22,14 +22,7 @@ public class ProductResponse {
     public ProductResponse() {}
 
     public static ProductResponse from(Product product) {
-        ProductResponse response = new ProductResponse();
-        response.id = product.id;
-        response.name = product.name;
-        response.description = product.description;
-        response.price = product.price;
-        response.stockQuantity = product.stockQuantity;
-        response.createdAt = product.createdAt;
-        response.updatedAt = product.updatedAt;
+        ProductResponse response = summaryOf(product);
 
         if (product.rawMaterials != null) {
             response.rawMaterials = product.rawMaterials.stream()
@@ -49,6 +42,21 @@ public class ProductResponse {
         return response;
     }
 
+    /**
+     * Product fields only; {@code rawMaterials} is left null and the composition is not loaded.
+     */
+    public static ProductResponse summaryOf(Product product) {
+        ProductResponse response = new ProductResponse();
+        response.id = product.id;
+        response.name = product.name;
+        response.description = product.description;
+        response.price = product.price;
+        response.stockQuantity = product.stockQuantity;
+        response.createdAt = product.createdAt;
+        response.updatedAt = product.updatedAt;
+        return response;
+    }
+
     public static class RawMaterialAssociation {
         public UUID id;
         public UUID rawMaterialId;
@@ -0,0 +1,24 @@
+package com.duckstock.dto.sync;
+
+import java.util.UUID;
+
+import com.duckstock.entity.ProductRawMaterial;
+
+public class CompositionSnapshot {
+
+    public UUID id;
+    public UUID productId;
+    public UUID rawMaterialId;
+    public Integer quantityNeeded;
+
+    public CompositionSnapshot() {}
+
+    public static CompositionSnapshot from(ProductRawMaterial prm) {
+        CompositionSnapshot snapshot = new CompositionSnapshot();
+        snapshot.id = prm.id;
+        snapshot.productId = prm.product.id;
+        snapshot.rawMaterialId = prm.rawMaterial.id;
+        snapshot.quantityNeeded = prm.quantityNeeded;
+        return snapshot;
+    }
+}
@@ -0,0 +1,23 @@
+package com.duckstock.dto.sync;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+public class SyncChange {
+
+    public String kind;
+    public String op;
+    public UUID id;
+    public LocalDateTime changedAt;
+    public Object data;
+
+    public SyncChange() {}
+
+    public SyncChange(String kind, String op, UUID id, LocalDateTime changedAt, Object data) {
+        this.kind = kind;
+        this.op = op;
+        this.id = id;
+        this.changedAt = changedAt;
+        this.data = data;
+    }
+}
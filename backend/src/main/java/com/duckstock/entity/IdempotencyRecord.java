@@ -0,0 +1,40 @@
+package com.duckstock.entity;
+
+import io.quarkus.hibernate.orm.panache.PanacheEntityBase;
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * The outcome of a write sent with an {@code Idempotency-Key}. Keys and requests are stored as
+ * SHA-256 hashes, so a row is small whatever their size. While the write runs, {@code status} is 0
+ * and the row is claimed by {@code claimId} until {@code lockedUntil}; then it holds the response.
+ */
+@Entity
+@Table(name = "idempotency_keys",
+       indexes = @Index(name = "idx_idempotency_keys_expires_at", columnList = "expires_at"))
+public class IdempotencyRecord extends PanacheEntityBase {
+
+    public static final int IN_PROGRESS = 0;
+
+    @Id
+    @Column(name = "key_hash", length = 43)
+    public String keyHash;
+
+    @Column(nullable = false, length = 43)
+    public String fingerprint;
+
+    @Column(nullable = false)
+    public int status;
+
+    public byte[] body;
+
+    @Column(name = "claim_id")
+    public UUID claimId;
+
+    @Column(name = "locked_until")
+    public LocalDateTime lockedUntil;
+
+    @Column(name = "expires_at", nullable = false)
+    public LocalDateTime expiresAt;
+}
@@ -2,13 +2,17 @@ package com.duckstock.entity;
 
 import io.quarkus.hibernate.orm.panache.PanacheEntityBase;
 import jakarta.persistence.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import jakarta.validation.constraints.*;
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.List;
 
 @Entity
-@Table(name = "products")
+@Cacheable
+@Table(name = "products",
+       indexes = @Index(name = "idx_products_updated_at", columnList = "updated_at, id"))
 public class Product extends PanacheEntityBase {
 
     @Id
@@ -34,6 +38,7 @@ public class Product extends PanacheEntityBase {
     public Integer stockQuantity = 0;
 
     @OneToMany(mappedBy = "product", cascade = CascadeType.ALL, orphanRemoval = true)
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
     public List<ProductRawMaterial> rawMaterials;
 
     @Column(name = "created_at", nullable = false, updatable = false)
@@ -44,12 +49,12 @@ public class Product extends PanacheEntityBase {
 
     @PrePersist
     public void prePersist() {
-        createdAt = LocalDateTime.now();
-        updatedAt = LocalDateTime.now();
+        createdAt = Timestamps.now();
+        updatedAt = Timestamps.now();
     }
 
     @PreUpdate
     public void preUpdate() {
-        updatedAt = LocalDateTime.now();
+        updatedAt = Timestamps.now();
     }
 }
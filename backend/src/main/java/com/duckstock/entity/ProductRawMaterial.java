@@ -4,10 +4,13 @@ import io.quarkus.hibernate.orm.panache.PanacheEntityBase;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.NotNull;
+import java.time.LocalDateTime;
 
 @Entity
+@Cacheable
 @Table(name = "product_raw_materials",
-       uniqueConstraints = @UniqueConstraint(columnNames = {"product_id", "raw_material_id"}))
+       uniqueConstraints = @UniqueConstraint(columnNames = {"product_id", "raw_material_id"}),
+       indexes = @Index(name = "idx_product_raw_materials_updated_at", columnList = "updated_at, id"))
 public class ProductRawMaterial extends PanacheEntityBase {
 
     @Id
@@ -29,6 +32,15 @@ public class ProductRawMaterial extends PanacheEntityBase {
     @Column(name = "quantity_needed", nullable = false)
     public Integer quantityNeeded;
 
+    @Column(name = "updated_at")
+    public LocalDateTime updatedAt;
+
+    @PrePersist
+    @PreUpdate
+    public void touch() {
+        updatedAt = Timestamps.now();
+    }
+
     public static java.util.List<ProductRawMaterial> findByProduct(Product product) {
         return find("product", product).list();
     }
@@ -0,0 +1,43 @@
+package com.duckstock.entity;
+
+import io.quarkus.hibernate.orm.panache.PanacheEntityBase;
+import jakarta.persistence.*;
+import java.io.Serializable;
+import java.util.Objects;
+
+/**
+ * Units a client spent across all instances in one rate limit window. Written and read in bulk
+ * by {@code PostgresUsageStore}; the entity exists so the table is created with the schema.
+ */
+@Entity
+@Table(name = "rate_limit_usage",
+       indexes = @Index(name = "idx_rate_limit_usage_window", columnList = "window_index"))
+@IdClass(RateLimitUsage.Key.class)
+public class RateLimitUsage extends PanacheEntityBase {
+
+    @Id
+    @Column(name = "client_key", length = 64)
+    public String clientKey;
+
+    @Id
+    @Column(name = "window_index")
+    public long windowIndex;
+
+    @Column(nullable = false)
+    public long units;
+
+    public static class Key implements Serializable {
+        public String clientKey;
+        public long windowIndex;
+
+        @Override
+        public boolean equals(Object other) {
+            return other instanceof Key key && windowIndex == key.windowIndex && Objects.equals(clientKey, key.clientKey);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(clientKey, windowIndex);
+        }
+    }
+}
@@ -7,7 +7,9 @@ import java.math.BigDecimal;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "raw_materials")
+@Cacheable
+@Table(name = "raw_materials",
+       indexes = @Index(name = "idx_raw_materials_updated_at", columnList = "updated_at, id"))
 public class RawMaterial extends PanacheEntityBase {
 
     @Id
@@ -45,12 +47,12 @@ public class RawMaterial extends PanacheEntityBase {
 
     @PrePersist
     public void prePersist() {
-        createdAt = LocalDateTime.now();
-        updatedAt = LocalDateTime.now();
+        createdAt = Timestamps.now();
+        updatedAt = Timestamps.now();
     }
 
     @PreUpdate
     public void preUpdate() {
-        updatedAt = LocalDateTime.now();
+        updatedAt = Timestamps.now();
     }
 }
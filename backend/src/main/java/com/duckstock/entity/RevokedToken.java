@@ -0,0 +1,31 @@
+package com.duckstock.entity;
+
+import io.quarkus.hibernate.orm.panache.PanacheEntityBase;
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * A refresh token id ({@code TOKEN}, consumed by rotation) or a whole token family
+ * ({@code FAMILY}, revoked on logout or reuse). Rows are kept until the tokens they cover expire.
+ */
+@Entity
+@Table(name = "revoked_tokens",
+       indexes = @Index(name = "idx_revoked_tokens_expires_at", columnList = "expires_at"))
+public class RevokedToken extends PanacheEntityBase {
+
+    public static final String TOKEN = "TOKEN";
+    public static final String FAMILY = "FAMILY";
+
+    @Id
+    public UUID id;
+
+    @Column(nullable = false, length = 10)
+    public String kind;
+
+    @Column(name = "expires_at", nullable = false)
+    public LocalDateTime expiresAt;
+
+    @Column(name = "revoked_at", nullable = false)
+    public LocalDateTime revokedAt;
+}
@@ -0,0 +1,19 @@
+package com.duckstock.entity;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+
+/**
+ * Write timestamps for the catalog entities.
+ *
+ * PostgreSQL keeps microseconds and rounds anything finer. A value with nanoseconds would differ
+ * between the second-level cache and the database, and could round past a later row in sync order.
+ */
+final class Timestamps {
+
+    private Timestamps() {}
+
+    static LocalDateTime now() {
+        return LocalDateTime.now().truncatedTo(ChronoUnit.MICROS);
+    }
+}
@@ -0,0 +1,43 @@
+package com.duckstock.entity;
+
+import io.quarkus.hibernate.orm.panache.PanacheEntityBase;
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Records a deleted catalog row so delta sync clients can remove it locally.
+ * A row with kind {@code CATALOG} and no entity id means the whole catalog was replaced.
+ */
+@Entity
+@Table(name = "tombstones",
+       indexes = @Index(name = "idx_tombstones_deleted_at", columnList = "deleted_at, id"))
+public class Tombstone extends PanacheEntityBase {
+
+    public static final String CATALOG = "CATALOG";
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.UUID)
+    public UUID id;
+
+    @Column(name = "entity_kind", nullable = false, length = 20)
+    public String entityKind;
+
+    @Column(name = "entity_id")
+    public UUID entityId;
+
+    @Column(name = "deleted_at", nullable = false)
+    public LocalDateTime deletedAt;
+
+    @PrePersist
+    public void prePersist() {
+        deletedAt = Timestamps.now();
+    }
+
+    public static void record(String entityKind, UUID entityId) {
+        Tombstone tombstone = new Tombstone();
+        tombstone.entityKind = entityKind;
+        tombstone.entityId = entityId;
+        tombstone.persist();
+    }
+}
@@ -0,0 +1,41 @@
+package com.duckstock.event;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+
+import com.duckstock.entity.Product;
+import com.duckstock.entity.ProductRawMaterial;
+import com.duckstock.entity.RawMaterial;
+
+/**
+ * Fired by the services whenever a catalog row is written.
+ *
+ * Observers that need committed data should use {@code TransactionPhase.AFTER_SUCCESS};
+ * observers that must run inside the writing transaction use a plain {@code @Observes}.
+ */
+public record CatalogChange(
+        EntityKind kind,
+        UUID id,
+        ChangeType type,
+        Integer stockQuantity,
+        BigDecimal price
+) {
+
+    public static CatalogChange of(RawMaterial rawMaterial, ChangeType type) {
+        return new CatalogChange(EntityKind.RAW_MATERIAL, rawMaterial.id, type,
+                rawMaterial.stockQuantity, rawMaterial.price);
+    }
+
+    public static CatalogChange of(Product product, ChangeType type) {
+        return new CatalogChange(EntityKind.PRODUCT, product.id, type,
+                product.stockQuantity, product.price);
+    }
+
+    public static CatalogChange of(ProductRawMaterial composition, ChangeType type) {
+        return new CatalogChange(EntityKind.COMPOSITION, composition.id, type, null, null);
+    }
+
+    public static CatalogChange reset() {
+        return new CatalogChange(null, null, ChangeType.RESET, null, null);
+    }
+}
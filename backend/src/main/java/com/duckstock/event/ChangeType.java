@@ -0,0 +1,9 @@
+package com.duckstock.event;
+
+public enum ChangeType {
+    CREATED,
+    UPDATED,
+    DELETED,
+    // The whole catalog was replaced (e.g. dev seed); consumers should drop everything they hold.
+    RESET
+}
@@ -0,0 +1,7 @@
+package com.duckstock.event;
+
+public enum EntityKind {
+    PRODUCT,
+    RAW_MATERIAL,
+    COMPOSITION
+}
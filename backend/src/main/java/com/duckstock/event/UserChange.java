@@ -0,0 +1,11 @@
+package com.duckstock.event;
+
+/**
+ * Fired whenever a user row is written. A {@code null} email means every user may have changed.
+ */
+public record UserChange(String email) {
+
+    public static UserChange all() {
+        return new UserChange(null);
+    }
+}
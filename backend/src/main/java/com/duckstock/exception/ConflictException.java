@@ -0,0 +1,23 @@
+package com.duckstock.exception;
+
+public class ConflictException extends RuntimeException {
+
+    private final long retryAfterSeconds;
+
+    public ConflictException(String message) {
+        this(message, 0);
+    }
+
+    /**
+     * A conflict that resolves by itself, such as a duplicate of a request still running; the
+     * response carries {@code Retry-After} when {@code retryAfterSeconds} is positive.
+     */
+    public ConflictException(String message, long retryAfterSeconds) {
+        super(message);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    public long getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+}
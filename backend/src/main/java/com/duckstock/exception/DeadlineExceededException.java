@@ -0,0 +1,17 @@
+package com.duckstock.exception;
+
+import com.duckstock.deadline.Deadline;
+
+public class DeadlineExceededException extends RuntimeException {
+
+    private final Deadline.Stage stage;
+
+    public DeadlineExceededException(Deadline.Stage stage) {
+        super("Request deadline exceeded");
+        this.stage = stage;
+    }
+
+    public Deadline.Stage getStage() {
+        return stage;
+    }
+}
@@ -41,12 +41,41 @@ public class GlobalExceptionHandler implements ExceptionMapper<Exception> {
                     .build();
         }
 
+        if (exception instanceof ConflictException ce) {
+            Response.ResponseBuilder conflict = Response.status(Response.Status.CONFLICT)
+                    .entity(new ErrorResponse(409, exception.getMessage()));
+            if (ce.getRetryAfterSeconds() > 0) {
+                conflict.header("Retry-After", ce.getRetryAfterSeconds());
+            }
+            return conflict.build();
+        }
+
         if (exception instanceof UnauthorizedException) {
             return Response.status(Response.Status.UNAUTHORIZED)
                     .entity(new ErrorResponse(401, exception.getMessage()))
                     .build();
         }
 
+        if (exception instanceof TooManyRequestsException tmre) {
+            return Response.status(Response.Status.TOO_MANY_REQUESTS)
+                    .header("Retry-After", tmre.getRetryAfterSeconds())
+                    .entity(new ErrorResponse(429, exception.getMessage()))
+                    .build();
+        }
+
+        if (exception instanceof ServiceUnavailableException sue) {
+            return Response.status(Response.Status.SERVICE_UNAVAILABLE)
+                    .header("Retry-After", sue.getRetryAfterSeconds())
+                    .entity(new ErrorResponse(503, exception.getMessage()))
+                    .build();
+        }
+
+        if (exception instanceof DeadlineExceededException) {
+            return Response.status(Response.Status.GATEWAY_TIMEOUT)
+                    .entity(new ErrorResponse(504, exception.getMessage()))
+                    .build();
+        }
+
         if (exception instanceof ConstraintViolationException cve) {
             String message = cve.getConstraintViolations() != null && !cve.getConstraintViolations().isEmpty()
                     ? cve.getConstraintViolations().stream()
@@ -0,0 +1,382 @@
+package com.duckstock.idempotency;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.hibernate.query.NativeQuery;
+import org.jboss.logging.Logger;
+
+import com.duckstock.bulkhead.Bulkhead;
+import com.duckstock.deadline.Deadline;
+import com.duckstock.entity.IdempotencyRecord;
+import com.duckstock.exception.BusinessException;
+import com.duckstock.exception.ConflictException;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+
+import io.quarkus.narayana.jta.QuarkusTransaction;
+import io.quarkus.security.identity.SecurityIdentity;
+import io.smallrye.mutiny.Uni;
+import io.vertx.core.Context;
+import io.vertx.core.Vertx;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.core.Response;
+
+/**
+ * Runs writes sent with an {@code Idempotency-Key} at most once per key and caller, and answers
+ * retries with the stored response.
+ *
+ * The {@code idempotency_keys} table is the source of truth. A request first claims its key with a
+ * committed row, so duplicates on any instance see it; the write and the stored response are then
+ * committed in one transaction, so a crash leaves neither. Claims are leased for
+ * {@code lock-seconds}, after which a retry may take over a key whose write never committed.
+ * Completed responses are kept for {@code ttl-seconds}, in the table and in memory, so replays
+ * cost no database read; after that the key counts as unused and may be claimed again.
+ *
+ * A duplicate that arrives while the first request is still running waits for its outcome, up to
+ * {@code wait-millis} (or the request deadline), instead of running the write again, and then gets
+ * 409 with {@code Retry-After}. It waits without a thread: on the first request's future when that
+ * runs on this instance, otherwise by reading the row again on a timer. Only successful responses
+ * are stored: a write that fails releases its key, so a retry runs it again. A key reused for a
+ * different request is rejected.
+ */
+@ApplicationScoped
+public class IdempotencyStore {
+
+    private static final Logger LOG = Logger.getLogger(IdempotencyStore.class);
+
+    public static final String HEADER = "Idempotency-Key";
+    public static final String REPLAYED_HEADER = "Idempotent-Replayed";
+
+    private static final int MAX_KEY_LENGTH = 255;
+    private static final long MIN_POLL_MILLIS = 20;
+    private static final long MAX_POLL_MILLIS = 200;
+
+    // Inserts a claim, or takes over one whose lease ran out before its write committed, or a
+    // response past its expiry that the purge has not deleted yet.
+    private static final String CLAIM = "insert into idempotency_keys "
+            + "(key_hash, fingerprint, status, claim_id, locked_until, expires_at) values (?1, ?2, 0, ?3, ?4, ?5) "
+            + "on conflict (key_hash) do update set fingerprint = excluded.fingerprint, claim_id = excluded.claim_id, "
+            + "locked_until = excluded.locked_until, expires_at = excluded.expires_at "
+            + "where (idempotency_keys.status = 0 and idempotency_keys.locked_until < ?6) "
+            + "or idempotency_keys.expires_at < ?6";
+    private static final String COMPLETE = "update idempotency_keys "
+            + "set status = ?1, body = ?2, claim_id = null, locked_until = null, expires_at = ?5 "
+            + "where key_hash = ?3 and claim_id = ?4";
+    private static final String RELEASE = "delete from idempotency_keys where key_hash = ?1 and claim_id = ?2 and status = 0";
+
+    @ConfigProperty(name = "duckstock.idempotency.ttl-seconds", defaultValue = "86400")
+    long ttlSeconds;
+
+    @ConfigProperty(name = "duckstock.idempotency.lock-seconds", defaultValue = "60")
+    long lockSeconds;
+
+    @ConfigProperty(name = "duckstock.idempotency.wait-millis", defaultValue = "10000")
+    long waitMillis;
+
+    @ConfigProperty(name = "duckstock.idempotency.retry-after-seconds", defaultValue = "1")
+    long retryAfterSeconds;
+
+    @ConfigProperty(name = "duckstock.idempotency.cache-max-size", defaultValue = "10000")
+    long cacheMaxSize;
+
+    @Inject
+    ObjectMapper objectMapper;
+
+    @Inject
+    SecurityIdentity identity;
+
+    @Inject
+    Vertx vertx;
+
+    private record Stored(String fingerprint, int status, byte[] body, LocalDateTime expiresAt) {}
+
+    private Cache<String, Stored> completed;
+    private final ConcurrentHashMap<String, CompletableFuture<Stored>> inFlight = new ConcurrentHashMap<>();
+    private long purgeTimerId = -1;
+
+    @PostConstruct
+    void init() {
+        completed = Caffeine.newBuilder()
+                .maximumSize(Math.max(cacheMaxSize, 1))
+                .expireAfter(new UntilExpiry())
+                .build();
+        purgeTimerId = vertx.setPeriodic(Math.max(Math.min(ttlSeconds, 3600), 60) * 1000,
+                id -> vertx.executeBlocking(() -> {
+                    purgeExpired();
+                    return null;
+                }, false));
+    }
+
+    @PreDestroy
+    void stop() {
+        if (purgeTimerId >= 0) {
+            vertx.cancelTimer(purgeTimerId);
+        }
+    }
+
+    /**
+     * Runs {@code operation} on {@code bulkhead} and answers with its result as a {@code status}
+     * response, unless {@code key} was already used by the caller for the same request, in which
+     * case the stored response is returned with {@value #REPLAYED_HEADER}. Without a key the
+     * operation just runs.
+     *
+     * Call it on the request's event loop; waiting for a duplicate holds no bulkhead thread.
+     *
+     * @param route   identifies the operation, e.g. {@code POST /production/create}; part of the fingerprint
+     * @param request the request body, part of the fingerprint
+     */
+    public Uni<Response> execute(String key, String route, Object request, Response.Status status, Bulkhead bulkhead,
+                                 Supplier<?> operation) {
+        if (key == null) {
+            return bulkhead.submit(() -> Response.status(status).entity(operation.get()).build());
+        }
+        if (key.isBlank() || key.length() > MAX_KEY_LENGTH) {
+            throw new BusinessException(HEADER + " must be between 1 and " + MAX_KEY_LENGTH + " characters");
+        }
+
+        String keyHash = hash(identity.getPrincipal().getName(), key.getBytes(StandardCharsets.UTF_8));
+        String fingerprint = hash(route, json(request));
+        long waitUntil = System.nanoTime()
+                + TimeUnit.MILLISECONDS.toNanos(Math.min(waitMillis, Deadline.current().remainingMillis()));
+        return attempt(new Call(keyHash, fingerprint, status, bulkhead, operation, waitUntil, callerContext()));
+    }
+
+    private record Call(String keyHash, String fingerprint, Response.Status status, Bulkhead bulkhead,
+                        Supplier<?> operation, long waitUntil, Executor caller) {}
+
+    private Uni<Response> attempt(Call call) {
+        return Uni.createFrom().deferred(() -> {
+            Stored stored = completed.getIfPresent(call.keyHash());
+            if (stored != null) {
+                return Uni.createFrom().item(replay(stored, call.fingerprint()));
+            }
+
+            CompletableFuture<Stored> mine = new CompletableFuture<>();
+            CompletableFuture<Stored> running = inFlight.putIfAbsent(call.keyHash(), mine);
+            if (running == null) {
+                return lead(call, mine, MIN_POLL_MILLIS)
+                        .onTermination().invoke(() -> {
+                            inFlight.remove(call.keyHash(), mine);
+                            mine.complete(null);
+                        });
+            }
+
+            // The same key is running on this instance: wait for its outcome rather than race it.
+            return Uni.createFrom().completionStage(running)
+                    .ifNoItem().after(remaining(call.waitUntil())).failWith(this::inProgress)
+                    .emitOn(call.caller())
+                    .onItem().transformToUni(done -> done != null
+                            ? Uni.createFrom().item(() -> replay(done, call.fingerprint()))
+                            // It failed without a response, so the write may be tried again.
+                            : attempt(call));
+        });
+    }
+
+    private Uni<Response> lead(Call call, CompletableFuture<Stored> mine, long pollMillis) {
+        return call.bulkhead().submit(() -> claimOrRead(call, mine))
+                .onItem().transformToUni(response -> {
+                    if (response != null) {
+                        return Uni.createFrom().item(response);
+                    }
+                    // Claimed on another instance: read it again later, holding no thread in between.
+                    if (System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(pollMillis) - call.waitUntil() > 0) {
+                        return Uni.createFrom().failure(inProgress());
+                    }
+                    return Uni.createFrom().voidItem()
+                            .onItem().delayIt().by(Duration.ofMillis(pollMillis))
+                            .emitOn(call.caller())
+                            .onItem().transformToUni(ignored ->
+                                    lead(call, mine, Math.min(pollMillis * 2, MAX_POLL_MILLIS)));
+                });
+    }
+
+    /**
+     * Claims the key and runs the write, or answers from the stored row. Null while another
+     * instance holds the claim.
+     */
+    private Response claimOrRead(Call call, CompletableFuture<Stored> mine) {
+        String keyHash = call.keyHash();
+        while (true) {
+            UUID claimId = UUID.randomUUID();
+            if (claim(keyHash, call.fingerprint(), claimId)) {
+                Stored stored = run(keyHash, call.fingerprint(), claimId, call.status(), call.operation());
+                completed.put(keyHash, stored);
+                mine.complete(stored);
+                return Response.status(stored.status()).entity(stored.body()).type(MediaType.APPLICATION_JSON).build();
+            }
+
+            // Fresh transaction, so the row is read as committed.
+            IdempotencyRecord record = QuarkusTransaction.requiringNew()
+                    .call(() -> IdempotencyRecord.<IdempotencyRecord>findById(keyHash));
+            if (record == null || record.expiresAt.isBefore(LocalDateTime.now())) {
+                continue; // released by a failed write, or expired, in the meantime: claim it
+            }
+            if (!record.fingerprint.equals(call.fingerprint())) {
+                throw reused();
+            }
+            if (record.status == IdempotencyRecord.IN_PROGRESS) {
+                return null;
+            }
+            Stored stored = new Stored(record.fingerprint, record.status, record.body, record.expiresAt);
+            completed.put(keyHash, stored);
+            mine.complete(stored);
+            return replay(stored, call.fingerprint());
+        }
+    }
+
+    private boolean claim(String keyHash, String fingerprint, UUID claimId) {
+        LocalDateTime now = LocalDateTime.now();
+        int claimed = QuarkusTransaction.requiringNew().call(() -> nativeUpdate(CLAIM)
+                .setParameter(1, keyHash)
+                .setParameter(2, fingerprint)
+                .setParameter(3, claimId)
+                .setParameter(4, now.plusSeconds(lockSeconds))
+                .setParameter(5, now.plusSeconds(ttlSeconds))
+                .setParameter(6, now)
+                .executeUpdate());
+        return claimed == 1;
+    }
+
+    /**
+     * Runs the write and stores its response in the same transaction.
+     */
+    private Stored run(String keyHash, String fingerprint, UUID claimId, Response.Status status, Supplier<?> operation) {
+        try {
+            return QuarkusTransaction.requiringNew().call(() -> {
+                byte[] body = json(operation.get());
+                LocalDateTime expiresAt = LocalDateTime.now().plusSeconds(ttlSeconds);
+                int updated = nativeUpdate(COMPLETE)
+                        .setParameter(1, status.getStatusCode())
+                        .setParameter(2, body)
+                        .setParameter(3, keyHash)
+                        .setParameter(4, claimId)
+                        .setParameter(5, expiresAt)
+                        .executeUpdate();
+                if (updated == 0) {
+                    // The lease ran out and another request took the key over; roll this write back.
+                    throw inProgress();
+                }
+                return new Stored(fingerprint, status.getStatusCode(), body, expiresAt);
+            });
+        } catch (RuntimeException e) {
+            release(keyHash, claimId);
+            throw e;
+        }
+    }
+
+    private void release(String keyHash, UUID claimId) {
+        try {
+            QuarkusTransaction.requiringNew().run(() -> nativeUpdate(RELEASE)
+                    .setParameter(1, keyHash)
+                    .setParameter(2, claimId)
+                    .executeUpdate());
+        } catch (RuntimeException e) {
+            // The lease still runs out, after which the key can be claimed again.
+            LOG.warn("Failed to release idempotency key claim", e);
+        }
+    }
+
+    void purgeExpired() {
+        long deleted = QuarkusTransaction.requiringNew()
+                .call(() -> IdempotencyRecord.delete("expiresAt < ?1", LocalDateTime.now()));
+        if (deleted > 0) {
+            LOG.debugf("Purged %d expired idempotency keys", deleted);
+        }
+    }
+
+    // Naming the table keeps Hibernate from evicting every second-level cache region on each update.
+    private static NativeQuery<?> nativeUpdate(String sql) {
+        return IdempotencyRecord.getEntityManager().createNativeQuery(sql)
+                .unwrap(NativeQuery.class)
+                .addSynchronizedEntityClass(IdempotencyRecord.class);
+    }
+
+    // Continuations run back on the request's Vert.x context, where its deadline and request
+    // context live, so a write started after waiting gets them too.
+    private static Executor callerContext() {
+        Context context = Vertx.currentContext();
+        return context == null ? Runnable::run : task -> context.runOnContext(ignored -> task.run());
+    }
+
+    private static Duration remaining(long waitUntil) {
+        return Duration.ofNanos(Math.max(waitUntil - System.nanoTime(), 1));
+    }
+
+    private static Response replay(Stored stored, String fingerprint) {
+        if (!stored.fingerprint().equals(fingerprint)) {
+            throw reused();
+        }
+        return Response.status(stored.status())
+                .entity(stored.body())
+                .type(MediaType.APPLICATION_JSON)
+                .header(REPLAYED_HEADER, "true")
+                .build();
+    }
+
+    private byte[] json(Object value) {
+        try {
+            return objectMapper.writeValueAsBytes(value);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Failed to serialize idempotent request", e);
+        }
+    }
+
+    // SHA-256, base64url without padding: 43 characters whatever the input size.
+    static String hash(String scope, byte[] data) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            digest.update(scope.getBytes(StandardCharsets.UTF_8));
+            digest.update((byte) 0);
+            digest.update(data);
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(digest.digest());
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static BusinessException reused() {
+        return new BusinessException(HEADER + " was already used for a different request");
+    }
+
+    private ConflictException inProgress() {
+        return new ConflictException("A request with this " + HEADER + " is still in progress, please retry",
+                retryAfterSeconds);
+    }
+
+    private static final class UntilExpiry implements Expiry<String, Stored> {
+
+        @Override
+        public long expireAfterCreate(String keyHash, Stored stored, long currentTime) {
+            return Math.max(Duration.between(LocalDateTime.now(), stored.expiresAt()).toNanos(), 0);
+        }
+
+        @Override
+        public long expireAfterUpdate(String keyHash, Stored stored, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+
+        @Override
+        public long expireAfterRead(String keyHash, Stored stored, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
@@ -0,0 +1,29 @@
+package com.duckstock.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+@Name("com.duckstock.BulkImport")
+@Label("Bulk Import")
+@Category({"DuckStock", "Catalog"})
+@Description("Catalog rows written in one operation: a seed or a batch of product compositions")
+public class BulkImportEvent extends Event {
+
+    public static final String SEED = "seed";
+    public static final String COMPOSITIONS = "compositions";
+
+    @Label("Source")
+    public String source;
+
+    @Label("Products")
+    public int products;
+
+    @Label("Raw Materials")
+    public int rawMaterials;
+
+    @Label("Compositions")
+    public int compositions;
+}
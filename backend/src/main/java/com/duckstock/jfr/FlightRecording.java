@@ -0,0 +1,94 @@
+package com.duckstock.jfr;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.text.ParseException;
+import java.time.Duration;
+
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.jboss.logging.Logger;
+
+import io.quarkus.runtime.ShutdownEvent;
+import io.quarkus.runtime.StartupEvent;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jdk.jfr.Configuration;
+import jdk.jfr.FlightRecorder;
+import jdk.jfr.Recording;
+
+/**
+ * Records the application's Flight Recorder events from startup when {@code duckstock.jfr.enabled}
+ * is set, with the settings profile shipped in {@value #SETTINGS}.
+ *
+ * The events cost nothing measurable while no recording enables them: each call site checks
+ * {@code shouldCommit()} (or {@code isEnabled()} for instant events) before filling in any field.
+ * The recording keeps the last {@code max-age-minutes} on disk and is written to {@code file} on
+ * shutdown; {@code jcmd <pid> JFR.dump name=duckstock} writes it at any time.
+ */
+@ApplicationScoped
+public class FlightRecording {
+
+    private static final Logger LOG = Logger.getLogger(FlightRecording.class);
+
+    static final String SETTINGS = "/jfr/duckstock.jfc";
+
+    @ConfigProperty(name = "duckstock.jfr.enabled", defaultValue = "false")
+    boolean enabled;
+
+    @ConfigProperty(name = "duckstock.jfr.file", defaultValue = "duckstock.jfr")
+    String file;
+
+    @ConfigProperty(name = "duckstock.jfr.max-age-minutes", defaultValue = "60")
+    long maxAgeMinutes;
+
+    @ConfigProperty(name = "duckstock.jfr.max-size-mb", defaultValue = "256")
+    long maxSizeMb;
+
+    private Recording recording;
+
+    void start(@Observes StartupEvent event) {
+        if (!enabled) {
+            return;
+        }
+        if (!FlightRecorder.isAvailable()) {
+            LOG.warn("duckstock.jfr.enabled is set but Flight Recorder is not available in this JVM");
+            return;
+        }
+        try {
+            recording = new Recording(settings());
+            recording.setName("duckstock");
+            recording.setToDisk(true);
+            recording.setMaxAge(Duration.ofMinutes(Math.max(maxAgeMinutes, 1)));
+            recording.setMaxSize(Math.max(maxSizeMb, 1) * 1024 * 1024);
+            recording.setDestination(Path.of(file));
+            recording.start();
+            LOG.infof("Flight recording started with %s, written to %s on shutdown", SETTINGS, file);
+        } catch (IOException | ParseException e) {
+            LOG.warnf(e, "Could not start the flight recording");
+            recording = null;
+        }
+    }
+
+    void stop(@Observes ShutdownEvent event) {
+        if (recording != null) {
+            // Stopping writes the recording to its destination.
+            recording.stop();
+            recording.close();
+        }
+    }
+
+    static Configuration settings() throws IOException, ParseException {
+        try (InputStream in = FlightRecording.class.getResourceAsStream(SETTINGS)) {
+            if (in == null) {
+                throw new IOException(SETTINGS + " is missing from the classpath");
+            }
+            try (Reader reader = new InputStreamReader(in, StandardCharsets.UTF_8)) {
+                return Configuration.create(reader);
+            }
+        }
+    }
+}
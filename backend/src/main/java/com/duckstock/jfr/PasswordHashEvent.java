@@ -0,0 +1,21 @@
+package com.duckstock.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+@Name("com.duckstock.PasswordHash")
+@Label("Password Hash")
+@Category({"DuckStock", "Security"})
+@Description("A password hashed or verified")
+public class PasswordHashEvent extends Event {
+
+    @Label("Algorithm")
+    public String algorithm;
+
+    @Label("Operation")
+    @Description("hash or verify")
+    public String operation;
+}
@@ -0,0 +1,27 @@
+package com.duckstock.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+@Name("com.duckstock.Production")
+@Label("Production")
+@Category({"DuckStock", "Production"})
+@Description("Product units created and raw materials deducted by a production run")
+public class ProductionEvent extends Event {
+
+    @Label("Product")
+    public String productId;
+
+    @Label("Requested")
+    public int requested;
+
+    @Label("Produced")
+    public int produced;
+
+    @Label("Raw Materials")
+    @Description("Raw material stocks deducted")
+    public int materials;
+}
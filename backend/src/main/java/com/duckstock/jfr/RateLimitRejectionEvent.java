@@ -0,0 +1,34 @@
+package com.duckstock.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+@Name("com.duckstock.RateLimitRejection")
+@Label("Rate Limit Rejection")
+@Category({"DuckStock", "Rate Limiting"})
+@Description("A request answered with 429 by the per-client rate limit")
+@StackTrace(false)
+public class RateLimitRejectionEvent extends Event {
+
+    @Label("Method")
+    public String method;
+
+    @Label("Path")
+    public String path;
+
+    @Label("Cost")
+    public int cost;
+
+    @Label("Cluster")
+    @Description("Rejected by the cluster-wide budget rather than this instance's limit")
+    public boolean cluster;
+
+    @Label("Retry After")
+    @Timespan(Timespan.NANOSECONDS)
+    public long retryAfter;
+}
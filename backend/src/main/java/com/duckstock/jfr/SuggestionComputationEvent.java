@@ -0,0 +1,28 @@
+package com.duckstock.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+@Name("com.duckstock.SuggestionComputation")
+@Label("Suggestion Computation")
+@Category({"DuckStock", "Planning"})
+@Description("One run of the production planner over the catalog")
+public class SuggestionComputationEvent extends Event {
+
+    @Label("Strategy")
+    public String strategy;
+
+    @Label("Products")
+    @Description("Products evaluated")
+    public int products;
+
+    @Label("Raw Materials")
+    @Description("Distinct raw materials in the virtual stock")
+    public int materials;
+
+    @Label("Suggestions")
+    public int suggestions;
+}
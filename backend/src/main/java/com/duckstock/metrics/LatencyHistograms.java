@@ -0,0 +1,39 @@
+package com.duckstock.metrics;
+
+import java.time.Duration;
+
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.config.MeterFilter;
+import io.micrometer.core.instrument.distribution.DistributionStatisticConfig;
+import jakarta.enterprise.inject.Produces;
+import jakarta.inject.Singleton;
+
+/**
+ * Publishes the per-endpoint request timers ({@code http_server_requests_seconds}, tagged with the
+ * route template) as Prometheus histograms, so latency percentiles can be aggregated across
+ * instances instead of only averaged.
+ */
+@Singleton
+public class LatencyHistograms {
+
+    private static final String HTTP_SERVER_REQUESTS = "http.server.requests";
+
+    @Produces
+    @Singleton
+    MeterFilter httpServerHistograms() {
+        return new MeterFilter() {
+            @Override
+            public DistributionStatisticConfig configure(Meter.Id id, DistributionStatisticConfig config) {
+                if (!HTTP_SERVER_REQUESTS.equals(id.getName())) {
+                    return config;
+                }
+                return DistributionStatisticConfig.builder()
+                        .percentilesHistogram(true)
+                        .minimumExpectedValue((double) Duration.ofMillis(1).toNanos())
+                        .maximumExpectedValue((double) Duration.ofSeconds(30).toNanos())
+                        .build()
+                        .merge(config);
+            }
+        };
+    }
+}
@@ -0,0 +1,208 @@
+package com.duckstock.metrics;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+import com.duckstock.bulkhead.Bulkhead;
+import com.duckstock.bulkhead.Bulkheads;
+import com.duckstock.deadline.Deadline;
+import com.duckstock.deadline.DeadlineFilter;
+import com.duckstock.deadline.DeadlineStats;
+import com.duckstock.entity.Product;
+import com.duckstock.ratelimit.LoadSheddingFilter;
+import com.duckstock.ratelimit.WorkloadClass;
+import com.duckstock.security.PasswordEncoder;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.quarkus.runtime.StartupEvent;
+import jakarta.annotation.PostConstruct;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.inject.Inject;
+
+/**
+ * Meters recorded on the service hot paths, scraped from {@code /q/metrics}.
+ *
+ * Every meter and tag combination is registered once at startup and kept in a field, so recording
+ * is a plain update of an existing meter: no tag arrays, registry lookups or {@code Timer.Sample}s
+ * per request. Durations are passed in as nanos measured by the caller with {@link System#nanoTime()}.
+ *
+ * Load shedding, bulkhead and deadline meters read the counters those components already keep,
+ * when scraped, so they cost nothing on the request path either.
+ */
+@ApplicationScoped
+public class ServiceMetrics {
+
+    @Inject
+    MeterRegistry registry;
+
+    @Inject
+    LoadSheddingFilter loadShedding;
+
+    @Inject
+    Bulkheads bulkheads;
+
+    @Inject
+    DeadlineFilter deadlines;
+
+    private Timer suggestionTime;
+    private DistributionSummary productsEvaluated;
+    private DistributionSummary materialsEvaluated;
+    private Counter unitsProduced;
+    private Counter stockDeductions;
+    private Counter unitsDeducted;
+    private Timer bcryptHash;
+    private Timer bcryptVerify;
+    private Timer pbkdf2Hash;
+    private Timer pbkdf2Verify;
+    private Counter rateLimitAllowed;
+    private Counter rateLimitRejected;
+
+    @PostConstruct
+    void register() {
+        suggestionTime = Timer.builder("duckstock.suggestions.computation")
+                .description("Time spent planning production suggestions, excluding the catalog queries")
+                .publishPercentileHistogram()
+                .register(registry);
+        productsEvaluated = DistributionSummary.builder("duckstock.suggestions.products.evaluated")
+                .description("Products evaluated per suggestion computation")
+                .baseUnit("products")
+                .register(registry);
+        materialsEvaluated = DistributionSummary.builder("duckstock.suggestions.materials.evaluated")
+                .description("Raw material requirements evaluated per suggestion computation")
+                .baseUnit("requirements")
+                .register(registry);
+
+        unitsProduced = Counter.builder("duckstock.production.units")
+                .description("Product units created by production runs")
+                .baseUnit("units")
+                .register(registry);
+        stockDeductions = Counter.builder("duckstock.stock.deductions")
+                .description("Raw material stock deductions made by production runs")
+                .register(registry);
+        unitsDeducted = Counter.builder("duckstock.stock.deducted")
+                .description("Raw material units deducted by production runs")
+                .baseUnit("units")
+                .register(registry);
+
+        bcryptHash = passwordTimer(PasswordEncoder.BCRYPT, "hash");
+        bcryptVerify = passwordTimer(PasswordEncoder.BCRYPT, "verify");
+        pbkdf2Hash = passwordTimer(PasswordEncoder.PBKDF2, "hash");
+        pbkdf2Verify = passwordTimer(PasswordEncoder.PBKDF2, "verify");
+
+        rateLimitAllowed = rateLimitCounter("allowed");
+        rateLimitRejected = rateLimitCounter("rejected");
+    }
+
+    void onStart(@Observes StartupEvent event) {
+        registerStateMeters();
+    }
+
+    void registerStateMeters() {
+        Gauge.builder("duckstock.load.shedding.limit", loadShedding, LoadSheddingFilter::limit)
+                .description("Current adaptive concurrency limit")
+                .register(registry);
+        Gauge.builder("duckstock.load.shedding.in.flight", loadShedding, LoadSheddingFilter::inFlight)
+                .description("Requests currently admitted by the concurrency limit")
+                .register(registry);
+        for (WorkloadClass workload : WorkloadClass.values()) {
+            FunctionCounter.builder("duckstock.load.shedding.rejected", loadShedding,
+                            filter -> filter.rejectedCount(workload))
+                    .description("Requests rejected with 503 by the concurrency limit")
+                    .tag("workload", workload.name().toLowerCase(Locale.ROOT))
+                    .register(registry);
+        }
+
+        for (Bulkhead bulkhead : bulkheads.all()) {
+            Gauge.builder("duckstock.bulkhead.queue.depth", bulkhead, Bulkhead::queueDepth)
+                    .description("Tasks waiting for a bulkhead thread")
+                    .tag("bulkhead", bulkhead.name())
+                    .register(registry);
+            Gauge.builder("duckstock.bulkhead.active", bulkhead, Bulkhead::activeThreads)
+                    .description("Bulkhead threads running a task")
+                    .tag("bulkhead", bulkhead.name())
+                    .baseUnit("threads")
+                    .register(registry);
+            FunctionCounter.builder("duckstock.bulkhead.rejected", bulkhead, Bulkhead::rejectedCount)
+                    .description("Tasks rejected with 503 because the bulkhead queue was full")
+                    .tag("bulkhead", bulkhead.name())
+                    .register(registry);
+            FunctionCounter.builder("duckstock.bulkhead.pinned", bulkhead, Bulkhead::pinnedCount)
+                    .description("Times a virtual thread of the bulkhead blocked while pinned to its carrier")
+                    .tag("bulkhead", bulkhead.name())
+                    .register(registry);
+        }
+
+        DeadlineStats deadlineStats = deadlines.counters();
+        for (Deadline.Stage stage : Deadline.Stage.values()) {
+            String tag = stage.name().toLowerCase(Locale.ROOT);
+            FunctionCounter.builder("duckstock.deadline.expired", deadlineStats, stats -> stats.expiredCount(stage))
+                    .description("Requests whose deadline passed, by the stage that noticed")
+                    .tag("stage", tag)
+                    .register(registry);
+            FunctionCounter.builder("duckstock.deadline.skipped.work", deadlineStats,
+                            stats -> stats.skippedWork(stage))
+                    .description("Units of work not done because the request deadline had passed")
+                    .tag("stage", tag)
+                    .baseUnit("units")
+                    .register(registry);
+        }
+    }
+
+    private Timer passwordTimer(String algorithm, String operation) {
+        return Timer.builder("duckstock.password.hashing")
+                .description("Time spent computing password hashes")
+                .tag("algorithm", algorithm)
+                .tag("operation", operation)
+                .publishPercentileHistogram()
+                .register(registry);
+    }
+
+    private Counter rateLimitCounter(String decision) {
+        return Counter.builder("duckstock.rate.limit.decisions")
+                .description("Requests allowed or rejected by the per-client rate limit")
+                .tag("decision", decision)
+                .register(registry);
+    }
+
+    /**
+     * Records one run of the production planner over {@code products}.
+     */
+    public void suggestionsComputed(List<Product> products, long nanos) {
+        long requirements = 0;
+        for (int i = 0; i < products.size(); i++) {
+            List<?> rawMaterials = products.get(i).rawMaterials;
+            requirements += rawMaterials == null ? 0 : rawMaterials.size();
+        }
+        suggestionTime.record(nanos, TimeUnit.NANOSECONDS);
+        productsEvaluated.record(products.size());
+        materialsEvaluated.record(requirements);
+    }
+
+    public void unitsProduced(int units) {
+        unitsProduced.increment(units);
+    }
+
+    public void stockDeducted(int units) {
+        stockDeductions.increment();
+        unitsDeducted.increment(units);
+    }
+
+    public void passwordHashed(String algorithm, long nanos) {
+        (PasswordEncoder.PBKDF2.equals(algorithm) ? pbkdf2Hash : bcryptHash).record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    public void passwordVerified(String algorithm, long nanos) {
+        (PasswordEncoder.PBKDF2.equals(algorithm) ? pbkdf2Verify : bcryptVerify).record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    public void rateLimitDecision(boolean allowed) {
+        (allowed ? rateLimitAllowed : rateLimitRejected).increment();
+    }
+}
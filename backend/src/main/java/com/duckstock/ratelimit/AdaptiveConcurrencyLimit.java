@@ -0,0 +1,109 @@
+package com.duckstock.ratelimit;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A concurrency limit that adapts to latency, in the style of AIMD congestion control.
+ *
+ * Every completed request is a sample. Latency is tracked as a short (recent) and a long (baseline)
+ * moving average; when the recent latency exceeds {@code tolerance} times the baseline, or when
+ * requests are waiting for a database connection, the limit is multiplied by {@code backoffRatio},
+ * at most once per recent round trip. Otherwise the limit grows by one whenever at least half of it
+ * was in use, so it only grows while it is actually what holds requests back.
+ */
+public final class AdaptiveConcurrencyLimit {
+
+    private static final double SHORT_ALPHA = 0.1;
+    private static final double LONG_ALPHA = 0.01;
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final double backoffRatio;
+    private final double tolerance;
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private volatile double limit;
+    private volatile int poolWaiters;
+
+    // Guarded by this.
+    private double shortRttNanos;
+    private double longRttNanos;
+    private long lastDecreaseNanos;
+
+    public AdaptiveConcurrencyLimit(int initialLimit, int minLimit, int maxLimit, double backoffRatio, double tolerance) {
+        this.minLimit = Math.max(1, minLimit);
+        this.maxLimit = Math.max(this.minLimit, maxLimit);
+        this.backoffRatio = Math.min(Math.max(backoffRatio, 0.1), 0.99);
+        this.tolerance = Math.max(tolerance, 1.0);
+        this.limit = Math.min(Math.max(initialLimit, this.minLimit), this.maxLimit);
+    }
+
+    /**
+     * Takes a slot if fewer than {@code share} of the limit are in use. Every successful call
+     * must be followed by exactly one {@link #release}.
+     */
+    public boolean tryAcquire(double share) {
+        int allowed = Math.max(1, (int) (limit * share));
+        while (true) {
+            int current = inFlight.get();
+            if (current >= allowed) {
+                return false;
+            }
+            if (inFlight.compareAndSet(current, current + 1)) {
+                return true;
+            }
+        }
+    }
+
+    public void release(long rttNanos, long nowNanos) {
+        int observed = inFlight.getAndDecrement();
+        onSample(Math.max(rttNanos, 0), observed, nowNanos);
+    }
+
+    /**
+     * Connections currently awaited from the pool; any waiter counts as congestion.
+     */
+    public void poolWaiters(int waiters) {
+        poolWaiters = waiters;
+    }
+
+    private synchronized void onSample(long rttNanos, int observed, long nowNanos) {
+        if (longRttNanos == 0) {
+            shortRttNanos = rttNanos;
+            longRttNanos = rttNanos;
+        } else {
+            shortRttNanos += (rttNanos - shortRttNanos) * SHORT_ALPHA;
+            longRttNanos += (rttNanos - longRttNanos) * LONG_ALPHA;
+        }
+
+        double current = limit;
+        if (poolWaiters > 0 || shortRttNanos > longRttNanos * tolerance) {
+            if (nowNanos - lastDecreaseNanos >= shortRttNanos) {
+                limit = Math.max(minLimit, current * backoffRatio);
+                lastDecreaseNanos = nowNanos;
+            }
+        } else if (observed * 2 >= current) {
+            limit = Math.min(maxLimit, current + 1);
+        }
+    }
+
+    public int limit() {
+        return (int) limit;
+    }
+
+    public int inFlight() {
+        return inFlight.get();
+    }
+
+    public int poolWaiters() {
+        return poolWaiters;
+    }
+
+    public synchronized long latencyNanos() {
+        return (long) shortRttNanos;
+    }
+
+    public synchronized long baselineLatencyNanos() {
+        return (long) longRttNanos;
+    }
+}
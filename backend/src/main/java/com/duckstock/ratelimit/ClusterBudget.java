@@ -0,0 +1,165 @@
+package com.duckstock.ratelimit;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.jboss.logging.Logger;
+
+/**
+ * One instance's view of cluster-wide usage, enforcing a shared sliding-window limit.
+ *
+ * Decisions are local: they compare the cluster totals from the last sync plus what this
+ * instance admitted since then against the limit. {@link #sync} (run periodically, off the
+ * request path) pushes the local units to the {@link UsageStore} and pulls fresh totals.
+ *
+ * Between two syncs an instance admits at most {@code localBudget} units per client, so with
+ * {@code n} instances a client can exceed the limit by at most {@code n * localBudget} units.
+ * {@code localBudget} must cover the most expensive request, or that request is never admitted.
+ * If the store cannot be reached, units stay unsynced and are pushed by the next sync that
+ * succeeds; until then each instance admits at most {@code localBudget} more units per client.
+ */
+public final class ClusterBudget {
+
+    private static final Logger LOG = Logger.getLogger(ClusterBudget.class);
+
+    private static final class Usage {
+        final AtomicLong unsynced = new AtomicLong();
+        // Pushed to the store but not yet part of the cluster totals.
+        final AtomicLong inFlight = new AtomicLong();
+        volatile long window = Long.MIN_VALUE;
+        volatile long clusterCurrent;
+        volatile long clusterPrevious;
+    }
+
+    private final UsageStore store;
+    private final long limit;
+    private final long windowNanos;
+    private final long localBudget;
+    private final int maxClients;
+    private final ConcurrentHashMap<String, Usage> usageByClient = new ConcurrentHashMap<>();
+
+    public ClusterBudget(UsageStore store, long limit, long windowNanos, long localBudget, int maxClients) {
+        this.store = store;
+        this.limit = limit;
+        this.windowNanos = Math.max(1, windowNanos);
+        this.localBudget = Math.max(1, localBudget);
+        this.maxClients = Math.max(1, maxClients);
+    }
+
+    /**
+     * Same contract as {@link RateLimitAlgorithm#acquire}: remaining units, or the negated wait.
+     */
+    public long acquire(String key, int cost, long nowNanos) {
+        Usage usage = usageByClient.get(key);
+        if (usage == null) {
+            if (usageByClient.size() >= maxClients) {
+                // Past the ceiling new clients are left to the local limiter until a sync prunes.
+                return limit;
+            }
+            usage = usageByClient.computeIfAbsent(key, k -> new Usage());
+        }
+
+        long window = nowNanos / windowNanos;
+        long intoWindow = nowNanos - window * windowNanos;
+        long previous;
+        long current;
+        long seen = usage.window;
+        if (seen == window) {
+            previous = usage.clusterPrevious;
+            current = usage.clusterCurrent;
+        } else if (seen == window - 1) {
+            previous = usage.clusterCurrent;
+            current = 0;
+        } else {
+            previous = 0;
+            current = 0;
+        }
+        long carried = (previous * (windowNanos - intoWindow) + windowNanos - 1) / windowNanos;
+        long needed = Math.min(cost, limit);
+
+        while (true) {
+            long unsynced = usage.unsynced.get();
+            long used = carried + current + usage.inFlight.get() + unsynced;
+            if (used + needed > limit) {
+                return RateLimitAlgorithm.rejected(windowNanos - intoWindow);
+            }
+            if (unsynced + needed > localBudget) {
+                // This instance has handed out its share; the next sync tells it how much is left.
+                return RateLimitAlgorithm.rejected(1);
+            }
+            if (usage.unsynced.compareAndSet(unsynced, unsynced + needed)) {
+                return limit - used - needed;
+            }
+        }
+    }
+
+    /**
+     * Pushes local usage and refreshes cluster totals. Not thread-safe: call from one thread.
+     */
+    public void sync(long nowNanos) {
+        long window = nowNanos / windowNanos;
+        Map<String, Long> deltas = new HashMap<>();
+        List<String> keys = new ArrayList<>();
+        for (Map.Entry<String, Usage> entry : usageByClient.entrySet()) {
+            Usage usage = entry.getValue();
+            long delta = usage.unsynced.get();
+            if (delta > 0) {
+                // Counted as in flight until the totals that include it are visible. Moved there
+                // before it leaves unsynced, so a concurrent acquire may count it twice but never misses it.
+                usage.inFlight.addAndGet(delta);
+                usage.unsynced.addAndGet(-delta);
+                deltas.put(entry.getKey(), delta);
+                keys.add(entry.getKey());
+            } else if (usage.window >= window - 1) {
+                keys.add(entry.getKey());
+            } else {
+                usageByClient.remove(entry.getKey(), usage);
+            }
+        }
+        if (keys.isEmpty()) {
+            return;
+        }
+
+        Map<String, UsageStore.Totals> totals;
+        try {
+            totals = store.addAndGet(window, deltas, keys);
+        } catch (Exception e) {
+            LOG.warnf("Cluster rate limit sync failed, retrying with the next one: %s", e.getMessage());
+            totals = null;
+        }
+
+        for (String key : keys) {
+            Usage usage = usageByClient.get(key);
+            if (usage == null) {
+                continue;
+            }
+            long delta = deltas.getOrDefault(key, 0L);
+            if (totals != null) {
+                UsageStore.Totals total = totals.get(key);
+                usage.clusterCurrent = total != null ? total.current() : 0;
+                usage.clusterPrevious = total != null ? total.previous() : 0;
+                usage.window = window;
+            } else if (delta > 0) {
+                // Not stored: pushed again with the next sync.
+                usage.unsynced.addAndGet(delta);
+            }
+            usage.inFlight.addAndGet(-delta);
+        }
+    }
+
+    public void purge(long nowNanos) {
+        try {
+            store.purgeBefore(nowNanos / windowNanos - 1);
+        } catch (Exception e) {
+            LOG.warnf("Cluster rate limit purge failed: %s", e.getMessage());
+        }
+    }
+
+    int trackedClients() {
+        return usageByClient.size();
+    }
+}
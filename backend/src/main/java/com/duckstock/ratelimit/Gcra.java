@@ -0,0 +1,58 @@
+package com.duckstock.ratelimit;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Generic cell rate algorithm. The state is the theoretical arrival time (TAT): the moment the
+ * client's allowance would be fully replenished. Each unit pushes it forward by one emission
+ * interval, and a request is allowed while the TAT stays within one window of now. This behaves
+ * like a token bucket that refills continuously, with a single timestamp as state.
+ */
+final class Gcra implements RateLimitAlgorithm {
+
+    static final String NAME = "gcra";
+
+    private final long limit;
+    private final long intervalNanos;
+    private final long windowNanos;
+
+    Gcra(long limit, long windowNanos) {
+        if (limit < 1 || windowNanos / limit < 1) {
+            throw new IllegalStateException("GCRA needs a limit of at least 1 and at most one unit per nanosecond");
+        }
+        this.limit = limit;
+        this.intervalNanos = windowNanos / limit;
+        this.windowNanos = intervalNanos * limit;
+    }
+
+    @Override
+    public long limit() {
+        return limit;
+    }
+
+    @Override
+    public long initialState(long nowNanos) {
+        return nowNanos;
+    }
+
+    @Override
+    public long acquire(AtomicLong state, int cost, long nowNanos) {
+        long increment = Math.min(cost, limit) * intervalNanos;
+        while (true) {
+            long tat = state.get();
+            long newTat = Math.max(tat, nowNanos) + increment;
+            long ahead = newTat - nowNanos;
+            if (ahead > windowNanos) {
+                return RateLimitAlgorithm.rejected(ahead - windowNanos);
+            }
+            if (state.compareAndSet(tat, newTat)) {
+                return (windowNanos - ahead) / intervalNanos;
+            }
+        }
+    }
+
+    @Override
+    public long resetNanos(long tat, long nowNanos) {
+        return Math.max(0, tat - nowNanos);
+    }
+}
@@ -0,0 +1,96 @@
+package com.duckstock.ratelimit;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.LongUnaryOperator;
+
+/**
+ * Per-client limiter state with a hard size ceiling and O(1) expiry.
+ *
+ * State lives in two generations. Lookups go to the current one first; a client found only in
+ * the previous one is copied forward. When the current generation is full or older than the
+ * maximum age, it becomes the previous one and the old previous generation is dropped whole,
+ * so nothing ever scans the map. A client therefore survives as long as it is seen at least once
+ * per generation, and at most {@code 2 * capacityPerGeneration} clients are held.
+ *
+ * A client evicted under pressure simply starts again with a full allowance. That is only a
+ * lever for an attacker who can mint client keys, which the trusted-proxy rules prevent.
+ */
+public final class LimiterStore {
+
+    private static final class Generation {
+        final ConcurrentHashMap<String, AtomicLong> states;
+        final AtomicInteger size = new AtomicInteger();
+        final long createdNanos;
+
+        Generation(int capacity, long createdNanos) {
+            this.states = new ConcurrentHashMap<>(Math.min(capacity, 1 << 16));
+            this.createdNanos = createdNanos;
+        }
+    }
+
+    private final int capacityPerGeneration;
+    private final long maxAgeNanos;
+    private final ReentrantLock rotation = new ReentrantLock();
+    private final AtomicInteger rotations = new AtomicInteger();
+
+    private volatile Generation current;
+    private volatile Generation previous;
+
+    public LimiterStore(int maxClients, long maxAgeNanos, long nowNanos) {
+        this.capacityPerGeneration = Math.max(1, maxClients / 2);
+        this.maxAgeNanos = Math.max(1, maxAgeNanos);
+        this.current = new Generation(capacityPerGeneration, nowNanos);
+        this.previous = new Generation(0, nowNanos);
+    }
+
+    /**
+     * State for {@code key}, created with {@code initialState} if the client is unknown.
+     */
+    public AtomicLong stateFor(String key, long nowNanos, LongUnaryOperator initialState) {
+        Generation generation = current;
+        AtomicLong state = generation.states.get(key);
+        if (state != null) {
+            return state;
+        }
+
+        if (generation.size.get() >= capacityPerGeneration || nowNanos - generation.createdNanos >= maxAgeNanos) {
+            generation = rotate(generation, nowNanos);
+        }
+
+        AtomicLong carried = previous.states.get(key);
+        AtomicLong created = carried != null ? carried : new AtomicLong(initialState.applyAsLong(nowNanos));
+        AtomicLong existing = generation.states.putIfAbsent(key, created);
+        if (existing != null) {
+            return existing;
+        }
+        generation.size.incrementAndGet();
+        return created;
+    }
+
+    public int size() {
+        return current.size.get() + previous.size.get();
+    }
+
+    public int rotations() {
+        return rotations.get();
+    }
+
+    // Only one thread rotates; the others carry on with whatever generation is current.
+    private Generation rotate(Generation seen, long nowNanos) {
+        if (rotation.tryLock()) {
+            try {
+                if (current == seen) {
+                    previous = seen;
+                    current = new Generation(capacityPerGeneration, nowNanos);
+                    rotations.incrementAndGet();
+                }
+            } finally {
+                rotation.unlock();
+            }
+        }
+        return current;
+    }
+}
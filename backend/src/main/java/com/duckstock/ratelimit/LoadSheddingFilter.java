@@ -0,0 +1,167 @@
+package com.duckstock.ratelimit;
+
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+import com.duckstock.dto.admin.ConcurrencyStatsResponse;
+
+import io.agroal.api.AgroalDataSource;
+import io.vertx.core.Vertx;
+import io.vertx.core.http.HttpHeaders;
+import io.vertx.core.http.HttpServerRequest;
+import io.vertx.ext.web.Router;
+import io.vertx.ext.web.RoutingContext;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+
+/**
+ * Sheds load with 503 once the {@link AdaptiveConcurrencyLimit} is reached, before a request can
+ * queue for a worker thread or a database connection.
+ *
+ * Each {@link WorkloadClass} may use its configured share of the limit, so planning endpoints are
+ * shed first and authentication and reads last. Connections awaited from the Agroal pool are
+ * sampled periodically and count as congestion, which is usually the first sign of a slow database.
+ */
+@ApplicationScoped
+public class LoadSheddingFilter {
+
+    @ConfigProperty(name = "duckstock.load-shedding.enabled", defaultValue = "true")
+    boolean enabled;
+
+    @ConfigProperty(name = "duckstock.load-shedding.initial-limit", defaultValue = "64")
+    int initialLimit;
+
+    @ConfigProperty(name = "duckstock.load-shedding.min-limit", defaultValue = "8")
+    int minLimit;
+
+    @ConfigProperty(name = "duckstock.load-shedding.max-limit", defaultValue = "512")
+    int maxLimit;
+
+    @ConfigProperty(name = "duckstock.load-shedding.backoff-ratio", defaultValue = "0.9")
+    double backoffRatio;
+
+    @ConfigProperty(name = "duckstock.load-shedding.latency-tolerance", defaultValue = "2.0")
+    double latencyTolerance;
+
+    @ConfigProperty(name = "duckstock.load-shedding.share.auth", defaultValue = "1.0")
+    double authShare;
+
+    @ConfigProperty(name = "duckstock.load-shedding.share.read", defaultValue = "0.9")
+    double readShare;
+
+    @ConfigProperty(name = "duckstock.load-shedding.share.write", defaultValue = "0.75")
+    double writeShare;
+
+    @ConfigProperty(name = "duckstock.load-shedding.share.planning", defaultValue = "0.5")
+    double planningShare;
+
+    @ConfigProperty(name = "duckstock.load-shedding.pool-sample-millis", defaultValue = "100")
+    long poolSampleMillis;
+
+    @Inject
+    Router router;
+
+    @Inject
+    Vertx vertx;
+
+    @Inject
+    AgroalDataSource dataSource;
+
+    private final long origin = System.nanoTime();
+    private final WorkloadClass[] classes = WorkloadClass.values();
+    private final LongAdder[] admitted = adders();
+    private final LongAdder[] rejected = adders();
+
+    private AdaptiveConcurrencyLimit limit;
+    private double[] shares;
+    private long poolTimerId = -1;
+
+    @PostConstruct
+    void register() {
+        limit = new AdaptiveConcurrencyLimit(initialLimit, minLimit, maxLimit, backoffRatio, latencyTolerance);
+        // Indexed by WorkloadClass ordinal.
+        shares = new double[] { authShare, readShare, writeShare, planningShare };
+        if (enabled && poolSampleMillis > 0) {
+            // Agroal only counts waiters while its metrics are on; they are plain counters.
+            dataSource.getConfiguration().setMetricsEnabled(true);
+            poolTimerId = vertx.setPeriodic(poolSampleMillis,
+                    id -> limit.poolWaiters((int) dataSource.getMetrics().awaitingCount()));
+        }
+
+        // After rate limiting (order 10) and cached responses (order 20), which never reach the database.
+        router.route().order(30).handler(this::handle);
+    }
+
+    @PreDestroy
+    void stop() {
+        if (poolTimerId >= 0) {
+            vertx.cancelTimer(poolTimerId);
+        }
+    }
+
+    void handle(RoutingContext routingContext) {
+        HttpServerRequest request = routingContext.request();
+        WorkloadClass workload = enabled ? WorkloadClass.of(request.method().name(), request.path()) : null;
+        if (workload == null) {
+            routingContext.next();
+            return;
+        }
+
+        if (!limit.tryAcquire(shares[workload.ordinal()])) {
+            rejected[workload.ordinal()].increment();
+            routingContext.response().setStatusCode(503)
+                    .putHeader(HttpHeaders.CONTENT_TYPE, "application/json")
+                    .putHeader(HttpHeaders.RETRY_AFTER, "1")
+                    .end("{\"status\":503,\"message\":\"Server is busy, please retry\"}");
+            return;
+        }
+        admitted[workload.ordinal()].increment();
+
+        long start = System.nanoTime();
+        // Runs once whether the response completes or the connection is dropped.
+        routingContext.addEndHandler(ignored -> {
+            long end = System.nanoTime();
+            limit.release(end - start, end - origin);
+        });
+        routingContext.next();
+    }
+
+    public int limit() {
+        return limit.limit();
+    }
+
+    public int inFlight() {
+        return limit.inFlight();
+    }
+
+    public long rejectedCount(WorkloadClass workload) {
+        return rejected[workload.ordinal()].sum();
+    }
+
+    public ConcurrencyStatsResponse stats() {
+        return new ConcurrencyStatsResponse(enabled, limit.limit(), limit.inFlight(), limit.latencyNanos() / 1e6,
+                limit.baselineLatencyNanos() / 1e6, limit.poolWaiters(), counts(admitted), counts(rejected));
+    }
+
+    private Map<String, Long> counts(LongAdder[] adders) {
+        Map<String, Long> counts = new LinkedHashMap<>();
+        for (WorkloadClass workload : classes) {
+            counts.put(workload.name().toLowerCase(Locale.ROOT), adders[workload.ordinal()].sum());
+        }
+        return counts;
+    }
+
+    private static LongAdder[] adders() {
+        LongAdder[] adders = new LongAdder[WorkloadClass.values().length];
+        for (int i = 0; i < adders.length; i++) {
+            adders[i] = new LongAdder();
+        }
+        return adders;
+    }
+}
@@ -0,0 +1,79 @@
+package com.duckstock.ratelimit;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.TreeMap;
+
+import io.agroal.api.AgroalDataSource;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+
+/**
+ * {@link UsageStore} on the application database: one upsert batch and one select per sync,
+ * whatever the number of clients.
+ */
+@ApplicationScoped
+public class PostgresUsageStore implements UsageStore {
+
+    private static final String ADD = "insert into rate_limit_usage (client_key, window_index, units) values (?, ?, ?) "
+            + "on conflict (client_key, window_index) do update set units = rate_limit_usage.units + excluded.units";
+    private static final String TOTALS = "select client_key, window_index, units from rate_limit_usage "
+            + "where window_index in (?, ?) and client_key = any (?)";
+    private static final String PURGE = "delete from rate_limit_usage where window_index < ?";
+
+    @Inject
+    AgroalDataSource dataSource;
+
+    @Override
+    public Map<String, Totals> addAndGet(long window, Map<String, Long> deltas, Collection<String> keys) throws SQLException {
+        try (Connection connection = dataSource.getConnection()) {
+            connection.setAutoCommit(true);
+            if (!deltas.isEmpty()) {
+                try (PreparedStatement add = connection.prepareStatement(ADD)) {
+                    // A fixed key order keeps concurrent batches from different instances from deadlocking.
+                    for (Map.Entry<String, Long> delta : new TreeMap<>(deltas).entrySet()) {
+                        add.setString(1, delta.getKey());
+                        add.setLong(2, window);
+                        add.setLong(3, delta.getValue());
+                        add.addBatch();
+                    }
+                    add.executeBatch();
+                }
+            }
+
+            Map<String, long[]> found = new HashMap<>();
+            if (!keys.isEmpty()) {
+                try (PreparedStatement totals = connection.prepareStatement(TOTALS)) {
+                    totals.setLong(1, window);
+                    totals.setLong(2, window - 1);
+                    totals.setArray(3, connection.createArrayOf("text", keys.toArray()));
+                    try (ResultSet rows = totals.executeQuery()) {
+                        while (rows.next()) {
+                            long[] pair = found.computeIfAbsent(rows.getString(1), k -> new long[2]);
+                            pair[rows.getLong(2) == window ? 0 : 1] = rows.getLong(3);
+                        }
+                    }
+                }
+            }
+
+            Map<String, Totals> result = new HashMap<>(found.size() * 2);
+            found.forEach((key, pair) -> result.put(key, new Totals(pair[0], pair[1])));
+            return result;
+        }
+    }
+
+    @Override
+    public void purgeBefore(long window) throws SQLException {
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement purge = connection.prepareStatement(PURGE)) {
+            connection.setAutoCommit(true);
+            purge.setLong(1, window);
+            purge.executeUpdate();
+        }
+    }
+}
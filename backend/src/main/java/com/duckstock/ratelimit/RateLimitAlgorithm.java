@@ -0,0 +1,47 @@
+package com.duckstock.ratelimit;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A rate limiting algorithm whose whole per-client state fits in one {@code long}.
+ *
+ * Decisions are a CAS loop on that word, so they take no locks and allocate nothing. Times are
+ * nanoseconds from an arbitrary origin that must be the same for every call on a given state.
+ */
+public interface RateLimitAlgorithm {
+
+    /**
+     * Units allowed per window. Route costs are expressed in the same units.
+     */
+    long limit();
+
+    /**
+     * State of a client that has not sent anything yet.
+     */
+    long initialState(long nowNanos);
+
+    /**
+     * Takes {@code cost} units. Returns the units still available (zero or more) when allowed,
+     * or the negated number of nanoseconds until the request would be allowed when rejected.
+     */
+    long acquire(AtomicLong state, int cost, long nowNanos);
+
+    /**
+     * Nanoseconds until the client is back to its full allowance.
+     */
+    long resetNanos(long state, long nowNanos);
+
+    static RateLimitAlgorithm create(String name, long limit, long windowNanos) {
+        return switch (name) {
+            case TokenBucket.NAME -> new TokenBucket(limit, windowNanos);
+            case SlidingWindow.NAME -> new SlidingWindow(limit, windowNanos);
+            case Gcra.NAME -> new Gcra(limit, windowNanos);
+            default -> throw new IllegalStateException("Unknown rate limit algorithm: " + name
+                    + " (use " + TokenBucket.NAME + ", " + SlidingWindow.NAME + " or " + Gcra.NAME + ")");
+        };
+    }
+
+    static long rejected(long waitNanos) {
+        return -Math.max(1, waitNanos);
+    }
+}
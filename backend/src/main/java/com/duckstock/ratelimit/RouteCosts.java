@@ -0,0 +1,89 @@
+package com.duckstock.ratelimit;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Per-route request weights, configured as {@code METHOD /path/prefix=cost} entries (method
+ * {@code *} matches any). The longest matching prefix wins; unmatched requests cost 1.
+ *
+ * The same format serves other per-route settings, such as request deadlines, through
+ * {@link #parse(List, String, int)}.
+ */
+public final class RouteCosts {
+
+    private record Rule(String method, String prefix, int cost) {
+
+        boolean matches(String requestMethod, String path) {
+            return ("*".equals(method) || method.equals(requestMethod)) && path.startsWith(prefix)
+                    && (path.length() == prefix.length() || prefix.endsWith("/") || path.charAt(prefix.length()) == '/');
+        }
+    }
+
+    private final Rule[] rules;
+
+    private final int fallback;
+
+    private RouteCosts(Rule[] rules, int fallback) {
+        this.rules = rules;
+        this.fallback = fallback;
+    }
+
+    public static RouteCosts parse(List<String> entries) {
+        return parse(entries, "rate limit route cost", 1);
+    }
+
+    /**
+     * @param setting  what the values are, for error messages
+     * @param fallback the value of requests no entry matches
+     */
+    public static RouteCosts parse(List<String> entries, String setting, int fallback) {
+        List<Rule> rules = new ArrayList<>();
+        for (String entry : entries) {
+            String trimmed = entry.trim();
+            if (trimmed.isEmpty()) {
+                continue;
+            }
+            int space = trimmed.indexOf(' ');
+            int equals = trimmed.lastIndexOf('=');
+            if (space < 1 || equals < space) {
+                throw new IllegalStateException("Invalid " + setting + " '" + entry + "', expected 'METHOD /path=value'");
+            }
+            int cost;
+            try {
+                cost = Integer.parseInt(trimmed.substring(equals + 1).trim());
+            } catch (NumberFormatException e) {
+                throw new IllegalStateException("Invalid value in " + setting + " '" + entry + "'", e);
+            }
+            if (cost < 0) {
+                throw new IllegalStateException("A " + setting + " must not be negative: '" + entry + "'");
+            }
+            rules.add(new Rule(trimmed.substring(0, space).toUpperCase(), trimmed.substring(space + 1, equals).trim(), cost));
+        }
+        // Longest prefix first; for equal prefixes an exact method beats "*".
+        rules.sort(Comparator.comparingInt((Rule rule) -> rule.prefix().length()).reversed()
+                .thenComparing(rule -> "*".equals(rule.method())));
+        return new RouteCosts(rules.toArray(new Rule[0]), fallback);
+    }
+
+    /**
+     * The largest value any request can get.
+     */
+    public int maxCost() {
+        int max = fallback;
+        for (Rule rule : rules) {
+            max = Math.max(max, rule.cost());
+        }
+        return max;
+    }
+
+    public int costOf(String method, String path) {
+        for (Rule rule : rules) {
+            if (rule.matches(method, path)) {
+                return rule.cost();
+            }
+        }
+        return fallback;
+    }
+}
@@ -0,0 +1,103 @@
+package com.duckstock.ratelimit;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Sliding-window counter. Counts are kept per fixed window, and a request is judged against the
+ * current count plus the previous window's count weighted by how much of it still overlaps the
+ * last {@code window} of time. This removes the burst of up to twice the limit that a plain fixed
+ * window allows across a boundary.
+ *
+ * The state packs the window index (upper 32 bits), the previous window's count and the current
+ * window's count (16 bits each).
+ */
+final class SlidingWindow implements RateLimitAlgorithm {
+
+    static final String NAME = "sliding-window";
+
+    private static final long COUNT_MASK = 0xFFFF;
+
+    private final long limit;
+    private final long windowNanos;
+
+    SlidingWindow(long limit, long windowNanos) {
+        if (limit < 1 || limit > COUNT_MASK) {
+            throw new IllegalStateException("Sliding window limit must be between 1 and " + COUNT_MASK);
+        }
+        this.limit = limit;
+        this.windowNanos = Math.max(1, windowNanos);
+    }
+
+    @Override
+    public long limit() {
+        return limit;
+    }
+
+    @Override
+    public long initialState(long nowNanos) {
+        return pack(nowNanos / windowNanos, 0, 0);
+    }
+
+    @Override
+    public long acquire(AtomicLong state, int cost, long nowNanos) {
+        long needed = Math.min(cost, limit);
+        while (true) {
+            long current = state.get();
+            long stateWindow = current >>> 32;
+            // Another thread may already have moved the state into a window we have not reached.
+            long window = Math.max(nowNanos / windowNanos, stateWindow);
+            long intoWindow = Math.max(0, nowNanos - window * windowNanos);
+
+            long previous;
+            long count;
+            if (stateWindow == window) {
+                previous = (current >>> 16) & COUNT_MASK;
+                count = current & COUNT_MASK;
+            } else {
+                previous = stateWindow == window - 1 ? current & COUNT_MASK : 0;
+                count = 0;
+            }
+
+            // Share of the previous window still inside the sliding window, rounded up.
+            long carried = (previous * (windowNanos - intoWindow) + windowNanos - 1) / windowNanos;
+            long used = carried + count;
+            if (used + needed > limit) {
+                return RateLimitAlgorithm.rejected(waitNanos(previous, count, needed, intoWindow));
+            }
+            if (state.compareAndSet(current, pack(window, previous, count + needed))) {
+                return limit - used - needed;
+            }
+        }
+    }
+
+    @Override
+    public long resetNanos(long state, long nowNanos) {
+        long window = nowNanos / windowNanos;
+        long stateWindow = state >>> 32;
+        long count = state & COUNT_MASK;
+        if (stateWindow >= window && count > 0) {
+            // The current count keeps weighing until one full window after its own ends.
+            return (stateWindow + 2) * windowNanos - nowNanos;
+        }
+        boolean previousLeft = stateWindow >= window ? ((state >>> 16) & COUNT_MASK) > 0
+                : stateWindow == window - 1 && count > 0;
+        return previousLeft ? (window + 1) * windowNanos - nowNanos : 0;
+    }
+
+    // Time until the weighted previous count has decayed enough. When the current count alone is
+    // already too high, it becomes the previous count at the next boundary and decays from there.
+    private long waitNanos(long previous, long count, long needed, long intoWindow) {
+        long room = limit - count - needed;
+        if (room < 0) {
+            long excess = -room;
+            return windowNanos - intoWindow + (windowNanos * excess + count - 1) / count;
+        }
+        // previous * (window - t) / window <= room  <=>  t >= window * (previous - room) / previous
+        long allowedAt = (windowNanos * (previous - room) + previous - 1) / previous;
+        return Math.max(1, allowedAt - intoWindow);
+    }
+
+    private static long pack(long window, long previous, long count) {
+        return (window << 32) | (previous << 16) | count;
+    }
+}
@@ -0,0 +1,81 @@
+package com.duckstock.ratelimit;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Classic token bucket holding whole tokens: {@code limit} tokens of capacity, refilled at
+ * {@code limit} per window. The state packs the time of the last refill (milliseconds, upper
+ * {@value #TIME_BITS} bits) and the token count (lower {@value #TOKEN_BITS} bits). Only whole
+ * tokens are added, and the refill time advances by exactly the time they took, so no fraction
+ * of a token is lost between calls.
+ */
+final class TokenBucket implements RateLimitAlgorithm {
+
+    static final String NAME = "token-bucket";
+
+    static final int TOKEN_BITS = 20;
+    static final int TIME_BITS = 64 - TOKEN_BITS;
+    private static final long TOKEN_MASK = (1L << TOKEN_BITS) - 1;
+
+    private final long limit;
+    private final long windowMillis;
+
+    TokenBucket(long limit, long windowNanos) {
+        if (limit < 1 || limit > TOKEN_MASK) {
+            throw new IllegalStateException("Token bucket limit must be between 1 and " + TOKEN_MASK);
+        }
+        this.limit = limit;
+        this.windowMillis = Math.max(1, windowNanos / 1_000_000);
+    }
+
+    @Override
+    public long limit() {
+        return limit;
+    }
+
+    @Override
+    public long initialState(long nowNanos) {
+        return pack(nowNanos / 1_000_000, limit);
+    }
+
+    @Override
+    public long acquire(AtomicLong state, int cost, long nowNanos) {
+        long nowMillis = nowNanos / 1_000_000;
+        long needed = Math.min(cost, limit);
+        while (true) {
+            long current = state.get();
+            long refilledAt = current >>> TOKEN_BITS;
+            long tokens = current & TOKEN_MASK;
+
+            long elapsed = nowMillis - refilledAt;
+            if (elapsed >= windowMillis || tokens + elapsed * limit / windowMillis >= limit) {
+                tokens = limit;
+                refilledAt = nowMillis;
+            } else if (elapsed > 0) {
+                long added = elapsed * limit / windowMillis;
+                tokens += added;
+                refilledAt += added * windowMillis / limit;
+            }
+
+            if (tokens < needed) {
+                long missing = needed - tokens;
+                long waitMillis = refilledAt + (missing * windowMillis + limit - 1) / limit - nowMillis;
+                return RateLimitAlgorithm.rejected(waitMillis * 1_000_000);
+            }
+            if (state.compareAndSet(current, pack(refilledAt, tokens - needed))) {
+                return tokens - needed;
+            }
+        }
+    }
+
+    @Override
+    public long resetNanos(long state, long nowNanos) {
+        long missing = limit - (state & TOKEN_MASK);
+        long fullAt = (state >>> TOKEN_BITS) + (missing * windowMillis + limit - 1) / limit;
+        return Math.max(0, fullAt - nowNanos / 1_000_000) * 1_000_000;
+    }
+
+    private static long pack(long millis, long tokens) {
+        return (millis << TOKEN_BITS) | tokens;
+    }
+}
@@ -0,0 +1,26 @@
+package com.duckstock.ratelimit;
+
+import java.util.Collection;
+import java.util.Map;
+
+/**
+ * Shared per-window usage counters for cluster-wide rate limiting.
+ */
+public interface UsageStore {
+
+    /**
+     * Cluster totals for a client in the current and the previous window.
+     */
+    record Totals(long current, long previous) {}
+
+    /**
+     * Adds this instance's {@code deltas} to window {@code window}, then returns the totals for
+     * every key in {@code keys}. Keys without usage are omitted.
+     */
+    Map<String, Totals> addAndGet(long window, Map<String, Long> deltas, Collection<String> keys) throws Exception;
+
+    /**
+     * Drops windows before {@code window}.
+     */
+    void purgeBefore(long window) throws Exception;
+}
@@ -0,0 +1,34 @@
+package com.duckstock.ratelimit;
+
+/**
+ * Cost classes used to decide what to shed first when the server is saturated.
+ *
+ * Each class may only use its share of the concurrency limit, so as load grows planning requests
+ * are turned away first, then writes, and authentication and cheap reads last.
+ */
+public enum WorkloadClass {
+
+    AUTH,
+    READ,
+    WRITE,
+    PLANNING;
+
+    /**
+     * The class of a request, or {@code null} for requests that are never limited: CORS
+     * preflights, the management endpoints and the long-lived change feed stream, which would hold
+     * a slot for as long as the client stays connected.
+     */
+    public static WorkloadClass of(String method, String path) {
+        if ("OPTIONS".equals(method) || path.startsWith("/q/") || path.equals("/changes/stream")) {
+            return null;
+        }
+        if (path.startsWith("/auth/")) {
+            return AUTH;
+        }
+        // Production runs (create, confirm) update stock and are plain writes.
+        if (path.equals("/production/suggestions") || path.equals("/reactive/production/suggestions")) {
+            return PLANNING;
+        }
+        return "GET".equals(method) || "HEAD".equals(method) ? READ : WRITE;
+    }
+}
@@ -0,0 +1,124 @@
+package com.duckstock.resource;
+
+import java.util.List;
+
+import org.eclipse.microprofile.openapi.annotations.Operation;
+import org.eclipse.microprofile.openapi.annotations.tags.Tag;
+
+import com.duckstock.bulkhead.Bulkheads;
+import com.duckstock.cache.ResponseCache;
+import com.duckstock.cache.UserCache;
+import com.duckstock.deadline.DeadlineFilter;
+import com.duckstock.diagnostics.SqlDiagnostics;
+import com.duckstock.dto.admin.CacheStatsResponse;
+import com.duckstock.ratelimit.LoadSheddingFilter;
+import com.duckstock.security.CachingJwtParser;
+import com.duckstock.security.PasswordHashCalibrator;
+import com.duckstock.security.PasswordHashingExecutor;
+
+import io.smallrye.mutiny.Uni;
+import jakarta.annotation.security.RolesAllowed;
+import jakarta.inject.Inject;
+import jakarta.ws.rs.DefaultValue;
+import jakarta.ws.rs.GET;
+import jakarta.ws.rs.Path;
+import jakarta.ws.rs.Produces;
+import jakarta.ws.rs.QueryParam;
+import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.core.Response;
+
+@Path("/admin")
+@Produces(MediaType.APPLICATION_JSON)
+@RolesAllowed("ADMIN")
+@Tag(name = "Admin", description = "Operational endpoints (ADMIN only)")
+public class AdminResource {
+
+    static final int MAX_CALIBRATION_TARGET_MILLIS = 2000;
+
+    @Inject
+    ResponseCache responseCache;
+
+    @Inject
+    UserCache userCache;
+
+    @Inject
+    CachingJwtParser jwtParser;
+
+    @Inject
+    PasswordHashCalibrator passwordHashCalibrator;
+
+    @Inject
+    PasswordHashingExecutor hashingExecutor;
+
+    @Inject
+    LoadSheddingFilter loadShedding;
+
+    @Inject
+    Bulkheads bulkheads;
+
+    @Inject
+    DeadlineFilter deadlines;
+
+    @Inject
+    SqlDiagnostics sqlDiagnostics;
+
+    @GET
+    @Path("/caches")
+    @Operation(summary = "Hit ratio and size of the in-process caches")
+    public Response caches() {
+        List<CacheStatsResponse> caches = List.of(responseCache.stats(), userCache.stats(), jwtParser.stats());
+        return Response.ok(caches).build();
+    }
+
+    @GET
+    @Path("/concurrency")
+    @Operation(summary = "Current adaptive concurrency limit, latency and shed requests per workload class")
+    public Response concurrency() {
+        return Response.ok(loadShedding.stats()).build();
+    }
+
+    @GET
+    @Path("/bulkheads")
+    @Operation(summary = "Threads, queue depth and rejections of each workload bulkhead")
+    public Response bulkheads() {
+        return Response.ok(bulkheads.stats()).build();
+    }
+
+    @GET
+    @Path("/deadlines")
+    @Operation(summary = "Requests given a deadline, and the work skipped because it passed, per stage")
+    public Response deadlines() {
+        return Response.ok(deadlines.stats()).build();
+    }
+
+    @GET
+    @Path("/sql")
+    @Operation(summary = "Routes running the most SQL statements or repeating a statement (N+1), and the slowest statements")
+    public Response sql() {
+        return Response.ok(sqlDiagnostics.stats()).build();
+    }
+
+    @GET
+    @Path("/password-hash/calibration")
+    @Operation(summary = "Measure password hashing on this machine and recommend parameters",
+            description = "Returns the strongest BCrypt cost and PBKDF2 iteration count whose verification stays "
+                    + "within targetMillis (at most " + MAX_CALIBRATION_TARGET_MILLIS + "). Takes several seconds of CPU "
+                    + "on the password hashing pool.")
+    public Uni<Response> calibratePasswordHash(@QueryParam("targetMillis") @DefaultValue("250") String targetStr) {
+        // Every sample verifies several hashes of about the target's cost on a hashing thread.
+        long targetMillis = Math.min(Math.max(parseOrDefault(targetStr, 250), 1), MAX_CALIBRATION_TARGET_MILLIS);
+        return hashingExecutor.submit(() -> passwordHashCalibrator.calibrate(targetMillis))
+                .map(result -> Response.ok(result).build());
+    }
+
+    private int parseOrDefault(String value, int defaultValue) {
+        if (value == null || value.isBlank()) {
+            return defaultValue;
+        }
+        try {
+            return Integer.parseInt(value);
+        } catch (NumberFormatException e) {
+            return defaultValue;
+        }
+    }
+}
@@ -7,12 +7,17 @@ import org.eclipse.microprofile.jwt.JsonWebToken;
 import org.eclipse.microprofile.openapi.annotations.Operation;
 import org.eclipse.microprofile.openapi.annotations.tags.Tag;
 
+import com.duckstock.bulkhead.Bulkheads;
 import com.duckstock.dto.auth.LoginRequest;
 import com.duckstock.dto.auth.RegisterRequest;
-import com.duckstock.dto.auth.UserResponse;
 import com.duckstock.exception.UnauthorizedException;
+import com.duckstock.security.ClientAddressResolver;
+import com.duckstock.security.LoginThrottle;
+import com.duckstock.security.PasswordHashingExecutor;
 import com.duckstock.service.AuthService;
 
+import io.smallrye.mutiny.Uni;
+import io.vertx.core.http.HttpServerRequest;
 import jakarta.annotation.security.PermitAll;
 import jakarta.annotation.security.RolesAllowed;
 import jakarta.inject.Inject;
@@ -24,6 +29,7 @@ import jakarta.ws.rs.GET;
 import jakarta.ws.rs.POST;
 import jakarta.ws.rs.Path;
 import jakarta.ws.rs.Produces;
+import jakarta.ws.rs.core.Context;
 import jakarta.ws.rs.core.MediaType;
 import jakarta.ws.rs.core.NewCookie;
 import jakarta.ws.rs.core.Response;
@@ -41,6 +47,18 @@ public class AuthResource {
     @Inject
     JsonWebToken jwt;
 
+    @Inject
+    PasswordHashingExecutor hashingExecutor;
+
+    @Inject
+    Bulkheads bulkheads;
+
+    @Inject
+    LoginThrottle loginThrottle;
+
+    @Inject
+    ClientAddressResolver clientAddressResolver;
+
     @ConfigProperty(name = "duckstock.auth.cookie.secure", defaultValue = "false")
     boolean cookieSecure;
 
@@ -53,16 +71,17 @@ public class AuthResource {
     @Consumes(MediaType.APPLICATION_JSON)
     @Operation(summary = "Register a new user", description = "Creates a new user and returns an access token in the response and a refresh token in a cookie.")
     @org.eclipse.microprofile.openapi.annotations.responses.APIResponse(responseCode = "201", description = "User successfully registered")
-    public Response register(@Valid @NotNull(message = "Request body is required") RegisterRequest request) {
-        AuthService.AuthResult result = authService.register(request);
-        NewCookie cookie = buildCookie(result.refreshToken(), result.refreshMaxAge());
-        return Response.status(Response.Status.CREATED)
-                .cookie(cookie)
-                .entity(Map.of(
-                    "user", result.user(),
-                    "accessToken", result.accessToken()
-                ))
-                .build();
+    @org.eclipse.microprofile.openapi.annotations.responses.APIResponse(responseCode = "503", description = "Too many sign-in attempts in progress")
+    public Uni<Response> register(@Valid @NotNull(message = "Request body is required") RegisterRequest request) {
+        // Hashing is CPU-bound; run the whole flow on the hashing pool instead of a request worker.
+        return hashingExecutor.submit(() -> authService.register(request))
+                .map(result -> Response.status(Response.Status.CREATED)
+                        .cookie(buildCookie(result.refreshToken(), result.refreshMaxAge()))
+                        .entity(Map.of(
+                            "user", result.user(),
+                            "accessToken", result.accessToken()
+                        ))
+                        .build());
     }
 
     @POST
@@ -72,46 +91,54 @@ public class AuthResource {
     @Operation(summary = "Login with email and password", description = "Authenticates user and returns an access token in the response and a refresh token in a cookie.")
     @org.eclipse.microprofile.openapi.annotations.responses.APIResponse(responseCode = "200", description = "Successfully authenticated")
     @org.eclipse.microprofile.openapi.annotations.responses.APIResponse(responseCode = "401", description = "Invalid credentials")
-    public Response login(@Valid @NotNull(message = "Request body is required") LoginRequest request) {
-        AuthService.AuthResult result = authService.login(request);
-        NewCookie cookie = buildCookie(result.refreshToken(), result.refreshMaxAge());
-        return Response.ok(Map.of(
-                    "user", result.user(),
-                    "accessToken", result.accessToken()
-                ))
-                .cookie(cookie)
-                .build();
+    @org.eclipse.microprofile.openapi.annotations.responses.APIResponse(responseCode = "429", description = "Too many failed attempts for this account or address")
+    @org.eclipse.microprofile.openapi.annotations.responses.APIResponse(responseCode = "503", description = "Too many sign-in attempts in progress")
+    public Uni<Response> login(@Valid @NotNull(message = "Request body is required") LoginRequest request,
+                               @Context HttpServerRequest httpRequest) {
+        String address = clientAddressResolver.resolve(httpRequest);
+        // Counted on the request thread so throttled attempts never reach the hashing pool.
+        loginThrottle.acquire(request.email, address);
+
+        return hashingExecutor.submit(() -> authService.login(request))
+                .invoke(result -> loginThrottle.succeeded(request.email, address))
+                .onFailure(UnauthorizedException.class).invoke(() -> loginThrottle.failed(request.email, address))
+                .onFailure(failure -> !(failure instanceof UnauthorizedException))
+                    .invoke(() -> loginThrottle.release(request.email, address))
+                .map(result -> Response.ok(Map.of(
+                            "user", result.user(),
+                            "accessToken", result.accessToken()
+                        ))
+                        .cookie(buildCookie(result.refreshToken(), result.refreshMaxAge()))
+                        .build());
     }
 
     @POST
     @Path("/refresh")
     @PermitAll
-    @Operation(summary = "Refresh access token", description = "Uses the refresh token from the cookie to issue a new short-lived access token.")
+    @Operation(summary = "Refresh access token", description = "Exchanges the refresh token cookie for a new short-lived access token and a new (rotated) refresh token cookie. "
+            + "Presenting an already used refresh token revokes every token from the same login.")
     @org.eclipse.microprofile.openapi.annotations.responses.APIResponse(responseCode = "200", description = "New access token generated")
     @org.eclipse.microprofile.openapi.annotations.responses.APIResponse(responseCode = "401", description = "Invalid or missing refresh token")
-    public Response refresh(@CookieParam(COOKIE_NAME) String refreshToken) {
+    public Uni<Response> refresh(@CookieParam(COOKIE_NAME) String refreshToken) {
         if (refreshToken == null || refreshToken.isEmpty()) {
             throw new UnauthorizedException("Refresh token is missing");
         }
         
-        String newAccessToken = authService.refreshToken(refreshToken);
-        return Response.ok(Map.of("accessToken", newAccessToken)).build();
+        return bulkheads.writes().submit(() -> authService.refreshToken(refreshToken))
+                .map(result -> Response.ok(Map.of("accessToken", result.accessToken()))
+                        .cookie(buildCookie(result.refreshToken(), result.refreshMaxAge()))
+                        .build());
     }
 
     @POST
     @Path("/logout")
     @PermitAll
-    @Operation(summary = "Logout", description = "Clears the authentication refresh token cookie.")
-    public Response logout() {
-        NewCookie cookie = new NewCookie.Builder(COOKIE_NAME)
-                .value("")
-                .path("/")
-                .maxAge(0)
-                .httpOnly(true)
-                .secure(cookieSecure)
-                .sameSite(parseSameSite(cookieSameSite))
-                .build();
-        return Response.ok().cookie(cookie).build();
+    @Operation(summary = "Logout", description = "Revokes the refresh token family and clears the refresh token cookie.")
+    public Uni<Response> logout(@CookieParam(COOKIE_NAME) String refreshToken) {
+        return bulkheads.writes().submit(() -> {
+            authService.logout(refreshToken);
+            return Response.ok().cookie(clearedCookie()).build();
+        });
     }
 
     @GET
@@ -119,10 +146,10 @@ public class AuthResource {
     @RolesAllowed({"USER", "ADMIN"})
     @Operation(summary = "Get current authenticated user", description = "Returns details of the currently authenticated user identified by the Bearer token.")
     @org.eclipse.microprofile.openapi.annotations.security.SecurityRequirement(name = "BearerAuth")
-    public Response getCurrentUser() {
+    public Uni<Response> getCurrentUser() {
         String email = jwt.getName();
-        UserResponse user = authService.getCurrentUser(email);
-        return Response.ok(user).build();
+        return bulkheads.reads().submit(() -> authService.getCurrentUser(email))
+                .map(user -> Response.ok(user).build());
     }
 
     private NewCookie buildCookie(String token, int maxAge) {
@@ -136,6 +163,17 @@ public class AuthResource {
                 .build();
     }
 
+    private NewCookie clearedCookie() {
+        return new NewCookie.Builder(COOKIE_NAME)
+                .value("")
+                .path("/")
+                .maxAge(0)
+                .httpOnly(true)
+                .secure(cookieSecure)
+                .sameSite(parseSameSite(cookieSameSite))
+                .build();
+    }
+
     private NewCookie.SameSite parseSameSite(String sameSite) {
         if (sameSite == null) {
             return NewCookie.SameSite.STRICT;
@@ -0,0 +1,50 @@
+package com.duckstock.resource;
+
+import org.eclipse.microprofile.openapi.annotations.Operation;
+import org.eclipse.microprofile.openapi.annotations.tags.Tag;
+
+import com.duckstock.service.ChangeFeedService;
+
+import io.smallrye.mutiny.Multi;
+import jakarta.annotation.security.RolesAllowed;
+import jakarta.inject.Inject;
+import jakarta.ws.rs.GET;
+import jakarta.ws.rs.HeaderParam;
+import jakarta.ws.rs.Path;
+import jakarta.ws.rs.Produces;
+import jakarta.ws.rs.QueryParam;
+import jakarta.ws.rs.core.Context;
+import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.sse.OutboundSseEvent;
+import jakarta.ws.rs.sse.Sse;
+
+@Path("/changes")
+@RolesAllowed({"USER", "ADMIN"})
+@Tag(name = "Change Feed", description = "Live stock and price changes")
+public class ChangeFeedResource {
+
+    @Inject
+    ChangeFeedService changeFeedService;
+
+    @GET
+    @Path("/stream")
+    @Produces(MediaType.SERVER_SENT_EVENTS)
+    @Operation(summary = "Stream stock and price changes as Server-Sent Events",
+            description = "Each event carries a JSON array of coalesced deltas and a resume token as its id. "
+                    + "Reconnect with Last-Event-ID (or ?since=) to receive only the changes that were missed; "
+                    + "a RESET delta means the client must refetch.")
+    public Multi<OutboundSseEvent> stream(
+            @HeaderParam("Last-Event-ID") String lastEventId,
+            @QueryParam("since") String since,
+            @Context Sse sse) {
+        String resumeToken = lastEventId != null && !lastEventId.isBlank() ? lastEventId : since;
+
+        return changeFeedService.stream(resumeToken)
+                .map(batch -> sse.newEventBuilder()
+                        .id(batch.resumeToken())
+                        .name(batch.changes().isEmpty() ? "heartbeat" : "changes")
+                        .mediaType(MediaType.APPLICATION_JSON_TYPE)
+                        .data(batch.changes())
+                        .build());
+    }
+}
@@ -0,0 +1,52 @@
+package com.duckstock.resource;
+
+import java.util.function.Supplier;
+
+import com.duckstock.cache.ResponseCache;
+import com.duckstock.event.EntityKind;
+
+import jakarta.ws.rs.core.CacheControl;
+import jakarta.ws.rs.core.EntityTag;
+import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.core.Request;
+import jakarta.ws.rs.core.Response;
+
+final class ConditionalResponses {
+
+    private ConditionalResponses() {}
+
+    /**
+     * Answers 304 when the client's If-None-Match matches {@code tag}; otherwise builds the
+     * body. The tag must be taken before the body is read so a concurrent write can only make
+     * it stale, never newer than the data.
+     */
+    static Response okOrNotModified(Request request, EntityTag tag, Supplier<?> body) {
+        Response.ResponseBuilder notModified = request.evaluatePreconditions(tag);
+        if (notModified != null) {
+            return notModified.cacheControl(revalidate()).build();
+        }
+        return Response.ok(body.get()).tag(tag).cacheControl(revalidate()).build();
+    }
+
+    /**
+     * Like {@link #okOrNotModified}, but serves the body through {@link ResponseCache} so repeated
+     * calls are answered from serialized bytes until one of {@code tables} changes.
+     */
+    static Response cachedOrNotModified(Request request, ResponseCache cache, Supplier<?> body,
+                                        EntityKind... tables) {
+        EntityTag tag = cache.tag(tables);
+        Response.ResponseBuilder notModified = request.evaluatePreconditions(tag);
+        if (notModified != null) {
+            return notModified.cacheControl(revalidate()).build();
+        }
+        byte[] json = cache.fill(cache.currentKey(), tag, tables, body.get());
+        return Response.ok(json, MediaType.APPLICATION_JSON_TYPE).tag(tag).cacheControl(revalidate()).build();
+    }
+
+    private static CacheControl revalidate() {
+        CacheControl cacheControl = new CacheControl();
+        cacheControl.setPrivate(true);
+        cacheControl.setNoCache(true);
+        return cacheControl;
+    }
+}
@@ -1,16 +1,23 @@
 package com.duckstock.resource;
 
-import com.duckstock.dto.common.PageResponse;
+import com.duckstock.bulkhead.Bulkheads;
+import com.duckstock.cache.ResponseCache;
+import com.duckstock.cache.TableVersions;
 import com.duckstock.dto.product.ProductRawMaterialRequest;
 import com.duckstock.dto.product.ProductRequest;
-import com.duckstock.dto.product.ProductResponse;
+import com.duckstock.event.EntityKind;
 import com.duckstock.exception.BusinessException;
+import com.duckstock.idempotency.IdempotencyStore;
 import com.duckstock.service.ProductService;
+import io.smallrye.mutiny.Uni;
 import jakarta.annotation.security.RolesAllowed;
 import jakarta.inject.Inject;
 import jakarta.validation.Valid;
 import jakarta.ws.rs.*;
+import jakarta.ws.rs.core.Context;
+import jakarta.ws.rs.core.EntityTag;
 import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.core.Request;
 import jakarta.ws.rs.core.Response;
 import org.eclipse.microprofile.openapi.annotations.Operation;
 import org.eclipse.microprofile.openapi.annotations.tags.Tag;
@@ -24,19 +31,41 @@ import java.util.UUID;
 @Tag(name = "Products", description = "Product management endpoints")
 public class ProductResource {
 
+    // Product payloads embed compositions and raw material details.
+    private static final EntityKind[] PRODUCT_TABLES = {
+            EntityKind.PRODUCT, EntityKind.COMPOSITION, EntityKind.RAW_MATERIAL
+    };
+
     @Inject
     ProductService productService;
 
+    @Inject
+    TableVersions tableVersions;
+
+    @Inject
+    ResponseCache responseCache;
+
+    @Inject
+    Bulkheads bulkheads;
+
+    @Inject
+    IdempotencyStore idempotency;
+
     @GET
     @Operation(summary = "List all products with pagination")
-    public Response listAll(
+    public Uni<Response> listAll(
             @QueryParam("page") @DefaultValue("0") String pageStr,
             @QueryParam("size") @DefaultValue("10") String sizeStr,
-            @QueryParam("search") String search) {
+            @QueryParam("search") String search,
+            @Context Request request) {
         int page = parseOrDefault(pageStr, 0);
         int size = parseOrDefault(sizeStr, 10);
-        PageResponse<ProductResponse> result = productService.listAll(page, size, search);
-        return Response.ok(result).build();
+        return bulkheads.reads().submit(() -> ConditionalResponses.cachedOrNotModified(request, responseCache,
+                () -> productService.listAll(page, size, search), PRODUCT_TABLES));
+    }
+
+    private EntityTag productTag() {
+        return tableVersions.tag(PRODUCT_TABLES);
     }
 
     private int parseOrDefault(String value, int defaultValue) {
@@ -53,14 +82,15 @@ public class ProductResource {
     @GET
     @Path("/{id}")
     @Operation(summary = "Get a product by ID")
-    public Response findById(@PathParam("id") UUID id) {
-        ProductResponse product = productService.findById(id);
-        return Response.ok(product).build();
+    public Uni<Response> findById(@PathParam("id") UUID id, @Context Request request) {
+        return bulkheads.reads().submit(() ->
+                ConditionalResponses.okOrNotModified(request, productTag(), () -> productService.findById(id)));
     }
 
     @POST
     @Operation(summary = "Create a new product")
-    public Response create(@Valid ProductRequest request) {
+    public Uni<Response> create(@HeaderParam(IdempotencyStore.HEADER) String idempotencyKey,
+                                @Valid ProductRequest request) {
         if (request.name == null || request.name.isBlank()) {
             throw new BusinessException("Product name is required");
         }
@@ -71,51 +101,57 @@ public class ProductResource {
             throw new BusinessException("Stock quantity is required");
         }
 
-        ProductResponse product = productService.create(request);
-        return Response.status(Response.Status.CREATED).entity(product).build();
+        return idempotency.execute(idempotencyKey, "POST /products", request,
+                Response.Status.CREATED, bulkheads.writes(),
+                () -> productService.create(request));
     }
 
     @PUT
     @Path("/{id}")
     @Operation(summary = "Update a product")
-    public Response update(@PathParam("id") UUID id, @Valid ProductRequest request) {
-        ProductResponse product = productService.update(id, request);
-        return Response.ok(product).build();
+    public Uni<Response> update(@PathParam("id") UUID id, @Valid ProductRequest request) {
+        return bulkheads.writes().submit(() -> productService.update(id, request))
+                .map(product -> Response.ok(product).build());
     }
 
     @DELETE
     @Path("/{id}")
     @Operation(summary = "Delete a product")
-    public Response delete(@PathParam("id") UUID id) {
-        productService.delete(id);
-        return Response.noContent().build();
+    public Uni<Response> delete(@PathParam("id") UUID id) {
+        return bulkheads.writes().submit(() -> {
+            productService.delete(id);
+            return Response.noContent().build();
+        });
     }
 
     @POST
     @Path("/{id}/raw-materials")
     @Operation(summary = "Add multiple raw materials to a product")
-    public Response addRawMaterials(@PathParam("id") UUID id,
-                                     @Valid List<ProductRawMaterialRequest> requests) {
-        ProductResponse product = productService.addRawMaterials(id, requests);
-        return Response.status(Response.Status.CREATED).entity(product).build();
+    public Uni<Response> addRawMaterials(@PathParam("id") UUID id,
+                                          @HeaderParam(IdempotencyStore.HEADER) String idempotencyKey,
+                                          @Valid List<ProductRawMaterialRequest> requests) {
+        return idempotency.execute(idempotencyKey,
+                "POST /products/" + id + "/raw-materials", requests,
+                Response.Status.CREATED, bulkheads.writes(),
+                () -> productService.addRawMaterials(id, requests));
     }
 
     @DELETE
     @Path("/{id}/raw-materials/{associationId}")
     @Operation(summary = "Remove a raw material from a product")
-    public Response removeRawMaterial(@PathParam("id") UUID id,
-                                      @PathParam("associationId") UUID associationId) {
-        ProductResponse product = productService.removeRawMaterial(id, associationId);
-        return Response.ok(product).build();
+    public Uni<Response> removeRawMaterial(@PathParam("id") UUID id,
+                                           @PathParam("associationId") UUID associationId) {
+        return bulkheads.writes().submit(() -> productService.removeRawMaterial(id, associationId))
+                .map(product -> Response.ok(product).build());
     }
 
     @PUT
     @Path("/{id}/raw-materials/{associationId}")
     @Operation(summary = "Update raw material quantity for a product")
-    public Response updateRawMaterialQuantity(@PathParam("id") UUID id,
-                                               @PathParam("associationId") UUID associationId,
-                                               @Valid ProductRawMaterialRequest request) {
-        ProductResponse product = productService.updateRawMaterialQuantity(id, associationId, request);
-        return Response.ok(product).build();
+    public Uni<Response> updateRawMaterialQuantity(@PathParam("id") UUID id,
+                                                    @PathParam("associationId") UUID associationId,
+                                                    @Valid ProductRawMaterialRequest request) {
+        return bulkheads.writes().submit(() -> productService.updateRawMaterialQuantity(id, associationId, request))
+                .map(product -> Response.ok(product).build());
     }
 }
@@ -3,21 +3,27 @@ package com.duckstock.resource;
 import org.eclipse.microprofile.openapi.annotations.Operation;
 import org.eclipse.microprofile.openapi.annotations.tags.Tag;
 
+import com.duckstock.bulkhead.Bulkheads;
+import com.duckstock.cache.ResponseCache;
 import com.duckstock.dto.production.ProductionCreateRequest;
-import com.duckstock.dto.production.ProductionCreateResponse;
-import com.duckstock.dto.production.ProductionResponse;
+import com.duckstock.event.EntityKind;
+import com.duckstock.idempotency.IdempotencyStore;
 import com.duckstock.service.ProductionService;
 
+import io.smallrye.mutiny.Uni;
 import jakarta.annotation.security.RolesAllowed;
 import jakarta.inject.Inject;
 import jakarta.validation.Valid;
 import jakarta.validation.constraints.NotNull;
 import jakarta.ws.rs.Consumes;
 import jakarta.ws.rs.GET;
+import jakarta.ws.rs.HeaderParam;
 import jakarta.ws.rs.POST;
 import jakarta.ws.rs.Path;
 import jakarta.ws.rs.Produces;
+import jakarta.ws.rs.core.Context;
 import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.core.Request;
 import jakarta.ws.rs.core.Response;
 
 @Path("/production")
@@ -30,32 +36,45 @@ public class ProductionResource {
     @Inject
     ProductionService productionService;
 
+    @Inject
+    ResponseCache responseCache;
+
+    @Inject
+    Bulkheads bulkheads;
+
+    @Inject
+    IdempotencyStore idempotency;
+
     @GET
     @Path("/suggestions")
     @Operation(summary = "Get production suggestions based on available raw materials")
-    public Response getSuggestions() {
-        ProductionResponse response = productionService.getSuggestions();
-        return Response.ok(response).build();
+    public Uni<Response> getSuggestions(@Context Request request) {
+        return bulkheads.planning().submit(() -> ConditionalResponses.cachedOrNotModified(request, responseCache,
+                productionService::getSuggestions,
+                EntityKind.PRODUCT, EntityKind.COMPOSITION, EntityKind.RAW_MATERIAL));
     }
 
     @POST
     @Path("/create")
     @RolesAllowed("ADMIN")
     @Operation(summary = "Create product units from raw materials (ADMIN only)")
-    public Response createProduct(
+    public Uni<Response> createProduct(
+            @HeaderParam(IdempotencyStore.HEADER) String idempotencyKey,
             @Valid @NotNull(message = "Request body is required") ProductionCreateRequest request
     ) {
-        ProductionCreateResponse response = productionService.createProduct(request);
-        return Response.ok(response).build();
+        return idempotency.execute(idempotencyKey, "POST /production/create", request,
+                Response.Status.OK, bulkheads.writes(),
+                () -> productionService.createProduct(request));
     }
 
     @POST
     @Path("/confirm")
     @RolesAllowed("ADMIN")
     @Operation(hidden = true)
-    public Response confirmProduction(
+    public Uni<Response> confirmProduction(
+            @HeaderParam(IdempotencyStore.HEADER) String idempotencyKey,
             @Valid @NotNull(message = "Request body is required") ProductionCreateRequest request
     ) {
-        return createProduct(request);
+        return createProduct(idempotencyKey, request);
     }
 }
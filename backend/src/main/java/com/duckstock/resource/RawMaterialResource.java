@@ -1,20 +1,25 @@
 package com.duckstock.resource;
 
-import com.duckstock.dto.common.PageResponse;
+import com.duckstock.bulkhead.Bulkheads;
+import com.duckstock.cache.ResponseCache;
+import com.duckstock.cache.TableVersions;
 import com.duckstock.dto.rawmaterial.RawMaterialRequest;
-import com.duckstock.dto.rawmaterial.RawMaterialResponse;
+import com.duckstock.event.EntityKind;
 import com.duckstock.exception.BusinessException;
+import com.duckstock.idempotency.IdempotencyStore;
 import com.duckstock.service.RawMaterialService;
+import io.smallrye.mutiny.Uni;
 import jakarta.annotation.security.RolesAllowed;
 import jakarta.inject.Inject;
 import jakarta.validation.Valid;
 import jakarta.ws.rs.*;
+import jakarta.ws.rs.core.Context;
 import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.core.Request;
 import jakarta.ws.rs.core.Response;
 import org.eclipse.microprofile.openapi.annotations.Operation;
 import org.eclipse.microprofile.openapi.annotations.tags.Tag;
 
-import java.util.List;
 import java.util.UUID;
 
 @Path("/raw-materials")
@@ -27,16 +32,29 @@ public class RawMaterialResource {
     @Inject
     RawMaterialService rawMaterialService;
 
+    @Inject
+    TableVersions tableVersions;
+
+    @Inject
+    ResponseCache responseCache;
+
+    @Inject
+    Bulkheads bulkheads;
+
+    @Inject
+    IdempotencyStore idempotency;
+
     @GET
     @Operation(summary = "List all raw materials with pagination")
-    public Response listAll(
+    public Uni<Response> listAll(
             @QueryParam("page") @DefaultValue("0") String pageStr,
             @QueryParam("size") @DefaultValue("10") String sizeStr,
-            @QueryParam("search") String search) {
+            @QueryParam("search") String search,
+            @Context Request request) {
         int page = parseOrDefault(pageStr, 0);
         int size = parseOrDefault(sizeStr, 10);
-        PageResponse<RawMaterialResponse> result = rawMaterialService.listAll(page, size, search);
-        return Response.ok(result).build();
+        return bulkheads.reads().submit(() -> ConditionalResponses.cachedOrNotModified(request, responseCache,
+                () -> rawMaterialService.listAll(page, size, search), EntityKind.RAW_MATERIAL));
     }
 
     private int parseOrDefault(String value, int defaultValue) {
@@ -53,22 +71,23 @@ public class RawMaterialResource {
     @GET
     @Path("/all")
     @Operation(summary = "List all raw materials without pagination (for dropdowns)")
-    public Response listAllNoPagination() {
-        List<RawMaterialResponse> result = rawMaterialService.listAllNoPagination();
-        return Response.ok(result).build();
+    public Uni<Response> listAllNoPagination(@Context Request request) {
+        return bulkheads.reads().submit(() -> ConditionalResponses.cachedOrNotModified(request, responseCache,
+                rawMaterialService::listAllNoPagination, EntityKind.RAW_MATERIAL));
     }
 
     @GET
     @Path("/{id}")
     @Operation(summary = "Get a raw material by ID")
-    public Response findById(@PathParam("id") UUID id) {
-        RawMaterialResponse rawMaterial = rawMaterialService.findById(id);
-        return Response.ok(rawMaterial).build();
+    public Uni<Response> findById(@PathParam("id") UUID id, @Context Request request) {
+        return bulkheads.reads().submit(() -> ConditionalResponses.okOrNotModified(request,
+                tableVersions.tag(EntityKind.RAW_MATERIAL), () -> rawMaterialService.findById(id)));
     }
 
     @POST
     @Operation(summary = "Create a new raw material")
-    public Response create(@Valid RawMaterialRequest request) {
+    public Uni<Response> create(@HeaderParam(IdempotencyStore.HEADER) String idempotencyKey,
+                                @Valid RawMaterialRequest request) {
         if (request.name == null || request.name.isBlank()) {
             throw new BusinessException("Raw material name is required");
         }
@@ -82,23 +101,26 @@ public class RawMaterialResource {
             throw new BusinessException("Unit is required");
         }
 
-        RawMaterialResponse rawMaterial = rawMaterialService.create(request);
-        return Response.status(Response.Status.CREATED).entity(rawMaterial).build();
+        return idempotency.execute(idempotencyKey, "POST /raw-materials", request,
+                Response.Status.CREATED, bulkheads.writes(),
+                () -> rawMaterialService.create(request));
     }
 
     @PUT
     @Path("/{id}")
     @Operation(summary = "Update a raw material")
-    public Response update(@PathParam("id") UUID id, @Valid RawMaterialRequest request) {
-        RawMaterialResponse rawMaterial = rawMaterialService.update(id, request);
-        return Response.ok(rawMaterial).build();
+    public Uni<Response> update(@PathParam("id") UUID id, @Valid RawMaterialRequest request) {
+        return bulkheads.writes().submit(() -> rawMaterialService.update(id, request))
+                .map(rawMaterial -> Response.ok(rawMaterial).build());
     }
 
     @DELETE
     @Path("/{id}")
     @Operation(summary = "Delete a raw material")
-    public Response delete(@PathParam("id") UUID id) {
-        rawMaterialService.delete(id);
-        return Response.noContent().build();
+    public Uni<Response> delete(@PathParam("id") UUID id) {
+        return bulkheads.writes().submit(() -> {
+            rawMaterialService.delete(id);
+            return Response.noContent().build();
+        });
     }
 }
@@ -0,0 +1,98 @@
+package com.duckstock.resource;
+
+import java.util.List;
+import java.util.UUID;
+
+import org.eclipse.microprofile.openapi.annotations.Operation;
+import org.eclipse.microprofile.openapi.annotations.tags.Tag;
+
+import com.duckstock.dto.common.PageResponse;
+import com.duckstock.dto.product.ProductResponse;
+import com.duckstock.dto.production.ProductionResponse;
+import com.duckstock.dto.rawmaterial.RawMaterialResponse;
+import com.duckstock.service.ReactiveCatalogService;
+
+import io.smallrye.mutiny.Uni;
+import jakarta.annotation.security.RolesAllowed;
+import jakarta.inject.Inject;
+import jakarta.ws.rs.DefaultValue;
+import jakarta.ws.rs.GET;
+import jakarta.ws.rs.Path;
+import jakarta.ws.rs.PathParam;
+import jakarta.ws.rs.Produces;
+import jakarta.ws.rs.QueryParam;
+import jakarta.ws.rs.core.MediaType;
+
+/**
+ * Catalog reads served on the event loop through the reactive Postgres client. Same parameters and
+ * payloads as the blocking endpoints under {@code /products}, {@code /raw-materials} and
+ * {@code /production}, without conditional GET or the response cache.
+ */
+@Path("/reactive")
+@Produces(MediaType.APPLICATION_JSON)
+@RolesAllowed({"USER", "ADMIN"})
+@Tag(name = "Reactive reads", description = "Non-blocking catalog reads")
+public class ReactiveCatalogResource {
+
+    @Inject
+    ReactiveCatalogService catalogService;
+
+    @GET
+    @Path("/products")
+    @Operation(summary = "List all products with pagination")
+    public Uni<PageResponse<ProductResponse>> listProducts(
+            @QueryParam("page") @DefaultValue("0") String pageStr,
+            @QueryParam("size") @DefaultValue("10") String sizeStr,
+            @QueryParam("search") String search) {
+        return catalogService.listProducts(parseOrDefault(pageStr, 0), parseOrDefault(sizeStr, 10), search);
+    }
+
+    @GET
+    @Path("/products/{id}")
+    @Operation(summary = "Get a product by ID")
+    public Uni<ProductResponse> findProduct(@PathParam("id") UUID id) {
+        return catalogService.findProduct(id);
+    }
+
+    @GET
+    @Path("/raw-materials")
+    @Operation(summary = "List all raw materials with pagination")
+    public Uni<PageResponse<RawMaterialResponse>> listRawMaterials(
+            @QueryParam("page") @DefaultValue("0") String pageStr,
+            @QueryParam("size") @DefaultValue("10") String sizeStr,
+            @QueryParam("search") String search) {
+        return catalogService.listRawMaterials(parseOrDefault(pageStr, 0), parseOrDefault(sizeStr, 10), search);
+    }
+
+    @GET
+    @Path("/raw-materials/all")
+    @Operation(summary = "List all raw materials without pagination (for dropdowns)")
+    public Uni<List<RawMaterialResponse>> listAllRawMaterials() {
+        return catalogService.listAllRawMaterials();
+    }
+
+    @GET
+    @Path("/raw-materials/{id}")
+    @Operation(summary = "Get a raw material by ID")
+    public Uni<RawMaterialResponse> findRawMaterial(@PathParam("id") UUID id) {
+        return catalogService.findRawMaterial(id);
+    }
+
+    @GET
+    @Path("/production/suggestions")
+    @Operation(summary = "Get production suggestions based on available raw materials")
+    public Uni<ProductionResponse> getSuggestions() {
+        return catalogService.getSuggestions();
+    }
+
+    private int parseOrDefault(String value, int defaultValue) {
+        if (value == null || value.isBlank()) {
+            return defaultValue;
+        }
+        try {
+            return Integer.parseInt(value);
+        } catch (NumberFormatException e) {
+            return defaultValue;
+        }
+    }
+}
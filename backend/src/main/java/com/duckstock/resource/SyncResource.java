@@ -0,0 +1,55 @@
+package com.duckstock.resource;
+
+import org.eclipse.microprofile.openapi.annotations.Operation;
+import org.eclipse.microprofile.openapi.annotations.tags.Tag;
+
+import com.duckstock.service.SyncService;
+
+import jakarta.annotation.security.RolesAllowed;
+import jakarta.inject.Inject;
+import jakarta.ws.rs.DefaultValue;
+import jakarta.ws.rs.GET;
+import jakarta.ws.rs.Path;
+import jakarta.ws.rs.Produces;
+import jakarta.ws.rs.QueryParam;
+import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.core.Response;
+import jakarta.ws.rs.core.StreamingOutput;
+
+@Path("/sync")
+@Produces(MediaType.APPLICATION_JSON)
+@RolesAllowed({"USER", "ADMIN"})
+@Tag(name = "Sync", description = "Delta sync for offline and mobile clients")
+public class SyncResource {
+
+    @Inject
+    SyncService syncService;
+
+    @GET
+    @Operation(summary = "Catalog changes since a watermark",
+            description = "Returns created/updated products, raw materials and compositions plus deletions (tombstones) "
+                    + "after the given watermark, oldest first. Omit 'since' for a full sync; keep requesting with "
+                    + "'nextWatermark' while 'hasMore' is true. A watermark older than the tombstone retention "
+                    + "is rejected with 400.")
+    public Response changesSince(
+            @QueryParam("since") String since,
+            @QueryParam("limit") @DefaultValue("500") String limitStr) {
+        SyncService.Watermark watermark = since == null || since.isBlank() ? null : SyncService.Watermark.decode(since);
+        syncService.checkRetained(watermark);
+        int limit = parseOrDefault(limitStr, 500);
+
+        StreamingOutput body = output -> syncService.writeChanges(watermark, limit, output);
+        return Response.ok(body).build();
+    }
+
+    private int parseOrDefault(String value, int defaultValue) {
+        if (value == null || value.isBlank()) {
+            return defaultValue;
+        }
+        try {
+            return Integer.parseInt(value);
+        } catch (NumberFormatException e) {
+            return defaultValue;
+        }
+    }
+}
@@ -0,0 +1,158 @@
+package com.duckstock.security;
+
+import java.security.PrivateKey;
+import java.security.PublicKey;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import javax.crypto.SecretKey;
+
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.eclipse.microprofile.jwt.JsonWebToken;
+
+import com.duckstock.dto.admin.CacheStatsResponse;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+
+import io.smallrye.jwt.auth.principal.DefaultJWTParser;
+import io.smallrye.jwt.auth.principal.JWTAuthContextInfo;
+import io.smallrye.jwt.auth.principal.JWTParser;
+import io.smallrye.jwt.auth.principal.ParseException;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.Priority;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.inject.Alternative;
+import jakarta.inject.Inject;
+
+/**
+ * Replaces the default parser used for bearer tokens and cookies.
+ *
+ * Verification always uses the preloaded {@link JwtKeys} key and algorithm. Access tokens that
+ * verified successfully are remembered until their {@code exp}, so a client polling with the same
+ * token pays for the signature check once. Access tokens are never revoked before expiry in this
+ * application, which is what makes that safe; refresh tokens and failures are never cached.
+ */
+@Alternative
+@Priority(1)
+@ApplicationScoped
+public class CachingJwtParser implements JWTParser {
+
+    @ConfigProperty(name = "duckstock.auth.jwt.verify-cache.enabled", defaultValue = "true")
+    boolean enabled;
+
+    @ConfigProperty(name = "duckstock.auth.jwt.verify-cache.max-size", defaultValue = "10000")
+    long maxSize;
+
+    @Inject
+    JWTAuthContextInfo authContextInfo;
+
+    @Inject
+    JwtKeys keys;
+
+    JWTParser delegate;
+    private Cache<String, JsonWebToken> verified;
+
+    @PostConstruct
+    void init() {
+        JWTAuthContextInfo context = new JWTAuthContextInfo(authContextInfo);
+        context.setPublicVerificationKey(keys.verificationKey());
+        context.setSignatureAlgorithm(Set.of(keys.algorithm()));
+        delegate = new DefaultJWTParser(context);
+        initCache();
+    }
+
+    void initCache() {
+        verified = Caffeine.newBuilder()
+                .maximumSize(Math.max(maxSize, 1))
+                .expireAfter(new UntilExpiry())
+                .recordStats()
+                .build();
+    }
+
+    @Override
+    public JsonWebToken parse(String token) throws ParseException {
+        if (!enabled || token == null) {
+            return delegate.parse(token);
+        }
+        JsonWebToken cached = verified.getIfPresent(token);
+        if (cached != null) {
+            return cached;
+        }
+
+        JsonWebToken jwt = delegate.parse(token);
+        if ("access".equals(jwt.getClaim("type")) && secondsLeft(jwt) > 0) {
+            verified.put(token, jwt);
+        }
+        return jwt;
+    }
+
+    @Override
+    public JsonWebToken parse(String token, JWTAuthContextInfo context) throws ParseException {
+        return delegate.parse(token, context);
+    }
+
+    @Override
+    public JsonWebToken verify(String token, PublicKey key) throws ParseException {
+        return delegate.verify(token, key);
+    }
+
+    @Override
+    public JsonWebToken verify(String token, SecretKey key) throws ParseException {
+        return delegate.verify(token, key);
+    }
+
+    @Override
+    public JsonWebToken verify(String token, String secret) throws ParseException {
+        return delegate.verify(token, secret);
+    }
+
+    @Override
+    public JsonWebToken decrypt(String token, PrivateKey key) throws ParseException {
+        return delegate.decrypt(token, key);
+    }
+
+    @Override
+    public JsonWebToken decrypt(String token, SecretKey key) throws ParseException {
+        return delegate.decrypt(token, key);
+    }
+
+    @Override
+    public JsonWebToken decrypt(String token, String secret) throws ParseException {
+        return delegate.decrypt(token, secret);
+    }
+
+    @Override
+    public JsonWebToken parseOnly(String token) throws ParseException {
+        return delegate.parseOnly(token);
+    }
+
+    public CacheStatsResponse stats() {
+        CacheStats stats = verified.stats();
+        return new CacheStatsResponse("jwt-verifications", verified.estimatedSize(), stats.hitCount(),
+                stats.missCount(), stats.hitRate(), stats.evictionCount(), null, maxSize);
+    }
+
+    private static long secondsLeft(JsonWebToken jwt) {
+        return jwt.getExpirationTime() - System.currentTimeMillis() / 1000;
+    }
+
+    private static final class UntilExpiry implements Expiry<String, JsonWebToken> {
+
+        @Override
+        public long expireAfterCreate(String token, JsonWebToken jwt, long currentTime) {
+            return TimeUnit.SECONDS.toNanos(Math.max(secondsLeft(jwt), 0));
+        }
+
+        @Override
+        public long expireAfterUpdate(String token, JsonWebToken jwt, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+
+        @Override
+        public long expireAfterRead(String token, JsonWebToken jwt, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
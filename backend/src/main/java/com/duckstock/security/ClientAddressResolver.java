@@ -0,0 +1,156 @@
+package com.duckstock.security;
+
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+import io.vertx.core.http.HttpServerRequest;
+import jakarta.annotation.PostConstruct;
+import jakarta.enterprise.context.ApplicationScoped;
+
+/**
+ * The address a request should be attributed to, for rate limiting and login throttling.
+ *
+ * {@code X-Forwarded-For} is only honoured when the connection comes from a trusted proxy
+ * ({@code duckstock.http.trusted-proxies}, a list of CIDR ranges). The header is then read from
+ * the right, skipping trusted hops, and the first untrusted address is the client: entries to
+ * its left were supplied by the client itself and can be anything. With no trusted proxies
+ * configured the header is ignored and the socket peer is used.
+ */
+@ApplicationScoped
+public class ClientAddressResolver {
+
+    @ConfigProperty(name = "duckstock.http.trusted-proxies")
+    Optional<List<String>> trustedProxyRanges;
+
+    private List<Cidr> trustedProxies = List.of();
+
+    @PostConstruct
+    void init() {
+        List<Cidr> ranges = new ArrayList<>();
+        for (String range : trustedProxyRanges.orElse(List.of())) {
+            if (!range.isBlank()) {
+                ranges.add(Cidr.parse(range.trim()));
+            }
+        }
+        trustedProxies = List.copyOf(ranges);
+    }
+
+    public String resolve(HttpServerRequest request) {
+        return resolve(request.remoteAddress().host(), request.getHeader("X-Forwarded-For"));
+    }
+
+    String resolve(String peer, String forwardedFor) {
+        if (trustedProxies.isEmpty() || forwardedFor == null || forwardedFor.isBlank() || !isTrusted(peer)) {
+            return peer;
+        }
+
+        String[] hops = forwardedFor.split(",");
+        if (hops.length == 0) {
+            // Only commas, e.g. "X-Forwarded-For: ,".
+            return peer;
+        }
+        for (int i = hops.length - 1; i >= 0; i--) {
+            String hop = hops[i].trim();
+            InetAddress address = Cidr.literal(hop);
+            if (address == null) {
+                // Malformed entry from an untrusted party; nothing further left can be believed.
+                return peer;
+            }
+            if (!isTrusted(address)) {
+                return address.getHostAddress();
+            }
+        }
+        // Every hop is one of ours.
+        return Cidr.literal(hops[0].trim()).getHostAddress();
+    }
+
+    private boolean isTrusted(String host) {
+        InetAddress address = Cidr.literal(host);
+        return address != null && isTrusted(address);
+    }
+
+    private boolean isTrusted(InetAddress address) {
+        for (Cidr range : trustedProxies) {
+            if (range.contains(address)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    record Cidr(byte[] network, int prefixLength) {
+
+        static Cidr parse(String range) {
+            int slash = range.indexOf('/');
+            InetAddress address = literal(slash < 0 ? range : range.substring(0, slash));
+            if (address == null) {
+                throw new IllegalStateException("Invalid trusted proxy range: " + range);
+            }
+            int maxBits = address.getAddress().length * 8;
+            int prefix;
+            try {
+                prefix = slash < 0 ? maxBits : Integer.parseInt(range.substring(slash + 1));
+            } catch (NumberFormatException e) {
+                throw new IllegalStateException("Invalid trusted proxy range: " + range, e);
+            }
+            if (prefix < 0 || prefix > maxBits) {
+                throw new IllegalStateException("Invalid prefix length in trusted proxy range: " + range);
+            }
+            return new Cidr(address.getAddress(), prefix);
+        }
+
+        boolean contains(InetAddress address) {
+            byte[] bytes = address.getAddress();
+            if (bytes.length != network.length) {
+                return false;
+            }
+            int fullBytes = prefixLength / 8;
+            for (int i = 0; i < fullBytes; i++) {
+                if (bytes[i] != network[i]) {
+                    return false;
+                }
+            }
+            int remainingBits = prefixLength % 8;
+            if (remainingBits == 0) {
+                return true;
+            }
+            int mask = 0xFF << (8 - remainingBits);
+            return (bytes[fullBytes] & mask) == (network[fullBytes] & mask);
+        }
+
+        /**
+         * Parses an IP literal, or returns {@code null}. Anything that is not made of address
+         * characters is rejected up front so that no DNS lookup can ever be triggered.
+         */
+        static InetAddress literal(String value) {
+            String host = value.startsWith("[") && value.endsWith("]") ? value.substring(1, value.length() - 1) : value;
+            if (host.isEmpty() || host.length() > 45) {
+                return null;
+            }
+            boolean ipv6 = host.indexOf(':') >= 0;
+            int dots = 0;
+            for (int i = 0; i < host.length(); i++) {
+                char c = host.charAt(i);
+                if (c == '.') {
+                    dots++;
+                } else if (ipv6 ? c != ':' && Character.digit(c, 16) < 0 : c < '0' || c > '9') {
+                    return null;
+                }
+            }
+            // InetAddress also accepts IPv4 shorthands such as "10.1"; only dotted quads are addresses here.
+            if (!ipv6 && dots != 3) {
+                return null;
+            }
+            try {
+                return InetAddress.getByName(host);
+            } catch (UnknownHostException e) {
+                return null;
+            }
+        }
+    }
+}
@@ -1,22 +1,52 @@
 package com.duckstock.security;
 
-import java.time.Instant;
-import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.atomic.AtomicInteger;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongUnaryOperator;
 
 import org.eclipse.microprofile.config.inject.ConfigProperty;
 
+import com.duckstock.jfr.RateLimitRejectionEvent;
+import com.duckstock.metrics.ServiceMetrics;
+import com.duckstock.ratelimit.ClusterBudget;
+import com.duckstock.ratelimit.LimiterStore;
+import com.duckstock.ratelimit.PostgresUsageStore;
+import com.duckstock.ratelimit.RateLimitAlgorithm;
+import com.duckstock.ratelimit.RouteCosts;
+
+import io.vertx.core.Vertx;
 import io.vertx.core.http.HttpHeaders;
+import io.vertx.core.http.HttpMethod;
+import io.vertx.core.http.HttpServerRequest;
+import io.vertx.core.http.HttpServerResponse;
 import io.vertx.ext.web.Router;
 import io.vertx.ext.web.RoutingContext;
 import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
 import jakarta.enterprise.context.ApplicationScoped;
 import jakarta.inject.Inject;
 
+/**
+ * Per-client request limit applied to every route.
+ *
+ * Each request costs its route's weight ({@code duckstock.rate-limit.route-costs}) against an
+ * allowance of {@code limit} units per window, as decided by the configured
+ * {@link RateLimitAlgorithm}. Responses carry {@code RateLimit-Limit}, {@code RateLimit-Remaining},
+ * {@code RateLimit-Reset} and {@code RateLimit-Policy}; rejections are 429 with {@code Retry-After}.
+ *
+ * In cluster mode ({@code duckstock.rate-limit.cluster.enabled}) a {@link ClusterBudget} also holds
+ * each client to the limit across all instances, reconciled through {@link PostgresUsageStore}.
+ */
 @ApplicationScoped
 public class GlobalRateLimitFilter {
 
+    private static final String RATE_LIMIT_LIMIT = "RateLimit-Limit";
+    private static final String RATE_LIMIT_REMAINING = "RateLimit-Remaining";
+    private static final String RATE_LIMIT_RESET = "RateLimit-Reset";
+    private static final String RATE_LIMIT_POLICY = "RateLimit-Policy";
+
     @ConfigProperty(name = "duckstock.rate-limit.enabled", defaultValue = "true")
     boolean enabled;
 
@@ -26,13 +56,65 @@ public class GlobalRateLimitFilter {
     @ConfigProperty(name = "duckstock.rate-limit.window-seconds", defaultValue = "60")
     int windowSeconds;
 
+    @ConfigProperty(name = "duckstock.rate-limit.algorithm", defaultValue = "gcra")
+    String algorithmName;
+
+    @ConfigProperty(name = "duckstock.rate-limit.route-costs", defaultValue = "GET /production/suggestions=5,GET /reactive/production/suggestions=5")
+    List<String> routeCostEntries;
+
+    @ConfigProperty(name = "duckstock.rate-limit.max-clients", defaultValue = "100000")
+    int maxClients;
+
+    @ConfigProperty(name = "duckstock.rate-limit.cluster.enabled", defaultValue = "false")
+    boolean clusterEnabled;
+
+    @ConfigProperty(name = "duckstock.rate-limit.cluster.sync-interval-millis", defaultValue = "500")
+    long clusterSyncIntervalMillis;
+
+    // Units one instance may admit per client between syncs; 0 means a tenth of the limit.
+    @ConfigProperty(name = "duckstock.rate-limit.cluster.local-budget", defaultValue = "0")
+    long clusterLocalBudget;
+
     @Inject
     Router router;
 
-    private final ConcurrentHashMap<String, WindowCounter> countersByClient = new ConcurrentHashMap<>();
+    @Inject
+    Vertx vertx;
+
+    @Inject
+    PostgresUsageStore usageStore;
+
+    @Inject
+    ClientAddressResolver clientAddressResolver;
+
+    @Inject
+    ServiceMetrics metrics;
+
+    private final long origin = System.nanoTime();
+
+    private RateLimitAlgorithm algorithm;
+    private LongUnaryOperator initialState;
+    private LimiterStore store;
+    private ClusterBudget clusterBudget;
+    private final List<Long> timerIds = new ArrayList<>();
+    private RouteCosts routeCosts;
+    private String limitHeader;
+    private String policyHeader;
 
     @PostConstruct
     void register() {
+        long windowNanos = TimeUnit.SECONDS.toNanos(Math.max(windowSeconds, 1));
+        algorithm = RateLimitAlgorithm.create(algorithmName, limitPerWindow, windowNanos);
+        initialState = algorithm::initialState;
+        // Two windows of inactivity is enough for every algorithm to be back to a full allowance.
+        store = new LimiterStore(maxClients, 2 * windowNanos, 0);
+        routeCosts = RouteCosts.parse(routeCostEntries);
+        limitHeader = Long.toString(algorithm.limit());
+        policyHeader = algorithm.limit() + ";w=" + Math.max(windowSeconds, 1);
+        if (clusterEnabled) {
+            startCluster(windowNanos);
+        }
+
         // Register a global handler for all routes.
         // Lower order runs earlier.
         router.route().order(10).handler(this::handle);
@@ -45,91 +127,83 @@ public class GlobalRateLimitFilter {
         }
 
         // Avoid interfering with CORS preflight requests.
-        if ("OPTIONS".equalsIgnoreCase(routingContext.request().method().name())) {
+        HttpServerRequest request = routingContext.request();
+        if (request.method() == HttpMethod.OPTIONS) {
             routingContext.next();
             return;
         }
 
-        String clientKey = clientKey(routingContext);
-        long currentWindow = currentWindow();
-
-        WindowCounter counter = countersByClient.computeIfAbsent(clientKey, k -> new WindowCounter(currentWindow));
-        counter.resetIfWindowChanged(currentWindow);
-
-        int currentCount = counter.incrementAndGet();
-        if (currentCount > limitPerWindow) {
-            long retryAfterSeconds = retryAfterSeconds(currentWindow);
-            routingContext.response()
-                    .setStatusCode(429)
+        long now = System.nanoTime() - origin;
+        String client = clientAddressResolver.resolve(request);
+        int cost = routeCosts.costOf(request.method().name(), request.path());
+        AtomicLong state = store.stateFor(client, now, initialState);
+        long decision = algorithm.acquire(state, cost, now);
+        boolean clusterRejected = false;
+        if (decision >= 0 && clusterBudget != null) {
+            long cluster = clusterBudget.acquire(client, cost, epochNanos());
+            clusterRejected = cluster < 0;
+            decision = clusterRejected ? cluster : Math.min(decision, cluster);
+        }
+        metrics.rateLimitDecision(decision >= 0);
+
+        HttpServerResponse response = routingContext.response();
+        response.putHeader(RATE_LIMIT_LIMIT, limitHeader)
+                .putHeader(RATE_LIMIT_POLICY, policyHeader)
+                .putHeader(RATE_LIMIT_RESET, Long.toString(ceilSeconds(algorithm.resetNanos(state.get(), now))));
+
+        if (decision < 0) {
+            RateLimitRejectionEvent event = new RateLimitRejectionEvent();
+            if (event.isEnabled()) {
+                event.method = request.method().name();
+                event.path = request.path();
+                event.cost = cost;
+                event.cluster = clusterRejected;
+                event.retryAfter = -decision;
+                event.commit();
+            }
+            response.setStatusCode(429)
+                    .putHeader(RATE_LIMIT_REMAINING, "0")
                     .putHeader(HttpHeaders.CONTENT_TYPE, "application/json")
-                    .putHeader(HttpHeaders.RETRY_AFTER, Long.toString(retryAfterSeconds))
+                    .putHeader(HttpHeaders.RETRY_AFTER, Long.toString(Math.max(1, ceilSeconds(-decision))))
                     .end("{\"error\":\"rate_limited\",\"message\":\"Too many requests\"}");
             return;
         }
-
-        // Opportunistic cleanup to prevent unbounded growth.
-        if (countersByClient.size() > 10_000) {
-            cleanupOldCounters(currentWindow);
-        }
+        response.putHeader(RATE_LIMIT_REMAINING, Long.toString(decision));
 
         routingContext.next();
     }
 
-    private String clientKey(RoutingContext routingContext) {
-        // If the app is behind a reverse proxy, X-Forwarded-For may be present.
-        // We only take the first IP. (If you deploy behind an untrusted proxy, do not rely on this.)
-        String xff = routingContext.request().getHeader("X-Forwarded-For");
-        if (xff != null && !xff.isBlank()) {
-            int comma = xff.indexOf(',');
-            return (comma >= 0 ? xff.substring(0, comma) : xff).trim();
+    // Windows shared between instances must be aligned on wall-clock time, not on each JVM's origin.
+    private void startCluster(long windowNanos) {
+        // Costs above the limit are charged as the limit.
+        long largestCost = Math.min(routeCosts.maxCost(), algorithm.limit());
+        long budget = clusterLocalBudget > 0 ? clusterLocalBudget : Math.max(largestCost, algorithm.limit() / 10);
+        if (budget < largestCost) {
+            throw new IllegalStateException("duckstock.rate-limit.cluster.local-budget is " + budget
+                    + " but a route costs " + largestCost + "; requests to it would always be rejected");
         }
-
-        return routingContext.request().remoteAddress().host();
-    }
-
-    private long currentWindow() {
-        long now = Instant.now().getEpochSecond();
-        return now / Math.max(windowSeconds, 1);
+        clusterBudget = new ClusterBudget(usageStore, algorithm.limit(), windowNanos, budget, maxClients);
+        long interval = Math.max(clusterSyncIntervalMillis, 10);
+        timerIds.add(vertx.setPeriodic(interval, id -> vertx.executeBlocking(() -> {
+            clusterBudget.sync(epochNanos());
+            return null;
+        }, true)));
+        timerIds.add(vertx.setPeriodic(TimeUnit.NANOSECONDS.toMillis(windowNanos), id -> vertx.executeBlocking(() -> {
+            clusterBudget.purge(epochNanos());
+            return null;
+        }, false)));
     }
 
-    private long retryAfterSeconds(long currentWindow) {
-        long now = Instant.now().getEpochSecond();
-        long windowEndExclusive = (currentWindow + 1) * (long) Math.max(windowSeconds, 1);
-        return Math.max(1, windowEndExclusive - now);
+    @PreDestroy
+    void stop() {
+        timerIds.forEach(vertx::cancelTimer);
     }
 
-    private void cleanupOldCounters(long currentWindow) {
-        long minWindowToKeep = currentWindow - 2;
-        for (Map.Entry<String, WindowCounter> entry : countersByClient.entrySet()) {
-            if (entry.getValue().window < minWindowToKeep) {
-                countersByClient.remove(entry.getKey(), entry.getValue());
-            }
-        }
+    private static long epochNanos() {
+        return TimeUnit.MILLISECONDS.toNanos(System.currentTimeMillis());
     }
 
-    static final class WindowCounter {
-        volatile long window;
-        final AtomicInteger count = new AtomicInteger(0);
-
-        WindowCounter(long window) {
-            this.window = window;
-        }
-
-        void resetIfWindowChanged(long expectedWindow) {
-            if (window == expectedWindow) {
-                return;
-            }
-
-            synchronized (this) {
-                if (window != expectedWindow) {
-                    window = expectedWindow;
-                    count.set(0);
-                }
-            }
-        }
-
-        int incrementAndGet() {
-            return count.incrementAndGet();
-        }
+    private static long ceilSeconds(long nanos) {
+        return (nanos + 999_999_999) / 1_000_000_000;
     }
 }
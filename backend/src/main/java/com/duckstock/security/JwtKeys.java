@@ -0,0 +1,125 @@
+package com.duckstock.security;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.GeneralSecurityException;
+import java.security.KeyFactory;
+import java.security.PrivateKey;
+import java.security.PublicKey;
+import java.security.spec.PKCS8EncodedKeySpec;
+import java.security.spec.X509EncodedKeySpec;
+import java.util.Base64;
+
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.jboss.logging.Logger;
+
+import io.smallrye.jwt.algorithm.SignatureAlgorithm;
+import jakarta.annotation.PostConstruct;
+import jakarta.enterprise.context.ApplicationScoped;
+
+/**
+ * Signing and verification keys, read and decoded once at startup.
+ *
+ * Supported algorithms are RS256 (RSA), ES256 (EC P-256) and EdDSA (Ed25519). The PEM files must
+ * match the configured algorithm; a mismatch fails startup rather than the first login.
+ */
+@ApplicationScoped
+public class JwtKeys {
+
+    private static final Logger LOG = Logger.getLogger(JwtKeys.class);
+
+    @ConfigProperty(name = "duckstock.auth.jwt.algorithm", defaultValue = "RS256")
+    String algorithmName;
+
+    @ConfigProperty(name = "smallrye.jwt.sign.key.location", defaultValue = "privateKey.pem")
+    String signKeyLocation;
+
+    @ConfigProperty(name = "mp.jwt.verify.publickey.location", defaultValue = "publicKey.pem")
+    String verifyKeyLocation;
+
+    private SignatureAlgorithm algorithm;
+    private PrivateKey signingKey;
+    private PublicKey verificationKey;
+
+    @PostConstruct
+    void init() {
+        algorithm = algorithmOf(algorithmName);
+        signingKey = privateKey(read(signKeyLocation), algorithm);
+        verificationKey = publicKey(read(verifyKeyLocation), algorithm);
+        LOG.infof("Loaded %s JWT keys", algorithm.getAlgorithm());
+    }
+
+    public SignatureAlgorithm algorithm() {
+        return algorithm;
+    }
+
+    public PrivateKey signingKey() {
+        return signingKey;
+    }
+
+    public PublicKey verificationKey() {
+        return verificationKey;
+    }
+
+    static SignatureAlgorithm algorithmOf(String name) {
+        for (SignatureAlgorithm candidate : new SignatureAlgorithm[] {
+                SignatureAlgorithm.RS256, SignatureAlgorithm.ES256, SignatureAlgorithm.EDDSA }) {
+            if (candidate.getAlgorithm().equalsIgnoreCase(name)) {
+                return candidate;
+            }
+        }
+        throw new IllegalStateException("Unsupported JWT algorithm: " + name + " (use RS256, ES256 or EdDSA)");
+    }
+
+    static PrivateKey privateKey(String pem, SignatureAlgorithm algorithm) {
+        try {
+            return keyFactory(algorithm).generatePrivate(new PKCS8EncodedKeySpec(decodePem(pem)));
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Signing key is not a PKCS#8 " + algorithm.getAlgorithm() + " private key", e);
+        }
+    }
+
+    static PublicKey publicKey(String pem, SignatureAlgorithm algorithm) {
+        try {
+            return keyFactory(algorithm).generatePublic(new X509EncodedKeySpec(decodePem(pem)));
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Verification key is not an X.509 " + algorithm.getAlgorithm() + " public key", e);
+        }
+    }
+
+    private static KeyFactory keyFactory(SignatureAlgorithm algorithm) throws GeneralSecurityException {
+        return switch (algorithm) {
+            case ES256 -> KeyFactory.getInstance("EC");
+            case EDDSA -> KeyFactory.getInstance("Ed25519");
+            default -> KeyFactory.getInstance("RSA");
+        };
+    }
+
+    private static byte[] decodePem(String pem) {
+        StringBuilder body = new StringBuilder();
+        for (String line : pem.split("\\R")) {
+            if (!line.startsWith("-----")) {
+                body.append(line.trim());
+            }
+        }
+        return Base64.getDecoder().decode(body.toString());
+    }
+
+    // Same lookup as smallrye-jwt: classpath first, then the file system.
+    private static String read(String location) {
+        String path = location.startsWith("classpath:") ? location.substring("classpath:".length())
+                : location.startsWith("file:") ? location.substring("file:".length()) : location;
+        try (InputStream resource = Thread.currentThread().getContextClassLoader()
+                .getResourceAsStream(path.startsWith("/") ? path.substring(1) : path)) {
+            if (resource != null) {
+                return new String(resource.readAllBytes(), StandardCharsets.US_ASCII);
+            }
+            return Files.readString(Path.of(path), StandardCharsets.US_ASCII);
+        } catch (IOException e) {
+            throw new IllegalStateException("Cannot read JWT key from " + location, e);
+        }
+    }
+}
@@ -2,9 +2,11 @@ package com.duckstock.security;
 
 import io.smallrye.jwt.build.Jwt;
 import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
 import org.eclipse.microprofile.config.inject.ConfigProperty;
 import java.time.Duration;
 import java.util.Set;
+import java.util.UUID;
 
 @ApplicationScoped
 public class JwtTokenProvider {
@@ -18,6 +20,9 @@ public class JwtTokenProvider {
     @ConfigProperty(name = "smallrye.jwt.new-token.issuer", defaultValue = "duckstock")
     String issuer;
 
+    @Inject
+    JwtKeys keys;
+
     public String generateAccessToken(Long userId, String email, String role) {
         return Jwt.issuer(issuer)
                 .subject(userId.toString())
@@ -28,17 +33,33 @@ public class JwtTokenProvider {
                 .claim("role", role)
                 .claim("type", "access")
                 .expiresIn(Duration.ofSeconds(accessLifespan))
-                .sign();
+                .jws()
+                .algorithm(keys.algorithm())
+                .sign(keys.signingKey());
     }
 
+    /**
+     * Refresh token that starts a new rotation family.
+     */
     public String generateRefreshToken(Long userId, String email) {
+        return generateRefreshToken(userId, email, UUID.randomUUID());
+    }
+
+    /**
+     * Refresh token with a fresh {@code jti} in an existing rotation family ({@code fam}).
+     */
+    public String generateRefreshToken(Long userId, String email, UUID familyId) {
         return Jwt.issuer(issuer)
                 .subject(userId.toString())
                 .upn(email)
+                .claim("jti", UUID.randomUUID().toString())
+                .claim("fam", familyId.toString())
                 .claim("userId", userId)
                 .claim("type", "refresh")
                 .expiresIn(Duration.ofSeconds(refreshLifespan))
-                .sign();
+                .jws()
+                .algorithm(keys.algorithm())
+                .sign(keys.signingKey());
     }
 
     public int getAccessLifespan() {
@@ -0,0 +1,153 @@
+package com.duckstock.security;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Login attempt counters keyed by account or client address.
+ *
+ * Keys are spread over a fixed number of stripes, each an LRU map with its own lock and its own
+ * share of the capacity, so memory stays bounded however many keys an attacker sprays and
+ * concurrent logins rarely contend. When a stripe is full its least recently touched key is
+ * forgotten, which at worst gives that key a fresh set of free attempts.
+ */
+final class LoginAttemptStore {
+
+    static final class Attempts {
+        int failures;
+        long lastFailureMillis;
+        long blockedUntilMillis;
+    }
+
+    private final Stripe[] stripes;
+
+    LoginAttemptStore(int stripeCount, int maxEntries) {
+        int count = Math.max(1, stripeCount);
+        int perStripe = Math.max(1, maxEntries / count);
+        stripes = new Stripe[count];
+        for (int i = 0; i < count; i++) {
+            stripes[i] = new Stripe(perStripe);
+        }
+    }
+
+    /**
+     * Milliseconds {@code key} must still wait, or 0 when it may try now.
+     */
+    long blockedFor(String key, long nowMillis) {
+        Stripe stripe = stripeFor(key);
+        stripe.lock.lock();
+        try {
+            Attempts attempts = stripe.entries.get(key);
+            return attempts == null ? 0 : Math.max(0, attempts.blockedUntilMillis - nowMillis);
+        } finally {
+            stripe.lock.unlock();
+        }
+    }
+
+    /**
+     * Counts an attempt unless {@code key} is blocked, after forgetting attempts older than
+     * {@code decayMillis}, and returns the count; returns -1 without counting when blocked. The
+     * check and the count happen under one lock, so concurrent attempts cannot all pass a check
+     * made before any of them was counted. {@code backoff} turns the count into a block duration.
+     */
+    int tryAttempt(String key, long nowMillis, long decayMillis, Backoff backoff) {
+        Stripe stripe = stripeFor(key);
+        stripe.lock.lock();
+        try {
+            Attempts attempts = stripe.entries.computeIfAbsent(key, k -> new Attempts());
+            if (attempts.blockedUntilMillis > nowMillis) {
+                return -1;
+            }
+            if (nowMillis - attempts.lastFailureMillis > decayMillis) {
+                attempts.failures = 0;
+            }
+            attempts.failures++;
+            attempts.lastFailureMillis = nowMillis;
+            attempts.blockedUntilMillis = nowMillis + backoff.delayMillis(attempts.failures);
+            return attempts.failures;
+        } finally {
+            stripe.lock.unlock();
+        }
+    }
+
+    /**
+     * Takes back one attempt counted by {@link #tryAttempt}, with the block the remaining count
+     * calls for.
+     */
+    void forgive(String key, Backoff backoff) {
+        Stripe stripe = stripeFor(key);
+        stripe.lock.lock();
+        try {
+            Attempts attempts = stripe.entries.get(key);
+            if (attempts == null) {
+                return;
+            }
+            if (--attempts.failures <= 0) {
+                stripe.entries.remove(key);
+                return;
+            }
+            attempts.blockedUntilMillis = attempts.lastFailureMillis + backoff.delayMillis(attempts.failures);
+        } finally {
+            stripe.lock.unlock();
+        }
+    }
+
+    int failures(String key) {
+        Stripe stripe = stripeFor(key);
+        stripe.lock.lock();
+        try {
+            Attempts attempts = stripe.entries.get(key);
+            return attempts == null ? 0 : attempts.failures;
+        } finally {
+            stripe.lock.unlock();
+        }
+    }
+
+    void clear(String key) {
+        Stripe stripe = stripeFor(key);
+        stripe.lock.lock();
+        try {
+            stripe.entries.remove(key);
+        } finally {
+            stripe.lock.unlock();
+        }
+    }
+
+    int size() {
+        int size = 0;
+        for (Stripe stripe : stripes) {
+            stripe.lock.lock();
+            try {
+                size += stripe.entries.size();
+            } finally {
+                stripe.lock.unlock();
+            }
+        }
+        return size;
+    }
+
+    private Stripe stripeFor(String key) {
+        int hash = key.hashCode();
+        return stripes[Math.floorMod(hash ^ (hash >>> 16), stripes.length)];
+    }
+
+    @FunctionalInterface
+    interface Backoff {
+        long delayMillis(int failures);
+    }
+
+    private static final class Stripe {
+        final ReentrantLock lock = new ReentrantLock();
+        final LinkedHashMap<String, Attempts> entries;
+
+        Stripe(int capacity) {
+            entries = new LinkedHashMap<>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<String, Attempts> eldest) {
+                    return size() > capacity;
+                }
+            };
+        }
+    }
+}
@@ -0,0 +1,140 @@
+package com.duckstock.security;
+
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.jboss.logging.Logger;
+
+import com.duckstock.exception.TooManyRequestsException;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.enterprise.context.ApplicationScoped;
+
+/**
+ * Exponential backoff for failed logins, per account and per client address.
+ *
+ * {@link #acquire} runs before the login is handed to the hashing pool, so an attempt against a
+ * blocked account or from a blocked address is answered with 429 without computing a hash. The
+ * per-account limit stops credential stuffing spread over many addresses; the per-address limit,
+ * which is higher because addresses are shared, stops one client sweeping many accounts.
+ */
+@ApplicationScoped
+public class LoginThrottle {
+
+    private static final Logger LOG = Logger.getLogger(LoginThrottle.class);
+
+    @ConfigProperty(name = "duckstock.auth.login-throttle.enabled", defaultValue = "true")
+    boolean enabled;
+
+    @ConfigProperty(name = "duckstock.auth.login-throttle.account-free-attempts", defaultValue = "5")
+    int accountFreeAttempts;
+
+    @ConfigProperty(name = "duckstock.auth.login-throttle.address-free-attempts", defaultValue = "50")
+    int addressFreeAttempts;
+
+    @ConfigProperty(name = "duckstock.auth.login-throttle.base-delay-millis", defaultValue = "1000")
+    long baseDelayMillis;
+
+    @ConfigProperty(name = "duckstock.auth.login-throttle.max-delay-seconds", defaultValue = "900")
+    long maxDelaySeconds;
+
+    @ConfigProperty(name = "duckstock.auth.login-throttle.decay-seconds", defaultValue = "900")
+    long decaySeconds;
+
+    @ConfigProperty(name = "duckstock.auth.login-throttle.max-entries", defaultValue = "100000")
+    int maxEntries;
+
+    @ConfigProperty(name = "duckstock.auth.login-throttle.stripes", defaultValue = "64")
+    int stripes;
+
+    LongSupplier clock = System::currentTimeMillis;
+    private LoginAttemptStore store;
+
+    @PostConstruct
+    void init() {
+        store = new LoginAttemptStore(stripes, maxEntries);
+    }
+
+    /**
+     * Counts a login attempt against the account and the address before the password is
+     * verified, or throws {@link TooManyRequestsException} while either is backing off. Checking
+     * and counting in one step means a burst of concurrent attempts gets no more than the free
+     * ones through. Every acquired attempt ends in {@link #succeeded}, {@link #failed} or
+     * {@link #release}.
+     */
+    public void acquire(String email, String address) {
+        if (!enabled) {
+            return;
+        }
+        long now = clock.getAsLong();
+        long decayMillis = TimeUnit.SECONDS.toMillis(decaySeconds);
+        // The address first, so attempts from a blocked address never count against the account.
+        String addressKey = addressKey(address);
+        if (store.tryAttempt(addressKey, now, decayMillis, backoff(addressFreeAttempts)) < 0) {
+            throw tooManyAttempts(store.blockedFor(addressKey, now));
+        }
+        String accountKey = accountKey(email);
+        if (store.tryAttempt(accountKey, now, decayMillis, backoff(accountFreeAttempts)) < 0) {
+            store.forgive(addressKey, backoff(addressFreeAttempts));
+            throw tooManyAttempts(store.blockedFor(accountKey, now));
+        }
+    }
+
+    /**
+     * A successful login clears the account's attempts. The address only gets this attempt
+     * back, since one valid account does not vouch for the other attempts made from it.
+     */
+    public void succeeded(String email, String address) {
+        if (enabled) {
+            store.clear(accountKey(email));
+            store.forgive(addressKey(address), backoff(addressFreeAttempts));
+        }
+    }
+
+    /**
+     * Wrong credentials: the attempt stays counted.
+     */
+    public void failed(String email, String address) {
+        if (enabled && store.failures(accountKey(email)) == accountFreeAttempts) {
+            LOG.warnf("Login backoff started for account %s (last attempt from %s)", email, address);
+        }
+    }
+
+    /**
+     * The login ended without verifying the password, for example because the hashing pool was
+     * full, so the attempt is taken back from both counts.
+     */
+    public void release(String email, String address) {
+        if (enabled) {
+            store.forgive(accountKey(email), backoff(accountFreeAttempts));
+            store.forgive(addressKey(address), backoff(addressFreeAttempts));
+        }
+    }
+
+    private static TooManyRequestsException tooManyAttempts(long waitMillis) {
+        return new TooManyRequestsException("Too many failed login attempts, try again later",
+                Math.max(1, TimeUnit.MILLISECONDS.toSeconds(waitMillis + 999)));
+    }
+
+    // No delay for the free attempts, then base, 2x base, 4x base, ... up to the cap.
+    private LoginAttemptStore.Backoff backoff(int freeAttempts) {
+        long maxDelayMillis = TimeUnit.SECONDS.toMillis(maxDelaySeconds);
+        return failures -> {
+            int excess = failures - freeAttempts;
+            if (excess < 0) {
+                return 0;
+            }
+            return excess >= 30 ? maxDelayMillis : Math.min(maxDelayMillis, baseDelayMillis << excess);
+        };
+    }
+
+    private static String accountKey(String email) {
+        return "account:" + (email == null ? "" : email.trim().toLowerCase(Locale.ROOT));
+    }
+
+    private static String addressKey(String address) {
+        return "address:" + (address == null ? "" : address);
+    }
+}
@@ -1,16 +1,195 @@
 package com.duckstock.security;
 
-import jakarta.enterprise.context.ApplicationScoped;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.util.Base64;
+
+import javax.crypto.SecretKeyFactory;
+import javax.crypto.spec.PBEKeySpec;
+
+import org.eclipse.microprofile.config.inject.ConfigProperty;
 import org.mindrot.jbcrypt.BCrypt;
 
+import com.duckstock.jfr.PasswordHashEvent;
+import com.duckstock.metrics.ServiceMetrics;
+
+import io.opentelemetry.api.common.AttributeKey;
+import io.opentelemetry.api.trace.Span;
+import io.opentelemetry.instrumentation.annotations.WithSpan;
+import io.quarkus.runtime.StartupEvent;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.inject.Inject;
+
+/**
+ * Hashes passwords with the configured algorithm and verifies any format it has ever written.
+ *
+ * Stored hashes are self-describing: BCrypt uses the usual {@code $2a$<cost>$...} form and
+ * PBKDF2 is stored as {@code $pbkdf2-sha256$i=<iterations>$<salt>$<hash>}. {@link #needsRehash}
+ * reports hashes written with another algorithm or weaker parameters so they can be upgraded
+ * the next time the plain password is known.
+ */
 @ApplicationScoped
 public class PasswordEncoder {
 
+    public static final String BCRYPT = "bcrypt";
+    public static final String PBKDF2 = "pbkdf2-sha256";
+
+    private static final String PBKDF2_PREFIX = "$" + PBKDF2 + "$i=";
+    private static final String PBKDF2_JCA_NAME = "PBKDF2WithHmacSHA256";
+    private static final int PBKDF2_SALT_BYTES = 16;
+    private static final int PBKDF2_KEY_BITS = 256;
+
+    private static final Base64.Encoder B64_ENCODER = Base64.getEncoder().withoutPadding();
+    private static final Base64.Decoder B64_DECODER = Base64.getDecoder();
+
+    private static final AttributeKey<String> ALGORITHM = AttributeKey.stringKey("duckstock.password.algorithm");
+
+    @ConfigProperty(name = "duckstock.auth.password.algorithm", defaultValue = BCRYPT)
+    String algorithm;
+
+    @ConfigProperty(name = "duckstock.auth.password.bcrypt-cost", defaultValue = "12")
+    int bcryptCost;
+
+    @ConfigProperty(name = "duckstock.auth.password.pbkdf2-iterations", defaultValue = "600000")
+    int pbkdf2Iterations;
+
+    @Inject
+    ServiceMetrics metrics;
+
+    private final SecureRandom random = new SecureRandom();
+
+    void onStart(@Observes StartupEvent event) {
+        checkAlgorithm();
+    }
+
+    void checkAlgorithm() {
+        if (!BCRYPT.equals(algorithm) && !PBKDF2.equals(algorithm)) {
+            throw new IllegalStateException("Unknown password hashing algorithm: " + algorithm
+                    + " (use " + BCRYPT + " or " + PBKDF2 + ")");
+        }
+    }
+
+    @WithSpan("PasswordEncoder.hash")
     public String encode(String plainPassword) {
-        return BCrypt.hashpw(plainPassword, BCrypt.gensalt(12));
+        PasswordHashEvent event = new PasswordHashEvent();
+        event.begin();
+        long start = System.nanoTime();
+        String hash = PBKDF2.equals(algorithm)
+                ? encodePbkdf2(plainPassword, pbkdf2Iterations)
+                : encodeBcrypt(plainPassword, bcryptCost);
+        metrics.passwordHashed(algorithm, System.nanoTime() - start);
+        record(event, PBKDF2.equals(algorithm) ? PBKDF2 : BCRYPT, "hash");
+        return hash;
     }
 
+    @WithSpan("PasswordEncoder.verify")
     public boolean matches(String plainPassword, String hashedPassword) {
-        return BCrypt.checkpw(plainPassword, hashedPassword);
+        if (plainPassword == null || hashedPassword == null) {
+            return false;
+        }
+        PasswordHashEvent event = new PasswordHashEvent();
+        event.begin();
+        long start = System.nanoTime();
+        if (isBcrypt(hashedPassword)) {
+            // jBCrypt only understands the 2a revision; 2b and 2y hashes are computed identically.
+            try {
+                return BCrypt.checkpw(plainPassword, "$2a$" + hashedPassword.substring(4));
+            } catch (IllegalArgumentException e) {
+                return false;
+            } finally {
+                metrics.passwordVerified(BCRYPT, System.nanoTime() - start);
+                record(event, BCRYPT, "verify");
+            }
+        }
+        if (hashedPassword.startsWith(PBKDF2_PREFIX)) {
+            boolean matches = matchesPbkdf2(plainPassword, hashedPassword);
+            metrics.passwordVerified(PBKDF2, System.nanoTime() - start);
+            record(event, PBKDF2, "verify");
+            return matches;
+        }
+        return false;
+    }
+
+    private static void record(PasswordHashEvent event, String algorithm, String operation) {
+        Span.current().setAttribute(ALGORITHM, algorithm);
+        if (event.shouldCommit()) {
+            event.algorithm = algorithm;
+            event.operation = operation;
+            event.commit();
+        }
+    }
+
+    /**
+     * True when {@code hashedPassword} was not produced with the current algorithm and parameters.
+     */
+    public boolean needsRehash(String hashedPassword) {
+        if (hashedPassword == null) {
+            return true;
+        }
+        if (PBKDF2.equals(algorithm)) {
+            return !hashedPassword.startsWith(PBKDF2_PREFIX) || pbkdf2IterationsOf(hashedPassword) < pbkdf2Iterations;
+        }
+        return !isBcrypt(hashedPassword) || bcryptCostOf(hashedPassword) < bcryptCost;
+    }
+
+    String encodeBcrypt(String plainPassword, int cost) {
+        return BCrypt.hashpw(plainPassword, BCrypt.gensalt(cost, random));
+    }
+
+    String encodePbkdf2(String plainPassword, int iterations) {
+        byte[] salt = new byte[PBKDF2_SALT_BYTES];
+        random.nextBytes(salt);
+        byte[] hash = pbkdf2(plainPassword, salt, iterations);
+        return PBKDF2_PREFIX + iterations + "$" + B64_ENCODER.encodeToString(salt) + "$" + B64_ENCODER.encodeToString(hash);
+    }
+
+    private boolean matchesPbkdf2(String plainPassword, String hashedPassword) {
+        // $pbkdf2-sha256$i=<iterations>$<salt>$<hash>
+        String[] parts = hashedPassword.split("\\$");
+        if (parts.length != 5) {
+            return false;
+        }
+        try {
+            int iterations = Integer.parseInt(parts[2].substring(2));
+            byte[] salt = B64_DECODER.decode(parts[3]);
+            byte[] expected = B64_DECODER.decode(parts[4]);
+            return MessageDigest.isEqual(expected, pbkdf2(plainPassword, salt, iterations));
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+    }
+
+    private byte[] pbkdf2(String plainPassword, byte[] salt, int iterations) {
+        PBEKeySpec spec = new PBEKeySpec(plainPassword.toCharArray(), salt, iterations, PBKDF2_KEY_BITS);
+        try {
+            return SecretKeyFactory.getInstance(PBKDF2_JCA_NAME).generateSecret(spec).getEncoded();
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException(PBKDF2_JCA_NAME + " is not available", e);
+        } finally {
+            spec.clearPassword();
+        }
+    }
+
+    private static boolean isBcrypt(String hash) {
+        return hash.length() > 7 && (hash.startsWith("$2a$") || hash.startsWith("$2b$") || hash.startsWith("$2y$"));
+    }
+
+    private static int bcryptCostOf(String hash) {
+        try {
+            return Integer.parseInt(hash.substring(4, 6));
+        } catch (NumberFormatException e) {
+            return 0;
+        }
+    }
+
+    private static int pbkdf2IterationsOf(String hash) {
+        int end = hash.indexOf('$', PBKDF2_PREFIX.length());
+        try {
+            return Integer.parseInt(hash.substring(PBKDF2_PREFIX.length(), end < 0 ? hash.length() : end));
+        } catch (NumberFormatException e) {
+            return 0;
+        }
     }
 }
@@ -0,0 +1,69 @@
+package com.duckstock.security;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import com.duckstock.dto.admin.HashCalibrationResponse;
+
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+
+/**
+ * Measures password verification time on this machine and recommends the strongest BCrypt cost
+ * and PBKDF2 iteration count that still verify within a target time.
+ */
+@ApplicationScoped
+public class PasswordHashCalibrator {
+
+    static final int MIN_BCRYPT_COST = 8;
+    static final int MAX_BCRYPT_COST = 16;
+    static final int MIN_PBKDF2_ITERATIONS = 100_000;
+    private static final int PBKDF2_PROBE_ITERATIONS = 50_000;
+    private static final int ROUNDS = 3;
+    private static final String PROBE_PASSWORD = "calibration-probe-password";
+
+    @Inject
+    PasswordEncoder passwordEncoder;
+
+    public HashCalibrationResponse calibrate(long targetMillis) {
+        List<HashCalibrationResponse.Sample> samples = new ArrayList<>();
+
+        // Each BCrypt cost step doubles the work; stop at the first cost over the target.
+        int bcryptCost = MIN_BCRYPT_COST;
+        for (int cost = MIN_BCRYPT_COST; cost <= MAX_BCRYPT_COST; cost++) {
+            double millis = medianVerifyMillis(passwordEncoder.encodeBcrypt(PROBE_PASSWORD, cost));
+            samples.add(new HashCalibrationResponse.Sample(PasswordEncoder.BCRYPT, cost, millis));
+            if (millis > targetMillis) {
+                break;
+            }
+            bcryptCost = cost;
+        }
+
+        // PBKDF2 cost is linear in the iteration count: probe once, scale, then confirm.
+        double probeMillis = medianVerifyMillis(passwordEncoder.encodePbkdf2(PROBE_PASSWORD, PBKDF2_PROBE_ITERATIONS));
+        samples.add(new HashCalibrationResponse.Sample(PasswordEncoder.PBKDF2, PBKDF2_PROBE_ITERATIONS, probeMillis));
+        int pbkdf2Iterations = scaleIterations(PBKDF2_PROBE_ITERATIONS, probeMillis, targetMillis);
+        double confirmedMillis = medianVerifyMillis(passwordEncoder.encodePbkdf2(PROBE_PASSWORD, pbkdf2Iterations));
+        samples.add(new HashCalibrationResponse.Sample(PasswordEncoder.PBKDF2, pbkdf2Iterations, confirmedMillis));
+
+        return new HashCalibrationResponse(targetMillis, passwordEncoder.algorithm, bcryptCost, pbkdf2Iterations, samples);
+    }
+
+    static int scaleIterations(int probeIterations, double probeMillis, long targetMillis) {
+        double scaled = probeIterations * (targetMillis / Math.max(probeMillis, 0.001));
+        long rounded = (long) (scaled / 10_000) * 10_000;
+        return (int) Math.max(MIN_PBKDF2_ITERATIONS, Math.min(rounded, Integer.MAX_VALUE));
+    }
+
+    private double medianVerifyMillis(String hash) {
+        double[] millis = new double[ROUNDS];
+        for (int i = 0; i < ROUNDS; i++) {
+            long start = System.nanoTime();
+            passwordEncoder.matches(PROBE_PASSWORD, hash);
+            millis[i] = (System.nanoTime() - start) / 1_000_000.0;
+        }
+        Arrays.sort(millis);
+        return millis[ROUNDS / 2];
+    }
+}
@@ -0,0 +1,62 @@
+package com.duckstock.security;
+
+import java.util.function.Supplier;
+
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.jboss.logging.Logger;
+
+import com.duckstock.bulkhead.Bulkhead;
+
+import io.smallrye.mutiny.Uni;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.enterprise.context.ApplicationScoped;
+
+/**
+ * Runs password hashing work (BCrypt) on a small dedicated pool instead of the request workers.
+ *
+ * The pool is sized to the number of cores because hashing is pure CPU, and its queue is
+ * bounded: when it is full the task is rejected immediately with a 503 and Retry-After
+ * rather than letting a login burst queue up behind itself.
+ */
+@ApplicationScoped
+public class PasswordHashingExecutor {
+
+    private static final Logger LOG = Logger.getLogger(PasswordHashingExecutor.class);
+
+    @ConfigProperty(name = "duckstock.auth.hashing.threads", defaultValue = "0")
+    int threads;
+
+    @ConfigProperty(name = "duckstock.auth.hashing.queue-size", defaultValue = "64")
+    int queueSize;
+
+    @ConfigProperty(name = "duckstock.auth.hashing.retry-after-seconds", defaultValue = "1")
+    long retryAfterSeconds;
+
+    private Bulkhead bulkhead;
+
+    @PostConstruct
+    void start() {
+        int poolSize = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        bulkhead = new Bulkhead("password-hashing", poolSize, queueSize, retryAfterSeconds,
+                "Too many sign-in attempts in progress, please retry");
+        LOG.infof("Password hashing pool started (%d threads, queue %d)", poolSize, Math.max(queueSize, 1));
+    }
+
+    @PreDestroy
+    void stop() {
+        bulkhead.shutdown();
+    }
+
+    /**
+     * Runs {@code task} on the hashing pool. The caller's request context is carried over so the
+     * task can use request-scoped beans.
+     */
+    public <T> Uni<T> submit(Supplier<T> task) {
+        return bulkhead.submit(task);
+    }
+
+    public Bulkhead bulkhead() {
+        return bulkhead;
+    }
+}
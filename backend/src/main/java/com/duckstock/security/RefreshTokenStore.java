@@ -0,0 +1,157 @@
+package com.duckstock.security;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.UUID;
+
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.hibernate.query.NativeQuery;
+import org.jboss.logging.Logger;
+
+import com.duckstock.entity.RevokedToken;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import io.quarkus.narayana.jta.QuarkusTransaction;
+import io.quarkus.runtime.StartupEvent;
+import io.vertx.core.Vertx;
+import jakarta.annotation.PreDestroy;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.inject.Inject;
+
+/**
+ * Revocation state for rotating refresh tokens, kept in the {@code revoked_tokens} table.
+ *
+ * A refresh costs one statement: {@link #consume} records the token as used and, in the same
+ * insert, checks that neither the token nor its family was revoked before. Nothing is read first.
+ *
+ * A token presented again within {@code reuse-grace-seconds} of its rotation, typically by two
+ * tabs refreshing at once, is not treated as theft: the successor issued for it on this instance
+ * is handed out again, and on other instances the request is refused without revoking the family.
+ */
+@ApplicationScoped
+public class RefreshTokenStore {
+
+    private static final Logger LOG = Logger.getLogger(RefreshTokenStore.class);
+
+    private static final long PURGE_INTERVAL_MILLIS = Duration.ofHours(1).toMillis();
+
+    // Consumes a token id unless it was already consumed or its family has been revoked.
+    private static final String CONSUME = "insert into revoked_tokens (id, kind, expires_at, revoked_at) "
+            + "select ?1, ?2, ?3, ?4 where not exists (select 1 from revoked_tokens where id = ?5) "
+            + "on conflict (id) do nothing";
+    private static final String REVOKE = "insert into revoked_tokens (id, kind, expires_at, revoked_at) "
+            + "values (?1, ?2, ?3, ?4) on conflict (id) do nothing";
+
+    @ConfigProperty(name = "duckstock.auth.refresh.reuse-grace-seconds", defaultValue = "5")
+    long reuseGraceSeconds;
+
+    @Inject
+    Vertx vertx;
+
+    private Cache<UUID, Successor> successors;
+    private long purgeTimerId = -1;
+
+    private record Successor(UUID familyId, String token) {}
+
+    void start(@Observes StartupEvent event) {
+        successors = Caffeine.newBuilder()
+                .expireAfterWrite(Duration.ofSeconds(Math.max(reuseGraceSeconds, 0)))
+                .maximumSize(100_000)
+                .build();
+        purgeTimerId = vertx.setPeriodic(PURGE_INTERVAL_MILLIS,
+                id -> vertx.executeBlocking(() -> {
+                    purgeExpired();
+                    return null;
+                }, false));
+    }
+
+    @PreDestroy
+    void stop() {
+        if (purgeTimerId >= 0) {
+            vertx.cancelTimer(purgeTimerId);
+        }
+    }
+
+    /**
+     * Atomically marks a refresh token as used. Returns false if it had been used before or its
+     * family was revoked, which the caller must treat as reuse unless {@link #recentSuccessor} or
+     * {@link #rotatedWithinGrace} says otherwise.
+     */
+    public boolean consume(UUID tokenId, UUID familyId, long expiresAtEpochSecond) {
+        int inserted = nativeUpdate(CONSUME)
+                .setParameter(1, tokenId)
+                .setParameter(2, RevokedToken.TOKEN)
+                .setParameter(3, toLocal(expiresAtEpochSecond))
+                .setParameter(4, LocalDateTime.now())
+                .setParameter(5, familyId)
+                .executeUpdate();
+        return inserted == 1;
+    }
+
+    /**
+     * Remembers the token issued in exchange for {@code tokenId} for the grace period.
+     */
+    public void rotated(UUID tokenId, UUID familyId, String successor) {
+        if (reuseGraceSeconds > 0) {
+            successors.put(tokenId, new Successor(familyId, successor));
+        }
+    }
+
+    /**
+     * The token issued on this instance for {@code tokenId} less than {@code reuse-grace-seconds}
+     * ago, or null. Null as well once the family has been revoked, by logout for example.
+     */
+    public String recentSuccessor(UUID tokenId) {
+        Successor successor = successors.getIfPresent(tokenId);
+        if (successor == null || RevokedToken.findById(successor.familyId()) != null) {
+            return null;
+        }
+        return successor.token();
+    }
+
+    /**
+     * True when {@code tokenId} was consumed less than {@code reuse-grace-seconds} ago and its
+     * family is still valid.
+     */
+    public boolean rotatedWithinGrace(UUID tokenId, UUID familyId) {
+        if (reuseGraceSeconds <= 0) {
+            return false;
+        }
+        RevokedToken consumed = RevokedToken.findById(tokenId);
+        return consumed != null
+                && consumed.revokedAt.isAfter(LocalDateTime.now().minusSeconds(reuseGraceSeconds))
+                && RevokedToken.findById(familyId) == null;
+    }
+
+    public void revokeFamily(UUID familyId, long expiresAtEpochSecond) {
+        nativeUpdate(REVOKE)
+                .setParameter(1, familyId)
+                .setParameter(2, RevokedToken.FAMILY)
+                .setParameter(3, toLocal(expiresAtEpochSecond))
+                .setParameter(4, LocalDateTime.now())
+                .executeUpdate();
+    }
+
+    void purgeExpired() {
+        long deleted = QuarkusTransaction.requiringNew()
+                .call(() -> RevokedToken.delete("expiresAt < ?1", LocalDateTime.now()));
+        if (deleted > 0) {
+            LOG.debugf("Purged %d expired revoked refresh token ids", deleted);
+        }
+    }
+
+    // Naming the table keeps Hibernate from evicting every second-level cache region on each insert.
+    private static NativeQuery<?> nativeUpdate(String sql) {
+        return RevokedToken.getEntityManager().createNativeQuery(sql)
+                .unwrap(NativeQuery.class)
+                .addSynchronizedEntityClass(RevokedToken.class);
+    }
+
+    private static LocalDateTime toLocal(long epochSecond) {
+        return LocalDateTime.ofInstant(Instant.ofEpochSecond(epochSecond), ZoneId.systemDefault());
+    }
+}
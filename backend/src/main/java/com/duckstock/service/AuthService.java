@@ -1,18 +1,28 @@
 package com.duckstock.service;
 
+import com.duckstock.cache.UserCache;
 import com.duckstock.dto.auth.LoginRequest;
 import com.duckstock.dto.auth.RegisterRequest;
 import com.duckstock.dto.auth.UserResponse;
 import com.duckstock.entity.User;
+import com.duckstock.event.UserChange;
 import com.duckstock.exception.BusinessException;
 import com.duckstock.exception.UnauthorizedException;
 import com.duckstock.security.JwtTokenProvider;
 import com.duckstock.security.PasswordEncoder;
+import com.duckstock.security.RefreshTokenStore;
+import io.opentelemetry.instrumentation.annotations.WithSpan;
 import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Event;
 import jakarta.inject.Inject;
 import jakarta.transaction.Transactional;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.eclipse.microprofile.jwt.JsonWebToken;
 import org.jboss.logging.Logger;
 
+import java.time.Instant;
+import java.util.UUID;
+
 @ApplicationScoped
 public class AuthService {
 
@@ -27,9 +37,22 @@ public class AuthService {
     @Inject
     io.smallrye.jwt.auth.principal.JWTParser jwtParser;
 
+    @Inject
+    UserCache userCache;
+
+    @Inject
+    Event<UserChange> userChanges;
+
+    @Inject
+    RefreshTokenStore refreshTokenStore;
+
+    @ConfigProperty(name = "duckstock.auth.refresh.rotation.enabled", defaultValue = "true")
+    boolean rotationEnabled;
+
     @Transactional
     public record AuthResult(UserResponse user, String accessToken, String refreshToken, int refreshMaxAge) {}
 
+    @WithSpan
     @Transactional
     public AuthResult register(RegisterRequest request) {
         User existing = User.findByEmail(request.email);
@@ -43,6 +66,7 @@ public class AuthService {
         user.password = passwordEncoder.encode(request.password);
         user.role = "USER";
         user.persist();
+        userChanges.fire(new UserChange(user.email));
 
         LOG.infof("User registered: %s", user.email);
 
@@ -52,6 +76,8 @@ public class AuthService {
         return new AuthResult(UserResponse.from(user), accessToken, refreshToken, jwtTokenProvider.getRefreshLifespan());
     }
 
+    @WithSpan
+    @Transactional
     public AuthResult login(LoginRequest request) {
         User user = User.findByEmail(request.email);
         if (user == null) {
@@ -62,6 +88,13 @@ public class AuthService {
             throw new UnauthorizedException("Invalid email or password");
         }
 
+        // The plain password is only known here, so this is where outdated hashes get upgraded.
+        if (passwordEncoder.needsRehash(user.password)) {
+            user.password = passwordEncoder.encode(request.password);
+            userChanges.fire(new UserChange(user.email));
+            LOG.debugf("Upgraded password hash for user: %s", user.email);
+        }
+
         LOG.infof("User logged in: %s", user.email);
 
         String accessToken = jwtTokenProvider.generateAccessToken(user.id, user.email, user.role);
@@ -70,9 +103,12 @@ public class AuthService {
         return new AuthResult(UserResponse.from(user), accessToken, refreshToken, jwtTokenProvider.getRefreshLifespan());
     }
 
-    public String refreshToken(String refreshToken) {
+    // Reuse detection revokes the token family and must commit even though the request fails.
+    @WithSpan
+    @Transactional(dontRollbackOn = UnauthorizedException.class)
+    public AuthResult refreshToken(String refreshToken) {
         try {
-            org.eclipse.microprofile.jwt.JsonWebToken parsedJwt = jwtParser.parse(refreshToken);
+            JsonWebToken parsedJwt = jwtParser.parse(refreshToken);
             
             // Validate token type claim
             String type = parsedJwt.getClaim("type");
@@ -81,24 +117,78 @@ public class AuthService {
             }
 
             String email = parsedJwt.getName();
-            User user = User.findByEmail(email);
+            UserCache.CachedUser user = userCache.findByEmail(email);
             if (user == null) {
                 throw new UnauthorizedException("User not found");
             }
 
             LOG.debugf("Refreshing token for user: %s", email);
-            return jwtTokenProvider.generateAccessToken(user.id, user.email, user.role);
+            String accessToken = jwtTokenProvider.generateAccessToken(user.id(), user.email(), user.role());
+            UserResponse userResponse = new UserResponse(user.id(), user.name(), user.email(), user.role());
+            if (!rotationEnabled) {
+                int remaining = (int) Math.max(0, parsedJwt.getExpirationTime() - Instant.now().getEpochSecond());
+                return new AuthResult(userResponse, accessToken, refreshToken, remaining);
+            }
+            return new AuthResult(userResponse, accessToken, rotate(parsedJwt, user), jwtTokenProvider.getRefreshLifespan());
+        } catch (UnauthorizedException e) {
+            throw e;
         } catch (Exception e) {
             LOG.error("Failed to parse refresh token", e);
             throw new UnauthorizedException("Invalid refresh token");
         }
     }
 
+    // Each refresh token can be exchanged once. Presenting it again means it was copied, so the
+    // whole family (every token descended from the same login) is revoked, unless it comes within the
+    // reuse grace period: concurrent refreshes from two tabs get the successor already issued, or a 401.
+    private String rotate(JsonWebToken token, UserCache.CachedUser user) {
+        UUID tokenId = UUID.fromString(token.getTokenID());
+        UUID familyId = UUID.fromString(token.getClaim("fam"));
+
+        if (refreshTokenStore.consume(tokenId, familyId, token.getExpirationTime())) {
+            String successor = jwtTokenProvider.generateRefreshToken(user.id(), user.email(), familyId);
+            refreshTokenStore.rotated(tokenId, familyId, successor);
+            return successor;
+        }
+        String successor = refreshTokenStore.recentSuccessor(tokenId);
+        if (successor != null) {
+            LOG.debugf("Concurrent refresh for user %s, returning the token already issued", user.email());
+            return successor;
+        }
+        if (refreshTokenStore.rotatedWithinGrace(tokenId, familyId)) {
+            throw new UnauthorizedException("Refresh token was already used");
+        }
+        refreshTokenStore.revokeFamily(familyId, familyExpiry());
+        LOG.warnf("Refresh token reuse or revoked family for user: %s", user.email());
+        throw new UnauthorizedException("Refresh token has been revoked");
+    }
+
+    @WithSpan
+    @Transactional
+    public void logout(String refreshToken) {
+        if (!rotationEnabled || refreshToken == null || refreshToken.isEmpty()) {
+            return;
+        }
+        try {
+            JsonWebToken parsedJwt = jwtParser.parse(refreshToken);
+            refreshTokenStore.revokeFamily(UUID.fromString(parsedJwt.getClaim("fam")), familyExpiry());
+        } catch (Exception e) {
+            // Expired or malformed tokens cannot be used anyway.
+            LOG.debug("Ignoring invalid refresh token on logout", e);
+        }
+    }
+
+    // Rotated tokens get a full lifespan each, so a family can outlive its first token.
+    private long familyExpiry() {
+        return Instant.now().getEpochSecond() + jwtTokenProvider.getRefreshLifespan();
+    }
+
+    @WithSpan
     public UserResponse getCurrentUser(String email) {
-        User user = User.findByEmail(email);
+        UserCache.CachedUser user = userCache.findByEmail(email);
         if (user == null) {
             throw new UnauthorizedException("User not found");
         }
-        return UserResponse.from(user);
+        return new UserResponse(user.id(), user.name(), user.email(), user.role());
     }
 }
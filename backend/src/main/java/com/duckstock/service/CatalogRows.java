@@ -0,0 +1,113 @@
+package com.duckstock.service;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import com.duckstock.entity.Product;
+import com.duckstock.entity.ProductRawMaterial;
+import com.duckstock.entity.RawMaterial;
+
+import io.vertx.mutiny.sqlclient.Row;
+import io.vertx.mutiny.sqlclient.RowSet;
+
+/**
+ * Builds detached entities from reactive client rows, so the reactive read path reuses the same
+ * response mappings and {@link SuggestionPlanner} as the Hibernate one.
+ *
+ * Column lists and aliases below must stay in step with the entity mappings.
+ */
+final class CatalogRows {
+
+    static final String RAW_MATERIAL_COLUMNS =
+            "id, name, description, price, stock_quantity, unit, created_at, updated_at";
+
+    static final String PRODUCT_COLUMNS =
+            "id, name, description, price, stock_quantity, created_at, updated_at";
+
+    private static final String COMPOSITIONS = "select c.id, c.product_id, c.quantity_needed, "
+            + "r.id as rm_id, r.name as rm_name, r.description as rm_description, r.price as rm_price, "
+            + "r.stock_quantity as rm_stock_quantity, r.unit as rm_unit, "
+            + "r.created_at as rm_created_at, r.updated_at as rm_updated_at "
+            + "from product_raw_materials c join raw_materials r on r.id = c.raw_material_id ";
+
+    // Compositions of the products matched by the subquery in %s, with their raw materials.
+    static final String COMPOSITIONS_OF = COMPOSITIONS + "where c.product_id in (%s)";
+
+    // Compositions of the product ids in the array bound to $1, with their raw materials.
+    static final String COMPOSITIONS_OF_IDS = COMPOSITIONS + "where c.product_id = any($1)";
+
+    private CatalogRows() {}
+
+    static RawMaterial rawMaterial(Row row) {
+        return rawMaterial(row, "");
+    }
+
+    static UUID[] ids(RowSet<Row> rows) {
+        UUID[] ids = new UUID[rows.size()];
+        int i = 0;
+        for (Row row : rows) {
+            ids[i++] = row.getUUID("id");
+        }
+        return ids;
+    }
+
+    static List<RawMaterial> rawMaterials(RowSet<Row> rows) {
+        List<RawMaterial> rawMaterials = new ArrayList<>(rows.size());
+        for (Row row : rows) {
+            rawMaterials.add(rawMaterial(row));
+        }
+        return rawMaterials;
+    }
+
+    /**
+     * Products in row order, each with its composition. As with Hibernate, a raw material used by
+     * several products is a single instance.
+     */
+    static List<Product> products(RowSet<Row> productRows, RowSet<Row> compositionRows) {
+        Map<UUID, Product> products = new LinkedHashMap<>();
+        for (Row row : productRows) {
+            Product product = new Product();
+            product.id = row.getUUID("id");
+            product.name = row.getString("name");
+            product.description = row.getString("description");
+            product.price = row.getBigDecimal("price");
+            product.stockQuantity = row.getInteger("stock_quantity");
+            product.createdAt = row.getLocalDateTime("created_at");
+            product.updatedAt = row.getLocalDateTime("updated_at");
+            product.rawMaterials = new ArrayList<>();
+            products.put(product.id, product);
+        }
+
+        Map<UUID, RawMaterial> rawMaterials = new HashMap<>();
+        for (Row row : compositionRows) {
+            Product product = products.get(row.getUUID("product_id"));
+            if (product == null) {
+                continue;
+            }
+            ProductRawMaterial composition = new ProductRawMaterial();
+            composition.id = row.getUUID("id");
+            composition.product = product;
+            composition.quantityNeeded = row.getInteger("quantity_needed");
+            composition.rawMaterial = rawMaterials.computeIfAbsent(row.getUUID("rm_id"), id -> rawMaterial(row, "rm_"));
+            product.rawMaterials.add(composition);
+        }
+        return new ArrayList<>(products.values());
+    }
+
+    private static RawMaterial rawMaterial(Row row, String prefix) {
+        RawMaterial rawMaterial = new RawMaterial();
+        rawMaterial.id = row.getUUID(prefix + "id");
+        rawMaterial.name = row.getString(prefix + "name");
+        rawMaterial.description = row.getString(prefix + "description");
+        rawMaterial.price = row.getBigDecimal(prefix + "price");
+        rawMaterial.stockQuantity = row.getInteger(prefix + "stock_quantity");
+        rawMaterial.unit = row.getString(prefix + "unit");
+        rawMaterial.createdAt = row.getLocalDateTime(prefix + "created_at");
+        rawMaterial.updatedAt = row.getLocalDateTime(prefix + "updated_at");
+        return rawMaterial;
+    }
+}
@@ -0,0 +1,275 @@
+package com.duckstock.service;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.jboss.logging.Logger;
+
+import com.duckstock.dto.changefeed.StockChange;
+import com.duckstock.event.CatalogChange;
+import com.duckstock.event.ChangeType;
+
+import io.smallrye.mutiny.Multi;
+import io.smallrye.mutiny.subscription.BackPressureStrategy;
+import io.smallrye.mutiny.subscription.MultiEmitter;
+import io.vertx.core.Vertx;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.enterprise.event.TransactionPhase;
+import jakarta.inject.Inject;
+
+/**
+ * In-process change feed for stock and price updates.
+ *
+ * Committed {@link CatalogChange}s get a sequence number, are kept in a bounded history for
+ * resuming clients and are queued per client. Each client queue coalesces repeated updates
+ * to the same entity and is only drained when the client has requested more, so a slow
+ * consumer never makes the server buffer more than {@code max-pending-per-client} deltas.
+ * A client that falls further behind receives a single RESET and is expected to refetch.
+ */
+@ApplicationScoped
+public class ChangeFeedService {
+
+    private static final Logger LOG = Logger.getLogger(ChangeFeedService.class);
+
+    static final String RESET = ChangeType.RESET.name();
+
+    @ConfigProperty(name = "duckstock.change-feed.history-size", defaultValue = "1024")
+    int historySize;
+
+    @ConfigProperty(name = "duckstock.change-feed.coalesce-millis", defaultValue = "250")
+    long coalesceMillis;
+
+    @ConfigProperty(name = "duckstock.change-feed.max-pending-per-client", defaultValue = "512")
+    int maxPendingPerClient;
+
+    @ConfigProperty(name = "duckstock.change-feed.heartbeat-seconds", defaultValue = "15")
+    long heartbeatSeconds;
+
+    @Inject
+    Vertx vertx;
+
+    public record Batch(String resumeToken, List<StockChange> changes) {}
+
+    // Resume tokens are "<epoch>-<sequence>". The epoch changes on every start, so a token
+    // issued by a previous process is treated as unknown instead of silently skipping events.
+    private final String epoch = Long.toString(System.currentTimeMillis(), 36);
+    private final ReentrantLock publishLock = new ReentrantLock();
+    private final ArrayDeque<StockChange> history = new ArrayDeque<>();
+    private final List<ClientChannel> clients = new CopyOnWriteArrayList<>();
+
+    // Written under publishLock, only after the delta has been offered to every client.
+    private volatile long sequence;
+    private long flushTimerId = -1;
+
+    @PostConstruct
+    void startFlushTimer() {
+        flushTimerId = vertx.setPeriodic(Math.max(coalesceMillis, 10), id -> flush());
+    }
+
+    @PreDestroy
+    void stop() {
+        if (flushTimerId >= 0) {
+            vertx.cancelTimer(flushTimerId);
+        }
+        for (ClientChannel client : clients) {
+            client.emitter.complete();
+        }
+    }
+
+    void onCatalogChange(@Observes(during = TransactionPhase.AFTER_SUCCESS) CatalogChange change) {
+        publish(change);
+    }
+
+    void publish(CatalogChange change) {
+        publishLock.lock();
+        try {
+            long next = sequence + 1;
+            StockChange delta = new StockChange(
+                    next,
+                    change.kind() != null ? change.kind().name() : null,
+                    change.id(),
+                    change.type().name(),
+                    change.stockQuantity(),
+                    change.price()
+            );
+
+            history.addLast(delta);
+            while (history.size() > Math.max(historySize, 1)) {
+                history.removeFirst();
+            }
+            for (ClientChannel client : clients) {
+                client.offer(delta);
+            }
+            sequence = next;
+        } finally {
+            publishLock.unlock();
+        }
+    }
+
+    /**
+     * Streams batches of coalesced changes. When {@code resumeToken} is a token previously
+     * handed out by this process, changes after it are replayed first.
+     */
+    public Multi<Batch> stream(String resumeToken) {
+        return Multi.createFrom().emitter(emitter -> {
+            ClientChannel client = new ClientChannel(emitter, maxPendingPerClient);
+
+            // Replay and registration happen under the publish lock so that no change
+            // can fall between the replayed history and the live queue.
+            publishLock.lock();
+            try {
+                replayMissed(client, resumeToken);
+                clients.add(client);
+            } finally {
+                publishLock.unlock();
+            }
+
+            emitter.onTermination(() -> clients.remove(client));
+            LOG.debugf("Change feed client connected (%d active)", clients.size());
+        }, BackPressureStrategy.ERROR);
+    }
+
+    public String resumeToken(long sequence) {
+        return epoch + "-" + sequence;
+    }
+
+    private void replayMissed(ClientChannel client, String resumeToken) {
+        if (resumeToken == null || resumeToken.isBlank()) {
+            return;
+        }
+
+        long resumeFrom = parseSequence(resumeToken);
+        long oldestAvailable = history.isEmpty() ? sequence + 1 : history.peekFirst().sequence;
+        if (resumeFrom < 0 || resumeFrom > sequence || resumeFrom + 1 < oldestAvailable) {
+            // Unknown token or history no longer covers the gap.
+            client.requestReset();
+            return;
+        }
+
+        for (StockChange delta : history) {
+            if (delta.sequence > resumeFrom) {
+                client.offer(delta);
+            }
+        }
+    }
+
+    private long parseSequence(String token) {
+        int dash = token.lastIndexOf('-');
+        if (dash <= 0 || !epoch.equals(token.substring(0, dash))) {
+            return -1;
+        }
+        try {
+            return Long.parseLong(token.substring(dash + 1));
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    void flush() {
+        long now = System.currentTimeMillis();
+        for (ClientChannel client : clients) {
+            client.drain(now);
+        }
+    }
+
+    int activeClients() {
+        return clients.size();
+    }
+
+    final class ClientChannel {
+
+        final MultiEmitter<? super Batch> emitter;
+        private final int maxPending;
+        private final ReentrantLock lock = new ReentrantLock();
+        private final LinkedHashMap<String, StockChange> pending = new LinkedHashMap<>();
+        private boolean resetRequested;
+        // Zero forces an initial (empty) batch so new clients learn their resume token.
+        private long lastEmitMillis;
+
+        ClientChannel(MultiEmitter<? super Batch> emitter, int maxPending) {
+            this.emitter = emitter;
+            this.maxPending = Math.max(maxPending, 1);
+        }
+
+        void offer(StockChange delta) {
+            lock.lock();
+            try {
+                if (resetRequested) {
+                    return;
+                }
+                if (RESET.equals(delta.change)) {
+                    pending.clear();
+                }
+
+                String key = RESET.equals(delta.change) ? RESET : delta.entity + ':' + delta.id;
+                // Re-insert so a coalesced entity moves to the position of its latest change
+                // and batches stay ordered by sequence.
+                pending.remove(key);
+                if (pending.size() >= maxPending) {
+                    requestReset();
+                    return;
+                }
+                pending.put(key, delta);
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        void requestReset() {
+            lock.lock();
+            try {
+                pending.clear();
+                resetRequested = true;
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        void drain(long nowMillis) {
+            lock.lock();
+            try {
+                if (emitter.isCancelled() || emitter.requested() <= 0) {
+                    return;
+                }
+
+                if (resetRequested) {
+                    long current = sequence;
+                    resetRequested = false;
+                    emit(nowMillis, current, List.of(new StockChange(current, null, null, RESET, null, null)));
+                    return;
+                }
+
+                if (pending.isEmpty()) {
+                    if (nowMillis - lastEmitMillis >= heartbeatSeconds * 1000) {
+                        emit(nowMillis, sequence, List.of());
+                    }
+                    return;
+                }
+
+                List<StockChange> changes = new ArrayList<>(pending.size());
+                Iterator<StockChange> iterator = pending.values().iterator();
+                while (iterator.hasNext()) {
+                    changes.add(iterator.next());
+                    iterator.remove();
+                }
+                emit(nowMillis, changes.get(changes.size() - 1).sequence, changes);
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        private void emit(long nowMillis, long lastSequence, List<StockChange> changes) {
+            lastEmitMillis = nowMillis;
+            emitter.emit(new Batch(resumeToken(lastSequence), changes));
+        }
+    }
+}
@@ -7,12 +7,19 @@ import com.duckstock.dto.product.ProductResponse;
 import com.duckstock.entity.Product;
 import com.duckstock.entity.ProductRawMaterial;
 import com.duckstock.entity.RawMaterial;
+import com.duckstock.event.CatalogChange;
+import com.duckstock.event.ChangeType;
 import com.duckstock.exception.BusinessException;
 import com.duckstock.exception.ResourceNotFoundException;
+import com.duckstock.jfr.BulkImportEvent;
+import io.opentelemetry.instrumentation.annotations.WithSpan;
 import io.quarkus.hibernate.orm.panache.PanacheQuery;
+import org.hibernate.jpa.HibernateHints;
 import io.quarkus.panache.common.Page;
 import io.quarkus.panache.common.Sort;
 import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Event;
+import jakarta.inject.Inject;
 import jakarta.transaction.Transactional;
 
 import java.util.List;
@@ -22,15 +29,21 @@ import java.util.stream.Collectors;
 @ApplicationScoped
 public class ProductService {
 
+    @Inject
+    Event<CatalogChange> catalogChanges;
+
+    @WithSpan
     public PageResponse<ProductResponse> listAll(int page, int size, String search) {
         PanacheQuery<Product> query;
 
         if (search != null && !search.isBlank()) {
-            query = Product.find("LOWER(name) LIKE LOWER(?1)", Sort.descending("createdAt"),
+            query = Product.find("LOWER(name) LIKE LOWER(?1)", Sort.descending("createdAt").and("id"),
                     "%" + search.trim() + "%");
         } else {
-            query = Product.findAll(Sort.descending("createdAt"));
+            query = Product.findAll(Sort.descending("createdAt").and("id"));
         }
+        query.withHint(HibernateHints.HINT_CACHEABLE, true);
+        QueryDeadlines.bounded(query);
 
         long totalElements = query.count();
         List<ProductResponse> content = query.page(Page.of(page, size))
@@ -42,6 +55,7 @@ public class ProductService {
         return new PageResponse<>(content, page, size, totalElements);
     }
 
+    @WithSpan
     public ProductResponse findById(UUID id) {
         Product product = Product.findById(id);
         if (product == null) {
@@ -50,6 +64,7 @@ public class ProductService {
         return ProductResponse.from(product);
     }
 
+    @WithSpan
     @Transactional
     public ProductResponse create(ProductRequest request) {
         Product product = new Product();
@@ -58,6 +73,7 @@ public class ProductService {
         product.price = request.price;
         product.stockQuantity = request.stockQuantity;
         product.persist();
+        catalogChanges.fire(CatalogChange.of(product, ChangeType.CREATED));
 
         if (request.rawMaterials != null && !request.rawMaterials.isEmpty()) {
             internalAddRawMaterials(product, request.rawMaterials);
@@ -66,6 +82,7 @@ public class ProductService {
         return ProductResponse.from(product);
     }
 
+    @WithSpan
     @Transactional
     public ProductResponse update(UUID id, ProductRequest request) {
         Product product = Product.findById(id);
@@ -87,18 +104,27 @@ public class ProductService {
         }
         
         product.persist();
+        catalogChanges.fire(CatalogChange.of(product, ChangeType.UPDATED));
         return ProductResponse.from(product);
     }
 
+    @WithSpan
     @Transactional
     public void delete(UUID id) {
         Product product = Product.findById(id);
         if (product == null) {
             throw new ResourceNotFoundException("Product not found with id: " + id);
         }
+        if (product.rawMaterials != null) {
+            for (ProductRawMaterial prm : product.rawMaterials) {
+                catalogChanges.fire(CatalogChange.of(prm, ChangeType.DELETED));
+            }
+        }
         product.delete();
+        catalogChanges.fire(CatalogChange.of(product, ChangeType.DELETED));
     }
 
+    @WithSpan
     @Transactional
     public ProductResponse addRawMaterials(UUID productId, List<ProductRawMaterialRequest> requests) {
         Product product = Product.findById(productId);
@@ -106,7 +132,15 @@ public class ProductService {
             throw new ResourceNotFoundException("Product not found with id: " + productId);
         }
 
+        BulkImportEvent event = new BulkImportEvent();
+        event.begin();
         internalAddRawMaterials(product, requests);
+        if (event.shouldCommit()) {
+            event.source = BulkImportEvent.COMPOSITIONS;
+            event.products = 1;
+            event.compositions = requests.size();
+            event.commit();
+        }
 
         return ProductResponse.from(product);
     }
@@ -134,12 +168,14 @@ public class ProductService {
             prm.rawMaterial = rawMaterial;
             prm.quantityNeeded = request.quantityNeeded;
             prm.persist();
+            catalogChanges.fire(CatalogChange.of(prm, ChangeType.CREATED));
 
             // Manage bidirectional relationship for immediate visibility in response
             product.rawMaterials.add(prm);
         }
     }
 
+    @WithSpan
     @Transactional
     public ProductResponse removeRawMaterial(UUID productId, UUID associationId) {
         Product product = Product.findById(productId);
@@ -153,12 +189,14 @@ public class ProductService {
         }
 
         prm.delete();
+        catalogChanges.fire(CatalogChange.of(prm, ChangeType.DELETED));
         if (product.rawMaterials != null) {
             product.rawMaterials.remove(prm);
         }
         return ProductResponse.from(product);
     }
 
+    @WithSpan
     @Transactional
     public ProductResponse updateRawMaterialQuantity(UUID productId, UUID associationId,
                                                       ProductRawMaterialRequest request) {
@@ -174,6 +212,7 @@ public class ProductService {
 
         prm.quantityNeeded = request.quantityNeeded;
         prm.persist();
+        catalogChanges.fire(CatalogChange.of(prm, ChangeType.UPDATED));
 
         Product.getEntityManager().refresh(product);
         return ProductResponse.from(product);
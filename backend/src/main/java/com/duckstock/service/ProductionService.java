@@ -1,94 +1,83 @@
 package com.duckstock.service;
 
-import java.math.BigDecimal;
-import java.util.ArrayList;
-import java.util.HashMap;
+import java.util.Comparator;
 import java.util.List;
-import java.util.Map;
-import java.util.UUID;
 
+import org.hibernate.jpa.HibernateHints;
+
+import com.duckstock.deadline.Deadline;
 import com.duckstock.dto.production.ProductionCreateRequest;
 import com.duckstock.dto.production.ProductionCreateResponse;
 import com.duckstock.dto.production.ProductionResponse;
-import com.duckstock.dto.production.ProductionSuggestion;
 import com.duckstock.entity.Product;
 import com.duckstock.entity.ProductRawMaterial;
+import com.duckstock.entity.RawMaterial;
+import com.duckstock.event.CatalogChange;
+import com.duckstock.event.ChangeType;
 import com.duckstock.exception.BusinessException;
 import com.duckstock.exception.ResourceNotFoundException;
+import com.duckstock.jfr.ProductionEvent;
+import com.duckstock.metrics.ServiceMetrics;
 
+import io.opentelemetry.api.trace.Span;
+import io.opentelemetry.instrumentation.annotations.WithSpan;
 import io.quarkus.panache.common.Sort;
 import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Event;
+import jakarta.inject.Inject;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.LockModeType;
 
 @ApplicationScoped
 public class ProductionService {
 
+    @Inject
+    Event<CatalogChange> catalogChanges;
+
+    @Inject
+    ServiceMetrics metrics;
+
     /**
-     * Production suggestion logic:
-     * 1. Sort all products by price DESC (most valuable first)
-     * 2. For each product, calculate max quantity producible based on current virtual stock
-     * 3. Deduct used raw materials from virtual stock
-     * 4. Return suggestions with quantities, prices, and grand total
+     * Plans production from all products, most valuable first. See {@link SuggestionPlanner}.
+     * Stops with a 504 once the request's {@link Deadline} passes.
      */
+    @WithSpan
     public ProductionResponse getSuggestions() {
-        // Get all products sorted by price DESC
-        List<Product> products = Product.findAll(Sort.descending("price")).list();
-
-        // Build virtual stock map: rawMaterialId -> available quantity
-        Map<UUID, Integer> virtualStock = new HashMap<>();
-        for (Product product : products) {
-            if (product.rawMaterials != null) {
-                for (ProductRawMaterial prm : product.rawMaterials) {
-                    virtualStock.putIfAbsent(prm.rawMaterial.id, prm.rawMaterial.stockQuantity);
-                }
-            }
-        }
-
-        List<ProductionSuggestion> suggestions = new ArrayList<>();
-        BigDecimal grandTotal = BigDecimal.ZERO;
-
-        for (Product product : products) {
-            if (product.rawMaterials == null || product.rawMaterials.isEmpty()) {
-                continue; // Skip products without raw material associations
-            }
-
-            // Calculate max quantity possible for this product
-            int maxQuantity = Integer.MAX_VALUE;
-            for (ProductRawMaterial prm : product.rawMaterials) {
-                int available = virtualStock.getOrDefault(prm.rawMaterial.id, 0);
-                int possibleFromThis = available / prm.quantityNeeded;
-                maxQuantity = Math.min(maxQuantity, possibleFromThis);
-            }
-
-            if (maxQuantity <= 0 || maxQuantity == Integer.MAX_VALUE) {
-                continue; // Skip if can't produce any
-            }
-
-            // Deduct from virtual stock
-            for (ProductRawMaterial prm : product.rawMaterials) {
-                int current = virtualStock.getOrDefault(prm.rawMaterial.id, 0);
-                virtualStock.put(prm.rawMaterial.id, current - (prm.quantityNeeded * maxQuantity));
-            }
-
-            BigDecimal totalValue = product.price.multiply(BigDecimal.valueOf(maxQuantity));
-            grandTotal = grandTotal.add(totalValue);
+        List<Product> products = QueryDeadlines.bounded(Product.findAll(Sort.descending("price").and("id")))
+                .withHint(HibernateHints.HINT_CACHEABLE, true)
+                .list();
+        return plan(products, Deadline.current());
+    }
 
-            suggestions.add(new ProductionSuggestion(
-                    product.id,
-                    product.name,
-                    maxQuantity,
-                    product.price,
-                    totalValue
-            ));
+    /**
+     * Runs the planner on products already loaded, in a span of its own so planning time is told
+     * apart from the queries around it.
+     */
+    @WithSpan("SuggestionPlanner.plan")
+    ProductionResponse plan(List<Product> products, Deadline deadline) {
+        long start = System.nanoTime();
+        ProductionResponse response = SuggestionPlanner.plan(products, deadline);
+        metrics.suggestionsComputed(products, System.nanoTime() - start);
+        Span span = Span.current();
+        if (span.isRecording()) {
+            span.setAttribute("duckstock.suggestions.strategy", SuggestionPlanner.STRATEGY);
+            span.setAttribute("duckstock.suggestions.products", products.size());
+            span.setAttribute("duckstock.suggestions.count", response.products.size());
         }
-
-        return new ProductionResponse(suggestions, grandTotal);
+        return response;
     }
 
     /**
      * Create product units: deduct raw materials and add to product stock.
      *
+     * The product and its raw materials are reread from the database and locked before the stock is
+     * checked: the second-level cache is per instance, so a cached quantity may predate a production
+     * run on another replica, and deducting from it would lose that update. Raw materials are locked
+     * in id order so that runs sharing materials cannot deadlock.
+     *
      * Admin-only endpoint will call this.
      */
+    @WithSpan
     @jakarta.transaction.Transactional
     public ProductionCreateResponse createProduct(ProductionCreateRequest request) {
         if (request == null) {
@@ -101,15 +90,24 @@ public class ProductionService {
             throw new BusinessException("Quantity must be at least 1");
         }
 
+        ProductionEvent event = new ProductionEvent();
+        event.begin();
+
         Product product = Product.findById(request.productId);
         if (product == null) {
             throw new ResourceNotFoundException("Product not found");
         }
+        EntityManager entityManager = Product.getEntityManager();
+        entityManager.refresh(product, LockModeType.PESSIMISTIC_WRITE);
 
         List<ProductRawMaterial> rawMaterials = ProductRawMaterial.findByProduct(product);
         if (rawMaterials == null || rawMaterials.isEmpty()) {
             throw new BusinessException("This product has no raw materials linked");
         }
+        rawMaterials.stream()
+                .map(prm -> prm.rawMaterial)
+                .sorted(Comparator.comparing((RawMaterial rawMaterial) -> rawMaterial.id))
+                .forEach(rawMaterial -> entityManager.refresh(rawMaterial, LockModeType.PESSIMISTIC_WRITE));
 
         int maxQuantityPossible = Integer.MAX_VALUE;
         for (ProductRawMaterial prm : rawMaterials) {
@@ -136,11 +134,23 @@ public class ProductionService {
             int deduction = prm.quantityNeeded * quantityToProduce;
             prm.rawMaterial.stockQuantity = Math.max(0, prm.rawMaterial.stockQuantity - deduction);
             prm.rawMaterial.persist();
+            catalogChanges.fire(CatalogChange.of(prm.rawMaterial, ChangeType.UPDATED));
+            metrics.stockDeducted(deduction);
         }
 
         // Increase product stock
         product.stockQuantity = product.stockQuantity + quantityToProduce;
         product.persist();
+        catalogChanges.fire(CatalogChange.of(product, ChangeType.UPDATED));
+        metrics.unitsProduced(quantityToProduce);
+
+        if (event.shouldCommit()) {
+            event.productId = product.id.toString();
+            event.requested = request.quantity;
+            event.produced = quantityToProduce;
+            event.materials = rawMaterials.size();
+            event.commit();
+        }
 
         return new ProductionCreateResponse(
                 product.id,
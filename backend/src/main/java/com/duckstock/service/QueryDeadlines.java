@@ -0,0 +1,28 @@
+package com.duckstock.service;
+
+import org.hibernate.jpa.HibernateHints;
+
+import com.duckstock.deadline.Deadline;
+
+import io.quarkus.hibernate.orm.panache.PanacheQuery;
+
+/**
+ * Bounds catalog queries by the current request's {@link Deadline}.
+ */
+final class QueryDeadlines {
+
+    private QueryDeadlines() {}
+
+    /**
+     * Fails fast if the deadline has already passed, otherwise sets the remaining time as the
+     * query's JDBC timeout so the database cancels the statement when the client gives up.
+     */
+    static <E> PanacheQuery<E> bounded(PanacheQuery<E> query) {
+        Deadline deadline = Deadline.current();
+        if (deadline.isSet()) {
+            deadline.check(Deadline.Stage.QUERY);
+            query.withHint(HibernateHints.HINT_TIMEOUT, deadline.queryTimeoutSeconds());
+        }
+        return query;
+    }
+}
@@ -4,30 +4,43 @@ import java.util.List;
 import java.util.UUID;
 import java.util.stream.Collectors;
 
+import org.hibernate.jpa.HibernateHints;
+
 import com.duckstock.dto.common.PageResponse;
 import com.duckstock.dto.rawmaterial.RawMaterialRequest;
 import com.duckstock.dto.rawmaterial.RawMaterialResponse;
 import com.duckstock.entity.RawMaterial;
+import com.duckstock.event.CatalogChange;
+import com.duckstock.event.ChangeType;
 import com.duckstock.exception.ResourceNotFoundException;
 
+import io.opentelemetry.instrumentation.annotations.WithSpan;
 import io.quarkus.hibernate.orm.panache.PanacheQuery;
 import io.quarkus.panache.common.Page;
 import io.quarkus.panache.common.Sort;
 import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Event;
+import jakarta.inject.Inject;
 import jakarta.transaction.Transactional;
 
 @ApplicationScoped
 public class RawMaterialService {
 
+    @Inject
+    Event<CatalogChange> catalogChanges;
+
+    @WithSpan
     public PageResponse<RawMaterialResponse> listAll(int page, int size, String search) {
         PanacheQuery<RawMaterial> query;
 
         if (search != null && !search.isBlank()) {
-            query = RawMaterial.find("LOWER(name) LIKE LOWER(?1)", Sort.descending("createdAt"),
+            query = RawMaterial.find("LOWER(name) LIKE LOWER(?1)", Sort.descending("createdAt").and("id"),
                     "%" + search.trim() + "%");
         } else {
-            query = RawMaterial.findAll(Sort.descending("createdAt"));
+            query = RawMaterial.findAll(Sort.descending("createdAt").and("id"));
         }
+        query.withHint(HibernateHints.HINT_CACHEABLE, true);
+        QueryDeadlines.bounded(query);
 
         long totalElements = query.count();
         List<RawMaterialResponse> content = query.page(Page.of(page, size))
@@ -39,6 +52,7 @@ public class RawMaterialService {
         return new PageResponse<>(content, page, size, totalElements);
     }
 
+    @WithSpan
     public RawMaterialResponse findById(UUID id) {
         RawMaterial rawMaterial = RawMaterial.findById(id);
         if (rawMaterial == null) {
@@ -47,6 +61,7 @@ public class RawMaterialService {
         return RawMaterialResponse.from(rawMaterial);
     }
 
+    @WithSpan
     @Transactional
     public RawMaterialResponse create(RawMaterialRequest request) {
         RawMaterial rawMaterial = new RawMaterial();
@@ -56,9 +71,11 @@ public class RawMaterialService {
         rawMaterial.stockQuantity = request.stockQuantity;
         rawMaterial.unit = request.unit;
         rawMaterial.persist();
+        catalogChanges.fire(CatalogChange.of(rawMaterial, ChangeType.CREATED));
         return RawMaterialResponse.from(rawMaterial);
     }
 
+    @WithSpan
     @Transactional
     public RawMaterialResponse update(UUID id, RawMaterialRequest request) {
         RawMaterial rawMaterial = RawMaterial.findById(id);
@@ -83,9 +100,11 @@ public class RawMaterialService {
         }
         
         rawMaterial.persist();
+        catalogChanges.fire(CatalogChange.of(rawMaterial, ChangeType.UPDATED));
         return RawMaterialResponse.from(rawMaterial);
     }
 
+    @WithSpan
     @Transactional
     public void delete(UUID id) {
         RawMaterial rawMaterial = RawMaterial.findById(id);
@@ -93,10 +112,13 @@ public class RawMaterialService {
             throw new ResourceNotFoundException("Raw material not found with id: " + id);
         }
         rawMaterial.delete();
+        catalogChanges.fire(CatalogChange.of(rawMaterial, ChangeType.DELETED));
     }
 
+    @WithSpan
     public List<RawMaterialResponse> listAllNoPagination() {
-        return RawMaterial.findAll(Sort.ascending("name"))
+        return QueryDeadlines.bounded(RawMaterial.findAll(Sort.ascending("name").and("id")))
+                .withHint(HibernateHints.HINT_CACHEABLE, true)
                 .list()
                 .stream()
                 .map(rm -> RawMaterialResponse.from((RawMaterial) rm))
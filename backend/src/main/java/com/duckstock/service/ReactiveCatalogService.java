@@ -0,0 +1,184 @@
+package com.duckstock.service;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+import com.duckstock.bulkhead.Bulkheads;
+import com.duckstock.deadline.Deadline;
+import com.duckstock.dto.common.PageResponse;
+import com.duckstock.dto.product.ProductResponse;
+import com.duckstock.dto.production.ProductionResponse;
+import com.duckstock.dto.rawmaterial.RawMaterialResponse;
+import com.duckstock.entity.Product;
+import com.duckstock.exception.ResourceNotFoundException;
+
+import io.opentelemetry.instrumentation.annotations.WithSpan;
+import io.smallrye.mutiny.Uni;
+import io.vertx.mutiny.sqlclient.Pool;
+import io.vertx.mutiny.sqlclient.SqlConnection;
+import io.vertx.mutiny.sqlclient.Tuple;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+
+/**
+ * Non-blocking counterpart of the catalog reads in {@link ProductService}, {@link RawMaterialService}
+ * and {@link ProductionService}, on the reactive Postgres client.
+ *
+ * Queries that a response needs are all sent at once on a single connection, which the client
+ * pipelines, so a page costs one round trip instead of one per query. A product page is the
+ * exception: its compositions are read in a second round trip, by the ids of the rows just
+ * returned, since a second limit/offset query could match different products after a write. Results are mapped through
+ * {@link CatalogRows} into the same entities, DTOs and planner the blocking path uses, and the
+ * queries mirror its ordering and filters, so both paths return the same JSON.
+ *
+ * The request's {@link Deadline} bounds the wait for results. The reactive client cannot cancel a
+ * statement, so the database finishes it, but the response fails as soon as the client has given up.
+ *
+ * Only the queries run on the event loop. Planning suggestions is CPU-bound, so it goes to the
+ * planning bulkhead like the blocking path, where it is admitted and bounded the same way.
+ */
+@ApplicationScoped
+public class ReactiveCatalogService {
+
+    private static final String NAME_FILTER = " where lower(name) like lower($1)";
+
+    @Inject
+    Pool pool;
+
+    @Inject
+    ProductionService productionService;
+
+    @Inject
+    Bulkheads bulkheads;
+
+    @WithSpan
+    public Uni<PageResponse<ProductResponse>> listProducts(int page, int size, String search) {
+        boolean filtered = search != null && !search.isBlank();
+        String filter = filtered ? NAME_FILTER : "";
+        String pageRows = "select " + CatalogRows.PRODUCT_COLUMNS + " from products" + filter
+                + " order by created_at desc, id" + limitOffset(filtered);
+
+        return bounded(pool.withConnection(connection -> Uni.combine().all().unis(
+                        count(connection, "select count(*) from products" + filter, filtered, search),
+                        connection.preparedQuery(pageRows).execute(pageArgs(filtered, search, page, size)))
+                .asTuple()
+                .chain(results -> connection.preparedQuery(CatalogRows.COMPOSITIONS_OF_IDS)
+                        .execute(Tuple.of(CatalogRows.ids(results.getItem2())))
+                        .map(compositions -> new PageResponse<>(
+                                CatalogRows.products(results.getItem2(), compositions).stream()
+                                        .map(ProductResponse::from)
+                                        .collect(Collectors.toList()),
+                                page, size, results.getItem1())))));
+    }
+
+    @WithSpan
+    public Uni<ProductResponse> findProduct(UUID id) {
+        Tuple args = Tuple.of(id);
+        return bounded(pool.withConnection(connection -> Uni.combine().all().unis(
+                        connection.preparedQuery("select " + CatalogRows.PRODUCT_COLUMNS + " from products where id = $1")
+                                .execute(args),
+                        connection.preparedQuery(String.format(CatalogRows.COMPOSITIONS_OF, "$1")).execute(args))
+                .asTuple()))
+                .map(results -> {
+                    List<Product> products = CatalogRows.products(results.getItem1(), results.getItem2());
+                    if (products.isEmpty()) {
+                        throw new ResourceNotFoundException("Product not found with id: " + id);
+                    }
+                    return ProductResponse.from(products.get(0));
+                });
+    }
+
+    @WithSpan
+    public Uni<PageResponse<RawMaterialResponse>> listRawMaterials(int page, int size, String search) {
+        boolean filtered = search != null && !search.isBlank();
+        String filter = filtered ? NAME_FILTER : "";
+        String pageRows = "select " + CatalogRows.RAW_MATERIAL_COLUMNS + " from raw_materials" + filter
+                + " order by created_at desc, id" + limitOffset(filtered);
+
+        return bounded(pool.withConnection(connection -> Uni.combine().all().unis(
+                        count(connection, "select count(*) from raw_materials" + filter, filtered, search),
+                        connection.preparedQuery(pageRows).execute(pageArgs(filtered, search, page, size)))
+                .asTuple()))
+                .map(results -> new PageResponse<>(
+                        CatalogRows.rawMaterials(results.getItem2()).stream()
+                                .map(RawMaterialResponse::from)
+                                .collect(Collectors.toList()),
+                        page, size, results.getItem1()));
+    }
+
+    @WithSpan
+    public Uni<List<RawMaterialResponse>> listAllRawMaterials() {
+        return bounded(pool.query("select " + CatalogRows.RAW_MATERIAL_COLUMNS + " from raw_materials order by name asc, id")
+                .execute())
+                .map(rows -> CatalogRows.rawMaterials(rows).stream()
+                        .map(RawMaterialResponse::from)
+                        .collect(Collectors.toList()));
+    }
+
+    @WithSpan
+    public Uni<RawMaterialResponse> findRawMaterial(UUID id) {
+        return bounded(pool.preparedQuery("select " + CatalogRows.RAW_MATERIAL_COLUMNS + " from raw_materials where id = $1")
+                .execute(Tuple.of(id)))
+                .map(rows -> {
+                    if (rows.size() == 0) {
+                        throw new ResourceNotFoundException("Raw material not found with id: " + id);
+                    }
+                    return RawMaterialResponse.from(CatalogRows.rawMaterial(rows.iterator().next()));
+                });
+    }
+
+    @WithSpan
+    public Uni<ProductionResponse> getSuggestions() {
+        String allIds = "select id from products";
+        // Captured here: results may be delivered off the request's context.
+        Deadline deadline = Deadline.current();
+        return bounded(pool.withConnection(connection -> Uni.combine().all().unis(
+                        connection.query("select " + CatalogRows.PRODUCT_COLUMNS + " from products order by price desc, id")
+                                .execute(),
+                        connection.query(String.format(CatalogRows.COMPOSITIONS_OF, allIds)).execute())
+                .asTuple()), deadline)
+                .chain(results -> {
+                    List<Product> products = CatalogRows.products(results.getItem1(), results.getItem2());
+                    return bulkheads.planning().submit(() -> productionService.plan(products, deadline));
+                });
+    }
+
+    private static <T> Uni<T> bounded(Uni<T> query) {
+        return bounded(query, Deadline.current());
+    }
+
+    private static <T> Uni<T> bounded(Uni<T> query, Deadline deadline) {
+        if (!deadline.isSet()) {
+            return query;
+        }
+        return Uni.createFrom().deferred(() -> {
+                    deadline.check(Deadline.Stage.QUERY);
+                    return query;
+                })
+                .ifNoItem().after(Duration.ofMillis(Math.max(deadline.remainingMillis(), 1)))
+                .failWith(() -> deadline.exceeded(Deadline.Stage.QUERY, 0));
+    }
+
+    private static Uni<Long> count(SqlConnection connection, String sql, boolean filtered, String search) {
+        Tuple args = filtered ? Tuple.of(pattern(search)) : Tuple.tuple();
+        return connection.preparedQuery(sql).execute(args)
+                .map(rows -> rows.iterator().next().getLong(0));
+    }
+
+    // Same paging as Panache's Page.of(page, size).
+    private static Tuple pageArgs(boolean filtered, String search, int page, int size) {
+        return filtered
+                ? Tuple.of(pattern(search), size, page * size)
+                : Tuple.of(size, page * size);
+    }
+
+    private static String limitOffset(boolean filtered) {
+        return filtered ? " limit $2 offset $3" : " limit $1 offset $2";
+    }
+
+    private static String pattern(String search) {
+        return "%" + search.trim() + "%";
+    }
+}
@@ -16,9 +16,13 @@ import com.duckstock.entity.Product;
 import com.duckstock.entity.ProductRawMaterial;
 import com.duckstock.entity.RawMaterial;
 import com.duckstock.entity.User;
+import com.duckstock.event.CatalogChange;
+import com.duckstock.event.UserChange;
+import com.duckstock.jfr.BulkImportEvent;
 import com.duckstock.security.PasswordEncoder;
 
 import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Event;
 import jakarta.inject.Inject;
 import jakarta.transaction.Transactional;
 
@@ -30,6 +34,12 @@ public class SeedService {
     @Inject
     PasswordEncoder passwordEncoder;
 
+    @Inject
+    Event<CatalogChange> catalogChanges;
+
+    @Inject
+    Event<UserChange> userChanges;
+
     // Product names in Portuguese
     private static final String[] PRODUCT_NAMES = {
             "Mesa de Jantar Premium", "Cadeira Estofada", "Guarda-Roupa Casal",
@@ -75,12 +85,17 @@ public class SeedService {
             String userPassword
     ) {
         LOG.info("Starting database seed...");
+        BulkImportEvent event = new BulkImportEvent();
+        event.begin();
 
         // Clear existing data
         ProductRawMaterial.deleteAll();
         Product.deleteAll();
         RawMaterial.deleteAll();
         User.deleteAll();
+        userChanges.fire(UserChange.all());
+        // Recorded before the new rows so that their sync timestamps are not older than the reset.
+        catalogChanges.fire(CatalogChange.reset());
 
         Random random = new Random(42);
 
@@ -149,6 +164,14 @@ public class SeedService {
             }
         }
 
+        if (event.shouldCommit()) {
+            event.source = BulkImportEvent.SEED;
+            event.products = products.size();
+            event.rawMaterials = rawMaterials.size();
+            event.compositions = totalAssociations;
+            event.commit();
+        }
+
         LOG.infof("Seed completed: %d products, %d raw materials, %d associations",
                 products.size(), rawMaterials.size(), totalAssociations);
 
@@ -0,0 +1,109 @@
+package com.duckstock.service;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import com.duckstock.deadline.Deadline;
+import com.duckstock.dto.production.ProductionResponse;
+import com.duckstock.dto.production.ProductionSuggestion;
+import com.duckstock.entity.Product;
+import com.duckstock.entity.ProductRawMaterial;
+import com.duckstock.jfr.SuggestionComputationEvent;
+
+/**
+ * The production plan computed from a catalog snapshot, shared by the blocking and the reactive
+ * read paths so both give the same answer for the same data.
+ */
+public final class SuggestionPlanner {
+
+    public static final String STRATEGY = "greedy-by-price";
+
+    // Products planned between two deadline checks.
+    private static final int CHECK_INTERVAL = 64;
+
+    private SuggestionPlanner() {}
+
+    public static ProductionResponse plan(List<Product> products) {
+        return plan(products, Deadline.NONE);
+    }
+
+    /**
+     * Production suggestion logic:
+     * 1. Products are expected sorted by price DESC (most valuable first)
+     * 2. For each product, calculate max quantity producible based on current virtual stock
+     * 3. Deduct used raw materials from virtual stock
+     * 4. Return suggestions with quantities, prices, and grand total
+     *
+     * The deadline is checked every {@value #CHECK_INTERVAL} products; the products left unplanned
+     * are reported as the work saved.
+     */
+    public static ProductionResponse plan(List<Product> products, Deadline deadline) {
+        SuggestionComputationEvent event = new SuggestionComputationEvent();
+        event.begin();
+
+        // Build virtual stock map: rawMaterialId -> available quantity
+        Map<UUID, Integer> virtualStock = new HashMap<>();
+        for (Product product : products) {
+            if (product.rawMaterials != null) {
+                for (ProductRawMaterial prm : product.rawMaterials) {
+                    virtualStock.putIfAbsent(prm.rawMaterial.id, prm.rawMaterial.stockQuantity);
+                }
+            }
+        }
+
+        List<ProductionSuggestion> suggestions = new ArrayList<>();
+        BigDecimal grandTotal = BigDecimal.ZERO;
+
+        for (int i = 0; i < products.size(); i++) {
+            if (i % CHECK_INTERVAL == 0) {
+                deadline.check(Deadline.Stage.COMPUTATION, products.size() - i);
+            }
+            Product product = products.get(i);
+            if (product.rawMaterials == null || product.rawMaterials.isEmpty()) {
+                continue; // Skip products without raw material associations
+            }
+
+            // Calculate max quantity possible for this product
+            int maxQuantity = Integer.MAX_VALUE;
+            for (ProductRawMaterial prm : product.rawMaterials) {
+                int available = virtualStock.getOrDefault(prm.rawMaterial.id, 0);
+                int possibleFromThis = available / prm.quantityNeeded;
+                maxQuantity = Math.min(maxQuantity, possibleFromThis);
+            }
+
+            if (maxQuantity <= 0 || maxQuantity == Integer.MAX_VALUE) {
+                continue; // Skip if can't produce any
+            }
+
+            // Deduct from virtual stock
+            for (ProductRawMaterial prm : product.rawMaterials) {
+                int current = virtualStock.getOrDefault(prm.rawMaterial.id, 0);
+                virtualStock.put(prm.rawMaterial.id, current - (prm.quantityNeeded * maxQuantity));
+            }
+
+            BigDecimal totalValue = product.price.multiply(BigDecimal.valueOf(maxQuantity));
+            grandTotal = grandTotal.add(totalValue);
+
+            suggestions.add(new ProductionSuggestion(
+                    product.id,
+                    product.name,
+                    maxQuantity,
+                    product.price,
+                    totalValue
+            ));
+        }
+
+        if (event.shouldCommit()) {
+            event.strategy = STRATEGY;
+            event.products = products.size();
+            event.materials = virtualStock.size();
+            event.suggestions = suggestions.size();
+            event.commit();
+        }
+        return new ProductionResponse(suggestions, grandTotal);
+    }
+}
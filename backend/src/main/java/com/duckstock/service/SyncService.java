@@ -0,0 +1,307 @@
+package com.duckstock.service;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.jboss.logging.Logger;
+
+import com.duckstock.dto.product.ProductResponse;
+import com.duckstock.dto.rawmaterial.RawMaterialResponse;
+import com.duckstock.dto.sync.CompositionSnapshot;
+import com.duckstock.dto.sync.SyncChange;
+import com.duckstock.entity.Product;
+import com.duckstock.entity.ProductRawMaterial;
+import com.duckstock.entity.RawMaterial;
+import com.duckstock.entity.Tombstone;
+import com.duckstock.event.CatalogChange;
+import com.duckstock.event.ChangeType;
+import com.duckstock.exception.BusinessException;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+import io.quarkus.narayana.jta.QuarkusTransaction;
+import io.quarkus.panache.common.Sort;
+import io.quarkus.runtime.StartupEvent;
+import io.vertx.core.Vertx;
+import jakarta.annotation.PreDestroy;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.inject.Inject;
+import jakarta.transaction.Transactional;
+
+/**
+ * Delta sync over products, raw materials, compositions and tombstones.
+ *
+ * All four sources are read with the same keyset condition on {@code (updated_at, id)} and merged
+ * into one stream ordered by timestamp, source and id. The watermark is the position of the last
+ * row written, so the next page starts exactly after it even when many rows share a timestamp.
+ *
+ * Timestamps are taken when a row is flushed, not when its transaction commits, so a slow
+ * transaction can commit rows older than a watermark already handed out. Rows newer than
+ * {@code settle-seconds} are therefore held back until every transaction that could still commit
+ * an older timestamp has finished.
+ *
+ * A reseed leaves a {@code CATALOG} tombstone. A delta sync that reaches one sends the RESET first
+ * and continues from its timestamp, so the client never applies rows that the reset would wipe.
+ * A full sync sends no tombstones at all. Tombstones are purged after {@code tombstone-retention-days},
+ * and older watermarks are rejected so that the client starts over with a full sync.
+ */
+@ApplicationScoped
+public class SyncService {
+
+    private static final Logger LOG = Logger.getLogger(SyncService.class);
+
+    private static final UUID MIN_ID = new UUID(0L, 0L);
+    private static final UUID MAX_ID = new UUID(-1L, -1L);
+    private static final LocalDateTime ORIGIN = LocalDateTime.of(1970, 1, 1, 0, 0);
+    private static final int FLUSH_EVERY = 100;
+    private static final long PURGE_INTERVAL_MILLIS = Duration.ofHours(1).toMillis();
+
+    private static final String UPDATED_AFTER = "(updatedAt, id) > (?1, ?2) and updatedAt <= ?3";
+    private static final String DELETED_AFTER = "(deletedAt, id) > (?1, ?2) and deletedAt <= ?3 and entityKind <> ?4";
+    private static final String RESET_AFTER = "entityKind = ?1 and deletedAt > ?2 and deletedAt <= ?3";
+
+    @ConfigProperty(name = "duckstock.sync.max-page-size", defaultValue = "5000")
+    int maxPageSize;
+
+    // Longer than any catalog write transaction, plus the clock skew between replicas.
+    @ConfigProperty(name = "duckstock.sync.settle-seconds", defaultValue = "10")
+    long settleSeconds;
+
+    // Clients that have not synced for longer must start over with a full sync.
+    @ConfigProperty(name = "duckstock.sync.tombstone-retention-days", defaultValue = "30")
+    long tombstoneRetentionDays;
+
+    @Inject
+    ObjectMapper objectMapper;
+
+    @Inject
+    Vertx vertx;
+
+    private long purgeTimerId = -1;
+
+    // Rows sharing a timestamp are ordered by source, then by id.
+    public enum Source { RAW_MATERIAL, PRODUCT, COMPOSITION, TOMBSTONE }
+
+    public record Watermark(LocalDateTime at, Source source, UUID id) {
+
+        public String encode() {
+            String raw = at + "|" + source.name() + "|" + id;
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+        }
+
+        public static Watermark decode(String token) {
+            try {
+                String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+                String[] parts = raw.split("\\|");
+                if (parts.length != 3) {
+                    throw new BusinessException("Invalid sync watermark");
+                }
+                return new Watermark(LocalDateTime.parse(parts[0]), Source.valueOf(parts[1]), UUID.fromString(parts[2]));
+            } catch (IllegalArgumentException | DateTimeParseException e) {
+                throw new BusinessException("Invalid sync watermark");
+            }
+        }
+    }
+
+    private record Row(Source source, UUID id, LocalDateTime at, SyncChange change) {}
+
+    // Matches PostgreSQL ordering: uuids compare as unsigned bytes.
+    private static final Comparator<Row> ORDER = Comparator.comparing(Row::at)
+            .thenComparing(Row::source)
+            .thenComparing(Row::id, (a, b) -> {
+                int high = Long.compareUnsigned(a.getMostSignificantBits(), b.getMostSignificantBits());
+                return high != 0 ? high : Long.compareUnsigned(a.getLeastSignificantBits(), b.getLeastSignificantBits());
+            });
+
+    void onCatalogChange(@Observes CatalogChange change) {
+        // Runs inside the writing transaction, so the tombstone commits with the delete.
+        if (change.type() == ChangeType.DELETED) {
+            Tombstone.record(change.kind().name(), change.id());
+        } else if (change.type() == ChangeType.RESET) {
+            Tombstone.record(Tombstone.CATALOG, null);
+        }
+    }
+
+    @Transactional
+    void backfillCompositionTimestamps(@Observes StartupEvent event) {
+        // Compositions created before updated_at existed would otherwise never be synced.
+        int updated = ProductRawMaterial.update("updatedAt = ?1 where updatedAt is null", LocalDateTime.now());
+        if (updated > 0) {
+            LOG.infof("Backfilled updated_at on %d product compositions", updated);
+        }
+    }
+
+    void schedulePurge(@Observes StartupEvent event) {
+        purgeTimerId = vertx.setPeriodic(PURGE_INTERVAL_MILLIS,
+                id -> vertx.executeBlocking(() -> {
+                    purgeTombstones();
+                    return null;
+                }, false));
+    }
+
+    @PreDestroy
+    void stop() {
+        if (purgeTimerId >= 0) {
+            vertx.cancelTimer(purgeTimerId);
+        }
+    }
+
+    void purgeTombstones() {
+        long deleted = QuarkusTransaction.requiringNew()
+                .call(() -> Tombstone.delete("deletedAt < ?1", retainedSince()));
+        if (deleted > 0) {
+            LOG.debugf("Purged %d sync tombstones", deleted);
+        }
+    }
+
+    /**
+     * Rejects a watermark older than the tombstone retention: deletions after it may already have
+     * been purged, so a delta from there could leave deleted rows on the client.
+     */
+    public void checkRetained(Watermark since) {
+        if (since != null && since.at().isBefore(retainedSince())) {
+            throw new BusinessException("Sync watermark is older than " + tombstoneRetentionDays
+                    + " days; start again with a full sync");
+        }
+    }
+
+    private LocalDateTime retainedSince() {
+        return LocalDateTime.now().minusDays(tombstoneRetentionDays);
+    }
+
+    @Transactional
+    public void writeChanges(Watermark since, int limit, OutputStream output) throws IOException {
+        int pageSize = Math.max(1, Math.min(limit, maxPageSize));
+        boolean full = since == null;
+        Watermark from = full ? new Watermark(ORIGIN, Source.RAW_MATERIAL, MIN_ID) : since;
+        LocalDateTime settled = LocalDateTime.now().minusSeconds(settleSeconds);
+        ObjectWriter writer = objectMapper.writerFor(SyncChange.class)
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+
+        // Everything before the latest reset is wiped by it, so skip to the reset and send it first.
+        // A full sync has nothing to delete or reset on the client.
+        Tombstone reset = full ? null : Tombstone.<Tombstone>find(RESET_AFTER, Sort.descending("deletedAt"),
+                Tombstone.CATALOG, from.at(), settled).firstResult();
+        if (reset != null) {
+            from = new Watermark(reset.deletedAt, Source.RAW_MATERIAL, MIN_ID);
+        }
+
+        // Each source reads one row past the page so we can tell whether more remain.
+        try (Stream<Row> rawMaterials = RawMaterial.<RawMaterial>find(UPDATED_AFTER, Sort.by("updatedAt").and("id"),
+                        from.at(), afterId(from, Source.RAW_MATERIAL), settled).range(0, pageSize).stream().map(this::row);
+             Stream<Row> products = Product.<Product>find(UPDATED_AFTER, Sort.by("updatedAt").and("id"),
+                        from.at(), afterId(from, Source.PRODUCT), settled).range(0, pageSize).stream().map(this::row);
+             Stream<Row> compositions = ProductRawMaterial.<ProductRawMaterial>find(UPDATED_AFTER, Sort.by("updatedAt").and("id"),
+                        from.at(), afterId(from, Source.COMPOSITION), settled).range(0, pageSize).stream().map(this::row);
+             Stream<Row> tombstones = full ? Stream.empty() : Tombstone.<Tombstone>find(DELETED_AFTER, Sort.by("deletedAt").and("id"),
+                        from.at(), afterId(from, Source.TOMBSTONE), settled, Tombstone.CATALOG).range(0, pageSize).stream().map(this::row)) {
+
+            List<Cursor> cursors = List.of(new Cursor(rawMaterials.iterator()), new Cursor(products.iterator()),
+                    new Cursor(compositions.iterator()), new Cursor(tombstones.iterator()));
+
+            JsonGenerator json = objectMapper.getFactory().createGenerator(output);
+            json.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            json.writeStartObject();
+            json.writeArrayFieldStart("changes");
+
+            int written = 0;
+            if (reset != null) {
+                writer.writeValue(json, row(reset).change());
+                written++;
+            }
+
+            Row last = null;
+            for (; written < pageSize; written++) {
+                Cursor next = null;
+                for (Cursor cursor : cursors) {
+                    if (cursor.peek() != null && (next == null || ORDER.compare(cursor.peek(), next.peek()) < 0)) {
+                        next = cursor;
+                    }
+                }
+                if (next == null) {
+                    break;
+                }
+
+                last = next.pop();
+                writer.writeValue(json, last.change());
+                if (written % FLUSH_EVERY == FLUSH_EVERY - 1) {
+                    json.flush();
+                }
+            }
+
+            boolean hasMore = cursors.stream().anyMatch(cursor -> cursor.peek() != null);
+            Watermark next = last != null ? new Watermark(last.at(), last.source(), last.id()) : from;
+
+            json.writeEndArray();
+            json.writeStringField("nextWatermark", next.encode());
+            json.writeBooleanField("hasMore", hasMore);
+            json.writeEndObject();
+            json.close();
+        }
+    }
+
+    // Ids to compare against for a source, so that "(at, id) > (from.at, afterId)" means
+    // "strictly after the watermark" in the merged (at, source, id) order.
+    private UUID afterId(Watermark from, Source source) {
+        int cmp = source.compareTo(from.source());
+        if (cmp > 0) {
+            return MIN_ID;
+        }
+        return cmp == 0 ? from.id() : MAX_ID;
+    }
+
+    private Row row(RawMaterial rawMaterial) {
+        return new Row(Source.RAW_MATERIAL, rawMaterial.id, rawMaterial.updatedAt, new SyncChange(
+                "RAW_MATERIAL", "UPSERT", rawMaterial.id, rawMaterial.updatedAt, RawMaterialResponse.from(rawMaterial)));
+    }
+
+    private Row row(Product product) {
+        return new Row(Source.PRODUCT, product.id, product.updatedAt, new SyncChange(
+                "PRODUCT", "UPSERT", product.id, product.updatedAt, ProductResponse.summaryOf(product)));
+    }
+
+    private Row row(ProductRawMaterial prm) {
+        return new Row(Source.COMPOSITION, prm.id, prm.updatedAt, new SyncChange(
+                "COMPOSITION", "UPSERT", prm.id, prm.updatedAt, CompositionSnapshot.from(prm)));
+    }
+
+    private Row row(Tombstone tombstone) {
+        String op = Tombstone.CATALOG.equals(tombstone.entityKind) ? "RESET" : "DELETE";
+        return new Row(Source.TOMBSTONE, tombstone.id, tombstone.deletedAt, new SyncChange(
+                tombstone.entityKind, op, tombstone.entityId, tombstone.deletedAt, null));
+    }
+
+    private static final class Cursor {
+        private final Iterator<Row> iterator;
+        private Row head;
+
+        Cursor(Iterator<Row> iterator) {
+            this.iterator = iterator;
+            this.head = iterator.hasNext() ? iterator.next() : null;
+        }
+
+        Row peek() {
+            return head;
+        }
+
+        Row pop() {
+            Row current = head;
+            head = iterator.hasNext() ? iterator.next() : null;
+            return current;
+        }
+    }
+}
@@ -0,0 +1,111 @@
+package com.duckstock.tracing;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.jboss.logging.Logger;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import io.opentelemetry.api.common.Attributes;
+import io.opentelemetry.sdk.common.CompletableResultCode;
+import io.opentelemetry.sdk.trace.data.EventData;
+import io.opentelemetry.sdk.trace.data.SpanData;
+import io.opentelemetry.sdk.trace.export.SpanExporter;
+
+/**
+ * Appends spans to a local file, one JSON object per line, for machines without a collector.
+ * {@code jq 'select(.traceId == "...")'} pulls a trace back together.
+ */
+public class JsonLinesSpanExporter implements SpanExporter {
+
+    private static final Logger LOG = Logger.getLogger(JsonLinesSpanExporter.class);
+    private static final ObjectMapper JSON = new ObjectMapper();
+
+    private final Path file;
+    private Writer writer;
+
+    public JsonLinesSpanExporter(Path file) {
+        this.file = file;
+    }
+
+    @Override
+    public synchronized CompletableResultCode export(Collection<SpanData> spans) {
+        try {
+            if (writer == null) {
+                writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8, StandardOpenOption.CREATE,
+                        StandardOpenOption.APPEND);
+            }
+            for (SpanData span : spans) {
+                writer.write(JSON.writeValueAsString(toJson(span)));
+                writer.write('\n');
+            }
+            writer.flush();
+            return CompletableResultCode.ofSuccess();
+        } catch (IOException e) {
+            LOG.warnf(e, "Could not write %d spans to %s", spans.size(), file);
+            return CompletableResultCode.ofFailure();
+        }
+    }
+
+    static Map<String, Object> toJson(SpanData span) {
+        Map<String, Object> json = new LinkedHashMap<>();
+        json.put("traceId", span.getTraceId());
+        json.put("spanId", span.getSpanId());
+        if (span.getParentSpanContext().isValid()) {
+            json.put("parentSpanId", span.getParentSpanId());
+        }
+        json.put("name", span.getName());
+        json.put("kind", span.getKind().name());
+        json.put("sampled", span.getSpanContext().isSampled());
+        json.put("startEpochNanos", span.getStartEpochNanos());
+        json.put("durationMicros", (span.getEndEpochNanos() - span.getStartEpochNanos()) / 1_000);
+        json.put("status", span.getStatus().getStatusCode().name());
+        json.put("attributes", toJson(span.getAttributes()));
+        if (!span.getEvents().isEmpty()) {
+            List<Map<String, Object>> events = new ArrayList<>();
+            for (EventData event : span.getEvents()) {
+                Map<String, Object> eventJson = new LinkedHashMap<>();
+                eventJson.put("name", event.getName());
+                eventJson.put("epochNanos", event.getEpochNanos());
+                eventJson.put("attributes", toJson(event.getAttributes()));
+                events.add(eventJson);
+            }
+            json.put("events", events);
+        }
+        return json;
+    }
+
+    private static Map<String, Object> toJson(Attributes attributes) {
+        Map<String, Object> json = new LinkedHashMap<>();
+        attributes.forEach((key, value) -> json.put(key.getKey(), value));
+        return json;
+    }
+
+    @Override
+    public CompletableResultCode flush() {
+        return CompletableResultCode.ofSuccess();
+    }
+
+    @Override
+    public synchronized CompletableResultCode shutdown() {
+        if (writer != null) {
+            try {
+                writer.close();
+            } catch (IOException e) {
+                LOG.warnf(e, "Could not close %s", file);
+            }
+            writer = null;
+        }
+        return CompletableResultCode.ofSuccess();
+    }
+}
@@ -0,0 +1,176 @@
+package com.duckstock.tracing;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.jboss.logging.Logger;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import io.opentelemetry.api.trace.SpanContext;
+import io.opentelemetry.context.Context;
+import io.opentelemetry.exporter.otlp.http.trace.OtlpHttpSpanExporter;
+import io.opentelemetry.sdk.common.CompletableResultCode;
+import io.opentelemetry.sdk.trace.ReadWriteSpan;
+import io.opentelemetry.sdk.trace.ReadableSpan;
+import io.opentelemetry.sdk.trace.SpanProcessor;
+import io.opentelemetry.sdk.trace.data.SpanData;
+import io.opentelemetry.sdk.trace.export.BatchSpanProcessor;
+import io.opentelemetry.sdk.trace.export.SpanExporter;
+import jakarta.annotation.PostConstruct;
+import jakarta.enterprise.context.ApplicationScoped;
+
+/**
+ * Sends finished spans to the exporter chosen with {@code duckstock.tracing.exporter}: {@code otlp},
+ * {@code file} (JSON lines, see {@link JsonLinesSpanExporter}), {@code memory} (see {@link #memory()})
+ * or {@code none}.
+ *
+ * Spans sampled by {@link TraceSampler} are batched and exported as usual. The spans of a trace that
+ * was not sampled are held until its local root span ends: when the root took longer than
+ * {@code slow-threshold-millis} the whole trace is exported, otherwise it is discarded. Only ended
+ * spans are held, and nothing is copied unless the trace is exported.
+ */
+@ApplicationScoped
+public class TraceExportProcessor implements SpanProcessor {
+
+    private static final Logger LOG = Logger.getLogger(TraceExportProcessor.class);
+
+    // Spans held per unsampled trace; a trace with more is exported without the rest.
+    static final int MAX_SPANS_PER_TRACE = 512;
+
+    @ConfigProperty(name = "duckstock.tracing.exporter", defaultValue = "otlp")
+    String exporterName;
+
+    @ConfigProperty(name = "duckstock.tracing.otlp-endpoint", defaultValue = "http://localhost:4318/v1/traces")
+    String otlpEndpoint;
+
+    @ConfigProperty(name = "duckstock.tracing.file", defaultValue = "traces.jsonl")
+    String file;
+
+    @ConfigProperty(name = "duckstock.tracing.slow-threshold-millis", defaultValue = "500")
+    long slowThresholdMillis;
+
+    // Unsampled traces still running whose spans are held; past that, the oldest are given up on.
+    @ConfigProperty(name = "duckstock.tracing.max-pending-traces", defaultValue = "2000")
+    int maxPendingTraces;
+
+    private final MemorySpanExporter memory = new MemorySpanExporter();
+    private SpanExporter exporter;
+    private SpanProcessor sampled;
+    private ThreadPoolExecutor slowExports;
+    private Cache<String, List<ReadableSpan>> pending;
+    private long slowThresholdNanos;
+
+    @PostConstruct
+    void init() {
+        exporter = exporter(exporterName);
+        sampled = BatchSpanProcessor.builder(exporter).build();
+        // Exports of slow traces are rare; one thread is enough and a backlog is dropped, never waited on.
+        slowExports = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(64),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "slow-trace-export");
+                    thread.setDaemon(true);
+                    return thread;
+                }, new ThreadPoolExecutor.DiscardPolicy());
+        pending = Caffeine.newBuilder()
+                .maximumSize(Math.max(maxPendingTraces, 1))
+                .expireAfterAccess(Duration.ofMinutes(1))
+                .build();
+        slowThresholdNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(slowThresholdMillis, 0));
+        LOG.infof("Tracing exports to %s, unsampled traces slower than %d ms included", exporterName,
+                slowThresholdMillis);
+    }
+
+    SpanExporter exporter(String name) {
+        return switch (name) {
+            case "otlp" -> OtlpHttpSpanExporter.builder().setEndpoint(otlpEndpoint).build();
+            case "file" -> new JsonLinesSpanExporter(Path.of(file));
+            case "memory" -> memory;
+            case "none" -> SpanExporter.composite();
+            default -> throw new IllegalArgumentException("Unknown duckstock.tracing.exporter: " + name
+                    + " (expected otlp, file, memory or none)");
+        };
+    }
+
+    /**
+     * The spans exported so far with {@code duckstock.tracing.exporter=memory}.
+     */
+    public MemorySpanExporter memory() {
+        return memory;
+    }
+
+    @Override
+    public void onStart(Context parentContext, ReadWriteSpan span) {
+    }
+
+    @Override
+    public boolean isStartRequired() {
+        return false;
+    }
+
+    @Override
+    public void onEnd(ReadableSpan span) {
+        if (span.getSpanContext().isSampled()) {
+            sampled.onEnd(span);
+            return;
+        }
+        if (slowThresholdNanos <= 0) {
+            return;
+        }
+        String traceId = span.getSpanContext().getTraceId();
+        SpanContext parent = span.getParentSpanContext();
+        if (parent.isValid() && !parent.isRemote()) {
+            List<ReadableSpan> spans = pending.get(traceId, id -> new ArrayList<>());
+            synchronized (spans) {
+                if (spans.size() < MAX_SPANS_PER_TRACE) {
+                    spans.add(span);
+                }
+            }
+            return;
+        }
+
+        List<ReadableSpan> children = pending.asMap().remove(traceId);
+        if (span.getLatencyNanos() < slowThresholdNanos) {
+            return;
+        }
+        List<SpanData> trace = new ArrayList<>();
+        if (children != null) {
+            synchronized (children) {
+                for (ReadableSpan child : children) {
+                    trace.add(child.toSpanData());
+                }
+            }
+        }
+        trace.add(span.toSpanData());
+        slowExports.execute(() -> exporter.export(trace));
+    }
+
+    @Override
+    public boolean isEndRequired() {
+        return true;
+    }
+
+    /**
+     * Completes once the sampled spans ended so far, and the slow traces queued so far, are exported.
+     * Never completes if the slow trace backlog is full, so callers wait on it with a timeout.
+     */
+    @Override
+    public CompletableResultCode forceFlush() {
+        CompletableResultCode slowFlushed = new CompletableResultCode();
+        slowExports.execute(slowFlushed::succeed);
+        return CompletableResultCode.ofAll(List.of(sampled.forceFlush(), slowFlushed));
+    }
+
+    @Override
+    public CompletableResultCode shutdown() {
+        slowExports.shutdown();
+        return sampled.shutdown();
+    }
+}
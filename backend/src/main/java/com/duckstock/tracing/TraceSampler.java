@@ -0,0 +1,68 @@
+package com.duckstock.tracing;
+
+import java.util.List;
+
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+import io.opentelemetry.api.common.Attributes;
+import io.opentelemetry.api.trace.Span;
+import io.opentelemetry.api.trace.SpanContext;
+import io.opentelemetry.api.trace.SpanKind;
+import io.opentelemetry.context.Context;
+import io.opentelemetry.sdk.trace.data.LinkData;
+import io.opentelemetry.sdk.trace.samplers.Sampler;
+import io.opentelemetry.sdk.trace.samplers.SamplingDecision;
+import io.opentelemetry.sdk.trace.samplers.SamplingResult;
+import jakarta.annotation.PostConstruct;
+import jakarta.enterprise.context.ApplicationScoped;
+
+/**
+ * Head sampling: a trace started here is sampled for {@code sample-ratio} of trace ids, and a span
+ * with a parent follows its parent's decision.
+ *
+ * Traces left out are still recorded rather than dropped, so that {@link TraceExportProcessor} can
+ * export the ones whose request turns out to be slower than {@code slow-threshold-millis}. With the
+ * threshold at 0 they are dropped and sampling is purely head-based.
+ */
+@ApplicationScoped
+public class TraceSampler implements Sampler {
+
+    @ConfigProperty(name = "duckstock.tracing.sample-ratio", defaultValue = "0.1")
+    double sampleRatio;
+
+    @ConfigProperty(name = "duckstock.tracing.slow-threshold-millis", defaultValue = "500")
+    long slowThresholdMillis;
+
+    private Sampler ratio;
+
+    @PostConstruct
+    void init() {
+        ratio = Sampler.traceIdRatioBased(Math.min(Math.max(sampleRatio, 0.0), 1.0));
+    }
+
+    @Override
+    public SamplingResult shouldSample(Context parentContext, String traceId, String name, SpanKind spanKind,
+                                       Attributes attributes, List<LinkData> parentLinks) {
+        Span parent = Span.fromContext(parentContext);
+        SpanContext parentSpan = parent.getSpanContext();
+        if (parentSpan.isValid()) {
+            if (parentSpan.isSampled()) {
+                return SamplingResult.recordAndSample();
+            }
+            // A local parent that is not recording was dropped, and so is the rest of its trace.
+            return parentSpan.isRemote() || parent.isRecording() ? unsampled() : SamplingResult.drop();
+        }
+        SamplingResult head = ratio.shouldSample(parentContext, traceId, name, spanKind, attributes, parentLinks);
+        return head.getDecision() == SamplingDecision.RECORD_AND_SAMPLE ? head : unsampled();
+    }
+
+    private SamplingResult unsampled() {
+        return slowThresholdMillis > 0 ? SamplingResult.recordOnly() : SamplingResult.drop();
+    }
+
+    @Override
+    public String getDescription() {
+        return String.format("TraceSampler{ratio=%s, slowThresholdMillis=%d}", ratio.getDescription(),
+                slowThresholdMillis);
+    }
+}
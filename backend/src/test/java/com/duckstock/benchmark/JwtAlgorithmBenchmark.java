@@ -0,0 +1,105 @@
+package com.duckstock.benchmark;
+
+import io.smallrye.jwt.algorithm.SignatureAlgorithm;
+import io.smallrye.jwt.auth.principal.DefaultJWTParser;
+import io.smallrye.jwt.auth.principal.JWTAuthContextInfo;
+import io.smallrye.jwt.build.Jwt;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.spec.ECGenParameterSpec;
+import java.time.Duration;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import org.eclipse.microprofile.jwt.JsonWebToken;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * JMH comparison of signing and verifying the access token we issue, per supported algorithm.
+ * Run with {@code mvn test -Pbenchmark -Dtest=JwtAlgorithmBenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Tag("benchmark")
+public class JwtAlgorithmBenchmark {
+
+    @Param({"RS256", "ES256", "EdDSA"})
+    public String algorithm;
+
+    private SignatureAlgorithm signatureAlgorithm;
+    private KeyPair keys;
+    private DefaultJWTParser parser;
+    private String token;
+
+    @Setup
+    public void setUp() throws Exception {
+        switch (algorithm) {
+            case "ES256" -> {
+                KeyPairGenerator generator = KeyPairGenerator.getInstance("EC");
+                generator.initialize(new ECGenParameterSpec("secp256r1"));
+                keys = generator.generateKeyPair();
+                signatureAlgorithm = SignatureAlgorithm.ES256;
+            }
+            case "EdDSA" -> {
+                keys = KeyPairGenerator.getInstance("Ed25519").generateKeyPair();
+                signatureAlgorithm = SignatureAlgorithm.EDDSA;
+            }
+            default -> {
+                KeyPairGenerator generator = KeyPairGenerator.getInstance("RSA");
+                generator.initialize(2048);
+                keys = generator.generateKeyPair();
+                signatureAlgorithm = SignatureAlgorithm.RS256;
+            }
+        }
+
+        JWTAuthContextInfo context = new JWTAuthContextInfo(keys.getPublic(), "stockflow");
+        context.setSignatureAlgorithm(Set.of(signatureAlgorithm));
+        parser = new DefaultJWTParser(context);
+        token = sign();
+    }
+
+    @Benchmark
+    public String sign() {
+        return Jwt.issuer("stockflow")
+                .subject("1")
+                .upn("benchmark@duckstock.test")
+                .groups(Set.of("USER"))
+                .claim("userId", 1L)
+                .claim("email", "benchmark@duckstock.test")
+                .claim("role", "USER")
+                .claim("type", "access")
+                .expiresIn(Duration.ofMinutes(15))
+                .jws()
+                .algorithm(signatureAlgorithm)
+                .sign(keys.getPrivate());
+    }
+
+    @Benchmark
+    public JsonWebToken verify() throws Exception {
+        return parser.parse(token);
+    }
+
+    @Test
+    public void run() throws Exception {
+        new Runner(new OptionsBuilder()
+                .include(JwtAlgorithmBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
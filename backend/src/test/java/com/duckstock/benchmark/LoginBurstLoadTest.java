@@ -0,0 +1,156 @@
+package com.duckstock.benchmark;
+
+import com.duckstock.dto.auth.LoginRequest;
+import com.duckstock.dto.auth.RegisterRequest;
+import com.duckstock.dto.rawmaterial.RawMaterialRequest;
+import io.quarkus.test.junit.QuarkusTest;
+import io.quarkus.test.junit.QuarkusTestProfile;
+import io.quarkus.test.junit.TestProfile;
+import io.restassured.http.ContentType;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import org.jboss.logging.Logger;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import static io.restassured.RestAssured.given;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Fires a burst of concurrent logins and checks that CRUD reads served by the request workers
+ * keep their latency while the hashing pool is saturated.
+ *
+ * Run with {@code ./mvnw test -Pbenchmark}; {@code -Dbenchmark.logins=N} changes the burst size.
+ */
+@QuarkusTest
+@TestProfile(LoginBurstLoadTest.NoRateLimitProfile.class)
+@Tag("benchmark")
+public class LoginBurstLoadTest {
+
+    private static final Logger LOG = Logger.getLogger(LoginBurstLoadTest.class);
+
+    private static final int LOGINS = Integer.getInteger("benchmark.logins", 500);
+    private static final int SAMPLES = 200;
+    private static final String EMAIL = "burst@duckstock.test";
+    private static final String PASSWORD = "burst-password";
+
+    public static class NoRateLimitProfile implements QuarkusTestProfile {
+        @Override
+        public Map<String, String> getConfigOverrides() {
+            return Map.of("duckstock.rate-limit.enabled", "false");
+        }
+    }
+
+    @Test
+    public void crudLatencyStaysFlatDuringLoginBurst() throws Exception {
+        String token = registerAndLogin();
+        String rawMaterialId = createRawMaterial(token);
+
+        long[] idle = sampleReads(token, rawMaterialId);
+
+        ExecutorService clients = Executors.newFixedThreadPool(64);
+        List<Future<Integer>> logins = new ArrayList<>();
+        for (int i = 0; i < LOGINS; i++) {
+            logins.add(clients.submit(this::login));
+        }
+        long[] underLoad = sampleReads(token, rawMaterialId);
+
+        int succeeded = 0;
+        int rejected = 0;
+        for (Future<Integer> login : logins) {
+            int status = login.get(5, TimeUnit.MINUTES);
+            if (status == 200) {
+                succeeded++;
+            } else if (status == 503) {
+                rejected++;
+            }
+        }
+        clients.shutdown();
+
+        LOG.infof("[login-burst] logins=%d ok=%d rejected=%d idle p50=%dus p99=%dus burst p50=%dus p99=%dus",
+                LOGINS, succeeded, rejected, percentile(idle, 50), percentile(idle, 99),
+                percentile(underLoad, 50), percentile(underLoad, 99));
+
+        assertEquals(LOGINS, succeeded + rejected, "logins may only succeed or be shed with 503");
+        // Generous bound: reads must not queue behind hashing, which would cost whole BCrypt rounds.
+        assertTrue(percentile(underLoad, 99) < percentile(idle, 99) * 3 + 50_000,
+                "read latency grew during the login burst");
+    }
+
+    private long[] sampleReads(String token, String rawMaterialId) {
+        long[] micros = new long[SAMPLES];
+        for (int i = 0; i < SAMPLES; i++) {
+            long start = System.nanoTime();
+            given()
+                    .header("Authorization", "Bearer " + token)
+                    .when()
+                    .get("/raw-materials/" + rawMaterialId)
+                    .then()
+                    .statusCode(200);
+            micros[i] = (System.nanoTime() - start) / 1_000;
+        }
+        Arrays.sort(micros);
+        return micros;
+    }
+
+    private long percentile(long[] sorted, int percentile) {
+        return sorted[Math.min(sorted.length - 1, sorted.length * percentile / 100)];
+    }
+
+    private int login() {
+        LoginRequest request = new LoginRequest();
+        request.email = EMAIL;
+        request.password = PASSWORD;
+        return given()
+                .contentType(ContentType.JSON)
+                .body(request)
+                .when()
+                .post("/auth/login")
+                .statusCode();
+    }
+
+    private String registerAndLogin() {
+        RegisterRequest register = new RegisterRequest();
+        register.name = "Burst User";
+        register.email = EMAIL;
+        register.password = PASSWORD;
+        given().contentType(ContentType.JSON).body(register).when().post("/auth/register");
+
+        LoginRequest request = new LoginRequest();
+        request.email = EMAIL;
+        request.password = PASSWORD;
+        return given()
+                .contentType(ContentType.JSON)
+                .body(request)
+                .when()
+                .post("/auth/login")
+                .then()
+                .statusCode(200)
+                .extract().path("accessToken");
+    }
+
+    private String createRawMaterial(String token) {
+        RawMaterialRequest request = new RawMaterialRequest();
+        request.name = "Burst Plywood";
+        request.price = new BigDecimal("12.00");
+        request.stockQuantity = 100;
+        request.unit = "un";
+        return given()
+                .header("Authorization", "Bearer " + token)
+                .contentType(ContentType.JSON)
+                .body(request)
+                .when()
+                .post("/raw-materials")
+                .then()
+                .statusCode(201)
+                .extract().path("id");
+    }
+}
@@ -0,0 +1,159 @@
+package com.duckstock.benchmark;
+
+import com.duckstock.dto.auth.LoginRequest;
+import com.duckstock.dto.auth.RegisterRequest;
+import com.duckstock.dto.rawmaterial.RawMaterialRequest;
+import io.quarkus.test.junit.QuarkusTest;
+import io.quarkus.test.junit.QuarkusTestProfile;
+import io.quarkus.test.junit.TestProfile;
+import io.restassured.http.ContentType;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import org.jboss.logging.Logger;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import static io.restassured.RestAssured.given;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Floods {@code /production/suggestions} well beyond the planning bulkhead and checks that CRUD
+ * reads, which run on their own bulkhead, keep their latency.
+ *
+ * Run with {@code ./mvnw test -Pbenchmark}; {@code -Dbenchmark.plans=N} changes the flood size.
+ */
+@QuarkusTest
+@TestProfile(PlanningSaturationLoadTest.SmallPlanningBulkheadProfile.class)
+@Tag("benchmark")
+public class PlanningSaturationLoadTest {
+
+    private static final Logger LOG = Logger.getLogger(PlanningSaturationLoadTest.class);
+
+    private static final int PLANS = Integer.getInteger("benchmark.plans", 2000);
+    private static final int SAMPLES = 200;
+    private static final String EMAIL = "planner@duckstock.test";
+    private static final String PASSWORD = "planner-password";
+
+    public static class SmallPlanningBulkheadProfile implements QuarkusTestProfile {
+        @Override
+        public Map<String, String> getConfigOverrides() {
+            // Cached suggestions would be served before reaching the bulkhead.
+            return Map.of(
+                    "duckstock.rate-limit.enabled", "false",
+                    "duckstock.load-shedding.enabled", "false",
+                    "duckstock.response-cache.enabled", "false",
+                    "duckstock.bulkhead.planning.threads", "1",
+                    "duckstock.bulkhead.planning.queue-size", "4");
+        }
+    }
+
+    @Test
+    public void crudLatencyStaysFlatWhilePlanningIsSaturated() throws Exception {
+        String token = registerAndLogin();
+        String rawMaterialId = createRawMaterial(token);
+
+        long[] idle = sampleReads(token, rawMaterialId);
+
+        ExecutorService clients = Executors.newFixedThreadPool(64);
+        List<Future<Integer>> plans = new ArrayList<>();
+        for (int i = 0; i < PLANS; i++) {
+            plans.add(clients.submit(() -> suggestions(token)));
+        }
+        long[] underLoad = sampleReads(token, rawMaterialId);
+
+        int succeeded = 0;
+        int rejected = 0;
+        for (Future<Integer> plan : plans) {
+            int status = plan.get(5, TimeUnit.MINUTES);
+            if (status == 200) {
+                succeeded++;
+            } else if (status == 503) {
+                rejected++;
+            }
+        }
+        clients.shutdown();
+
+        LOG.infof("[planning-saturation] plans=%d ok=%d rejected=%d idle p50=%dus p99=%dus saturated p50=%dus p99=%dus",
+                PLANS, succeeded, rejected, percentile(idle, 50), percentile(idle, 99),
+                percentile(underLoad, 50), percentile(underLoad, 99));
+
+        assertEquals(PLANS, succeeded + rejected, "plans may only succeed or be shed with 503");
+        assertTrue(rejected > 0, "the planning bulkhead was never saturated");
+        // Generous bound: reads must not wait for planning threads or connections.
+        assertTrue(percentile(underLoad, 99) < percentile(idle, 99) * 3 + 50_000,
+                "read latency grew while planning was saturated");
+    }
+
+    private long[] sampleReads(String token, String rawMaterialId) {
+        long[] micros = new long[SAMPLES];
+        for (int i = 0; i < SAMPLES; i++) {
+            long start = System.nanoTime();
+            given()
+                    .header("Authorization", "Bearer " + token)
+                    .when()
+                    .get("/raw-materials/" + rawMaterialId)
+                    .then()
+                    .statusCode(200);
+            micros[i] = (System.nanoTime() - start) / 1_000;
+        }
+        Arrays.sort(micros);
+        return micros;
+    }
+
+    private long percentile(long[] sorted, int percentile) {
+        return sorted[Math.min(sorted.length - 1, sorted.length * percentile / 100)];
+    }
+
+    private int suggestions(String token) {
+        return given()
+                .header("Authorization", "Bearer " + token)
+                .when()
+                .get("/production/suggestions")
+                .statusCode();
+    }
+
+    private String registerAndLogin() {
+        RegisterRequest register = new RegisterRequest();
+        register.name = "Planner";
+        register.email = EMAIL;
+        register.password = PASSWORD;
+        given().contentType(ContentType.JSON).body(register).when().post("/auth/register");
+
+        LoginRequest request = new LoginRequest();
+        request.email = EMAIL;
+        request.password = PASSWORD;
+        return given()
+                .contentType(ContentType.JSON)
+                .body(request)
+                .when()
+                .post("/auth/login")
+                .then()
+                .statusCode(200)
+                .extract().path("accessToken");
+    }
+
+    private String createRawMaterial(String token) {
+        RawMaterialRequest request = new RawMaterialRequest();
+        request.name = "Planner Plywood";
+        request.price = new BigDecimal("12.00");
+        request.stockQuantity = 100;
+        request.unit = "un";
+        return given()
+                .header("Authorization", "Bearer " + token)
+                .contentType(ContentType.JSON)
+                .body(request)
+                .when()
+                .post("/raw-materials")
+                .then()
+                .statusCode(201)
+                .extract().path("id");
+    }
+}
@@ -0,0 +1,30 @@
+package com.duckstock.benchmark;
+
+import io.quarkus.test.junit.QuarkusTest;
+import io.quarkus.test.junit.QuarkusTestProfile;
+import io.quarkus.test.junit.TestProfile;
+import java.util.Map;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Raw material reads under 1k, 5k and 10k concurrent clients with the bulkheads on platform threads.
+ * Compare with {@link VirtualThreadLoadTest}.
+ */
+@QuarkusTest
+@TestProfile(PlatformThreadLoadTest.Profile.class)
+@Tag("benchmark")
+public class PlatformThreadLoadTest extends ThreadModeLoadSupport {
+
+    public static class Profile implements QuarkusTestProfile {
+        @Override
+        public Map<String, String> getConfigOverrides() {
+            return withThreadMode("platform");
+        }
+    }
+
+    @Test
+    public void readsUnderConcurrentClients() throws Exception {
+        measure("platform");
+    }
+}
@@ -0,0 +1,87 @@
+package com.duckstock.benchmark;
+
+import com.duckstock.ratelimit.LimiterStore;
+import com.duckstock.ratelimit.RateLimitAlgorithm;
+import com.duckstock.ratelimit.RouteCosts;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongUnaryOperator;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * JMH throughput of one rate limit decision as {@code GlobalRateLimitFilter} makes it: route cost
+ * lookup, {@link LimiterStore} lookup and the algorithm's CAS, over 1024 clients from 4 threads.
+ *
+ * The target is at least 1M decisions per second per algorithm, with {@code gc.alloc.rate.norm}
+ * at 0 B/op from the GC profiler. Run with {@code mvn test -Pbenchmark -Dtest=RateLimiterBenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(4)
+@Tag("benchmark")
+public class RateLimiterBenchmark {
+
+    private static final int CLIENTS = 1024;
+
+    @Param({"token-bucket", "sliding-window", "gcra"})
+    public String algorithm;
+
+    private RateLimitAlgorithm limiter;
+    private LongUnaryOperator initialState;
+    private RouteCosts routeCosts;
+    private LimiterStore store;
+    private final String[] clients = new String[CLIENTS];
+    private final long origin = System.nanoTime();
+
+    @State(Scope.Thread)
+    public static class Cursor {
+        int next;
+    }
+
+    @Setup
+    public void setUp() {
+        // High enough that most decisions are "allowed" and take the CAS path.
+        limiter = RateLimitAlgorithm.create(algorithm, 60_000, TimeUnit.SECONDS.toNanos(60));
+        routeCosts = RouteCosts.parse(List.of("GET /production/suggestions=5", "POST /auth/login=2"));
+        initialState = limiter::initialState;
+        store = new LimiterStore(100_000, TimeUnit.SECONDS.toNanos(120), 0);
+        for (int i = 0; i < CLIENTS; i++) {
+            clients[i] = "10.0." + (i / 256) + "." + (i % 256);
+        }
+    }
+
+    @Benchmark
+    public long decide(Cursor cursor) {
+        String client = clients[cursor.next++ & (CLIENTS - 1)];
+        long now = System.nanoTime() - origin;
+        return limiter.acquire(store.stateFor(client, now, initialState), routeCosts.costOf("GET", "/products/42"), now);
+    }
+
+    @Test
+    public void run() throws Exception {
+        new Runner(new OptionsBuilder()
+                .include(RateLimiterBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .build()).run();
+    }
+}
@@ -0,0 +1,69 @@
+package com.duckstock.benchmark;
+
+import com.duckstock.dto.auth.RegisterRequest;
+import io.restassured.http.ContentType;
+import io.restassured.response.Response;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+
+import static io.restassured.RestAssured.given;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Sequential {@code /auth/refresh} loop shared by the refresh benchmarks. Each iteration sends
+ * the cookie returned by the previous one, as a browser would.
+ */
+abstract class RefreshBenchmarkSupport {
+
+    static final int ITERATIONS = Integer.getInteger("benchmark.iterations", 2_000);
+
+    static Map<String, String> withoutRateLimit(Map<String, String> overrides) {
+        Map<String, String> config = new HashMap<>(overrides);
+        config.put("duckstock.rate-limit.enabled", "false");
+        return config;
+    }
+
+    void measure(String label) {
+        String cookie = registerCookie();
+
+        for (int i = 0; i < ITERATIONS / 10; i++) {
+            cookie = refresh(cookie); // warm-up
+        }
+
+        long start = System.nanoTime();
+        for (int i = 0; i < ITERATIONS; i++) {
+            cookie = refresh(cookie);
+        }
+        double seconds = (System.nanoTime() - start) / 1_000_000_000.0;
+
+        System.out.printf("[refresh-benchmark] %-9s iterations=%d throughput=%.0f req/s mean=%.2f ms%n",
+                label, ITERATIONS, ITERATIONS / seconds, seconds * 1000 / ITERATIONS);
+    }
+
+    private String refresh(String cookie) {
+        Response response = given()
+                .cookie("jwt_token", cookie)
+                .when()
+                .post("/auth/refresh");
+        assertEquals(200, response.statusCode());
+        String rotated = response.getCookie("jwt_token");
+        return rotated != null ? rotated : cookie;
+    }
+
+    private String registerCookie() {
+        RegisterRequest request = new RegisterRequest();
+        request.name = "Refresh Benchmark";
+        request.email = "refresh-" + UUID.randomUUID() + "@duckstock.test";
+        request.password = "refresh-password";
+
+        return given()
+                .contentType(ContentType.JSON)
+                .body(request)
+                .when()
+                .post("/auth/register")
+                .then()
+                .statusCode(201)
+                .extract().cookie("jwt_token");
+    }
+}
@@ -0,0 +1,30 @@
+package com.duckstock.benchmark;
+
+import io.quarkus.test.junit.QuarkusTest;
+import io.quarkus.test.junit.QuarkusTestProfile;
+import io.quarkus.test.junit.TestProfile;
+import java.util.Map;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+/**
+ * {@code /auth/refresh} throughput with rotation and the revocation store enabled.
+ * Compare with {@link StatelessRefreshBenchmark}.
+ */
+@QuarkusTest
+@TestProfile(RefreshRotationBenchmark.Profile.class)
+@Tag("benchmark")
+public class RefreshRotationBenchmark extends RefreshBenchmarkSupport {
+
+    public static class Profile implements QuarkusTestProfile {
+        @Override
+        public Map<String, String> getConfigOverrides() {
+            return withoutRateLimit(Map.of("duckstock.auth.refresh.rotation.enabled", "true"));
+        }
+    }
+
+    @Test
+    public void refreshThroughput() {
+        measure("rotating");
+    }
+}
@@ -0,0 +1,109 @@
+package com.duckstock.benchmark;
+
+import com.duckstock.service.ProductService;
+import com.duckstock.service.ProductionService;
+import com.duckstock.service.RawMaterialService;
+import com.duckstock.service.SeedService;
+import io.quarkus.narayana.jta.QuarkusTransaction;
+import io.quarkus.test.junit.QuarkusTest;
+import io.quarkus.test.junit.QuarkusTestProfile;
+import io.quarkus.test.junit.TestProfile;
+import jakarta.inject.Inject;
+import java.util.Arrays;
+import java.util.Map;
+import org.hibernate.CacheMode;
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Compares database round trips and latency of the hot read paths with the second-level and
+ * query caches bypassed ({@link CacheMode#IGNORE}) and in use ({@link CacheMode#NORMAL}).
+ *
+ * Run with {@code ./mvnw test -Pbenchmark}; {@code -Dbenchmark.iterations=N} changes the sample size.
+ */
+@QuarkusTest
+@TestProfile(SecondLevelCacheBenchmark.StatisticsProfile.class)
+@Tag("benchmark")
+public class SecondLevelCacheBenchmark {
+
+    private static final int ITERATIONS = Integer.getInteger("benchmark.iterations", 200);
+
+    public static class StatisticsProfile implements QuarkusTestProfile {
+        @Override
+        public Map<String, String> getConfigOverrides() {
+            return Map.of("quarkus.hibernate-orm.statistics", "true");
+        }
+    }
+
+    record Result(CacheMode mode, double statementsPerIteration, long p50Micros, long p99Micros,
+                  long secondLevelHits, long queryCacheHits) {}
+
+    @Inject
+    SeedService seedService;
+
+    @Inject
+    ProductionService productionService;
+
+    @Inject
+    ProductService productService;
+
+    @Inject
+    RawMaterialService rawMaterialService;
+
+    @Inject
+    Session session;
+
+    @Inject
+    SessionFactory sessionFactory;
+
+    @Test
+    public void compareCacheOnAndOff() {
+        seedService.seed("bench-admin@duckstock.test", "bench-password",
+                "bench-user@duckstock.test", "bench-password");
+
+        Result uncached = run(CacheMode.IGNORE);
+        run(CacheMode.NORMAL); // warm-up fills the regions
+        Result cached = run(CacheMode.NORMAL);
+
+        report(uncached);
+        report(cached);
+        assertTrue(cached.statementsPerIteration() < uncached.statementsPerIteration(),
+                "second-level cache should save database round trips");
+    }
+
+    private Result run(CacheMode mode) {
+        Statistics statistics = sessionFactory.getStatistics();
+        statistics.clear();
+
+        long[] nanos = new long[ITERATIONS];
+        for (int i = 0; i < ITERATIONS; i++) {
+            long start = System.nanoTime();
+            QuarkusTransaction.requiringNew().run(() -> {
+                session.setCacheMode(mode);
+                productionService.getSuggestions();
+                rawMaterialService.listAllNoPagination();
+                productService.listAll(0, 10, null);
+            });
+            nanos[i] = System.nanoTime() - start;
+        }
+
+        Arrays.sort(nanos);
+        return new Result(mode,
+                statistics.getPrepareStatementCount() / (double) ITERATIONS,
+                nanos[ITERATIONS / 2] / 1_000,
+                nanos[Math.min(ITERATIONS - 1, ITERATIONS * 99 / 100)] / 1_000,
+                statistics.getSecondLevelCacheHitCount(),
+                statistics.getQueryCacheHitCount());
+    }
+
+    private void report(Result result) {
+        System.out.printf("[2lc-benchmark] %-6s statements/iteration=%.1f p50=%dus p99=%dus 2lc-hits=%d query-cache-hits=%d%n",
+                result.mode(), result.statementsPerIteration(), result.p50Micros(), result.p99Micros(),
+                result.secondLevelHits(), result.queryCacheHits());
+    }
+}
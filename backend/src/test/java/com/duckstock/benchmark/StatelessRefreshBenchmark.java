@@ -0,0 +1,29 @@
+package com.duckstock.benchmark;
+
+import io.quarkus.test.junit.QuarkusTest;
+import io.quarkus.test.junit.QuarkusTestProfile;
+import io.quarkus.test.junit.TestProfile;
+import java.util.Map;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+/**
+ * {@code /auth/refresh} throughput without rotation, i.e. without touching the revocation store.
+ */
+@QuarkusTest
+@TestProfile(StatelessRefreshBenchmark.Profile.class)
+@Tag("benchmark")
+public class StatelessRefreshBenchmark extends RefreshBenchmarkSupport {
+
+    public static class Profile implements QuarkusTestProfile {
+        @Override
+        public Map<String, String> getConfigOverrides() {
+            return withoutRateLimit(Map.of("duckstock.auth.refresh.rotation.enabled", "false"));
+        }
+    }
+
+    @Test
+    public void refreshThroughput() {
+        measure("stateless");
+    }
+}
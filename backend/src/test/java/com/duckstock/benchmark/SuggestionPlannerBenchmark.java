@@ -0,0 +1,241 @@
+package com.duckstock.benchmark;
+
+import com.duckstock.dto.production.ProductionResponse;
+import com.duckstock.entity.Product;
+import com.duckstock.entity.ProductRawMaterial;
+import com.duckstock.entity.RawMaterial;
+import com.duckstock.service.SuggestionPlanner;
+import java.io.IOException;
+import java.io.Reader;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Random;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import org.jboss.logging.Logger;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.BenchmarkParams;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.Result;
+import org.openjdk.jmh.results.RunResult;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * JMH average time of {@link SuggestionPlanner#plan}, the computation behind
+ * {@code GET /production/suggestions}, on synthetic catalogs of 100 to 100k products over 50 to
+ * 50k raw materials. Profiles set the compositions per product: {@code sparse} 2, {@code typical}
+ * 8, {@code dense} 32, and {@code skewed} 8 with most of them drawn from the 5% most used
+ * materials. The GC profiler reports allocation per plan ({@code gc.alloc.rate.norm}).
+ *
+ * Run with {@code mvn test -Pbenchmark -Dtest=SuggestionPlannerBenchmark}; narrow the grid with
+ * {@code -Dbenchmark.products=<n,...>}, {@code -Dbenchmark.materials=<n,...>} and
+ * {@code -Dbenchmark.profile=<name,...>}. Results are compared with {@value #BASELINE}, recorded on
+ * the same machine with {@code -Dbenchmark.record-baseline=true}. With
+ * {@code -Dbenchmark.max-regression=<percent>} the run fails when a plan got slower than that.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx2g"})
+@Tag("benchmark")
+public class SuggestionPlannerBenchmark {
+
+    private static final Logger LOG = Logger.getLogger(SuggestionPlannerBenchmark.class);
+
+    static final String BASELINE = "src/test/resources/benchmark/suggestion-planner-baseline.properties";
+    private static final Path RESULTS = Path.of("target", "suggestion-planner-benchmark.json");
+
+    @Param({"100", "10000", "100000"})
+    public int products;
+
+    @Param({"50", "5000", "50000"})
+    public int materials;
+
+    @Param({"sparse", "typical", "dense", "skewed"})
+    public String profile;
+
+    private List<Product> catalog;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        RawMaterial[] rawMaterials = new RawMaterial[materials];
+        for (int i = 0; i < materials; i++) {
+            RawMaterial rawMaterial = new RawMaterial();
+            rawMaterial.id = new UUID(0, i);
+            rawMaterial.name = "Material " + i;
+            rawMaterial.stockQuantity = 1_000 + random.nextInt(100_000);
+            rawMaterials[i] = rawMaterial;
+        }
+
+        int perProduct = Math.min(compositionsPerProduct(profile), materials);
+        int hot = Math.max(materials / 20, 1);
+        catalog = new ArrayList<>(products);
+        for (int i = 0; i < products; i++) {
+            Product product = new Product();
+            product.id = new UUID(1, i);
+            product.name = "Product " + i;
+            product.price = BigDecimal.valueOf(100 + random.nextInt(1_000_000), 2);
+            product.rawMaterials = new ArrayList<>(perProduct);
+            Set<Integer> picked = new HashSet<>();
+            while (picked.size() < perProduct) {
+                boolean fromHot = "skewed".equals(profile) && random.nextInt(10) < 8;
+                picked.add(random.nextInt(fromHot ? hot : materials));
+            }
+            for (int material : picked) {
+                ProductRawMaterial composition = new ProductRawMaterial();
+                composition.product = product;
+                composition.rawMaterial = rawMaterials[material];
+                composition.quantityNeeded = 1 + random.nextInt(20);
+                product.rawMaterials.add(composition);
+            }
+            catalog.add(product);
+        }
+        // As ProductionService loads them: most valuable first.
+        catalog.sort(Comparator.comparing((Product product) -> product.price).reversed());
+    }
+
+    private static int compositionsPerProduct(String profile) {
+        return switch (profile) {
+            case "sparse" -> 2;
+            case "dense" -> 32;
+            default -> 8;
+        };
+    }
+
+    @Benchmark
+    public ProductionResponse plan() {
+        return SuggestionPlanner.plan(catalog);
+    }
+
+    @Test
+    public void run() throws Exception {
+        Files.createDirectories(RESULTS.getParent());
+        ChainedOptionsBuilder options = new OptionsBuilder()
+                .include(SuggestionPlannerBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .resultFormat(ResultFormatType.JSON)
+                .result(RESULTS.toString());
+        for (String param : List.of("products", "materials", "profile")) {
+            String values = System.getProperty("benchmark." + param);
+            if (values != null && !values.isBlank()) {
+                options.param(param, values.split(","));
+            }
+        }
+        Collection<RunResult> results = new Runner(options.build()).run();
+
+        Map<String, double[]> measured = new TreeMap<>();
+        for (RunResult result : results) {
+            Result<?> allocation = result.getSecondaryResults().get("gc.alloc.rate.norm");
+            measured.put(keyOf(result.getParams()), new double[] {
+                    result.getPrimaryResult().getScore(), allocation != null ? allocation.getScore() : Double.NaN});
+        }
+
+        Path baselineFile = Path.of(BASELINE);
+        if (Boolean.getBoolean("benchmark.record-baseline")) {
+            recordBaseline(baselineFile, measured);
+            LOG.infof("[planner] baseline recorded in %s, full results in %s", baselineFile, RESULTS);
+            return;
+        }
+        double worst = compare(loadBaseline(baselineFile), measured);
+        LOG.infof("[planner] full results in %s", RESULTS);
+
+        String maxRegression = System.getProperty("benchmark.max-regression");
+        if (maxRegression != null && !Double.isNaN(worst)) {
+            assertTrue(worst <= Double.parseDouble(maxRegression),
+                    String.format("planning got %.1f%% slower than the baseline (limit %s%%)", worst, maxRegression));
+        }
+    }
+
+    private static String keyOf(BenchmarkParams params) {
+        return params.getParam("products") + "." + params.getParam("materials") + "." + params.getParam("profile");
+    }
+
+    // <products>.<materials>.<profile>=<ms/op> <B/op>
+    private static Map<String, double[]> loadBaseline(Path file) throws IOException {
+        Map<String, double[]> baseline = new TreeMap<>();
+        if (!Files.exists(file)) {
+            return baseline;
+        }
+        Properties properties = new Properties();
+        try (Reader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            properties.load(reader);
+        }
+        for (String key : properties.stringPropertyNames()) {
+            String[] values = properties.getProperty(key).trim().split("\\s+");
+            baseline.put(key, new double[] {
+                    Double.parseDouble(values[0]), values.length > 1 ? Double.parseDouble(values[1]) : Double.NaN});
+        }
+        return baseline;
+    }
+
+    private static void recordBaseline(Path file, Map<String, double[]> measured) throws IOException {
+        List<String> lines = new ArrayList<>();
+        lines.add("# SuggestionPlannerBenchmark baseline: <products>.<materials>.<profile>=<ms/op> <B/op>");
+        lines.add(String.format("# Recorded %s on Java %s, %s %s, %d cpus", LocalDate.now(), Runtime.version(),
+                System.getProperty("os.name"), System.getProperty("os.arch"),
+                Runtime.getRuntime().availableProcessors()));
+        Map<String, double[]> merged = loadBaseline(file);
+        merged.putAll(measured);
+        merged.forEach((key, score) -> lines.add(String.format("%s=%.4f %.0f", key, score[0], score[1])));
+        Files.createDirectories(file.getParent());
+        Files.write(file, lines, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Logs each result next to its baseline and returns the largest slowdown in percent, or NaN
+     * when nothing had a baseline.
+     */
+    private static double compare(Map<String, double[]> baseline, Map<String, double[]> measured) {
+        double worst = Double.NaN;
+        LOG.infof("[planner] %-24s %12s %12s %8s %14s %14s", "products.materials.profile", "base ms/op",
+                "ms/op", "change", "base B/op", "B/op");
+        for (Map.Entry<String, double[]> entry : measured.entrySet()) {
+            double[] now = entry.getValue();
+            double[] base = baseline.get(entry.getKey());
+            if (base == null) {
+                LOG.infof("[planner] %-24s %12s %12.4f %8s %14s %14.0f", entry.getKey(), "-", now[0], "-", "-", now[1]);
+                continue;
+            }
+            double change = (now[0] - base[0]) / base[0] * 100;
+            worst = Double.isNaN(worst) ? change : Math.max(worst, change);
+            LOG.infof("[planner] %-24s %12.4f %12.4f %+7.1f%% %14.0f %14.0f", entry.getKey(), base[0], now[0], change,
+                    base[1], now[1]);
+        }
+        if (baseline.isEmpty()) {
+            LOG.infof("[planner] no baseline in %s yet; record one with -Dbenchmark.record-baseline=true", BASELINE);
+        }
+        return worst;
+    }
+}
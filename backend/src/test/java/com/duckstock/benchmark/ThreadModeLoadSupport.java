@@ -0,0 +1,186 @@
+package com.duckstock.benchmark;
+
+import com.duckstock.bulkhead.Bulkheads;
+import com.duckstock.dto.auth.LoginRequest;
+import com.duckstock.dto.auth.RegisterRequest;
+import com.duckstock.dto.rawmaterial.RawMaterialRequest;
+import io.quarkus.test.common.http.TestHTTPResource;
+import io.restassured.http.ContentType;
+import jakarta.inject.Inject;
+import java.math.BigDecimal;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import org.jboss.logging.Logger;
+
+import static io.restassured.RestAssured.given;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Closed-loop load shared by the thread mode benchmarks: each of N clients reads a raw material,
+ * waits for the answer and immediately asks again, for {@code -Dbenchmark.seconds} (default 10) per
+ * level of {@code -Dbenchmark.clients} (default 1000,5000,10000).
+ *
+ * Both modes get the same connection pool, and each the read bulkhead size that suits it: about as
+ * many platform threads as connections ({@code -Dbenchmark.platform-threads}, default 16), and as
+ * many virtual threads as the pool can serve ({@code -Dbenchmark.virtual-threads}, default 32, which
+ * {@link Bulkheads} cuts down to the connections left by the other bulkheads). The read permits
+ * actually used and the virtual thread pinning seen during each level are logged with the results. 10,000 clients need as many sockets; raise {@code ulimit -n} first.
+ */
+abstract class ThreadModeLoadSupport {
+
+    private static final Logger LOG = Logger.getLogger(ThreadModeLoadSupport.class);
+
+    static final int SECONDS = Integer.getInteger("benchmark.seconds", 10);
+    static final int[] CLIENTS = Arrays.stream(System.getProperty("benchmark.clients", "1000,5000,10000").split(","))
+            .mapToInt(level -> Integer.parseInt(level.trim()))
+            .toArray();
+
+    @TestHTTPResource("/raw-materials/")
+    URI rawMaterials;
+
+    @Inject
+    Bulkheads bulkheads;
+
+    static Map<String, String> withThreadMode(String mode) {
+        String threads = "virtual".equals(mode)
+                ? System.getProperty("benchmark.virtual-threads", "32")
+                : System.getProperty("benchmark.platform-threads", "16");
+        Map<String, String> config = new HashMap<>();
+        config.put("duckstock.bulkhead.thread-mode", mode);
+        config.put("duckstock.bulkhead.reads.threads", threads);
+        config.put("duckstock.bulkhead.reads.queue-size", "20000");
+        config.put("quarkus.datasource.jdbc.max-size", "32");
+        config.put("duckstock.rate-limit.enabled", "false");
+        config.put("duckstock.load-shedding.enabled", "false");
+        return config;
+    }
+
+    void measure(String label) throws Exception {
+        String token = registerAndLogin();
+        HttpRequest read = HttpRequest.newBuilder(rawMaterials.resolve(createRawMaterial(token)))
+                .header("Authorization", "Bearer " + token)
+                .timeout(Duration.ofSeconds(60))
+                .build();
+        HttpClient http = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(30))
+                .build();
+
+        run(http, read, 100, 2); // warm-up
+        for (int clients : CLIENTS) {
+            long pinnedBefore = bulkheads.reads().pinnedCount();
+            Result result = run(http, read, clients, SECONDS);
+            long[] micros = result.sortedMicros();
+            LOG.infof("[thread-mode] %-8s threads=%d clients=%5d requests=%d throughput=%.0f req/s p50=%.2f ms "
+                            + "p99=%.2f ms rejected=%d errors=%d pinned=%d",
+                    label, bulkheads.reads().threads(), clients, micros.length, micros.length / (double) SECONDS,
+                    percentile(micros, 50) / 1000.0, percentile(micros, 99) / 1000.0,
+                    result.rejected.sum(), result.errors.sum(), bulkheads.reads().pinnedCount() - pinnedBefore);
+            assertTrue(result.ok.sum() > 0, "no request succeeded with " + clients + " clients");
+            assertEquals(0, result.errors.sum(), "requests failed with " + clients + " clients");
+        }
+    }
+
+    private Result run(HttpClient http, HttpRequest read, int clients, int seconds) {
+        Result result = new Result();
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(seconds);
+        List<CompletableFuture<Void>> loops = new ArrayList<>(clients);
+        for (int i = 0; i < clients; i++) {
+            loops.add(loop(http, read, deadline, result));
+        }
+        CompletableFuture.allOf(loops.toArray(CompletableFuture[]::new)).join();
+        return result;
+    }
+
+    private CompletableFuture<Void> loop(HttpClient http, HttpRequest read, long deadline, Result result) {
+        long start = System.nanoTime();
+        return http.sendAsync(read, HttpResponse.BodyHandlers.discarding())
+                .handle((response, failure) -> {
+                    result.record(response == null ? -1 : response.statusCode(), System.nanoTime() - start);
+                    return null;
+                })
+                .thenCompose(ignored -> System.nanoTime() < deadline
+                        ? loop(http, read, deadline, result)
+                        : CompletableFuture.completedFuture(null));
+    }
+
+    private static long percentile(long[] sorted, int percentile) {
+        return sorted.length == 0 ? 0 : sorted[Math.min(sorted.length - 1, sorted.length * percentile / 100)];
+    }
+
+    private String registerAndLogin() {
+        String email = "threads-" + UUID.randomUUID() + "@duckstock.test";
+        RegisterRequest register = new RegisterRequest();
+        register.name = "Thread Mode";
+        register.email = email;
+        register.password = "threads-password";
+        given().contentType(ContentType.JSON).body(register).when().post("/auth/register");
+
+        LoginRequest request = new LoginRequest();
+        request.email = email;
+        request.password = "threads-password";
+        return given()
+                .contentType(ContentType.JSON)
+                .body(request)
+                .when()
+                .post("/auth/login")
+                .then()
+                .statusCode(200)
+                .extract().path("accessToken");
+    }
+
+    private String createRawMaterial(String token) {
+        RawMaterialRequest request = new RawMaterialRequest();
+        request.name = "Thread Mode Plywood";
+        request.price = new BigDecimal("12.00");
+        request.stockQuantity = 100;
+        request.unit = "un";
+        return given()
+                .header("Authorization", "Bearer " + token)
+                .contentType(ContentType.JSON)
+                .body(request)
+                .when()
+                .post("/raw-materials")
+                .then()
+                .statusCode(201)
+                .extract().path("id");
+    }
+
+    private static final class Result {
+        final ConcurrentLinkedQueue<Long> micros = new ConcurrentLinkedQueue<>();
+        final LongAdder ok = new LongAdder();
+        final LongAdder rejected = new LongAdder();
+        final LongAdder errors = new LongAdder();
+
+        void record(int status, long nanos) {
+            if (status == 200) {
+                ok.increment();
+                micros.add(nanos / 1_000);
+            } else if (status == 503) {
+                rejected.increment();
+            } else {
+                errors.increment();
+            }
+        }
+
+        long[] sortedMicros() {
+            long[] sorted = micros.stream().mapToLong(Long::longValue).toArray();
+            Arrays.sort(sorted);
+            return sorted;
+        }
+    }
+}
@@ -0,0 +1,34 @@
+package com.duckstock.benchmark;
+
+import com.duckstock.bulkhead.Bulkhead;
+import io.quarkus.test.junit.QuarkusTest;
+import io.quarkus.test.junit.QuarkusTestProfile;
+import io.quarkus.test.junit.TestProfile;
+import java.util.Map;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * Raw material reads under 1k, 5k and 10k concurrent clients with the bulkheads on virtual threads.
+ * Needs a Java 21+ runtime; compare with {@link PlatformThreadLoadTest}.
+ */
+@QuarkusTest
+@TestProfile(VirtualThreadLoadTest.Profile.class)
+@Tag("benchmark")
+public class VirtualThreadLoadTest extends ThreadModeLoadSupport {
+
+    public static class Profile implements QuarkusTestProfile {
+        @Override
+        public Map<String, String> getConfigOverrides() {
+            return withThreadMode("virtual");
+        }
+    }
+
+    @Test
+    public void readsUnderConcurrentClients() throws Exception {
+        assumeTrue(Bulkhead.virtualThreadsSupported(), "virtual threads need Java 21+");
+        measure("virtual");
+    }
+}
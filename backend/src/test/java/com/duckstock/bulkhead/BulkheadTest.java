@@ -0,0 +1,155 @@
+package com.duckstock.bulkhead;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import com.duckstock.deadline.Deadline;
+import com.duckstock.deadline.DeadlineStats;
+import com.duckstock.dto.admin.BulkheadStatsResponse;
+import com.duckstock.exception.DeadlineExceededException;
+import com.duckstock.exception.ServiceUnavailableException;
+
+import io.smallrye.mutiny.helpers.test.UniAssertSubscriber;
+
+class BulkheadTest {
+
+    private final CountDownLatch release = new CountDownLatch(1);
+    private final Bulkhead planning = new Bulkhead("planning", 1, 2, 3, "busy");
+    private final Bulkhead reads = new Bulkhead("reads", 2, 8, 1, "busy");
+
+    @AfterEach
+    void tearDown() {
+        release.countDown();
+        planning.shutdown();
+        reads.shutdown();
+    }
+
+    @Test
+    void submit_shouldQueueThenRejectWithRetryAfter() {
+        for (int i = 0; i < 3; i++) {
+            planning.submit(this::blockUntilReleased).subscribe().withSubscriber(UniAssertSubscriber.create());
+        }
+        awaitQueueDepth(planning, 2);
+
+        Throwable failure = planning.submit(this::blockUntilReleased)
+                .subscribe().withSubscriber(UniAssertSubscriber.create())
+                .assertFailed().getFailure();
+
+        ServiceUnavailableException unavailable = assertInstanceOf(ServiceUnavailableException.class, failure);
+        assertEquals(3, unavailable.getRetryAfterSeconds());
+        BulkheadStatsResponse stats = planning.stats();
+        assertEquals(1, stats.active);
+        assertEquals(2, stats.queued);
+        assertEquals(1, stats.rejected);
+    }
+
+    @Test
+    void submit_shouldKeepServingOtherBulkheadsWhileOneIsSaturated() {
+        for (int i = 0; i < 3; i++) {
+            planning.submit(this::blockUntilReleased).subscribe().withSubscriber(UniAssertSubscriber.create());
+        }
+
+        for (int i = 0; i < 100; i++) {
+            String thread = reads.submit(() -> Thread.currentThread().getName()).await().atMost(Duration.ofSeconds(1));
+            assertEquals("reads-", thread.substring(0, 6));
+        }
+        assertEquals(0, reads.rejectedCount());
+    }
+
+    @Test
+    void submit_shouldSkipTasksWhoseDeadlinePassedWhileQueued() {
+        planning.submit(this::blockUntilReleased).subscribe().withSubscriber(UniAssertSubscriber.create());
+        DeadlineStats stats = new DeadlineStats();
+        Deadline deadline = Deadline.after(50, stats);
+        boolean[] ran = new boolean[1];
+
+        UniAssertSubscriber<Boolean> queued = deadline.within(() -> planning.submit(() -> ran[0] = true)
+                .subscribe().withSubscriber(UniAssertSubscriber.create()));
+        awaitQueueDepth(planning, 1);
+        sleep(100);
+        release.countDown();
+
+        Throwable failure = queued.awaitFailure(Duration.ofSeconds(5)).getFailure();
+        assertEquals(Deadline.Stage.QUEUE, assertInstanceOf(DeadlineExceededException.class, failure).getStage());
+        assertFalse(ran[0]);
+        assertEquals(1, stats.expiredCount(Deadline.Stage.QUEUE));
+    }
+
+    @Test
+    void submit_shouldNeverRunMoreVirtualThreadsThanTheBulkheadSize() throws Exception {
+        assumeTrue(Bulkhead.virtualThreadsSupported(), "virtual threads need Java 21+");
+        Bulkhead virtual = new Bulkhead("virtual", 2, 8, 1, "busy", true);
+        try {
+            for (int i = 0; i < 10; i++) {
+                virtual.submit(this::blockUntilReleased).subscribe().withSubscriber(UniAssertSubscriber.create());
+            }
+            awaitQueueDepth(virtual, 8);
+            Throwable failure = virtual.submit(this::blockUntilReleased)
+                    .subscribe().withSubscriber(UniAssertSubscriber.create())
+                    .assertFailed().getFailure();
+
+            assertInstanceOf(ServiceUnavailableException.class, failure);
+            BulkheadStatsResponse stats = virtual.stats();
+            assertEquals("virtual", stats.threadMode);
+            assertEquals(2, stats.active);
+            assertEquals(8, stats.queued);
+            assertEquals(1, stats.rejected);
+
+            release.countDown();
+            Thread thread = virtual.submit(Thread::currentThread).await().atMost(Duration.ofSeconds(5));
+            assertTrue((Boolean) Thread.class.getMethod("isVirtual").invoke(thread));
+            assertEquals("virtual-", thread.getName().substring(0, 8));
+        } finally {
+            virtual.shutdown();
+        }
+    }
+
+    @Test
+    void pinnedThreadMonitor_shouldAttributePinningToTheBulkheadByThreadName() {
+        Bulkhead writes = new Bulkhead("bulkhead-writes", 1, 1, 1, "busy");
+        PinnedThreadMonitor monitor = new PinnedThreadMonitor(List.of(reads, writes));
+
+        monitor.pinned("bulkhead-writes-3", 40_000_000, "org.postgresql.core.v3.QueryExecutorImpl.execute:123");
+        monitor.pinned("bulkhead-writes-7", 25_000_000, "org.postgresql.core.v3.QueryExecutorImpl.execute:123");
+        monitor.pinned("ForkJoinPool-1-worker-1", 90_000_000, null);
+
+        assertEquals(2, writes.pinnedCount());
+        assertEquals(65, writes.stats().pinnedMillis);
+        assertEquals(0, reads.pinnedCount());
+        writes.shutdown();
+    }
+
+    private void awaitQueueDepth(Bulkhead bulkhead, int depth) {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (bulkhead.queueDepth() < depth && System.nanoTime() < deadline) {
+            Thread.onSpinWait();
+        }
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private Boolean blockUntilReleased() {
+        try {
+            return release.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+}
@@ -0,0 +1,28 @@
+package com.duckstock.bulkhead;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import org.junit.jupiter.api.Test;
+
+class BulkheadsTest {
+
+    @Test
+    void fitToPool_shouldKeepPermitsThatFit() {
+        assertEquals(new Bulkheads.Permits(8, 4, 2), Bulkheads.fitToPool(20, 8, 4, 2));
+    }
+
+    @Test
+    void fitToPool_shouldCutReadsToTheConnectionsLeft() {
+        assertEquals(new Bulkheads.Permits(26, 4, 2), Bulkheads.fitToPool(32, 1024, 4, 2));
+    }
+
+    @Test
+    void fitToPool_shouldLeaveOnePermitEachOnASmallPool() {
+        assertEquals(new Bulkheads.Permits(1, 1, 1), Bulkheads.fitToPool(3, 8, 4, 2));
+    }
+
+    @Test
+    void fitToPool_shouldFailWithoutAConnectionPerBulkhead() {
+        assertThrows(IllegalStateException.class, () -> Bulkheads.fitToPool(2, 8, 4, 2));
+    }
+}
@@ -0,0 +1,157 @@
+package com.duckstock.cache;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import static org.mockito.Mockito.when;
+
+import com.duckstock.event.CatalogChange;
+import com.duckstock.event.ChangeType;
+import com.duckstock.event.EntityKind;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import io.quarkus.security.identity.SecurityIdentity;
+import jakarta.ws.rs.core.EntityTag;
+
+class ResponseCacheTest {
+
+    private static final EntityKind[] RAW_MATERIALS = {EntityKind.RAW_MATERIAL};
+    private static final EntityKind[] PRODUCTS = {EntityKind.PRODUCT, EntityKind.COMPOSITION, EntityKind.RAW_MATERIAL};
+
+    private TableVersions tableVersions;
+    private ResponseCache responseCache;
+
+    @BeforeEach
+    void setUp() {
+        tableVersions = new TableVersions();
+        responseCache = new ResponseCache();
+        responseCache.enabled = true;
+        responseCache.maxBytes = 1024 * 1024;
+        responseCache.tableVersions = tableVersions;
+        responseCache.objectMapper = new ObjectMapper();
+        responseCache.init();
+    }
+
+    @Test
+    void fill_shouldServeSerializedBodyUntilDependentTableChanges() {
+        EntityTag tag = tableVersions.tag(PRODUCTS);
+        byte[] json = responseCache.fill("USER /products", tag, PRODUCTS, List.of("a", "b"));
+
+        ResponseCache.CachedResponse cached = responseCache.lookup("USER /products");
+        assertNotNull(cached);
+        assertEquals("[\"a\",\"b\"]", cached.body().toString());
+        assertEquals(json.length, cached.body().length());
+
+        write(EntityKind.COMPOSITION);
+        assertNull(responseCache.lookup("USER /products"));
+    }
+
+    @Test
+    void evict_shouldOnlyDropEntriesBuiltFromTheWrittenTable() {
+        responseCache.fill("USER /raw-materials", tableVersions.tag(RAW_MATERIALS), RAW_MATERIALS, List.of());
+        responseCache.fill("USER /products", tableVersions.tag(PRODUCTS), PRODUCTS, List.of());
+
+        write(EntityKind.PRODUCT);
+
+        assertNotNull(responseCache.lookup("USER /raw-materials"));
+        assertNull(responseCache.lookup("USER /products"));
+    }
+
+    @Test
+    void fill_shouldNotCacheWhenTablesChangedWhileRendering() {
+        EntityTag tag = tableVersions.tag(RAW_MATERIALS);
+        write(EntityKind.RAW_MATERIAL);
+
+        responseCache.fill("USER /raw-materials", tag, RAW_MATERIALS, List.of());
+
+        assertNull(responseCache.lookup("USER /raw-materials"));
+    }
+
+    @Test
+    void key_shouldIncludeRoleAndQuery() {
+        SecurityIdentity admin = identity("ADMIN");
+        SecurityIdentity user = identity("USER");
+
+        assertEquals("ADMIN /products?page=1", ResponseCache.key("/products", "page=1", admin));
+        assertEquals("USER /products", ResponseCache.key("/products", null, user));
+        assertNull(ResponseCache.key("/products", null, identity("OTHER")));
+    }
+
+    @Test
+    void write_shouldEvictAnEntryFilledAgainAfterAnEarlierWrite() {
+        responseCache.fill("USER /products", tableVersions.tag(PRODUCTS), PRODUCTS, List.of());
+        write(EntityKind.COMPOSITION);
+        responseCache.fill("USER /products", tableVersions.tag(PRODUCTS), PRODUCTS, List.of());
+        responseCache.fill("USER /products", tableVersions.tag(PRODUCTS), PRODUCTS, List.of());
+
+        write(EntityKind.PRODUCT);
+
+        assertEquals(0, responseCache.stats().entries);
+    }
+
+    @Test
+    void stats_shouldReportHitRatioAndWeightedSize() {
+        responseCache.fill("USER /raw-materials/all", tableVersions.tag(RAW_MATERIALS), RAW_MATERIALS, List.of(1, 2, 3));
+        responseCache.lookup("USER /raw-materials/all");
+        responseCache.lookup("USER /missing");
+
+        var stats = responseCache.stats();
+        assertEquals(1, stats.hitCount);
+        assertEquals(1, stats.missCount);
+        assertEquals(0.5, stats.hitRate);
+        assertEquals((long) ("USER /raw-materials/all".length() + "[1,2,3]".length()), stats.weightedSize);
+    }
+
+    @Test
+    void lookup_shouldExpireEntriesThatOtherReplicasMayHaveMadeStale() {
+        AtomicLong nanos = new AtomicLong();
+        responseCache.expireAfterWriteSeconds = 5;
+        responseCache.ticker = nanos::get;
+        responseCache.init();
+        responseCache.fill("USER /raw-materials/all", tableVersions.tag(RAW_MATERIALS), RAW_MATERIALS, List.of());
+
+        nanos.addAndGet(TimeUnit.SECONDS.toNanos(4));
+        assertNotNull(responseCache.lookup("USER /raw-materials/all"));
+
+        nanos.addAndGet(TimeUnit.SECONDS.toNanos(2));
+        assertNull(responseCache.lookup("USER /raw-materials/all"));
+    }
+
+    @Test
+    void tag_shouldChangeEveryWindowToBoundWritesMissedOnOtherReplicas() {
+        AtomicLong millis = new AtomicLong(TimeUnit.SECONDS.toMillis(10));
+        tableVersions.windowSeconds = 5;
+        tableVersions.clock = millis::get;
+        EntityTag tag = tableVersions.tag(RAW_MATERIALS);
+        responseCache.fill("USER /raw-materials/all", tag, RAW_MATERIALS, List.of());
+
+        millis.addAndGet(TimeUnit.SECONDS.toMillis(4));
+        assertEquals(tag, tableVersions.tag(RAW_MATERIALS));
+        assertNotNull(responseCache.lookup("USER /raw-materials/all"));
+
+        millis.addAndGet(TimeUnit.SECONDS.toMillis(1));
+        assertNotEquals(tag, tableVersions.tag(RAW_MATERIALS));
+        assertNull(responseCache.lookup("USER /raw-materials/all"));
+    }
+
+    private void write(EntityKind kind) {
+        CatalogChange change = new CatalogChange(kind, UUID.randomUUID(), ChangeType.UPDATED, null, null);
+        tableVersions.bump(change);
+        responseCache.evict(change);
+    }
+
+    private SecurityIdentity identity(String role) {
+        SecurityIdentity identity = Mockito.mock(SecurityIdentity.class);
+        when(identity.hasRole(role)).thenReturn(true);
+        return identity;
+    }
+}
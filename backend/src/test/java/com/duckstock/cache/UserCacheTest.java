@@ -0,0 +1,130 @@
+package com.duckstock.cache;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.MockedStatic;
+import org.mockito.Mockito;
+
+import com.duckstock.entity.User;
+import com.duckstock.event.UserChange;
+
+class UserCacheTest {
+
+    private static final String EMAIL = "user@stockflow.com";
+
+    private UserCache userCache;
+
+    @BeforeEach
+    void setUp() {
+        userCache = new UserCache();
+        userCache.ttlSeconds = 60;
+        userCache.maxSize = 100;
+        userCache.init();
+    }
+
+    @Test
+    void findByEmail_shouldServeRepeatedLookupsFromMemory() {
+        try (MockedStatic<User> userStatic = Mockito.mockStatic(User.class)) {
+            userStatic.when(() -> User.findByEmail(EMAIL)).thenReturn(user("USER"));
+
+            userCache.findByEmail(EMAIL);
+            userCache.findByEmail(EMAIL);
+            userCache.findByEmail(EMAIL);
+
+            userStatic.verify(() -> User.findByEmail(EMAIL), Mockito.times(1));
+            assertEquals(2, userCache.stats().hitCount);
+        }
+    }
+
+    @Test
+    void findByEmail_shouldNotServeRoleReadBeforeAnUpdateCommitted() {
+        UserChange change = new UserChange(EMAIL);
+
+        try (MockedStatic<User> userStatic = Mockito.mockStatic(User.class)) {
+            userStatic.when(() -> User.findByEmail(EMAIL)).thenReturn(user("USER"));
+            assertEquals("USER", userCache.findByEmail(EMAIL).role());
+
+            // Update in flight: readers still see the committed (old) role.
+            userCache.onChange(change);
+            assertEquals("USER", userCache.findByEmail(EMAIL).role());
+
+            // Commit.
+            userStatic.when(() -> User.findByEmail(EMAIL)).thenReturn(user("ADMIN"));
+            userCache.afterChange(change);
+
+            assertEquals("ADMIN", userCache.findByEmail(EMAIL).role());
+        }
+    }
+
+    @Test
+    void findByEmail_shouldDiscardLoadThatOverlappedAnUpdate() {
+        UserChange change = new UserChange(EMAIL);
+
+        try (MockedStatic<User> userStatic = Mockito.mockStatic(User.class)) {
+            // The update starts and commits while this lookup is reading the old row.
+            AtomicBoolean committed = new AtomicBoolean();
+            userStatic.when(() -> User.findByEmail(EMAIL)).thenAnswer(invocation -> {
+                if (committed.compareAndSet(false, true)) {
+                    userCache.onChange(change);
+                    userCache.afterChange(change);
+                    return user("USER");
+                }
+                return user("ADMIN");
+            });
+
+            assertEquals("USER", userCache.findByEmail(EMAIL).role());
+            assertEquals("ADMIN", userCache.findByEmail(EMAIL).role());
+        }
+    }
+
+    @Test
+    void findByEmail_shouldKeepServingUsersThatDidNotChange() {
+        try (MockedStatic<User> userStatic = Mockito.mockStatic(User.class)) {
+            userStatic.when(() -> User.findByEmail(EMAIL)).thenReturn(user("USER"));
+            userCache.findByEmail(EMAIL);
+
+            userCache.onChange(new UserChange("other@stockflow.com"));
+            userCache.afterChange(new UserChange("other@stockflow.com"));
+            userCache.findByEmail(EMAIL);
+
+            userStatic.verify(() -> User.findByEmail(EMAIL), Mockito.times(1));
+        }
+    }
+
+    @Test
+    void findByEmail_shouldReloadEveryUserAfterAChangeToAll() {
+        try (MockedStatic<User> userStatic = Mockito.mockStatic(User.class)) {
+            userStatic.when(() -> User.findByEmail(EMAIL)).thenReturn(user("USER"));
+            userCache.findByEmail(EMAIL);
+
+            userCache.afterChange(UserChange.all());
+            userStatic.when(() -> User.findByEmail(EMAIL)).thenReturn(user("ADMIN"));
+
+            assertEquals("ADMIN", userCache.findByEmail(EMAIL).role());
+        }
+    }
+
+    @Test
+    void findByEmail_shouldNotCacheMissingUsers() {
+        try (MockedStatic<User> userStatic = Mockito.mockStatic(User.class)) {
+            userStatic.when(() -> User.findByEmail(EMAIL)).thenReturn(null);
+            assertNull(userCache.findByEmail(EMAIL));
+
+            userStatic.when(() -> User.findByEmail(EMAIL)).thenReturn(user("USER"));
+            assertEquals("USER", userCache.findByEmail(EMAIL).role());
+        }
+    }
+
+    private User user(String role) {
+        User user = new User();
+        user.id = 1L;
+        user.name = "User StockFlow";
+        user.email = EMAIL;
+        user.role = role;
+        return user;
+    }
+}
@@ -0,0 +1,113 @@
+package com.duckstock.deadline;
+
+import java.math.BigDecimal;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.Test;
+
+import com.duckstock.entity.Product;
+import com.duckstock.entity.ProductRawMaterial;
+import com.duckstock.entity.RawMaterial;
+import com.duckstock.exception.DeadlineExceededException;
+import com.duckstock.service.SuggestionPlanner;
+
+class DeadlineTest {
+
+    private final DeadlineStats stats = new DeadlineStats();
+
+    @Test
+    void check_shouldPassUntilTheDeadline() {
+        Deadline deadline = Deadline.after(60_000, stats);
+
+        deadline.check(Deadline.Stage.QUERY);
+
+        assertFalse(deadline.isExpired());
+        assertTrue(deadline.remainingMillis() > 59_000);
+        assertEquals(60, deadline.queryTimeoutSeconds());
+        assertEquals(0, stats.expiredCount(Deadline.Stage.QUERY));
+    }
+
+    @Test
+    void check_shouldFailAndCountTheSkippedWorkOnceExpired() {
+        Deadline deadline = Deadline.after(0, stats);
+
+        DeadlineExceededException exceeded = assertThrows(DeadlineExceededException.class,
+                () -> deadline.check(Deadline.Stage.COMPUTATION, 40));
+
+        assertEquals(Deadline.Stage.COMPUTATION, exceeded.getStage());
+        assertEquals(1, stats.expiredCount(Deadline.Stage.COMPUTATION));
+        assertEquals(40, stats.skippedWork(Deadline.Stage.COMPUTATION));
+        assertEquals(1, deadline.queryTimeoutSeconds(), "a JDBC timeout of 0 would mean no timeout");
+    }
+
+    @Test
+    void none_shouldNeverExpire() {
+        Deadline.NONE.check(Deadline.Stage.QUEUE);
+
+        assertFalse(Deadline.NONE.isSet());
+        assertEquals(Long.MAX_VALUE, Deadline.NONE.remainingMillis());
+        assertSame(Deadline.NONE, Deadline.current());
+    }
+
+    @Test
+    void within_shouldMakeTheDeadlineCurrentForTheTask() {
+        Deadline deadline = Deadline.after(60_000, stats);
+
+        assertSame(deadline, deadline.within(Deadline::current));
+        assertSame(Deadline.NONE, Deadline.current());
+    }
+
+    @Test
+    void translate_shouldReportCancelledQueriesAsExpired() {
+        Deadline deadline = Deadline.after(0, stats);
+        RuntimeException cancelled = new RuntimeException("could not execute query",
+                new SQLException("canceling statement due to user request", "57014"));
+        RuntimeException other = new RuntimeException(new SQLException("duplicate key", "23505"));
+
+        assertInstanceOf(DeadlineExceededException.class, deadline.translate(cancelled));
+        assertSame(other, deadline.translate(other));
+        assertSame(cancelled, Deadline.NONE.translate(cancelled));
+        assertEquals(1, stats.expiredCount(Deadline.Stage.QUERY));
+    }
+
+    @Test
+    void plan_shouldStopOnceTheDeadlineHasPassed() {
+        List<Product> products = products(100);
+
+        assertEquals(100, SuggestionPlanner.plan(products, Deadline.after(60_000, stats)).products.size());
+        assertThrows(DeadlineExceededException.class,
+                () -> SuggestionPlanner.plan(products, Deadline.after(0, stats)));
+        assertEquals(100, stats.skippedWork(Deadline.Stage.COMPUTATION));
+    }
+
+    private static List<Product> products(int count) {
+        List<Product> products = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            RawMaterial rawMaterial = new RawMaterial();
+            rawMaterial.id = UUID.randomUUID();
+            rawMaterial.stockQuantity = 10;
+
+            Product product = new Product();
+            product.id = UUID.randomUUID();
+            product.name = "Product " + i;
+            product.price = BigDecimal.TEN;
+
+            ProductRawMaterial composition = new ProductRawMaterial();
+            composition.product = product;
+            composition.rawMaterial = rawMaterial;
+            composition.quantityNeeded = 1;
+            product.rawMaterials = new ArrayList<>(List.of(composition));
+            products.add(product);
+        }
+        return products;
+    }
+}
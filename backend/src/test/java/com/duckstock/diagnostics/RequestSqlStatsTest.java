@@ -0,0 +1,69 @@
+package com.duckstock.diagnostics;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.Test;
+
+class RequestSqlStatsTest {
+
+    private static final String COMPOSITIONS = "select p1_0.product_id,p1_0.id from product_raw_materials p1_0 where p1_0.product_id=?";
+
+    @Test
+    void shapeOf_shouldIgnoreWhitespaceAndParameterListLengths() {
+        assertEquals("select * from products where id in (?...) and name=?",
+                RequestSqlStats.shapeOf("select *\n  from products where id in (?, ?,?) and name=?"));
+        assertEquals(RequestSqlStats.shapeOf("select * from t where id in (?,?)"),
+                RequestSqlStats.shapeOf("select * from t where id in (?,?,?,?,?)"));
+    }
+
+    @Test
+    void routeOf_shouldReplaceIds() {
+        assertEquals("GET /products/{id}/raw-materials",
+                RequestSqlStats.routeOf("GET", "/products/3f2b8c1e-9d4a-4b7e-8f6a-1c2d3e4f5a6b/raw-materials"));
+        assertEquals("DELETE /sync/{id}", RequestSqlStats.routeOf("DELETE", "/sync/42"));
+        assertEquals("GET /", RequestSqlStats.routeOf("GET", "/"));
+    }
+
+    @Test
+    void report_shouldFindTheMostRepeatedStatementAndSlowOnes() {
+        RequestSqlStats stats = new RequestSqlStats();
+        stats.prepared("select count(*) from products");
+        stats.executed(1_000_000, 50_000_000);
+        for (int i = 0; i < 12; i++) {
+            stats.prepared(COMPOSITIONS);
+            stats.executed(1_000_000, 50_000_000);
+            stats.entityLoaded();
+        }
+        stats.prepared("select * from raw_materials");
+        stats.executed(80_000_000, 50_000_000);
+
+        RequestSqlReport report = stats.report();
+
+        assertEquals(14, report.statements());
+        assertEquals(3, report.distinctStatements());
+        assertEquals(12, report.entityLoads());
+        assertEquals(COMPOSITIONS, report.mostRepeated());
+        assertEquals(12, report.mostRepeatedCount());
+        assertEquals(List.of(new RequestSqlReport.SlowQuery("select * from raw_materials", 80_000_000)),
+                report.slowQueries());
+    }
+
+    @Test
+    void problemsOf_shouldFlagEachExceededThreshold() {
+        SqlDiagnostics diagnostics = new SqlDiagnostics();
+        diagnostics.maxStatements = 10;
+        diagnostics.maxRepeats = 5;
+        diagnostics.maxEntityLoads = 0;
+
+        RequestSqlReport nPlusOne = new RequestSqlReport("GET /products", 14, 3, 5000, COMPOSITIONS, 12, List.of());
+        RequestSqlReport fine = new RequestSqlReport("GET /products", 3, 3, 5000, COMPOSITIONS, 1, List.of());
+
+        List<String> problems = diagnostics.problemsOf(nPlusOne);
+        assertEquals(2, problems.size());
+        assertTrue(problems.get(1).contains("12 times"));
+        assertTrue(problems.get(1).endsWith(COMPOSITIONS));
+        assertEquals(List.of(), diagnostics.problemsOf(fine));
+    }
+}
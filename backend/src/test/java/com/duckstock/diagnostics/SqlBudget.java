@@ -0,0 +1,21 @@
+package com.duckstock.diagnostics;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Fails a {@code @QuarkusTest} when any request it makes runs more SQL than this. Checked by
+ * {@link SqlBudgetCallback}; a method annotation overrides the class one.
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target({ElementType.TYPE, ElementType.METHOD})
+public @interface SqlBudget {
+
+    /** Statements one request may run. */
+    int maxStatements() default 20;
+
+    /** Times one request may run the same statement before it counts as an N+1 loop. */
+    int maxRepeats() default 3;
+}
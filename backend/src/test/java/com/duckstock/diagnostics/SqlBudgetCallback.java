@@ -0,0 +1,68 @@
+package com.duckstock.diagnostics;
+
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.List;
+
+import io.quarkus.arc.Arc;
+import io.quarkus.test.junit.callback.QuarkusTestAfterEachCallback;
+import io.quarkus.test.junit.callback.QuarkusTestBeforeEachCallback;
+import io.quarkus.test.junit.callback.QuarkusTestMethodContext;
+
+/**
+ * JUnit callback for {@code @QuarkusTest}s that checks the requests of tests annotated with
+ * {@link SqlBudget} against it, using the application's {@link SqlDiagnostics}. Registered in
+ * {@code META-INF/services}; Quarkus runs it inside the application, where the diagnostics live.
+ */
+public class SqlBudgetCallback implements QuarkusTestBeforeEachCallback, QuarkusTestAfterEachCallback {
+
+    private static final long SETTLE_MILLIS = 2_000;
+
+    @Override
+    public void beforeEach(QuarkusTestMethodContext context) {
+        if (budgetOf(context) != null) {
+            diagnostics().startCapture();
+        }
+    }
+
+    @Override
+    public void afterEach(QuarkusTestMethodContext context) {
+        SqlBudget budget = budgetOf(context);
+        if (budget == null) {
+            return;
+        }
+        List<RequestSqlReport> reports;
+        try {
+            reports = diagnostics().stopCapture(SETTLE_MILLIS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return;
+        }
+
+        List<String> failures = new ArrayList<>();
+        for (RequestSqlReport report : reports) {
+            if (report.statements() > budget.maxStatements()) {
+                failures.add(String.format("%s ran %d statements (budget %d)",
+                        report.route(), report.statements(), budget.maxStatements()));
+            }
+            if (report.mostRepeatedCount() > budget.maxRepeats()) {
+                failures.add(String.format("%s ran the same statement %d times (budget %d): %s",
+                        report.route(), report.mostRepeatedCount(), budget.maxRepeats(), report.mostRepeated()));
+            }
+        }
+        if (!failures.isEmpty()) {
+            throw new AssertionError("SQL budget exceeded in " + context.getTestMethod().getName() + ":\n  "
+                    + String.join("\n  ", failures));
+        }
+    }
+
+    private static SqlBudget budgetOf(QuarkusTestMethodContext context) {
+        Method method = context.getTestMethod();
+        SqlBudget budget = method.getAnnotation(SqlBudget.class);
+        return budget != null ? budget : context.getTestInstance().getClass().getAnnotation(SqlBudget.class);
+    }
+
+    private static SqlDiagnostics diagnostics() {
+        return Arc.container().instance(SqlDiagnostics.class).get();
+    }
+}
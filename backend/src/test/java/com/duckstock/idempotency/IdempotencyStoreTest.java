@@ -0,0 +1,110 @@
+package com.duckstock.idempotency;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.nullValue;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import org.junit.jupiter.api.Test;
+
+import com.duckstock.dto.rawmaterial.RawMaterialRequest;
+import com.duckstock.entity.IdempotencyRecord;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import io.quarkus.narayana.jta.QuarkusTransaction;
+import io.quarkus.test.junit.QuarkusTest;
+import io.quarkus.test.security.TestSecurity;
+import static io.restassured.RestAssured.given;
+import io.restassured.http.ContentType;
+import io.restassured.response.ExtractableResponse;
+import io.restassured.response.Response;
+import jakarta.inject.Inject;
+
+/**
+ * Rows written directly stand in for keys used on another instance, so the outcome depends on the
+ * table alone and not on this instance's memory.
+ */
+@QuarkusTest
+@TestSecurity(user = "admin", roles = "ADMIN")
+public class IdempotencyStoreTest {
+
+    private static final String ROUTE = "POST /raw-materials";
+
+    @Inject
+    ObjectMapper objectMapper;
+
+    @Test
+    public void expiredResponse_shouldBeTreatedAsUnused() throws Exception {
+        String key = UUID.randomUUID().toString();
+        // An old response to a different request: replaying it, or rejecting the key as reused, would both be wrong.
+        insert(key, IdempotencyStore.hash(ROUTE, objectMapper.writeValueAsBytes(rawMaterial("Expired key other"))), 201,
+                null, LocalDateTime.now().minusMinutes(1));
+
+        given().contentType(ContentType.JSON).header(IdempotencyStore.HEADER, key).body(rawMaterial("Expired key reuse"))
+                .when().post("/raw-materials")
+                .then().statusCode(201)
+                .header(IdempotencyStore.REPLAYED_HEADER, nullValue())
+                .body("name", equalTo("Expired key reuse"));
+
+        given().contentType(ContentType.JSON).header(IdempotencyStore.HEADER, key).body(rawMaterial("Expired key reuse"))
+                .when().post("/raw-materials")
+                .then().statusCode(201)
+                .header(IdempotencyStore.REPLAYED_HEADER, "true");
+    }
+
+    @Test
+    public void keyClaimedElsewhere_shouldWaitForItsResponse() throws Exception {
+        String key = UUID.randomUUID().toString();
+        String keyHash = IdempotencyStore.hash("admin", key.getBytes(StandardCharsets.UTF_8));
+        RawMaterialRequest request = rawMaterial("Claimed elsewhere");
+        insert(key, IdempotencyStore.hash(ROUTE, objectMapper.writeValueAsBytes(request)), IdempotencyRecord.IN_PROGRESS,
+                LocalDateTime.now().plusMinutes(1), LocalDateTime.now().plusDays(1));
+
+        CompletableFuture<ExtractableResponse<Response>> duplicate = CompletableFuture.supplyAsync(() ->
+                given().contentType(ContentType.JSON).header(IdempotencyStore.HEADER, key).body(request)
+                        .when().post("/raw-materials")
+                        .then().extract());
+        Thread.sleep(300);
+        QuarkusTransaction.requiringNew().run(() -> {
+            IdempotencyRecord record = IdempotencyRecord.findById(keyHash);
+            record.status = 201;
+            record.body = "{\"name\":\"Made elsewhere\"}".getBytes(StandardCharsets.UTF_8);
+            record.claimId = null;
+            record.lockedUntil = null;
+        });
+
+        ExtractableResponse<Response> response = duplicate.get(10, TimeUnit.SECONDS);
+        assertEquals(201, response.statusCode());
+        assertEquals("true", response.header(IdempotencyStore.REPLAYED_HEADER));
+        assertEquals("Made elsewhere", response.path("name"));
+    }
+
+    private static RawMaterialRequest rawMaterial(String name) {
+        RawMaterialRequest request = new RawMaterialRequest();
+        request.name = name;
+        request.price = new BigDecimal("3.00");
+        request.stockQuantity = 10;
+        request.unit = "kg";
+        return request;
+    }
+
+    private static void insert(String key, String fingerprint, int status, LocalDateTime lockedUntil,
+                               LocalDateTime expiresAt) {
+        QuarkusTransaction.requiringNew().run(() -> {
+            IdempotencyRecord record = new IdempotencyRecord();
+            record.keyHash = IdempotencyStore.hash("admin", key.getBytes(StandardCharsets.UTF_8));
+            record.fingerprint = fingerprint;
+            record.status = status;
+            record.body = "{}".getBytes(StandardCharsets.UTF_8);
+            record.claimId = lockedUntil != null ? UUID.randomUUID() : null;
+            record.lockedUntil = lockedUntil;
+            record.expiresAt = expiresAt;
+            record.persist();
+        });
+    }
+}
@@ -0,0 +1,88 @@
+package com.duckstock.jfr;
+
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import org.junit.jupiter.api.Test;
+
+import com.duckstock.entity.Product;
+import com.duckstock.entity.ProductRawMaterial;
+import com.duckstock.entity.RawMaterial;
+import com.duckstock.service.SuggestionPlanner;
+
+import jdk.jfr.Name;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+
+class FlightRecordingTest {
+
+    private static final List<Class<?>> EVENTS = List.of(SuggestionComputationEvent.class, ProductionEvent.class,
+            BulkImportEvent.class, PasswordHashEvent.class, RateLimitRejectionEvent.class);
+
+    @Test
+    void settings_shouldEnableEveryApplicationEvent() throws Exception {
+        Map<String, String> settings = FlightRecording.settings().getSettings();
+
+        for (Class<?> event : EVENTS) {
+            String name = event.getAnnotation(Name.class).value();
+            assertEquals("true", settings.get(name + "#enabled"), name);
+        }
+        assertEquals("20 ms", settings.get("jdk.ExecutionSample#period"));
+    }
+
+    @Test
+    void plan_shouldBeRecordedWithTheShippedSettings() throws Exception {
+        List<Product> products = products(5);
+        Path file = Files.createTempFile("duckstock", ".jfr");
+        try (Recording recording = new Recording(FlightRecording.settings())) {
+            recording.start();
+            SuggestionPlanner.plan(products);
+            recording.stop();
+            recording.dump(file);
+
+            List<RecordedEvent> events = new ArrayList<>();
+            for (RecordedEvent event : RecordingFile.readAllEvents(file)) {
+                if (event.getEventType().getName().equals("com.duckstock.SuggestionComputation")) {
+                    events.add(event);
+                }
+            }
+            assertEquals(1, events.size());
+            RecordedEvent event = events.get(0);
+            assertEquals(SuggestionPlanner.STRATEGY, event.getString("strategy"));
+            assertEquals(5, event.getInt("products"));
+            assertEquals(5, event.getInt("materials"));
+            assertEquals(5, event.getInt("suggestions"));
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    private static List<Product> products(int count) {
+        List<Product> products = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            RawMaterial rawMaterial = new RawMaterial();
+            rawMaterial.id = UUID.randomUUID();
+            rawMaterial.stockQuantity = 10;
+
+            Product product = new Product();
+            product.id = UUID.randomUUID();
+            product.name = "Product " + i;
+            product.price = BigDecimal.TEN;
+
+            ProductRawMaterial composition = new ProductRawMaterial();
+            composition.product = product;
+            composition.rawMaterial = rawMaterial;
+            composition.quantityNeeded = 1;
+            product.rawMaterials = new ArrayList<>(List.of(composition));
+            products.add(product);
+        }
+        return products;
+    }
+}
@@ -0,0 +1,125 @@
+package com.duckstock.metrics;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import static org.mockito.Mockito.when;
+
+import com.duckstock.bulkhead.Bulkhead;
+import com.duckstock.bulkhead.Bulkheads;
+import com.duckstock.deadline.DeadlineFilter;
+import com.duckstock.deadline.DeadlineStats;
+import com.duckstock.entity.Product;
+import com.duckstock.entity.ProductRawMaterial;
+import com.duckstock.ratelimit.LoadSheddingFilter;
+import com.duckstock.ratelimit.WorkloadClass;
+import com.duckstock.security.PasswordEncoder;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class ServiceMetricsTest {
+
+    private SimpleMeterRegistry registry;
+    private ServiceMetrics metrics;
+
+    @BeforeEach
+    void setUp() {
+        registry = new SimpleMeterRegistry();
+        metrics = new ServiceMetrics();
+        metrics.registry = registry;
+        metrics.register();
+    }
+
+    @Test
+    void register_shouldCreateEveryMeterUpFront() {
+        assertEquals(2, registry.find("duckstock.rate.limit.decisions").counters().size());
+        assertEquals(4, registry.find("duckstock.password.hashing").timers().size());
+        assertEquals(1, registry.find("duckstock.suggestions.computation").timers().size());
+
+        int meters = registry.getMeters().size();
+        metrics.rateLimitDecision(false);
+        metrics.passwordVerified(PasswordEncoder.PBKDF2, 1_000);
+        assertEquals(meters, registry.getMeters().size(), "recording must not register new meters");
+    }
+
+    @Test
+    void suggestionsComputed_shouldRecordTimeAndWorkEvaluated() {
+        List<Product> products = List.of(product(3), product(0), new Product());
+
+        metrics.suggestionsComputed(products, TimeUnit.MILLISECONDS.toNanos(4));
+
+        assertEquals(4.0, registry.get("duckstock.suggestions.computation").timer().totalTime(TimeUnit.MILLISECONDS));
+        assertEquals(3.0, registry.get("duckstock.suggestions.products.evaluated").summary().totalAmount());
+        assertEquals(3.0, registry.get("duckstock.suggestions.materials.evaluated").summary().totalAmount());
+    }
+
+    @Test
+    void production_shouldCountUnitsAndDeductions() {
+        metrics.stockDeducted(6);
+        metrics.stockDeducted(4);
+        metrics.unitsProduced(2);
+
+        assertEquals(2.0, registry.get("duckstock.stock.deductions").counter().count());
+        assertEquals(10.0, registry.get("duckstock.stock.deducted").counter().count());
+        assertEquals(2.0, registry.get("duckstock.production.units").counter().count());
+    }
+
+    @Test
+    void decisionsAndHashes_shouldBeTaggedByOutcome() {
+        metrics.rateLimitDecision(true);
+        metrics.rateLimitDecision(true);
+        metrics.rateLimitDecision(false);
+        metrics.passwordHashed(PasswordEncoder.BCRYPT, 1_000);
+        metrics.passwordVerified(PasswordEncoder.PBKDF2, 1_000);
+
+        assertEquals(2.0, registry.get("duckstock.rate.limit.decisions").tag("decision", "allowed").counter().count());
+        assertEquals(1.0, registry.get("duckstock.rate.limit.decisions").tag("decision", "rejected").counter().count());
+        assertEquals(1, registry.get("duckstock.password.hashing")
+                .tags("algorithm", PasswordEncoder.BCRYPT, "operation", "hash").timer().count());
+        assertEquals(1, registry.get("duckstock.password.hashing")
+                .tags("algorithm", PasswordEncoder.PBKDF2, "operation", "verify").timer().count());
+        assertEquals(0, registry.get("duckstock.password.hashing")
+                .tags("algorithm", PasswordEncoder.BCRYPT, "operation", "verify").timer().count());
+    }
+
+    @Test
+    void registerStateMeters_shouldExportLoadSheddingBulkheadAndDeadlineCounters() {
+        metrics.loadShedding = Mockito.mock(LoadSheddingFilter.class);
+        when(metrics.loadShedding.limit()).thenReturn(48);
+        when(metrics.loadShedding.rejectedCount(WorkloadClass.PLANNING)).thenReturn(3L);
+        Bulkhead reads = new Bulkhead("bulkhead-reads", 2, 4, 1, "busy");
+        metrics.bulkheads = Mockito.mock(Bulkheads.class);
+        when(metrics.bulkheads.all()).thenReturn(List.of(reads));
+        metrics.deadlines = Mockito.mock(DeadlineFilter.class);
+        when(metrics.deadlines.counters()).thenReturn(new DeadlineStats());
+
+        metrics.registerStateMeters();
+
+        assertEquals(48.0, registry.get("duckstock.load.shedding.limit").gauge().value());
+        assertEquals(3.0, registry.get("duckstock.load.shedding.rejected")
+                .tag("workload", "planning").functionCounter().count());
+        assertEquals(0.0, registry.get("duckstock.bulkhead.queue.depth").tag("bulkhead", "bulkhead-reads").gauge().value());
+        assertEquals(0.0, registry.get("duckstock.bulkhead.active").tag("bulkhead", "bulkhead-reads").gauge().value());
+        assertEquals(0.0, registry.get("duckstock.bulkhead.rejected")
+                .tag("bulkhead", "bulkhead-reads").functionCounter().count());
+        assertEquals(0.0, registry.get("duckstock.bulkhead.pinned")
+                .tag("bulkhead", "bulkhead-reads").functionCounter().count());
+        assertEquals(3, registry.find("duckstock.deadline.skipped.work").functionCounters().size());
+        assertEquals(3, registry.find("duckstock.deadline.expired").functionCounters().size());
+        reads.shutdown();
+    }
+
+    private static Product product(int compositions) {
+        Product product = new Product();
+        product.rawMaterials = new ArrayList<>();
+        for (int i = 0; i < compositions; i++) {
+            product.rawMaterials.add(new ProductRawMaterial());
+        }
+        return product;
+    }
+}
@@ -0,0 +1,119 @@
+package com.duckstock.ratelimit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.Test;
+
+class AdaptiveConcurrencyLimitTest {
+
+    private static final long MILLI = 1_000_000;
+
+    @Test
+    void tryAcquire_shouldAdmitUpToTheShareOfTheLimit() {
+        AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(10, 1, 100, 0.9, 2.0);
+
+        for (int i = 0; i < 5; i++) {
+            assertTrue(limit.tryAcquire(0.5));
+        }
+        assertFalse(limit.tryAcquire(0.5), "planning share exhausted");
+        for (int i = 0; i < 5; i++) {
+            assertTrue(limit.tryAcquire(1.0));
+        }
+        assertFalse(limit.tryAcquire(1.0));
+        assertEquals(10, limit.inFlight());
+    }
+
+    @Test
+    void release_shouldGrowTheLimitWhileItIsInUseAndLatencyIsSteady() {
+        AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(10, 1, 100, 0.9, 2.0);
+        long now = 0;
+
+        for (int round = 0; round < 20; round++) {
+            int slots = limit.limit();
+            for (int i = 0; i < slots; i++) {
+                assertTrue(limit.tryAcquire(1.0));
+            }
+            for (int i = 0; i < slots; i++) {
+                now += MILLI;
+                limit.release(5 * MILLI, now);
+            }
+        }
+
+        assertEquals(100, limit.limit());
+    }
+
+    @Test
+    void release_shouldNotGrowAnIdleLimit() {
+        AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(10, 1, 100, 0.9, 2.0);
+
+        for (int i = 0; i < 1_000; i++) {
+            assertTrue(limit.tryAcquire(1.0));
+            limit.release(5 * MILLI, i * MILLI);
+        }
+
+        assertEquals(10, limit.limit());
+    }
+
+    @Test
+    void release_shouldBackOffWhenLatencyRises() {
+        AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(50, 5, 100, 0.9, 2.0);
+        long now = 0;
+        for (int i = 0; i < 200; i++) {
+            limit.tryAcquire(1.0);
+            limit.release(5 * MILLI, now += MILLI);
+        }
+
+        for (int i = 0; i < 50; i++) {
+            limit.tryAcquire(1.0);
+            limit.release(100 * MILLI, now += 100 * MILLI);
+        }
+
+        assertEquals(5, limit.limit());
+        assertTrue(limit.latencyNanos() > 2 * limit.baselineLatencyNanos());
+    }
+
+    @Test
+    void release_shouldBackOffAtMostOncePerRoundTrip() {
+        AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(50, 5, 100, 0.5, 2.0);
+        limit.poolWaiters(3);
+
+        long now = 10 * MILLI;
+        for (int i = 0; i < 10; i++) {
+            limit.tryAcquire(1.0);
+            limit.release(5 * MILLI, now); // ten samples completing at the same instant
+        }
+
+        assertEquals(25, limit.limit());
+    }
+
+    @Test
+    void release_shouldBackOffWhileRequestsWaitForAConnection() {
+        AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(50, 5, 100, 0.9, 2.0);
+        limit.poolWaiters(1);
+
+        long now = 0;
+        for (int i = 0; i < 100; i++) {
+            limit.tryAcquire(1.0);
+            limit.release(5 * MILLI, now += 10 * MILLI);
+        }
+
+        assertEquals(5, limit.limit());
+    }
+
+    @Test
+    void of_shouldClassifyRequests() {
+        assertEquals(WorkloadClass.AUTH, WorkloadClass.of("POST", "/auth/login"));
+        assertEquals(WorkloadClass.READ, WorkloadClass.of("GET", "/products"));
+        assertEquals(WorkloadClass.WRITE, WorkloadClass.of("PUT", "/raw-materials/1"));
+        assertEquals(WorkloadClass.PLANNING, WorkloadClass.of("GET", "/production/suggestions"));
+        assertEquals(WorkloadClass.WRITE, WorkloadClass.of("POST", "/production/confirm"));
+        assertEquals(WorkloadClass.WRITE, WorkloadClass.of("POST", "/production/create"));
+        assertEquals(WorkloadClass.PLANNING, WorkloadClass.of("GET", "/reactive/production/suggestions"));
+        assertEquals(WorkloadClass.READ, WorkloadClass.of("GET", "/reactive/products"));
+        assertNull(WorkloadClass.of("OPTIONS", "/products"));
+        assertNull(WorkloadClass.of("GET", "/changes/stream"));
+        assertNull(WorkloadClass.of("GET", "/q/health"));
+    }
+}
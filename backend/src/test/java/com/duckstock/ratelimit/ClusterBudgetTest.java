@@ -0,0 +1,129 @@
+package com.duckstock.ratelimit;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.Test;
+
+class ClusterBudgetTest {
+
+    private static final long WINDOW = TimeUnit.SECONDS.toNanos(60);
+    private static final long SYNC = TimeUnit.MILLISECONDS.toNanos(500);
+    private static final long START = 100 * WINDOW;
+
+    private final InMemoryUsageStore store = new InMemoryUsageStore();
+
+    @Test
+    void acquire_shouldHoldTheClusterToTheLimitWithinTheErrorBound() {
+        int instances = 4;
+        long limit = 300;
+        long localBudget = 10;
+        List<ClusterBudget> nodes = nodes(instances, limit, localBudget);
+
+        // Every instance tries as hard as it can, syncing every 500ms, for half a window.
+        long admitted = 0;
+        for (long now = START; now < START + WINDOW / 2; now += SYNC) {
+            for (ClusterBudget node : nodes) {
+                while (node.acquire("client", 1, now) >= 0) {
+                    admitted++;
+                }
+            }
+            for (ClusterBudget node : nodes) {
+                node.sync(now);
+            }
+        }
+
+        assertTrue(admitted >= limit, "should admit the whole limit, admitted " + admitted);
+        assertTrue(admitted <= limit + instances * localBudget, "admitted " + admitted);
+        assertEquals(admitted, store.total("client", START / WINDOW));
+    }
+
+    @Test
+    void acquire_shouldSeeUsageFromOtherInstancesAfterASync() {
+        List<ClusterBudget> nodes = nodes(2, 10, 10);
+        ClusterBudget first = nodes.get(0);
+        ClusterBudget second = nodes.get(1);
+
+        for (int i = 0; i < 8; i++) {
+            first.acquire("client", 1, START);
+        }
+        first.sync(START);
+        second.acquire("client", 1, START); // becomes known to the second instance
+        second.sync(START);
+
+        assertEquals(0, second.acquire("client", 1, START + 1));
+        assertTrue(second.acquire("client", 1, START + 2) < 0);
+    }
+
+    @Test
+    void acquire_shouldLimitEachInstanceToItsLocalBudgetBetweenSyncs() {
+        ClusterBudget node = nodes(1, 100, 5).get(0);
+
+        for (int i = 0; i < 5; i++) {
+            assertTrue(node.acquire("client", 1, START) >= 0);
+        }
+        assertTrue(node.acquire("client", 1, START) < 0);
+
+        node.sync(START);
+        assertTrue(node.acquire("client", 1, START + 1) >= 0);
+    }
+
+    @Test
+    void sync_shouldKeepUnsyncedUnitsWhenTheStoreFails() {
+        ClusterBudget node = nodes(1, 100, 5).get(0);
+        store.failing.set(true);
+
+        for (int i = 0; i < 5; i++) {
+            node.acquire("client", 1, START);
+        }
+        node.sync(START);
+
+        assertTrue(node.acquire("client", 1, START + 1) < 0, "the failed sync must not refill the local budget");
+
+        store.failing.set(false);
+        node.sync(START + SYNC);
+
+        assertEquals(5, store.total("client", START / WINDOW));
+        assertTrue(node.acquire("client", 1, START + SYNC + 1) >= 0);
+    }
+
+    @Test
+    void acquire_shouldCountUnitsBeingSyncedAgainstTheLimit() {
+        ClusterBudget node = nodes(1, 10, 10).get(0);
+        for (int i = 0; i < 8; i++) {
+            node.acquire("client", 1, START);
+        }
+        int[] admittedDuringSync = new int[1];
+        store.onAdd = () -> {
+            while (node.acquire("client", 1, START) >= 0) {
+                admittedDuringSync[0]++;
+            }
+        };
+
+        node.sync(START);
+
+        assertEquals(2, admittedDuringSync[0]);
+    }
+
+    @Test
+    void sync_shouldForgetIdleClients() {
+        ClusterBudget node = nodes(1, 100, 5).get(0);
+        node.acquire("client", 1, START);
+        node.sync(START);
+
+        node.sync(START + 3 * WINDOW);
+
+        assertEquals(0, node.trackedClients());
+    }
+
+    private List<ClusterBudget> nodes(int count, long limit, long localBudget) {
+        List<ClusterBudget> nodes = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            nodes.add(new ClusterBudget(store, limit, WINDOW, localBudget, 10_000));
+        }
+        return nodes;
+    }
+}
@@ -0,0 +1,88 @@
+package com.duckstock.ratelimit;
+
+import io.quarkus.test.junit.QuarkusTest;
+import jakarta.inject.Inject;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Several limiter instances sharing the Postgres store, each with its own request and sync
+ * threads, as separate replicas would run.
+ */
+@QuarkusTest
+public class ClusterRateLimitTest {
+
+    private static final int INSTANCES = 3;
+    private static final long LIMIT = 100;
+    private static final long LOCAL_BUDGET = 10;
+    private static final long WINDOW = TimeUnit.SECONDS.toNanos(60);
+
+    @Inject
+    PostgresUsageStore store;
+
+    @Test
+    public void testInstancesShareOneLimit() throws Exception {
+        String client = "cluster-test-" + UUID.randomUUID();
+        AtomicLong admitted = new AtomicLong();
+        AtomicBoolean running = new AtomicBoolean(true);
+        List<Thread> threads = new ArrayList<>();
+        List<ClusterBudget> instances = new ArrayList<>();
+
+        for (int i = 0; i < INSTANCES; i++) {
+            ClusterBudget instance = new ClusterBudget(store, LIMIT, WINDOW, LOCAL_BUDGET, 1000);
+            instances.add(instance);
+            threads.add(new Thread(() -> {
+                while (running.get()) {
+                    if (instance.acquire(client, 1, now()) >= 0) {
+                        admitted.incrementAndGet();
+                    }
+                    Thread.onSpinWait();
+                }
+            }));
+            threads.add(new Thread(() -> {
+                while (running.get()) {
+                    instance.sync(now());
+                    sleep(50);
+                }
+            }));
+        }
+
+        long window = now() / WINDOW;
+        threads.forEach(Thread::start);
+        sleep(2000);
+        running.set(false);
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        instances.forEach(instance -> instance.sync(now()));
+
+        assertTrue(admitted.get() >= LIMIT / 2, "admitted " + admitted.get());
+        assertTrue(admitted.get() <= LIMIT + INSTANCES * LOCAL_BUDGET, "admitted " + admitted.get());
+        if (now() / WINDOW == window) {
+            Map<String, UsageStore.Totals> totals = store.addAndGet(window, Map.of(), Set.of(client));
+            assertEquals(admitted.get(), totals.get(client).current());
+        }
+    }
+
+    private static long now() {
+        return TimeUnit.MILLISECONDS.toNanos(System.currentTimeMillis());
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
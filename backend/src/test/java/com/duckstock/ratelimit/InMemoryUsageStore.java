@@ -0,0 +1,45 @@
+package com.duckstock.ratelimit;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Shared store for running several {@link ClusterBudget} instances in one JVM.
+ */
+class InMemoryUsageStore implements UsageStore {
+
+    private final ConcurrentHashMap<String, Long> units = new ConcurrentHashMap<>();
+    final AtomicBoolean failing = new AtomicBoolean();
+    // Runs at the start of each addAndGet, standing in for requests admitted while a sync is in progress.
+    volatile Runnable onAdd = () -> { };
+
+    @Override
+    public Map<String, Totals> addAndGet(long window, Map<String, Long> deltas, Collection<String> keys) {
+        if (failing.get()) {
+            throw new IllegalStateException("store unavailable");
+        }
+        onAdd.run();
+        deltas.forEach((key, delta) -> units.merge(key + "@" + window, delta, Long::sum));
+        Map<String, Totals> totals = new HashMap<>();
+        for (String key : keys) {
+            long current = units.getOrDefault(key + "@" + window, 0L);
+            long previous = units.getOrDefault(key + "@" + (window - 1), 0L);
+            if (current > 0 || previous > 0) {
+                totals.put(key, new Totals(current, previous));
+            }
+        }
+        return totals;
+    }
+
+    @Override
+    public void purgeBefore(long window) {
+        units.keySet().removeIf(key -> Long.parseLong(key.substring(key.lastIndexOf('@') + 1)) < window);
+    }
+
+    long total(String key, long window) {
+        return units.getOrDefault(key + "@" + window, 0L);
+    }
+}
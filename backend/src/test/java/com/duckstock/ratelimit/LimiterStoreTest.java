@@ -0,0 +1,62 @@
+package com.duckstock.ratelimit;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongUnaryOperator;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.Test;
+
+class LimiterStoreTest {
+
+    private static final LongUnaryOperator INITIAL = now -> 42;
+    private static final long MAX_AGE = 1_000;
+
+    @Test
+    void stateFor_shouldReturnTheSameStateForAClient() {
+        LimiterStore store = new LimiterStore(100, MAX_AGE, 0);
+
+        AtomicLong state = store.stateFor("a", 0, INITIAL);
+
+        assertEquals(42, state.get());
+        assertSame(state, store.stateFor("a", 10, INITIAL));
+    }
+
+    @Test
+    void stateFor_shouldNeverHoldMoreThanTheCapacity() {
+        LimiterStore store = new LimiterStore(100, MAX_AGE, 0);
+
+        for (int i = 0; i < 100_000; i++) {
+            store.stateFor("client-" + i, 0, INITIAL);
+            assertTrue(store.size() <= 100, "size " + store.size());
+        }
+    }
+
+    @Test
+    void stateFor_shouldKeepClientsSeenInThePreviousGeneration() {
+        LimiterStore store = new LimiterStore(100, MAX_AGE, 0);
+        AtomicLong state = store.stateFor("active", 0, INITIAL);
+        state.set(7);
+
+        store.stateFor("newcomer", MAX_AGE, INITIAL); // rotates
+        assertEquals(1, store.rotations());
+
+        assertSame(state, store.stateFor("active", MAX_AGE + 1, INITIAL));
+        store.stateFor("another", 2 * MAX_AGE, INITIAL); // rotates again, "active" was carried forward
+        assertSame(state, store.stateFor("active", 2 * MAX_AGE + 1, INITIAL));
+    }
+
+    @Test
+    void stateFor_shouldForgetClientsIdleForTwoGenerations() {
+        LimiterStore store = new LimiterStore(100, MAX_AGE, 0);
+        AtomicLong state = store.stateFor("idle", 0, INITIAL);
+
+        store.stateFor("x", MAX_AGE, INITIAL);
+        store.stateFor("y", 2 * MAX_AGE, INITIAL);
+
+        assertNotSame(state, store.stateFor("idle", 2 * MAX_AGE + 1, INITIAL));
+        assertEquals(2, store.rotations());
+    }
+}
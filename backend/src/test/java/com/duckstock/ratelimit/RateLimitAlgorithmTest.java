@@ -0,0 +1,134 @@
+package com.duckstock.ratelimit;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+class RateLimitAlgorithmTest {
+
+    private static final long WINDOW = TimeUnit.SECONDS.toNanos(60);
+    private static final long START = TimeUnit.SECONDS.toNanos(600);
+
+    @ParameterizedTest
+    @ValueSource(strings = {"token-bucket", "sliding-window", "gcra"})
+    void acquire_shouldAllowTheLimitThenRejectWithAWait(String name) {
+        RateLimitAlgorithm algorithm = RateLimitAlgorithm.create(name, 10, WINDOW);
+        AtomicLong state = new AtomicLong(algorithm.initialState(START));
+
+        for (int i = 9; i >= 0; i--) {
+            assertEquals(i, algorithm.acquire(state, 1, START));
+        }
+        long rejected = algorithm.acquire(state, 1, START);
+        assertTrue(rejected < 0);
+        assertTrue(-rejected <= 2 * WINDOW, "wait should not exceed two windows");
+
+        assertTrue(algorithm.acquire(state, 1, START - rejected) >= 0, "allowed once the wait has passed");
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"token-bucket", "sliding-window", "gcra"})
+    void acquire_shouldChargeTheRouteCost(String name) {
+        RateLimitAlgorithm algorithm = RateLimitAlgorithm.create(name, 10, WINDOW);
+        AtomicLong state = new AtomicLong(algorithm.initialState(START));
+
+        assertEquals(5, algorithm.acquire(state, 5, START));
+        assertEquals(0, algorithm.acquire(state, 5, START));
+        assertTrue(algorithm.acquire(state, 1, START) < 0);
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"token-bucket", "sliding-window", "gcra"})
+    void resetNanos_shouldBeZeroOnlyWhenTheAllowanceIsFull(String name) {
+        RateLimitAlgorithm algorithm = RateLimitAlgorithm.create(name, 10, WINDOW);
+        AtomicLong state = new AtomicLong(algorithm.initialState(START));
+        assertEquals(0, algorithm.resetNanos(state.get(), START));
+
+        algorithm.acquire(state, 1, START);
+        long reset = algorithm.resetNanos(state.get(), START);
+        assertTrue(reset > 0 && reset <= 2 * WINDOW);
+        assertEquals(0, algorithm.resetNanos(state.get(), START + 2 * WINDOW));
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"token-bucket", "sliding-window", "gcra"})
+    void acquire_shouldNeverAllowMoreThanTheLimitUnderContention(String name) throws Exception {
+        RateLimitAlgorithm algorithm = RateLimitAlgorithm.create(name, 1000, WINDOW);
+        AtomicLong state = new AtomicLong(algorithm.initialState(START));
+        AtomicInteger allowed = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+
+        List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < 8; t++) {
+            threads.add(new Thread(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    return;
+                }
+                for (int i = 0; i < 500; i++) {
+                    if (algorithm.acquire(state, 1, START) >= 0) {
+                        allowed.incrementAndGet();
+                    }
+                }
+            }));
+        }
+        threads.forEach(Thread::start);
+        start.countDown();
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        assertEquals(1000, allowed.get());
+    }
+
+    @Test
+    void slidingWindow_shouldNotAllowTwiceTheLimitAcrossABoundary() {
+        RateLimitAlgorithm algorithm = RateLimitAlgorithm.create("sliding-window", 10, WINDOW);
+        long endOfWindow = 11 * WINDOW - 1;
+        AtomicLong state = new AtomicLong(algorithm.initialState(endOfWindow));
+
+        for (int i = 0; i < 10; i++) {
+            algorithm.acquire(state, 1, endOfWindow);
+        }
+
+        // A fixed window would hand out another 10 here.
+        assertTrue(algorithm.acquire(state, 1, endOfWindow + 2) < 0);
+        assertTrue(algorithm.acquire(state, 1, endOfWindow + WINDOW / 2) >= 0);
+    }
+
+    @Test
+    void tokenBucket_shouldRefillAtTheConfiguredRate() {
+        RateLimitAlgorithm algorithm = RateLimitAlgorithm.create("token-bucket", 60, WINDOW);
+        AtomicLong state = new AtomicLong(algorithm.initialState(START));
+        algorithm.acquire(state, 60, START);
+
+        long tenSecondsLater = START + TimeUnit.SECONDS.toNanos(10);
+        assertEquals(9, algorithm.acquire(state, 1, tenSecondsLater));
+    }
+
+    @Test
+    void gcra_shouldSpaceRequestsByTheEmissionInterval() {
+        RateLimitAlgorithm algorithm = RateLimitAlgorithm.create("gcra", 60, WINDOW);
+        AtomicLong state = new AtomicLong(algorithm.initialState(START));
+        algorithm.acquire(state, 60, START);
+
+        long rejected = algorithm.acquire(state, 1, START);
+        assertEquals(TimeUnit.SECONDS.toNanos(1), -rejected);
+    }
+
+    @Test
+    void create_shouldRejectUnknownAlgorithms() {
+        assertThrows(IllegalStateException.class, () -> RateLimitAlgorithm.create("fixed-window", 10, WINDOW));
+        assertThrows(IllegalStateException.class, () -> RateLimitAlgorithm.create("sliding-window", 100_000, WINDOW));
+    }
+}
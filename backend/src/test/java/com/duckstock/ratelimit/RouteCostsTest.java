@@ -0,0 +1,51 @@
+package com.duckstock.ratelimit;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import org.junit.jupiter.api.Test;
+
+class RouteCostsTest {
+
+    @Test
+    void costOf_shouldUseTheLongestMatchingPrefix() {
+        RouteCosts costs = RouteCosts.parse(List.of(
+                "GET /products=2", "GET /products/export=8", "* /production=3", "POST /production/confirm=10"));
+
+        assertEquals(2, costs.costOf("GET", "/products/123"));
+        assertEquals(8, costs.costOf("GET", "/products/export"));
+        assertEquals(10, costs.costOf("POST", "/production/confirm"));
+        assertEquals(3, costs.costOf("GET", "/production/suggestions"));
+        assertEquals(1, costs.costOf("DELETE", "/products/123"));
+    }
+
+    @Test
+    void costOf_shouldOnlyMatchWholePathSegments() {
+        RouteCosts costs = RouteCosts.parse(List.of("GET /product=4"));
+
+        assertEquals(4, costs.costOf("GET", "/product"));
+        assertEquals(1, costs.costOf("GET", "/production/suggestions"));
+    }
+
+    @Test
+    void costOf_shouldReturnTheFallbackForUnmatchedRequests() {
+        RouteCosts timeouts = RouteCosts.parse(List.of("GET /production/suggestions=10000"), "route timeout", 0);
+
+        assertEquals(10000, timeouts.costOf("GET", "/production/suggestions"));
+        assertEquals(0, timeouts.costOf("GET", "/products"));
+    }
+
+    @Test
+    void maxCost_shouldIncludeTheFallback() {
+        assertEquals(10, RouteCosts.parse(List.of("GET /products=2", "POST /production/confirm=10")).maxCost());
+        assertEquals(1, RouteCosts.parse(List.of("GET /products=0")).maxCost());
+    }
+
+    @Test
+    void parse_shouldRejectMalformedEntries() {
+        assertThrows(IllegalStateException.class, () -> RouteCosts.parse(List.of("/products=2")));
+        assertThrows(IllegalStateException.class, () -> RouteCosts.parse(List.of("GET /products=many")));
+        assertThrows(IllegalStateException.class, () -> RouteCosts.parse(List.of("GET /products=-1")));
+    }
+}
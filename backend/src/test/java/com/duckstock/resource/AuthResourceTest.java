@@ -136,4 +136,97 @@ public class AuthResourceTest {
                 .then()
                 .statusCode(400);
     }
+
+    @Test
+    @Order(9)
+    public void testRefreshRotatesTokenAndRevokesFamilyOnReuse() {
+        String first = loginRefreshCookie();
+
+        String second = given()
+                .cookie("jwt_token", first)
+                .when()
+                .post("/auth/refresh")
+                .then()
+                .statusCode(200)
+                .cookie("jwt_token", notNullValue())
+                .extract().cookie("jwt_token");
+
+        // Replaying the consumed token is treated as theft...
+        given()
+                .cookie("jwt_token", first)
+                .when()
+                .post("/auth/refresh")
+                .then()
+                .statusCode(401);
+
+        // ...and cuts off the token that was rotated from it as well.
+        given()
+                .cookie("jwt_token", second)
+                .when()
+                .post("/auth/refresh")
+                .then()
+                .statusCode(401);
+    }
+
+    @Test
+    @Order(10)
+    public void testLogoutRevokesRefreshToken() {
+        String token = loginRefreshCookie();
+
+        given()
+                .cookie("jwt_token", token)
+                .when()
+                .post("/auth/logout")
+                .then()
+                .statusCode(200);
+
+        given()
+                .cookie("jwt_token", token)
+                .when()
+                .post("/auth/refresh")
+                .then()
+                .statusCode(401);
+    }
+
+    @Test
+    @Order(11)
+    public void testRepeatedFailedLoginsAreThrottled() {
+        LoginRequest request = new LoginRequest();
+        request.email = "throttled@duckstock.com";
+        request.password = "wrong-password";
+
+        for (int i = 0; i < 5; i++) {
+            given()
+                    .contentType(ContentType.JSON)
+                    .body(request)
+                    .when()
+                    .post("/auth/login")
+                    .then()
+                    .statusCode(401);
+        }
+
+        given()
+                .contentType(ContentType.JSON)
+                .body(request)
+                .when()
+                .post("/auth/login")
+                .then()
+                .statusCode(429)
+                .header("Retry-After", notNullValue());
+    }
+
+    private String loginRefreshCookie() {
+        LoginRequest request = new LoginRequest();
+        request.email = "authtest@duckstock.com";
+        request.password = "password123";
+
+        return given()
+                .contentType(ContentType.JSON)
+                .body(request)
+                .when()
+                .post("/auth/login")
+                .then()
+                .statusCode(200)
+                .extract().cookie("jwt_token");
+    }
 }
@@ -0,0 +1,89 @@
+package com.duckstock.resource;
+
+import com.duckstock.dto.rawmaterial.RawMaterialRequest;
+import io.quarkus.test.junit.QuarkusTest;
+import io.quarkus.test.security.TestSecurity;
+import io.restassured.http.ContentType;
+import java.math.BigDecimal;
+import org.junit.jupiter.api.Test;
+
+import static io.restassured.RestAssured.given;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.not;
+import static org.hamcrest.CoreMatchers.notNullValue;
+
+@QuarkusTest
+@TestSecurity(user = "test-user", roles = "USER")
+public class ConditionalGetTest {
+
+    @Test
+    public void testUnchangedRawMaterialReturnsNotModified() {
+        String id = createRawMaterial("Conditional Flour");
+
+        String etag = given()
+                .when()
+                .get("/raw-materials/" + id)
+                .then()
+                .statusCode(200)
+                .header("ETag", notNullValue())
+                .extract().header("ETag");
+
+        given()
+                .header("If-None-Match", etag)
+                .when()
+                .get("/raw-materials/" + id)
+                .then()
+                .statusCode(304)
+                .header("ETag", is(etag));
+    }
+
+    @Test
+    public void testWriteInvalidatesListAndSuggestionTags() {
+        String id = createRawMaterial("Conditional Sugar");
+        String listTag = given().when().get("/raw-materials").then().statusCode(200).extract().header("ETag");
+        String suggestionTag = given().when().get("/production/suggestions").then().statusCode(200).extract().header("ETag");
+
+        RawMaterialRequest update = new RawMaterialRequest();
+        update.stockQuantity = 42;
+        given()
+                .contentType(ContentType.JSON)
+                .body(update)
+                .when()
+                .put("/raw-materials/" + id)
+                .then()
+                .statusCode(200);
+
+        given()
+                .header("If-None-Match", listTag)
+                .when()
+                .get("/raw-materials")
+                .then()
+                .statusCode(200)
+                .header("ETag", not(listTag));
+
+        given()
+                .header("If-None-Match", suggestionTag)
+                .when()
+                .get("/production/suggestions")
+                .then()
+                .statusCode(200)
+                .header("ETag", not(suggestionTag));
+    }
+
+    private String createRawMaterial(String name) {
+        RawMaterialRequest request = new RawMaterialRequest();
+        request.name = name;
+        request.price = new BigDecimal("2.00");
+        request.stockQuantity = 10;
+        request.unit = "kg";
+
+        return given()
+                .contentType(ContentType.JSON)
+                .body(request)
+                .when()
+                .post("/raw-materials")
+                .then()
+                .statusCode(201)
+                .extract().path("id");
+    }
+}
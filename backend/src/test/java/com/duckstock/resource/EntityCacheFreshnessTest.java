@@ -0,0 +1,211 @@
+package com.duckstock.resource;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.hibernate.SessionFactory;
+import org.hibernate.query.NativeQuery;
+import org.junit.jupiter.api.Test;
+
+import com.duckstock.dto.common.PageResponse;
+import com.duckstock.dto.product.ProductRawMaterialRequest;
+import com.duckstock.dto.product.ProductRequest;
+import com.duckstock.dto.product.ProductResponse;
+import com.duckstock.dto.rawmaterial.RawMaterialRequest;
+import com.duckstock.dto.rawmaterial.RawMaterialResponse;
+import com.duckstock.entity.IdempotencyRecord;
+import com.duckstock.entity.Product;
+import com.duckstock.entity.RawMaterial;
+import com.duckstock.idempotency.IdempotencyStore;
+import com.duckstock.service.ProductService;
+import com.duckstock.service.RawMaterialService;
+
+import io.quarkus.narayana.jta.QuarkusTransaction;
+import io.quarkus.test.junit.QuarkusTest;
+import io.quarkus.test.security.TestSecurity;
+import static io.restassured.RestAssured.given;
+import io.restassured.http.ContentType;
+import jakarta.inject.Inject;
+
+/**
+ * Catalog entities, the product compositions and the list queries are kept in Hibernate's
+ * second-level and query caches. Reads go through the services, below the response cache, so
+ * each read after a write shows whether those caches were invalidated.
+ */
+@QuarkusTest
+@TestSecurity(user = "admin", roles = "ADMIN")
+public class EntityCacheFreshnessTest {
+
+    @Inject
+    RawMaterialService rawMaterialService;
+
+    @Inject
+    ProductService productService;
+
+    @Inject
+    SessionFactory sessionFactory;
+
+    @Test
+    public void rawMaterialReads_shouldSeeEveryWrite() {
+        UUID id = UUID.fromString(createRawMaterial("Freshness oak", 10));
+
+        assertEquals(10, rawMaterialService.findById(id).stockQuantity);
+        assertEquals(10, listed(id).stockQuantity);
+        assertEquals(10, searched("Freshness oak", id).stockQuantity);
+        assertTrue(sessionFactory.getCache().containsEntity(RawMaterial.class, id));
+
+        given().contentType(ContentType.JSON).body(rawMaterial("Freshness walnut", 25))
+                .when().put("/raw-materials/" + id)
+                .then().statusCode(200);
+
+        assertEquals(25, rawMaterialService.findById(id).stockQuantity);
+        assertEquals("Freshness walnut", listed(id).name);
+        assertEquals(25, listed(id).stockQuantity);
+        assertEquals(25, searched("Freshness walnut", id).stockQuantity);
+        assertEquals(0, rawMaterialService.listAll(0, 10, "Freshness oak").totalElements);
+
+        given().when().delete("/raw-materials/" + id).then().statusCode(204);
+
+        assertTrue(rawMaterialService.listAllNoPagination().stream().noneMatch(rawMaterial -> rawMaterial.id.equals(id)));
+        assertEquals(0, rawMaterialService.listAll(0, 10, "Freshness walnut").totalElements);
+    }
+
+    @Test
+    public void productReads_shouldSeeCompositionChanges() {
+        String rawMaterialId = createRawMaterial("Freshness screw", 100);
+        ProductRequest request = new ProductRequest();
+        request.name = "Freshness shelf";
+        request.price = new BigDecimal("30.00");
+        request.stockQuantity = 0;
+        UUID productId = UUID.fromString(given().contentType(ContentType.JSON).body(request)
+                .when().post("/products")
+                .then().statusCode(201)
+                .extract().path("id"));
+
+        assertTrue(productService.findById(productId).rawMaterials.isEmpty());
+        assertTrue(sessionFactory.getCache().containsEntity(Product.class, productId));
+
+        ProductRawMaterialRequest composition = new ProductRawMaterialRequest();
+        composition.rawMaterialId = UUID.fromString(rawMaterialId);
+        composition.quantityNeeded = 2;
+        given().contentType(ContentType.JSON).body(List.of(composition))
+                .when().post("/products/" + productId + "/raw-materials")
+                .then().statusCode(201);
+
+        ProductResponse product = productService.findById(productId);
+        assertEquals(1, product.rawMaterials.size());
+        assertEquals(2, product.rawMaterials.get(0).quantityNeeded);
+        UUID associationId = product.rawMaterials.get(0).id;
+
+        composition.quantityNeeded = 7;
+        given().contentType(ContentType.JSON).body(composition)
+                .when().put("/products/" + productId + "/raw-materials/" + associationId)
+                .then().statusCode(200);
+
+        assertEquals(7, productService.findById(productId).rawMaterials.get(0).quantityNeeded);
+        PageResponse<ProductResponse> page = productService.listAll(0, 10, "Freshness shelf");
+        assertEquals(1, page.totalElements);
+        assertEquals(7, page.content.get(0).rawMaterials.get(0).quantityNeeded);
+
+        given().contentType(ContentType.JSON).body(Map.of("productId", productId, "quantity", 3))
+                .when().post("/production/create")
+                .then().statusCode(200);
+
+        assertEquals(79, rawMaterialService.findById(UUID.fromString(rawMaterialId)).stockQuantity);
+        assertEquals(79, productService.findById(productId).rawMaterials.get(0).rawMaterialStockQuantity);
+
+        given().when().delete("/products/" + productId + "/raw-materials/" + associationId)
+                .then().statusCode(200);
+
+        assertTrue(productService.findById(productId).rawMaterials.isEmpty());
+    }
+
+    @Test
+    public void production_shouldDeductFromStockWrittenElsewhere() {
+        String rawMaterialId = createRawMaterial("Freshness plank", 100);
+        UUID productId = createProductOf("Freshness stool", rawMaterialId, 2);
+        rawMaterialService.findById(UUID.fromString(rawMaterialId));
+        assertTrue(sessionFactory.getCache().containsEntity(RawMaterial.class, UUID.fromString(rawMaterialId)));
+
+        // Another replica's production leaves this instance's cached stock stale.
+        QuarkusTransaction.requiringNew().run(() -> RawMaterial.getEntityManager()
+                .createNativeQuery("update raw_materials set stock_quantity = 10 where id = ?1")
+                .unwrap(NativeQuery.class)
+                .addSynchronizedEntityClass(IdempotencyRecord.class)
+                .setParameter(1, UUID.fromString(rawMaterialId))
+                .executeUpdate());
+
+        given().contentType(ContentType.JSON).body(Map.of("productId", productId, "quantity", 3))
+                .when().post("/production/create")
+                .then().statusCode(200);
+
+        assertEquals(4, rawMaterialService.findById(UUID.fromString(rawMaterialId)).stockQuantity);
+    }
+
+    @Test
+    public void idempotencyBookkeeping_shouldNotEvictCatalogEntities() {
+        UUID id = UUID.fromString(createRawMaterial("Freshness hinge", 40));
+        rawMaterialService.findById(id);
+        assertTrue(sessionFactory.getCache().containsEntity(RawMaterial.class, id));
+
+        // Claiming and completing a key are native updates of another table.
+        given().contentType(ContentType.JSON)
+                .header(IdempotencyStore.HEADER, UUID.randomUUID().toString())
+                .body(rawMaterial("Freshness latch", 5))
+                .when().post("/raw-materials")
+                .then().statusCode(201);
+
+        assertTrue(sessionFactory.getCache().containsEntity(RawMaterial.class, id));
+    }
+
+    private static RawMaterialRequest rawMaterial(String name, int stock) {
+        RawMaterialRequest request = new RawMaterialRequest();
+        request.name = name;
+        request.price = new BigDecimal("1.50");
+        request.stockQuantity = stock;
+        request.unit = "un";
+        return request;
+    }
+
+    private static String createRawMaterial(String name, int stock) {
+        return given().contentType(ContentType.JSON).body(rawMaterial(name, stock))
+                .when().post("/raw-materials")
+                .then().statusCode(201)
+                .extract().path("id");
+    }
+
+    private static UUID createProductOf(String name, String rawMaterialId, int quantityNeeded) {
+        ProductRequest request = new ProductRequest();
+        request.name = name;
+        request.price = new BigDecimal("12.00");
+        request.stockQuantity = 0;
+        String productId = given().contentType(ContentType.JSON).body(request)
+                .when().post("/products")
+                .then().statusCode(201)
+                .extract().path("id");
+
+        ProductRawMaterialRequest composition = new ProductRawMaterialRequest();
+        composition.rawMaterialId = UUID.fromString(rawMaterialId);
+        composition.quantityNeeded = quantityNeeded;
+        given().contentType(ContentType.JSON).body(List.of(composition))
+                .when().post("/products/" + productId + "/raw-materials")
+                .then().statusCode(201);
+        return UUID.fromString(productId);
+    }
+
+    private RawMaterialResponse listed(UUID id) {
+        return rawMaterialService.listAllNoPagination().stream()
+                .filter(rawMaterial -> rawMaterial.id.equals(id))
+                .findFirst().orElseThrow();
+    }
+
+    private RawMaterialResponse searched(String name, UUID id) {
+        return rawMaterialService.listAll(0, 10, name).content.stream()
+                .filter(rawMaterial -> rawMaterial.id.equals(id))
+                .findFirst().orElseThrow();
+    }
+}
@@ -0,0 +1,172 @@
+package com.duckstock.resource;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.hamcrest.Matchers.equalTo;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import org.junit.jupiter.api.MethodOrderer;
+import org.junit.jupiter.api.Order;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestMethodOrder;
+
+import com.duckstock.dto.product.ProductRawMaterialRequest;
+import com.duckstock.dto.product.ProductRequest;
+import com.duckstock.dto.rawmaterial.RawMaterialRequest;
+import com.duckstock.idempotency.IdempotencyStore;
+
+import io.quarkus.test.junit.QuarkusTest;
+import io.quarkus.test.security.TestSecurity;
+import static io.restassured.RestAssured.given;
+import io.restassured.http.ContentType;
+import io.restassured.response.ExtractableResponse;
+import io.restassured.response.Response;
+
+@QuarkusTest
+@TestMethodOrder(MethodOrderer.OrderAnnotation.class)
+@TestSecurity(user = "admin", roles = "ADMIN")
+public class IdempotencyKeyTest {
+
+    private static String rawMaterialId;
+    private static String productId;
+
+    @Test
+    @Order(1)
+    public void setUp() {
+        RawMaterialRequest rawMaterial = new RawMaterialRequest();
+        rawMaterial.name = "Idempotency steel";
+        rawMaterial.price = new BigDecimal("2.00");
+        rawMaterial.stockQuantity = 100;
+        rawMaterial.unit = "kg";
+        rawMaterialId = given().contentType(ContentType.JSON).body(rawMaterial)
+                .when().post("/raw-materials")
+                .then().statusCode(201)
+                .extract().path("id");
+
+        ProductRequest product = new ProductRequest();
+        product.name = "Idempotency bracket";
+        product.price = new BigDecimal("9.00");
+        product.stockQuantity = 0;
+        productId = given().contentType(ContentType.JSON).body(product)
+                .when().post("/products")
+                .then().statusCode(201)
+                .extract().path("id");
+
+        ProductRawMaterialRequest composition = new ProductRawMaterialRequest();
+        composition.rawMaterialId = UUID.fromString(rawMaterialId);
+        composition.quantityNeeded = 1;
+        given().contentType(ContentType.JSON).body(List.of(composition))
+                .when().post("/products/" + productId + "/raw-materials")
+                .then().statusCode(201);
+    }
+
+    @Test
+    @Order(2)
+    public void retriedProduction_shouldReplayTheResponseWithoutProducingAgain() {
+        String key = UUID.randomUUID().toString();
+
+        ExtractableResponse<Response> first = produce(key, 3);
+        ExtractableResponse<Response> retry = produce(key, 3);
+
+        assertEquals(200, first.statusCode());
+        assertEquals(200, retry.statusCode());
+        assertEquals(first.asString(), retry.asString());
+        assertNull(first.header(IdempotencyStore.REPLAYED_HEADER));
+        assertEquals("true", retry.header(IdempotencyStore.REPLAYED_HEADER));
+        assertStock(3, 97);
+    }
+
+    @Test
+    @Order(3)
+    public void reusedKey_shouldBeRejectedForADifferentRequest() {
+        String key = UUID.randomUUID().toString();
+        assertEquals(200, produce(key, 1).statusCode());
+
+        given().contentType(ContentType.JSON)
+                .header(IdempotencyStore.HEADER, key)
+                .body(Map.of("productId", productId, "quantity", 2))
+                .when().post("/production/create")
+                .then().statusCode(400);
+        assertStock(4, 96);
+    }
+
+    @Test
+    @Order(4)
+    public void concurrentDuplicates_shouldWaitForTheFirstExecution() throws Exception {
+        String key = UUID.randomUUID().toString();
+        ExecutorService clients = Executors.newFixedThreadPool(8);
+        try {
+            List<CompletableFuture<ExtractableResponse<Response>>> responses = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                responses.add(CompletableFuture.supplyAsync(() -> produce(key, 5), clients));
+            }
+
+            int executed = 0;
+            String body = null;
+            for (CompletableFuture<ExtractableResponse<Response>> response : responses) {
+                ExtractableResponse<Response> result = response.get();
+                assertEquals(200, result.statusCode());
+                if (result.header(IdempotencyStore.REPLAYED_HEADER) == null) {
+                    executed++;
+                }
+                if (body != null) {
+                    assertEquals(body, result.asString());
+                }
+                body = result.asString();
+            }
+            assertEquals(1, executed);
+        } finally {
+            clients.shutdown();
+        }
+        assertStock(9, 91);
+    }
+
+    @Test
+    @Order(5)
+    public void retriedCreate_shouldReturnTheSameProduct() {
+        String key = UUID.randomUUID().toString();
+        ProductRequest product = new ProductRequest();
+        product.name = "IdempotencyHinge";
+        product.price = new BigDecimal("4.00");
+        product.stockQuantity = 0;
+
+        String first = given().contentType(ContentType.JSON).header(IdempotencyStore.HEADER, key).body(product)
+                .when().post("/products")
+                .then().statusCode(201)
+                .extract().path("id");
+        given().contentType(ContentType.JSON).header(IdempotencyStore.HEADER, key).body(product)
+                .when().post("/products")
+                .then().statusCode(201)
+                .header(IdempotencyStore.REPLAYED_HEADER, "true")
+                .body("id", equalTo(first));
+
+        given().queryParam("search", "IdempotencyHinge")
+                .when().get("/products")
+                .then().statusCode(200)
+                .body("totalElements", equalTo(1));
+    }
+
+    private static ExtractableResponse<Response> produce(String key, int quantity) {
+        return given().contentType(ContentType.JSON)
+                .header(IdempotencyStore.HEADER, key)
+                .body(Map.of("productId", productId, "quantity", quantity))
+                .when().post("/production/create")
+                .then().extract();
+    }
+
+    private static void assertStock(int productStock, int rawMaterialStock) {
+        given().when().get("/products/" + productId)
+                .then().statusCode(200)
+                .body("stockQuantity", equalTo(productStock));
+        given().when().get("/raw-materials/" + rawMaterialId)
+                .then().statusCode(200)
+                .body("stockQuantity", equalTo(rawMaterialStock));
+    }
+}
@@ -0,0 +1,78 @@
+package com.duckstock.resource;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.UUID;
+
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.hasSize;
+import org.junit.jupiter.api.MethodOrderer;
+import org.junit.jupiter.api.Order;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestMethodOrder;
+
+import com.duckstock.diagnostics.SqlBudget;
+import com.duckstock.dto.product.ProductRawMaterialRequest;
+import com.duckstock.dto.product.ProductRequest;
+import com.duckstock.dto.rawmaterial.RawMaterialRequest;
+
+import io.quarkus.test.junit.QuarkusTest;
+import io.quarkus.test.security.TestSecurity;
+import static io.restassured.RestAssured.given;
+import io.restassured.http.ContentType;
+
+/**
+ * Listing a page of products must load their compositions in batches, not one query per product.
+ */
+@QuarkusTest
+@TestMethodOrder(MethodOrderer.OrderAnnotation.class)
+@TestSecurity(user = "admin", roles = "ADMIN")
+public class ProductListingSqlBudgetTest {
+
+    private static final int PRODUCTS = 12;
+
+    @Test
+    @Order(1)
+    public void setUp() {
+        for (int i = 0; i < PRODUCTS; i++) {
+            RawMaterialRequest rawMaterial = new RawMaterialRequest();
+            rawMaterial.name = "SqlBudget material " + i;
+            rawMaterial.price = new BigDecimal("1.00");
+            rawMaterial.stockQuantity = 50;
+            rawMaterial.unit = "kg";
+            String rawMaterialId = given().contentType(ContentType.JSON).body(rawMaterial)
+                    .when().post("/raw-materials")
+                    .then().statusCode(201)
+                    .extract().path("id");
+
+            ProductRequest product = new ProductRequest();
+            product.name = "SqlBudget product " + i;
+            product.price = new BigDecimal("10.00");
+            product.stockQuantity = 0;
+            String productId = given().contentType(ContentType.JSON).body(product)
+                    .when().post("/products")
+                    .then().statusCode(201)
+                    .extract().path("id");
+
+            ProductRawMaterialRequest composition = new ProductRawMaterialRequest();
+            composition.rawMaterialId = UUID.fromString(rawMaterialId);
+            composition.quantityNeeded = 2;
+            given().contentType(ContentType.JSON).body(List.of(composition))
+                    .when().post("/products/" + productId + "/raw-materials")
+                    .then().statusCode(201);
+        }
+    }
+
+    @Test
+    @Order(2)
+    @SqlBudget(maxStatements = 10, maxRepeats = 3)
+    public void listingProducts_shouldNotLoadCompositionsOnePerProduct() {
+        given().queryParam("search", "SqlBudget product")
+                .queryParam("size", PRODUCTS)
+                .when().get("/products")
+                .then().statusCode(200)
+                .body("totalElements", equalTo(PRODUCTS))
+                .body("content", hasSize(PRODUCTS))
+                .body("content[0].rawMaterials", hasSize(1));
+    }
+}
@@ -0,0 +1,55 @@
+package com.duckstock.resource;
+
+import io.quarkus.test.junit.QuarkusTest;
+import io.quarkus.test.security.TestSecurity;
+import io.restassured.response.Response;
+import org.junit.jupiter.api.Test;
+
+import static io.restassured.RestAssured.given;
+import static org.hamcrest.CoreMatchers.notNullValue;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@QuarkusTest
+@TestSecurity(user = "test-user", roles = "USER")
+public class RateLimitHeadersTest {
+
+    @Test
+    public void testResponsesCarryRateLimitHeaders() {
+        Response first = get("/raw-materials/all");
+        Response second = get("/raw-materials/all");
+
+        // The allowance refills continuously, so only an upper bound is exact.
+        int limit = Integer.parseInt(first.getHeader("RateLimit-Limit"));
+        int remaining = Integer.parseInt(first.getHeader("RateLimit-Remaining"));
+        assertTrue(remaining < limit);
+        assertTrue(Integer.parseInt(second.getHeader("RateLimit-Remaining")) <= remaining);
+        assertTrue(first.getHeader("RateLimit-Policy").endsWith(";w=" + windowOf(first)));
+    }
+
+    @Test
+    public void testExpensiveRoutesCostMore() {
+        Response before = get("/raw-materials/all");
+        get("/production/suggestions");
+        Response after = get("/raw-materials/all");
+
+        int spent = Integer.parseInt(before.getHeader("RateLimit-Remaining"))
+                - Integer.parseInt(after.getHeader("RateLimit-Remaining"));
+        assertTrue(spent > 2, "suggestions should cost more than one unit, spent " + spent);
+    }
+
+    private Response get(String path) {
+        return given()
+                .when()
+                .get(path)
+                .then()
+                .statusCode(200)
+                .header("RateLimit-Limit", notNullValue())
+                .header("RateLimit-Reset", notNullValue())
+                .extract().response();
+    }
+
+    private String windowOf(Response response) {
+        String policy = response.getHeader("RateLimit-Policy");
+        return policy.substring(policy.indexOf("w=") + 2);
+    }
+}
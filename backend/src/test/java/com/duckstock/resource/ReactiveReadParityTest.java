@@ -0,0 +1,158 @@
+package com.duckstock.resource;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import org.junit.jupiter.api.MethodOrderer;
+import org.junit.jupiter.api.Order;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestMethodOrder;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import com.duckstock.dto.product.ProductRawMaterialRequest;
+import com.duckstock.dto.product.ProductRequest;
+import com.duckstock.dto.rawmaterial.RawMaterialRequest;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import io.quarkus.test.junit.QuarkusTest;
+import io.quarkus.test.security.TestSecurity;
+import static io.restassured.RestAssured.given;
+import io.restassured.http.ContentType;
+
+/**
+ * The reactive read endpoints must return exactly what their blocking counterparts return.
+ */
+@QuarkusTest
+@TestMethodOrder(MethodOrderer.OrderAnnotation.class)
+public class ReactiveReadParityTest {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+    private static final List<String> productIds = new ArrayList<>();
+    private static final List<String> rawMaterialIds = new ArrayList<>();
+
+    @Test
+    @Order(1)
+    @TestSecurity(user = "admin", roles = "ADMIN")
+    public void createCatalog() {
+        for (int i = 0; i < 3; i++) {
+            RawMaterialRequest rawMaterial = new RawMaterialRequest();
+            rawMaterial.name = "Parity Material " + i;
+            rawMaterial.description = i == 0 ? null : "Material " + i;
+            rawMaterial.price = new BigDecimal("2.50").add(BigDecimal.valueOf(i));
+            rawMaterial.stockQuantity = 40 + 10 * i;
+            rawMaterial.unit = "kg";
+            rawMaterialIds.add(post("/raw-materials", rawMaterial));
+        }
+
+        // Two products share a raw material, one has no composition and two have the same price.
+        String[] prices = { "310.00", "125.50", "125.50", "9.99" };
+        for (int i = 0; i < prices.length; i++) {
+            ProductRequest product = new ProductRequest();
+            product.name = "Parity Product " + i;
+            product.price = new BigDecimal(prices[i]);
+            product.stockQuantity = i;
+            productIds.add(post("/products", product));
+        }
+        compose(productIds.get(0), rawMaterialIds.get(0), 3);
+        compose(productIds.get(0), rawMaterialIds.get(1), 2);
+        compose(productIds.get(1), rawMaterialIds.get(0), 4);
+        compose(productIds.get(2), rawMaterialIds.get(2), 5);
+    }
+
+    @ParameterizedTest
+    @Order(2)
+    @TestSecurity(user = "test-user", roles = "USER")
+    @ValueSource(strings = {
+            "/products",
+            "/products?page=1&size=2",
+            "/products?search=PARITY&size=3",
+            "/products?search=no-such-product",
+            "/raw-materials",
+            "/raw-materials?page=0&size=2&search=material",
+            "/raw-materials/all",
+            "/production/suggestions"
+    })
+    public void listingsMatch(String path) throws Exception {
+        assertSameBody(path);
+    }
+
+    @Test
+    @Order(3)
+    @TestSecurity(user = "test-user", roles = "USER")
+    public void lookupsMatch() throws Exception {
+        for (String id : productIds) {
+            assertSameBody("/products/" + id);
+        }
+        for (String id : rawMaterialIds) {
+            assertSameBody("/raw-materials/" + id);
+        }
+    }
+
+    @Test
+    @Order(4)
+    @TestSecurity(user = "test-user", roles = "USER")
+    public void missingEntitiesMatch() throws Exception {
+        String missing = UUID.randomUUID().toString();
+        for (String path : List.of("/products/" + missing, "/raw-materials/" + missing)) {
+            String blocking = given().when().get(path).then().statusCode(404).extract().asString();
+            String reactive = given().when().get("/reactive" + path).then().statusCode(404).extract().asString();
+            // Error bodies carry their own timestamp.
+            assertEquals(MAPPER.readTree(blocking).get("message"), MAPPER.readTree(reactive).get("message"), path);
+        }
+    }
+
+    private void assertSameBody(String path) throws Exception {
+        String blocking = given().when().get(path).then().statusCode(200).extract().asString();
+        String reactive = given().when().get("/reactive" + path).then().statusCode(200).extract().asString();
+        assertEquals(normalize(MAPPER.readTree(blocking)), normalize(MAPPER.readTree(reactive)), path);
+    }
+
+    // Neither path orders a product's composition, so compare it as a set.
+    private static JsonNode normalize(JsonNode node) {
+        if (node.isObject()) {
+            node.fields().forEachRemaining(field -> normalize(field.getValue()));
+            JsonNode rawMaterials = node.get("rawMaterials");
+            if (rawMaterials != null && rawMaterials.isArray()) {
+                List<JsonNode> sorted = new ArrayList<>();
+                rawMaterials.forEach(sorted::add);
+                sorted.sort(Comparator.comparing(association -> association.get("id").asText()));
+                ((ObjectNode) node).set("rawMaterials", MAPPER.createArrayNode().addAll(sorted));
+            }
+        } else if (node.isArray()) {
+            ((ArrayNode) node).forEach(ReactiveReadParityTest::normalize);
+        }
+        return node;
+    }
+
+    private static String post(String path, Object body) {
+        return given()
+                .contentType(ContentType.JSON)
+                .body(body)
+                .when()
+                .post(path)
+                .then()
+                .statusCode(201)
+                .extract().path("id");
+    }
+
+    private static void compose(String productId, String rawMaterialId, int quantityNeeded) {
+        ProductRawMaterialRequest association = new ProductRawMaterialRequest();
+        association.rawMaterialId = UUID.fromString(rawMaterialId);
+        association.quantityNeeded = quantityNeeded;
+        given()
+                .contentType(ContentType.JSON)
+                .body(List.of(association))
+                .when()
+                .post("/products/" + productId + "/raw-materials")
+                .then()
+                .statusCode(201);
+    }
+}
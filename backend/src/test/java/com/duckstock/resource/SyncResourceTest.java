@@ -0,0 +1,175 @@
+package com.duckstock.resource;
+
+import com.duckstock.dto.rawmaterial.RawMaterialRequest;
+import com.duckstock.service.SyncService;
+import io.quarkus.test.junit.QuarkusTest;
+import io.quarkus.test.security.TestSecurity;
+import io.restassured.http.ContentType;
+import io.restassured.response.Response;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+import org.junit.jupiter.api.Test;
+
+import static io.restassured.RestAssured.given;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.Matchers.hasItem;
+import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.not;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@QuarkusTest
+@TestSecurity(user = "test-user", roles = "USER")
+public class SyncResourceTest {
+
+    @Test
+    public void testSyncReturnsOnlyChangesAfterWatermark() {
+        String keptId = createRawMaterial("Sync Kept", 10);
+        String watermark = drainToWatermark();
+
+        given()
+                .contentType(ContentType.JSON)
+                .body(stockUpdate(25))
+                .when()
+                .put("/raw-materials/" + keptId)
+                .then()
+                .statusCode(200);
+
+        String deletedId = createRawMaterial("Sync Deleted", 5);
+        given()
+                .when()
+                .delete("/raw-materials/" + deletedId)
+                .then()
+                .statusCode(204);
+
+        Response response = given()
+                .queryParam("since", watermark)
+                .when()
+                .get("/sync")
+                .then()
+                .statusCode(200)
+                .body("hasMore", is(false))
+                .body("changes.id", hasItem(keptId))
+                .extract().response();
+
+        List<String> ops = response.path("changes.findAll { it.id == '" + deletedId + "' }.op");
+        assertEquals("DELETE", ops.get(ops.size() - 1));
+
+        Integer keptStock = response.path("changes.find { it.id == '" + keptId + "' }.data.stockQuantity");
+        assertEquals(25, keptStock);
+    }
+
+    @Test
+    public void testSyncPaginatesByWatermark() {
+        String watermark = drainToWatermark();
+        createRawMaterial("Sync Page One", 1);
+        createRawMaterial("Sync Page Two", 2);
+
+        String next = given()
+                .queryParam("since", watermark)
+                .queryParam("limit", 1)
+                .when()
+                .get("/sync")
+                .then()
+                .statusCode(200)
+                .body("changes", hasSize(1))
+                .body("changes[0].data.name", is("Sync Page One"))
+                .body("hasMore", is(true))
+                .extract().path("nextWatermark");
+
+        given()
+                .queryParam("since", next)
+                .queryParam("limit", 1)
+                .when()
+                .get("/sync")
+                .then()
+                .statusCode(200)
+                .body("changes", hasSize(1))
+                .body("changes[0].data.name", is("Sync Page Two"));
+    }
+
+    @Test
+    public void testFullSyncCarriesNoTombstones() {
+        String deletedId = createRawMaterial("Sync Full Deleted", 5);
+        given()
+                .when()
+                .delete("/raw-materials/" + deletedId)
+                .then()
+                .statusCode(204);
+
+        given()
+                .queryParam("limit", 5000)
+                .when()
+                .get("/sync")
+                .then()
+                .statusCode(200)
+                .body("changes.op", not(hasItem("DELETE")))
+                .body("changes.id", not(hasItem(deletedId)));
+    }
+
+    @Test
+    public void testSyncRejectsWatermarkOlderThanTombstoneRetention() {
+        String expired = new SyncService.Watermark(LocalDateTime.now().minusDays(31),
+                SyncService.Source.RAW_MATERIAL, UUID.randomUUID()).encode();
+
+        given()
+                .queryParam("since", expired)
+                .when()
+                .get("/sync")
+                .then()
+                .statusCode(400);
+    }
+
+    @Test
+    public void testSyncRejectsInvalidWatermark() {
+        given()
+                .queryParam("since", "not-a-watermark")
+                .when()
+                .get("/sync")
+                .then()
+                .statusCode(400);
+    }
+
+    private String drainToWatermark() {
+        String watermark = null;
+        boolean hasMore = true;
+        while (hasMore) {
+            Response response = given()
+                    .queryParam("since", watermark == null ? "" : watermark)
+                    .when()
+                    .get("/sync")
+                    .then()
+                    .statusCode(200)
+                    .extract().response();
+            watermark = response.path("nextWatermark");
+            hasMore = response.path("hasMore");
+        }
+        assertTrue(watermark != null && !watermark.isBlank());
+        return watermark;
+    }
+
+    private String createRawMaterial(String name, int stock) {
+        RawMaterialRequest request = new RawMaterialRequest();
+        request.name = name;
+        request.price = new BigDecimal("3.50");
+        request.stockQuantity = stock;
+        request.unit = "kg";
+
+        return given()
+                .contentType(ContentType.JSON)
+                .body(request)
+                .when()
+                .post("/raw-materials")
+                .then()
+                .statusCode(201)
+                .extract().path("id");
+    }
+
+    private RawMaterialRequest stockUpdate(int stock) {
+        RawMaterialRequest request = new RawMaterialRequest();
+        request.stockQuantity = stock;
+        return request;
+    }
+}
@@ -0,0 +1,87 @@
+package com.duckstock.resource;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.Test;
+
+import com.duckstock.dto.rawmaterial.RawMaterialRequest;
+import com.duckstock.tracing.TraceExportProcessor;
+
+import io.opentelemetry.api.trace.SpanKind;
+import io.opentelemetry.sdk.trace.data.SpanData;
+import io.quarkus.test.junit.QuarkusTest;
+import io.quarkus.test.security.TestSecurity;
+import static io.restassured.RestAssured.given;
+import io.restassured.http.ContentType;
+import jakarta.inject.Inject;
+
+/**
+ * The test profile exports every trace to memory; a request handed to a bulkhead must still be one trace.
+ */
+@QuarkusTest
+@TestSecurity(user = "admin", roles = "ADMIN")
+public class TracingTest {
+
+    @Inject
+    TraceExportProcessor traces;
+
+    @Test
+    public void suggestions_shouldBeOneTraceFromRequestToPlanner() throws InterruptedException {
+        // A write first, so the suggestions are computed rather than served from the response cache.
+        RawMaterialRequest rawMaterial = new RawMaterialRequest();
+        rawMaterial.name = "Tracing material";
+        rawMaterial.price = new BigDecimal("1.00");
+        rawMaterial.stockQuantity = 10;
+        rawMaterial.unit = "kg";
+        given().contentType(ContentType.JSON).body(rawMaterial)
+                .when().post("/raw-materials")
+                .then().statusCode(201);
+        traces.memory().reset();
+
+        given().when().get("/production/suggestions").then().statusCode(200);
+
+        SpanData planner = awaitSpan("SuggestionPlanner.plan");
+        SpanData server = awaitSpan(planner.getTraceId(), SpanKind.SERVER);
+        List<SpanData> trace = traces.memory().spans().stream()
+                .filter(span -> span.getTraceId().equals(planner.getTraceId()))
+                .toList();
+        SpanData service = trace.stream()
+                .filter(span -> span.getName().endsWith("getSuggestions"))
+                .findFirst().orElseThrow();
+
+        assertEquals(server.getSpanId(), service.getParentSpanId());
+        assertEquals(service.getSpanId(), planner.getParentSpanId());
+        assertTrue(planner.getAttributes().asMap().keySet().stream()
+                .anyMatch(key -> key.getKey().equals("duckstock.suggestions.strategy")));
+    }
+
+    private SpanData awaitSpan(String name) throws InterruptedException {
+        return await(() -> traces.memory().spans().stream().filter(span -> span.getName().equals(name)).findFirst());
+    }
+
+    private SpanData awaitSpan(String traceId, SpanKind kind) throws InterruptedException {
+        return await(() -> traces.memory().spans().stream()
+                .filter(span -> span.getTraceId().equals(traceId) && span.getKind() == kind)
+                .findFirst());
+    }
+
+    // The request span ends after the response is sent, and spans are exported in batches.
+    private SpanData await(Supplier<Optional<SpanData>> lookup) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (System.nanoTime() < deadline) {
+            traces.forceFlush().join(1, TimeUnit.SECONDS);
+            Optional<SpanData> span = lookup.get();
+            if (span.isPresent()) {
+                return span.get();
+            }
+            Thread.sleep(50);
+        }
+        throw new AssertionError("span not exported: " + traces.memory().spans());
+    }
+}
@@ -0,0 +1,95 @@
+package com.duckstock.security;
+
+import org.eclipse.microprofile.jwt.JsonWebToken;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import io.smallrye.jwt.auth.principal.JWTParser;
+import io.smallrye.jwt.auth.principal.ParseException;
+
+class CachingJwtParserTest {
+
+    private JWTParser delegate;
+    private CachingJwtParser parser;
+
+    @BeforeEach
+    void setUp() {
+        delegate = mock(JWTParser.class);
+        parser = new CachingJwtParser();
+        parser.enabled = true;
+        parser.maxSize = 100;
+        parser.delegate = delegate;
+        parser.initCache();
+    }
+
+    @Test
+    void parse_shouldVerifyAnAccessTokenOnlyOnce() throws Exception {
+        JsonWebToken jwt = token("access", 300);
+        when(delegate.parse("a")).thenReturn(jwt);
+
+        assertSame(jwt, parser.parse("a"));
+        assertSame(jwt, parser.parse("a"));
+
+        verify(delegate, times(1)).parse("a");
+        assertEquals(1, parser.stats().hitCount);
+    }
+
+    @Test
+    void parse_shouldNotCacheRefreshTokens() throws Exception {
+        JsonWebToken jwt = token("refresh", 300);
+        when(delegate.parse("r")).thenReturn(jwt);
+
+        parser.parse("r");
+        parser.parse("r");
+
+        verify(delegate, times(2)).parse("r");
+    }
+
+    @Test
+    void parse_shouldNotCacheExpiredTokens() throws Exception {
+        JsonWebToken jwt = token("access", -1);
+        when(delegate.parse("e")).thenReturn(jwt);
+
+        parser.parse("e");
+        parser.parse("e");
+
+        verify(delegate, times(2)).parse("e");
+    }
+
+    @Test
+    void parse_shouldNotCacheFailures() throws Exception {
+        when(delegate.parse("bad")).thenThrow(new ParseException("bad signature"));
+
+        assertThrows(ParseException.class, () -> parser.parse("bad"));
+        assertThrows(ParseException.class, () -> parser.parse("bad"));
+
+        verify(delegate, times(2)).parse("bad");
+    }
+
+    @Test
+    void parse_shouldAlwaysDelegateWhenDisabled() throws Exception {
+        parser.enabled = false;
+        JsonWebToken jwt = token("access", 300);
+        when(delegate.parse("a")).thenReturn(jwt);
+
+        parser.parse("a");
+        parser.parse("a");
+
+        verify(delegate, times(2)).parse("a");
+    }
+
+    private JsonWebToken token(String type, long secondsLeft) {
+        JsonWebToken jwt = mock(JsonWebToken.class);
+        when(jwt.<String>getClaim("type")).thenReturn(type);
+        when(jwt.getExpirationTime()).thenReturn(System.currentTimeMillis() / 1000 + secondsLeft);
+        return jwt;
+    }
+}
@@ -0,0 +1,91 @@
+package com.duckstock.security;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.Test;
+
+class ClientAddressResolverTest {
+
+    @Test
+    void resolve_shouldIgnoreForwardedForWithoutTrustedProxies() {
+        ClientAddressResolver resolver = resolver();
+
+        assertEquals("203.0.113.7", resolver.resolve("203.0.113.7", "1.2.3.4"));
+    }
+
+    @Test
+    void resolve_shouldIgnoreForwardedForFromAnUntrustedPeer() {
+        ClientAddressResolver resolver = resolver("10.0.0.0/8");
+
+        assertEquals("203.0.113.7", resolver.resolve("203.0.113.7", "1.2.3.4"));
+    }
+
+    @Test
+    void resolve_shouldTakeTheRightmostUntrustedHop() {
+        ClientAddressResolver resolver = resolver("10.0.0.0/8", "192.168.1.10");
+
+        // The client prepended a fake address; our proxies appended the real one.
+        assertEquals("198.51.100.23", resolver.resolve("10.0.0.2", "1.2.3.4, 198.51.100.23, 192.168.1.10"));
+    }
+
+    @Test
+    void resolve_shouldFallBackToThePeerOnMalformedHops() {
+        ClientAddressResolver resolver = resolver("10.0.0.0/8");
+
+        assertEquals("10.0.0.2", resolver.resolve("10.0.0.2", "evil.example.com"));
+        assertEquals("10.0.0.2", resolver.resolve("10.0.0.2", "1.2.3.4, not-an-ip"));
+    }
+
+    @Test
+    void resolve_shouldFallBackToThePeerWhenThereAreNoHops() {
+        ClientAddressResolver resolver = resolver("10.0.0.0/8");
+
+        assertEquals("10.0.0.2", resolver.resolve("10.0.0.2", ","));
+        assertEquals("10.0.0.2", resolver.resolve("10.0.0.2", ",,"));
+        assertEquals("10.0.0.2", resolver.resolve("10.0.0.2", " , "));
+    }
+
+    @Test
+    void resolve_shouldUseTheFirstHopWhenAllAreTrusted() {
+        ClientAddressResolver resolver = resolver("10.0.0.0/8");
+
+        assertEquals("10.1.1.1", resolver.resolve("10.0.0.2", "10.1.1.1, 10.2.2.2"));
+    }
+
+    @Test
+    void resolve_shouldHandleIpv6Ranges() {
+        ClientAddressResolver resolver = resolver("fd00::/8");
+
+        assertEquals("2001:db8:0:0:0:0:0:1", resolver.resolve("fd00::1", "2001:db8::1"));
+    }
+
+    @Test
+    void cidr_shouldMatchPartialBytePrefixes() {
+        ClientAddressResolver.Cidr range = ClientAddressResolver.Cidr.parse("172.16.0.0/12");
+
+        assertTrue(range.contains(ClientAddressResolver.Cidr.literal("172.31.255.255")));
+        assertFalse(range.contains(ClientAddressResolver.Cidr.literal("172.32.0.1")));
+        assertFalse(range.contains(ClientAddressResolver.Cidr.literal("::1")));
+    }
+
+    @Test
+    void literal_shouldRejectAnythingThatIsNotAnAddress() {
+        assertNull(ClientAddressResolver.Cidr.literal("localhost"));
+        assertNull(ClientAddressResolver.Cidr.literal("10.1"));
+        assertNull(ClientAddressResolver.Cidr.literal("face.bad.cafe.bed"));
+        assertThrows(IllegalStateException.class, () -> ClientAddressResolver.Cidr.parse("10.0.0.0/33"));
+    }
+
+    private ClientAddressResolver resolver(String... trustedProxies) {
+        ClientAddressResolver resolver = new ClientAddressResolver();
+        resolver.trustedProxyRanges = Optional.of(List.of(trustedProxies));
+        resolver.init();
+        return resolver;
+    }
+}
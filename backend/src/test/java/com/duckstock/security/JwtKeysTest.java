@@ -0,0 +1,58 @@
+package com.duckstock.security;
+
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.Signature;
+import java.util.Base64;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+import io.smallrye.jwt.algorithm.SignatureAlgorithm;
+
+class JwtKeysTest {
+
+    @ParameterizedTest
+    @CsvSource({"RS256, RSA, SHA256withRSA", "ES256, EC, SHA256withECDSA", "EdDSA, Ed25519, Ed25519"})
+    void keys_shouldDecodeFromPemForEachAlgorithm(String name, String keyType, String jcaSignature) throws Exception {
+        SignatureAlgorithm algorithm = JwtKeys.algorithmOf(name);
+        KeyPair pair = KeyPairGenerator.getInstance(keyType).generateKeyPair();
+
+        var privateKey = JwtKeys.privateKey(pem("PRIVATE KEY", pair.getPrivate().getEncoded()), algorithm);
+        var publicKey = JwtKeys.publicKey(pem("PUBLIC KEY", pair.getPublic().getEncoded()), algorithm);
+
+        Signature signer = Signature.getInstance(jcaSignature);
+        signer.initSign(privateKey);
+        signer.update(new byte[] {1, 2, 3});
+        byte[] signature = signer.sign();
+
+        Signature verifier = Signature.getInstance(jcaSignature);
+        verifier.initVerify(publicKey);
+        verifier.update(new byte[] {1, 2, 3});
+        assertTrue(verifier.verify(signature));
+    }
+
+    @Test
+    void algorithmOf_shouldRejectUnsupportedAlgorithms() {
+        assertEquals(SignatureAlgorithm.EDDSA, JwtKeys.algorithmOf("eddsa"));
+        assertThrows(IllegalStateException.class, () -> JwtKeys.algorithmOf("HS256"));
+    }
+
+    @Test
+    void privateKey_shouldFailWhenKeyDoesNotMatchAlgorithm() throws Exception {
+        KeyPair rsa = KeyPairGenerator.getInstance("RSA").generateKeyPair();
+
+        assertThrows(IllegalStateException.class,
+                () -> JwtKeys.privateKey(pem("PRIVATE KEY", rsa.getPrivate().getEncoded()), SignatureAlgorithm.ES256));
+    }
+
+    private static String pem(String type, byte[] der) {
+        return "-----BEGIN " + type + "-----\n"
+                + Base64.getMimeEncoder(64, "\n".getBytes()).encodeToString(der)
+                + "\n-----END " + type + "-----\n";
+    }
+}
@@ -0,0 +1,144 @@
+package com.duckstock.security;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.duckstock.exception.TooManyRequestsException;
+
+class LoginThrottleTest {
+
+    private final AtomicLong now = new AtomicLong(1_000_000);
+    private LoginThrottle throttle;
+
+    @BeforeEach
+    void setUp() {
+        throttle = new LoginThrottle();
+        throttle.enabled = true;
+        throttle.accountFreeAttempts = 3;
+        throttle.addressFreeAttempts = 10;
+        throttle.baseDelayMillis = 1000;
+        throttle.maxDelaySeconds = 60;
+        throttle.decaySeconds = 900;
+        throttle.maxEntries = 1000;
+        throttle.stripes = 4;
+        throttle.clock = now::get;
+        throttle.init();
+    }
+
+    @Test
+    void acquire_shouldAllowFreeAttemptsThenBackOffExponentially() {
+        fail("user@test.com", "10.0.0.1", 2);
+        assertDoesNotThrow(() -> throttle.acquire("user@test.com", "10.0.0.1"));
+        throttle.failed("user@test.com", "10.0.0.1");
+
+        assertEquals(1, retryAfter("user@test.com", "10.0.0.2"));
+
+        now.addAndGet(1000);
+        fail("user@test.com", "10.0.0.1", 1);
+        assertEquals(2, retryAfter("user@test.com", "10.0.0.3"));
+
+        now.addAndGet(2000);
+        fail("user@test.com", "10.0.0.1", 1);
+        assertEquals(4, retryAfter("USER@test.com", "10.0.0.4"));
+    }
+
+    @Test
+    void acquire_shouldCountAttemptsStillBeingVerified() {
+        for (int i = 0; i < 3; i++) {
+            throttle.acquire("user@test.com", "10.0.0." + i);
+        }
+
+        assertEquals(1, retryAfter("user@test.com", "10.0.0.9"));
+    }
+
+    @Test
+    void acquire_shouldCapTheDelay() {
+        for (int i = 0; i < 40; i++) {
+            now.addAndGet(60_000);
+            fail("user@test.com", "10.0.0.1", 1);
+        }
+
+        assertEquals(60, retryAfter("user@test.com", "10.0.0.2"));
+    }
+
+    @Test
+    void succeeded_shouldClearTheAccountButNotTheAddress() {
+        fail("user@test.com", "10.0.0.1", 2);
+        throttle.acquire("user@test.com", "10.0.0.1");
+        throttle.succeeded("user@test.com", "10.0.0.1");
+
+        assertDoesNotThrow(() -> throttle.acquire("user@test.com", "10.0.0.2"));
+
+        for (int i = 0; i < 4; i++) {
+            fail("other" + i + "@test.com", "10.0.0.1", 2);
+        }
+        assertTrue(retryAfter("fresh@test.com", "10.0.0.1") >= 1);
+    }
+
+    @Test
+    void release_shouldGiveTheAttemptBack() {
+        fail("user@test.com", "10.0.0.1", 2);
+        throttle.acquire("user@test.com", "10.0.0.1");
+        throttle.release("user@test.com", "10.0.0.1");
+
+        assertDoesNotThrow(() -> throttle.acquire("user@test.com", "10.0.0.1"));
+    }
+
+    @Test
+    void acquire_shouldBlockAnAddressSweepingManyAccounts() {
+        for (int i = 0; i < 10; i++) {
+            fail("user" + i + "@test.com", "10.0.0.9", 1);
+        }
+
+        assertTrue(retryAfter("someone@test.com", "10.0.0.9") >= 1);
+        assertDoesNotThrow(() -> throttle.acquire("someone@test.com", "10.0.0.10"));
+    }
+
+    @Test
+    void acquire_shouldNotCountAgainstTheAccountWhileTheAddressIsBlocked() {
+        for (int i = 0; i < 10; i++) {
+            fail("user" + i + "@test.com", "10.0.0.9", 1);
+        }
+        for (int i = 0; i < 5; i++) {
+            retryAfter("victim@test.com", "10.0.0.9");
+        }
+
+        assertDoesNotThrow(() -> throttle.acquire("victim@test.com", "10.0.0.10"));
+    }
+
+    @Test
+    void acquire_shouldForgetFailuresAfterTheDecayPeriod() {
+        fail("user@test.com", "10.0.0.1", 2);
+        now.addAndGet(901_000);
+        fail("user@test.com", "10.0.0.1", 2);
+
+        assertDoesNotThrow(() -> throttle.acquire("user@test.com", "10.0.0.2"));
+    }
+
+    @Test
+    void store_shouldStayWithinItsCapacity() {
+        LoginAttemptStore store = new LoginAttemptStore(4, 100);
+        for (int i = 0; i < 10_000; i++) {
+            store.tryAttempt("key" + i, 0, 1000, failures -> 0);
+        }
+
+        assertTrue(store.size() <= 100);
+    }
+
+    private void fail(String email, String address, int times) {
+        for (int i = 0; i < times; i++) {
+            throttle.acquire(email, address);
+            throttle.failed(email, address);
+        }
+    }
+
+    private long retryAfter(String email, String address) {
+        return assertThrows(TooManyRequestsException.class, () -> throttle.acquire(email, address)).getRetryAfterSeconds();
+    }
+}
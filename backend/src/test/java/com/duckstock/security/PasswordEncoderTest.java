@@ -0,0 +1,70 @@
+package com.duckstock.security;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+import com.duckstock.metrics.ServiceMetrics;
+
+class PasswordEncoderTest {
+
+    private PasswordEncoder passwordEncoder;
+
+    @BeforeEach
+    void setUp() {
+        passwordEncoder = new PasswordEncoder();
+        passwordEncoder.algorithm = PasswordEncoder.BCRYPT;
+        passwordEncoder.bcryptCost = 5;
+        passwordEncoder.pbkdf2Iterations = 1_000;
+        passwordEncoder.metrics = Mockito.mock(ServiceMetrics.class);
+    }
+
+    @Test
+    void matches_shouldVerifyEveryStoredFormat() {
+        String bcrypt = passwordEncoder.encodeBcrypt("secret123", 4);
+        String bcrypt2b = "$2b$" + bcrypt.substring(4);
+        String pbkdf2 = passwordEncoder.encodePbkdf2("secret123", 1_000);
+
+        assertTrue(passwordEncoder.matches("secret123", bcrypt));
+        assertTrue(passwordEncoder.matches("secret123", bcrypt2b));
+        assertTrue(passwordEncoder.matches("secret123", pbkdf2));
+        assertFalse(passwordEncoder.matches("wrong", bcrypt));
+        assertFalse(passwordEncoder.matches("wrong", pbkdf2));
+        assertFalse(passwordEncoder.matches("secret123", "plain-text"));
+        assertFalse(passwordEncoder.matches("secret123", "$pbkdf2-sha256$i=x$bad$bad"));
+    }
+
+    @Test
+    void needsRehash_shouldFlagWeakerCostAndOtherAlgorithms() {
+        assertTrue(passwordEncoder.needsRehash(passwordEncoder.encodeBcrypt("secret123", 4)));
+        assertFalse(passwordEncoder.needsRehash(passwordEncoder.encode("secret123")));
+        assertTrue(passwordEncoder.needsRehash(passwordEncoder.encodePbkdf2("secret123", 1_000)));
+
+        passwordEncoder.algorithm = PasswordEncoder.PBKDF2;
+        assertTrue(passwordEncoder.needsRehash(passwordEncoder.encodeBcrypt("secret123", 5)));
+        assertTrue(passwordEncoder.needsRehash(passwordEncoder.encodePbkdf2("secret123", 500)));
+        assertFalse(passwordEncoder.needsRehash(passwordEncoder.encode("secret123")));
+    }
+
+    @Test
+    void checkAlgorithm_shouldRejectUnknownAlgorithms() {
+        assertDoesNotThrow(passwordEncoder::checkAlgorithm);
+        passwordEncoder.algorithm = PasswordEncoder.PBKDF2;
+        assertDoesNotThrow(passwordEncoder::checkAlgorithm);
+
+        passwordEncoder.algorithm = "argon2";
+        assertThrows(IllegalStateException.class, passwordEncoder::checkAlgorithm);
+    }
+
+    @Test
+    void scaleIterations_shouldTargetTheRequestedTime() {
+        // 50k iterations in 25 ms -> 250 ms needs ten times as many.
+        assertEquals(500_000, PasswordHashCalibrator.scaleIterations(50_000, 25.0, 250));
+        assertEquals(PasswordHashCalibrator.MIN_PBKDF2_ITERATIONS, PasswordHashCalibrator.scaleIterations(50_000, 1000.0, 250));
+    }
+}
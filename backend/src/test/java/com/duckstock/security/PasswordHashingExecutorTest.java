@@ -0,0 +1,68 @@
+package com.duckstock.security;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.duckstock.exception.ServiceUnavailableException;
+
+import io.smallrye.mutiny.helpers.test.UniAssertSubscriber;
+
+class PasswordHashingExecutorTest {
+
+    private PasswordHashingExecutor hashingExecutor;
+    private final CountDownLatch release = new CountDownLatch(1);
+
+    @BeforeEach
+    void setUp() {
+        hashingExecutor = new PasswordHashingExecutor();
+        hashingExecutor.threads = 1;
+        hashingExecutor.queueSize = 1;
+        hashingExecutor.retryAfterSeconds = 2;
+        hashingExecutor.start();
+    }
+
+    @AfterEach
+    void tearDown() {
+        release.countDown();
+        hashingExecutor.stop();
+    }
+
+    @Test
+    void submit_shouldRunTaskOnHashingPool() {
+        release.countDown();
+
+        String thread = hashingExecutor.submit(() -> Thread.currentThread().getName())
+                .await().atMost(Duration.ofSeconds(5));
+
+        assertEquals("password-hashing-1", thread);
+    }
+
+    @Test
+    void submit_shouldRejectWithRetryAfterWhenQueueIsFull() {
+        hashingExecutor.submit(this::blockUntilReleased).subscribe().withSubscriber(UniAssertSubscriber.create());
+        hashingExecutor.submit(this::blockUntilReleased).subscribe().withSubscriber(UniAssertSubscriber.create());
+
+        UniAssertSubscriber<Boolean> rejected = hashingExecutor.submit(this::blockUntilReleased)
+                .subscribe().withSubscriber(UniAssertSubscriber.create());
+
+        Throwable failure = rejected.assertFailed().getFailure();
+        ServiceUnavailableException unavailable = assertInstanceOf(ServiceUnavailableException.class, failure);
+        assertEquals(2, unavailable.getRetryAfterSeconds());
+    }
+
+    private Boolean blockUntilReleased() {
+        try {
+            return release.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+}
@@ -9,9 +9,11 @@ import org.junit.jupiter.api.Test;
 import org.mockito.MockedStatic;
 import org.mockito.Mockito;
 
+import com.duckstock.cache.UserCache;
 import com.duckstock.dto.auth.LoginRequest;
 import com.duckstock.dto.auth.RegisterRequest;
 import com.duckstock.entity.User;
+import com.duckstock.event.UserChange;
 import com.duckstock.exception.BusinessException;
 import com.duckstock.exception.UnauthorizedException;
 import com.duckstock.security.JwtTokenProvider;
@@ -19,6 +21,7 @@ import com.duckstock.security.PasswordEncoder;
 import com.duckstock.service.AuthService;
 
 import io.smallrye.jwt.auth.principal.JWTParser;
+import jakarta.enterprise.event.Event;
 
 @SuppressWarnings("unused")
 class AuthServiceTest {
@@ -37,6 +40,9 @@ class AuthServiceTest {
         setField(authService, "jwtTokenProvider", jwtTokenProvider);
         setField(authService, "passwordEncoder", passwordEncoder);
         setField(authService, "jwtParser", jwtParser);
+
+        setField(authService, "userCache", Mockito.mock(UserCache.class));
+        setField(authService, "userChanges", Mockito.mock(Event.class));
     }
 
     @Test
@@ -67,6 +73,29 @@ class AuthServiceTest {
         }
     }
 
+    @Test
+    void login_shouldRehashPasswordStoredWithOutdatedParameters() {
+        LoginRequest request = new LoginRequest();
+        request.email = "user@stockflow.com";
+        request.password = "secret123";
+
+        User user = new User();
+        user.email = request.email;
+        user.password = "old-hash";
+        user.role = "USER";
+
+        Mockito.when(passwordEncoder.matches("secret123", "old-hash")).thenReturn(true);
+        Mockito.when(passwordEncoder.needsRehash("old-hash")).thenReturn(true);
+        Mockito.when(passwordEncoder.encode("secret123")).thenReturn("new-hash");
+
+        try (MockedStatic<User> userStatic = Mockito.mockStatic(User.class)) {
+            userStatic.when(() -> User.findByEmail(request.email)).thenReturn(user);
+            authService.login(request);
+        }
+
+        assertEquals("new-hash", user.password);
+    }
+
     @Test
     void refreshToken_shouldThrowWhenTokenParsingFails() throws Exception {
         Mockito.when(jwtParser.parse("invalid")).thenThrow(new RuntimeException("bad token"));
@@ -0,0 +1,106 @@
+package com.duckstock.service;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.duckstock.dto.changefeed.StockChange;
+import com.duckstock.event.CatalogChange;
+import com.duckstock.event.ChangeType;
+import com.duckstock.event.EntityKind;
+
+import io.smallrye.mutiny.helpers.test.AssertSubscriber;
+
+class ChangeFeedServiceTest {
+
+    private ChangeFeedService changeFeedService;
+
+    @BeforeEach
+    void setUp() {
+        changeFeedService = new ChangeFeedService();
+        changeFeedService.historySize = 4;
+        changeFeedService.maxPendingPerClient = 3;
+        changeFeedService.heartbeatSeconds = 3600;
+    }
+
+    @Test
+    void flush_shouldCoalesceRapidUpdatesToTheSameEntity() {
+        UUID id = UUID.randomUUID();
+        AssertSubscriber<ChangeFeedService.Batch> subscriber = subscribe(null, 10);
+        changeFeedService.flush(); // initial batch carries the resume token
+
+        changeFeedService.publish(stockChange(id, 10));
+        changeFeedService.publish(stockChange(id, 7));
+        changeFeedService.publish(stockChange(id, 3));
+        changeFeedService.flush();
+
+        List<StockChange> changes = subscriber.getItems().get(1).changes();
+        assertEquals(1, changes.size());
+        assertEquals(3, changes.get(0).stockQuantity);
+        assertEquals(3, changes.get(0).sequence);
+        assertEquals(changeFeedService.resumeToken(3), subscriber.getItems().get(1).resumeToken());
+    }
+
+    @Test
+    void stream_shouldReplayOnlyChangesAfterResumeToken() {
+        UUID first = UUID.randomUUID();
+        UUID second = UUID.randomUUID();
+        changeFeedService.publish(stockChange(first, 1));
+        changeFeedService.publish(stockChange(second, 2));
+
+        AssertSubscriber<ChangeFeedService.Batch> subscriber = subscribe(changeFeedService.resumeToken(1), 10);
+        changeFeedService.flush();
+
+        List<StockChange> changes = subscriber.getItems().get(0).changes();
+        assertEquals(1, changes.size());
+        assertEquals(second, changes.get(0).id);
+    }
+
+    @Test
+    void stream_shouldResetWhenResumeTokenIsOutsideHistory() {
+        for (int i = 0; i < 6; i++) {
+            changeFeedService.publish(stockChange(UUID.randomUUID(), i));
+        }
+
+        AssertSubscriber<ChangeFeedService.Batch> subscriber = subscribe(changeFeedService.resumeToken(1), 10);
+        changeFeedService.flush();
+
+        assertReset(subscriber.getItems().get(0), 6);
+    }
+
+    @Test
+    void flush_shouldHoldBackSlowClientsAndResetOnOverflow() {
+        AssertSubscriber<ChangeFeedService.Batch> subscriber = subscribe(null, 0);
+
+        for (int i = 0; i < 5; i++) {
+            changeFeedService.publish(stockChange(UUID.randomUUID(), i));
+        }
+        changeFeedService.flush();
+        assertTrue(subscriber.getItems().isEmpty());
+
+        subscriber.request(1);
+        changeFeedService.flush();
+
+        assertEquals(1, subscriber.getItems().size());
+        assertReset(subscriber.getItems().get(0), 5);
+    }
+
+    private AssertSubscriber<ChangeFeedService.Batch> subscribe(String resumeToken, long initialRequest) {
+        return changeFeedService.stream(resumeToken).subscribe().withSubscriber(AssertSubscriber.create(initialRequest));
+    }
+
+    private void assertReset(ChangeFeedService.Batch batch, long sequence) {
+        assertEquals(1, batch.changes().size());
+        assertEquals("RESET", batch.changes().get(0).change);
+        assertEquals(changeFeedService.resumeToken(sequence), batch.resumeToken());
+    }
+
+    private CatalogChange stockChange(UUID id, int stockQuantity) {
+        return new CatalogChange(EntityKind.RAW_MATERIAL, id, ChangeType.UPDATED, stockQuantity, new BigDecimal("1.00"));
+    }
+}
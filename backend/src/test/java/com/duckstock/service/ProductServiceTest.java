@@ -24,6 +24,8 @@ import com.duckstock.exception.BusinessException;
 import com.duckstock.exception.ResourceNotFoundException;
 import com.duckstock.service.ProductService;
 
+import jakarta.enterprise.event.Event;
+
 @Disabled("Requires full Panache static interception in Quarkus runtime")
 @SuppressWarnings("unused")
 class ProductServiceTest {
@@ -33,6 +35,7 @@ class ProductServiceTest {
     @BeforeEach
     void setUp() {
         productService = new ProductService();
+        productService.catalogChanges = Mockito.mock(Event.class);
     }
 
     @Test
@@ -18,8 +18,11 @@ import com.duckstock.entity.ProductRawMaterial;
 import com.duckstock.entity.RawMaterial;
 import com.duckstock.exception.BusinessException;
 import com.duckstock.exception.ResourceNotFoundException;
+import com.duckstock.metrics.ServiceMetrics;
 import com.duckstock.service.ProductionService;
 
+import jakarta.enterprise.event.Event;
+
 @Disabled("Requires full Panache static interception in Quarkus runtime")
 @SuppressWarnings("unused")
 class ProductionServiceTest {
@@ -29,6 +32,8 @@ class ProductionServiceTest {
     @BeforeEach
     void setUp() {
         productionService = new ProductionService();
+        productionService.catalogChanges = Mockito.mock(Event.class);
+        productionService.metrics = Mockito.mock(ServiceMetrics.class);
     }
 
     @Test
@@ -18,6 +18,8 @@ import com.duckstock.entity.RawMaterial;
 import com.duckstock.exception.ResourceNotFoundException;
 import com.duckstock.service.RawMaterialService;
 
+import jakarta.enterprise.event.Event;
+
 @Disabled("Requires full Panache static interception in Quarkus runtime")
 @SuppressWarnings("unused")
 class RawMaterialServiceTest {
@@ -27,6 +29,7 @@ class RawMaterialServiceTest {
     @BeforeEach
     void setUp() {
         rawMaterialService = new RawMaterialService();
+        rawMaterialService.catalogChanges = Mockito.mock(Event.class);
     }
 
     @Test
@@ -19,6 +19,8 @@ import com.duckstock.entity.User;
 import com.duckstock.security.PasswordEncoder;
 import com.duckstock.service.SeedService;
 
+import jakarta.enterprise.event.Event;
+
 @Disabled("Requires full Panache static interception in Quarkus runtime")
 @SuppressWarnings("unused")
 class SeedServiceTest {
@@ -31,6 +33,8 @@ class SeedServiceTest {
         seedService = new SeedService();
         passwordEncoder = Mockito.mock(PasswordEncoder.class);
         setField(seedService, "passwordEncoder", passwordEncoder);
+        setField(seedService, "catalogChanges", Mockito.mock(Event.class));
+        setField(seedService, "userChanges", Mockito.mock(Event.class));
     }
 
     @Test
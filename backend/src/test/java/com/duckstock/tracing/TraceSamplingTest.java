@@ -0,0 +1,116 @@
+package com.duckstock.tracing;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import io.opentelemetry.api.trace.Span;
+import io.opentelemetry.api.trace.Tracer;
+import io.opentelemetry.context.Scope;
+import io.opentelemetry.sdk.trace.SdkTracerProvider;
+import io.opentelemetry.sdk.trace.data.SpanData;
+
+class TraceSamplingTest {
+
+    private static final long START = TimeUnit.SECONDS.toNanos(1_700_000_000L);
+
+    private SdkTracerProvider provider;
+    private TraceExportProcessor processor;
+    private Tracer tracer;
+
+    private void setUp(double sampleRatio, long slowThresholdMillis) {
+        TraceSampler sampler = new TraceSampler();
+        sampler.sampleRatio = sampleRatio;
+        sampler.slowThresholdMillis = slowThresholdMillis;
+        sampler.init();
+
+        processor = new TraceExportProcessor();
+        processor.exporterName = "memory";
+        processor.slowThresholdMillis = slowThresholdMillis;
+        processor.maxPendingTraces = 100;
+        processor.init();
+
+        provider = SdkTracerProvider.builder().setSampler(sampler).addSpanProcessor(processor).build();
+        tracer = provider.get("test");
+    }
+
+    @AfterEach
+    void tearDown() {
+        provider.shutdown().join(5, TimeUnit.SECONDS);
+    }
+
+    @Test
+    void headSampled_shouldExportEveryRequest() {
+        setUp(1.0, 500);
+
+        request(10);
+
+        List<SpanData> spans = exported();
+        assertEquals(2, spans.size());
+        assertTrue(spans.stream().allMatch(span -> span.getSpanContext().isSampled()));
+    }
+
+    @Test
+    void unsampledFastRequest_shouldNotBeExported() {
+        setUp(0.0, 500);
+
+        request(10);
+
+        assertEquals(0, exported().size());
+    }
+
+    @Test
+    void unsampledSlowRequest_shouldExportTheWholeTrace() {
+        setUp(0.0, 500);
+
+        request(10);
+        request(800);
+
+        List<SpanData> spans = exported();
+        assertEquals(2, spans.size());
+        assertEquals(spans.get(0).getTraceId(), spans.get(1).getTraceId());
+        SpanData root = spans.stream().filter(span -> !span.getParentSpanContext().isValid()).findFirst().orElseThrow();
+        SpanData child = spans.stream().filter(span -> span.getParentSpanContext().isValid()).findFirst().orElseThrow();
+        assertEquals("GET /production/suggestions", root.getName());
+        assertEquals(root.getSpanId(), child.getParentSpanId());
+    }
+
+    @Test
+    void zeroThreshold_shouldDropUnsampledRequests() {
+        setUp(0.0, 0);
+
+        Span root = tracer.spanBuilder("GET /products").startSpan();
+        try (Scope scope = root.makeCurrent()) {
+            assertFalse(root.isRecording());
+            assertFalse(tracer.spanBuilder("ProductService.listAll").startSpan().isRecording());
+        } finally {
+            root.end();
+        }
+        assertEquals(0, exported().size());
+    }
+
+    // A request span with one child span, ending millis after it started.
+    private void request(long millis) {
+        Span root = tracer.spanBuilder("GET /production/suggestions")
+                .setStartTimestamp(START, TimeUnit.NANOSECONDS)
+                .startSpan();
+        try (Scope scope = root.makeCurrent()) {
+            tracer.spanBuilder("SuggestionPlanner.plan")
+                    .setStartTimestamp(START, TimeUnit.NANOSECONDS)
+                    .startSpan()
+                    .end(START + TimeUnit.MILLISECONDS.toNanos(millis / 2), TimeUnit.NANOSECONDS);
+        } finally {
+            root.end(START + TimeUnit.MILLISECONDS.toNanos(millis), TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private List<SpanData> exported() {
+        assertTrue(processor.forceFlush().join(5, TimeUnit.SECONDS).isSuccess());
+        return processor.memory().spans();
+    }
+}
@@ -7,6 +7,7 @@ import { useAppDispatch, useAppSelector } from "@/app/hooks"
 import { selectAuth } from "@/features/auth/authSlice"
 import { logout } from "@/features/auth/authThunks"
 import { queryClient } from "@/lib/queryClient"
+import { startStockChangeSync } from "@/services/changeFeed"
 
 const navLinkClass = ({ isActive }: { isActive: boolean }) =>
   [
@@ -66,6 +67,8 @@ export function AppLayout() {
     }
   }, [notificationsOpen])
 
+  useEffect(() => startStockChangeSync(queryClient), [])
+
   useEffect(() => {
     setSidebarOpen(false)
     setNotificationsOpen(false)
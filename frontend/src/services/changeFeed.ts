@@ -0,0 +1,104 @@
+import type { QueryClient } from "@tanstack/react-query"
+
+import { store } from "@/app/store"
+import { env } from "@/services/env"
+
+export type StockChange = {
+  sequence: number
+  entity?: "PRODUCT" | "RAW_MATERIAL" | "COMPOSITION"
+  id?: string
+  change: "CREATED" | "UPDATED" | "DELETED" | "RESET"
+  stockQuantity?: number
+  price?: number
+}
+
+const RECONNECT_DELAY_MS = 3000
+
+function invalidateFor(qc: QueryClient, changes: StockChange[]) {
+  if (changes.length === 0) return
+
+  if (changes.some((c) => c.change === "RESET")) {
+    void qc.invalidateQueries()
+    return
+  }
+
+  const touchesRawMaterials = changes.some((c) => c.entity === "RAW_MATERIAL")
+  const touchesProducts = changes.some(
+    (c) => c.entity === "PRODUCT" || c.entity === "COMPOSITION",
+  )
+
+  // Product payloads embed raw material stock, so raw material changes refresh both.
+  if (touchesRawMaterials) {
+    void qc.invalidateQueries({ queryKey: ["raw-materials"] })
+  }
+  if (touchesRawMaterials || touchesProducts) {
+    void qc.invalidateQueries({ queryKey: ["products"] })
+    void qc.invalidateQueries({ queryKey: ["product"] })
+    void qc.invalidateQueries({ queryKey: ["production", "suggestions"] })
+  }
+}
+
+// Parses one SSE frame ("id: ...\nevent: ...\ndata: ...").
+function parseFrame(frame: string) {
+  let id: string | null = null
+  const data: string[] = []
+  for (const line of frame.split("\n")) {
+    if (line.startsWith("id:")) id = line.slice(3).trim()
+    else if (line.startsWith("data:")) data.push(line.slice(5).trimStart())
+  }
+  return { id, data: data.join("\n") }
+}
+
+/**
+ * Follows `/changes/stream` and invalidates the affected queries instead of polling.
+ * Uses fetch rather than EventSource so the bearer token can be sent, and resumes
+ * with Last-Event-ID after a disconnect. Returns a function that stops the feed.
+ */
+export function startStockChangeSync(qc: QueryClient) {
+  const controller = new AbortController()
+  let lastEventId: string | null = null
+
+  async function follow() {
+    while (!controller.signal.aborted) {
+      try {
+        const token = store.getState().auth.accessToken
+        const headers: Record<string, string> = { Accept: "text/event-stream" }
+        if (token) headers.Authorization = `Bearer ${token}`
+        if (lastEventId) headers["Last-Event-ID"] = lastEventId
+
+        const res = await fetch(`${env.apiBaseUrl}/changes/stream`, {
+          headers,
+          credentials: "include",
+          signal: controller.signal,
+        })
+        if (!res.ok || !res.body) {
+          throw new Error(`Change feed responded with ${res.status}`)
+        }
+
+        const reader = res.body.pipeThrough(new TextDecoderStream()).getReader()
+        let buffer = ""
+        for (;;) {
+          const { value, done } = await reader.read()
+          if (done) break
+          buffer += value.replace(/\r\n/g, "\n")
+
+          let boundary = buffer.indexOf("\n\n")
+          while (boundary >= 0) {
+            const frame = parseFrame(buffer.slice(0, boundary))
+            buffer = buffer.slice(boundary + 2)
+            if (frame.id) lastEventId = frame.id
+            if (frame.data) invalidateFor(qc, JSON.parse(frame.data) as StockChange[])
+            boundary = buffer.indexOf("\n\n")
+          }
+        }
+      } catch {
+        if (controller.signal.aborted) return
+      }
+
+      await new Promise((resolve) => setTimeout(resolve, RECONNECT_DELAY_MS))
+    }
+  }
+
+  void follow()
+  return () => controller.abort()
+}